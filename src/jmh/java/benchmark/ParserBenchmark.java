@@ -0,0 +1,58 @@
+package benchmark;
+
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+import graphql.parser.ParserOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing operations with the ANTLR parser and with the recursive descent parser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3)
+@Fork(2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+
+    @Param({"large-schema-1-query.graphql", "many-fragments-query.graphql", "extra-large-schema-1-query.graphql"})
+    public String queryPath;
+
+    @Param({"false", "true"})
+    public boolean recursiveDescentParsing;
+
+    private String query;
+    private ParserOptions parserOptions;
+
+    @Setup
+    public void setup() {
+        query = BenchmarkUtils.loadResource(queryPath);
+        parserOptions = ParserOptions.getDefaultOperationParserOptions().transform(builder -> builder
+                .maxCharacters(Integer.MAX_VALUE)
+                .maxTokens(Integer.MAX_VALUE)
+                .recursiveDescentParsing(recursiveDescentParsing));
+    }
+
+    @Benchmark
+    public Document benchmarkParse() {
+        ParserEnvironment parserEnvironment = ParserEnvironment.newParserEnvironment()
+                .document(query)
+                .parserOptions(parserOptions)
+                .build();
+        return Parser.parse(parserEnvironment);
+    }
+}
@@ -0,0 +1,85 @@
+package graphql.execution;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the response map factories.  Run with the {@link GCProfiler} (as {@link #main(String[])} does) and
+ * look at {@code gc.alloc.rate.norm}, which is the bytes allocated per operation, that is per result object.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(2)
+public class ResponseMapFactoryBenchmark {
+
+    @Param({"DEFAULT", "COMPACT"})
+    String factory = "DEFAULT";
+
+    @Param({"3", "10", "30"})
+    int numberOfFields = 10;
+
+    ResponseMapFactory responseMapFactory;
+    List<String> keys;
+    List<Object> values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        responseMapFactory = "COMPACT".equals(factory) ? ResponseMapFactory.COMPACT : ResponseMapFactory.DEFAULT;
+        ImmutableList.Builder<String> keysBuilder = ImmutableList.builder();
+        values = new ArrayList<>();
+        for (int i = 0; i < numberOfFields; i++) {
+            keysBuilder.add("field" + i);
+            values.add("value" + i);
+        }
+        keys = keysBuilder.build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void createResultObject(Blackhole blackhole) {
+        blackhole.consume(responseMapFactory.createInsertionOrdered(keys, values));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void createAndReadResultObject(Blackhole blackhole) {
+        Map<String, Object> map = responseMapFactory.createInsertionOrdered(keys, values);
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            blackhole.consume(entry.getValue());
+        }
+        blackhole.consume(map.get(keys.get(numberOfFields / 2)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include("graphql.execution.ResponseMapFactoryBenchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
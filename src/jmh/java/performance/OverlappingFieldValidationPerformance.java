@@ -90,6 +90,43 @@ public class OverlappingFieldValidationPerformance {
         }
     }
 
+    static String scalingSchemaSdl = "type Query { node: Node } type Node { id: ID name: String child: Node }";
+
+    /**
+     * Generated documents where every one of {@code size} fragments is spread into {@code size} places that are
+     * all merged with each other, so the documents grow with the square of {@code size}.  The validation time should
+     * grow at the same rate, that is about four times when {@code size} doubles.
+     * <p>
+     * To compare two versions of the validation, run the benchmark on each of them with
+     * {@code ./gradlew jmh -PjmhInclude="performance.OverlappingFieldValidationPerformance.benchmarkManyFragmentSpreads"}
+     * and compare the average times of each {@code size}.  How the times grow from one size to the next matters more
+     * than their absolute values, which depend on the machine.  When the fields of each selection set are collected
+     * once and shared by every place it is merged, the time grows about four times per doubling.  If the fragments are
+     * expanded again for every merge, it grows clearly faster than that, and the gap widens with every size.
+     */
+    @State(Scope.Benchmark)
+    public static class ScalingState {
+
+        @Param({"25", "50", "100", "200"})
+        int size;
+
+        GraphQLSchema schema;
+        Document manyFragmentSpreads;
+
+        @Setup
+        public void setup() {
+            schema = SchemaGenerator.createdMockedSchema(scalingSchemaSdl);
+            manyFragmentSpreads = makeManyFragmentSpreadsQuery(size);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void benchmarkManyFragmentSpreads(ScalingState scalingState, Blackhole blackhole) {
+        blackhole.consume(validateQuery(scalingState.schema, scalingState.manyFragmentSpreads));
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.AverageTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -221,6 +258,26 @@ public class OverlappingFieldValidationPerformance {
         return Parser.parse(b.toString());
     }
 
+    private static Document makeManyFragmentSpreadsQuery(int size) {
+        StringBuilder b = new StringBuilder();
+
+        for (int i = 1; i <= size; i++) {
+            b.append("fragment nodeFields" + i + " on Node { id name child { id name } }\n");
+        }
+
+        b.append("query manyFragmentSpreads {");
+        for (int i = 1; i <= size; i++) {
+            b.append(" node { child {");
+            for (int j = 1; j <= size; j++) {
+                b.append(" ...nodeFields" + j);
+            }
+            b.append(" } }\n");
+        }
+        b.append("}");
+
+        return Parser.parse(b.toString());
+    }
+
     private static Document makeDeepAbstractConcreteQuery(int depth) {
         StringBuilder q = new StringBuilder();
 
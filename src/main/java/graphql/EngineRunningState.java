@@ -1,12 +1,18 @@
 package graphql;
 
 import graphql.execution.AbortExecutionException;
+import graphql.execution.CancellationSignal;
 import graphql.execution.EngineRunningObserver;
 import graphql.execution.ExecutionId;
+import graphql.execution.instrumentation.dataloader.BatchExecutionDataLoaderRegistry;
+import org.dataloader.DataLoaderRegistry;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
@@ -198,6 +204,15 @@ public class EngineRunningState {
      * Only used once outside of this class: when the execution starts
      */
     public CompletableFuture<ExecutionResult> engineRun(Supplier<CompletableFuture<ExecutionResult>> engineRun) {
+        CancellationSignal cancellationSignal = executionInput.getCancellationSignal();
+        Instant deadline = executionInput.getDeadline();
+        if (deadline != null) {
+            cancellationSignal.expireAt(deadline);
+        }
+        return engineRunObserved(engineRun).whenComplete((result, throwable) -> cancellationSignal.executionFinished());
+    }
+
+    private CompletableFuture<ExecutionResult> engineRunObserved(Supplier<CompletableFuture<ExecutionResult>> engineRun) {
         if (engineRunningObserver == null) {
             return engineRun.get();
         }
@@ -242,9 +257,20 @@ public class EngineRunningState {
         if (currentThrowable == null) {
             return ifCancelledMakeException();
         }
+        // a future that we cancelled because the operation was cancelled is reported as the cancellation itself
+        if (unwrapCompletionException(currentThrowable) instanceof CancellationException && executionInput.isCancelled()) {
+            return ifCancelledMakeException();
+        }
         return currentThrowable;
     }
 
+    private static Throwable unwrapCompletionException(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
     /**
      * @return a AbortExecutionException if the current operation has been cancelled via {@link ExecutionInput#cancel()}
      */
@@ -256,4 +282,54 @@ public class EngineRunningState {
         return null;
     }
 
+    /**
+     * @return true if the current operation has been cancelled via {@link ExecutionInput#cancel()}
+     */
+    public boolean isCancelled() {
+        return executionInput.isCancelled();
+    }
+
+    /**
+     * @return true if the {@link ExecutionInput#getDeadline()} of the current operation has passed
+     */
+    public boolean isDeadlineExceeded() {
+        return executionInput.getCancellationSignal().isDeadlineExceeded();
+    }
+
+    /**
+     * @return true if the execution is cancellable or has a deadline, so that its outstanding fetches are tracked
+     */
+    public boolean isCancellable() {
+        return executionInput.getCancellationSignal().isArmed();
+    }
+
+    /**
+     * Makes a future that completes with a future returned by a data fetcher, but that is cancelled if the execution
+     * is cancelled, or failed if the deadline passes, before it completes.  The future of the data fetcher is left
+     * alone, since other executions may be waiting on it too.  Unless the execution is cancellable or has a deadline,
+     * this is the given future.
+     *
+     * @param future the outstanding future
+     * @param <T>    the type of the value
+     *
+     * @return the future for the engine to wait on
+     */
+    public <T> CompletableFuture<T> cancelWithExecution(CompletableFuture<T> future) {
+        return executionInput.getCancellationSignal().track(future);
+    }
+
+    /**
+     * Keeps the future of a data loader batch that this execution has dispatched, so that the batch is cancelled along
+     * with the execution.  Batches of a registry that is shared with other executions, as in
+     * {@link GraphQL#executeBatchAsync(java.util.List)}, are not owned by this execution and are left alone.
+     *
+     * @param dataLoaderRegistry the registry the batch was dispatched from
+     * @param dispatchedBatch    the future of the dispatched batch
+     */
+    public void cancelWithExecution(DataLoaderRegistry dataLoaderRegistry, CompletableFuture<?> dispatchedBatch) {
+        if (!(dataLoaderRegistry instanceof BatchExecutionDataLoaderRegistry)) {
+            executionInput.getCancellationSignal().trackDispatchedBatch(dispatchedBatch);
+        }
+    }
+
 }
@@ -30,7 +30,7 @@ public class ExceptionWhileDataFetching implements GraphQLError {
     public ExceptionWhileDataFetching(ResultPath path, Throwable exception, @Nullable SourceLocation sourceLocation) {
         this.path = assertNotNull(path).toList();
         this.exception = assertNotNull(exception);
-        this.locations = Collections.singletonList(sourceLocation);
+        this.locations = sourceLocation == null ? Collections.emptyList() : Collections.singletonList(sourceLocation);
         this.extensions = mkExtensions(exception);
         this.message = mkMessage(path, exception);
     }
@@ -1,6 +1,7 @@
 package graphql;
 
 import graphql.collect.ImmutableKit;
+import graphql.execution.CancellationSignal;
 import graphql.execution.ExecutionId;
 import graphql.execution.RawVariables;
 import graphql.execution.preparsed.persisted.PersistedQuerySupport;
@@ -9,9 +10,9 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.NullUnmarked;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static graphql.Assert.assertNotNull;
@@ -34,7 +35,8 @@ public class ExecutionInput {
     private final DataLoaderRegistry dataLoaderRegistry;
     private final ExecutionId executionId;
     private final Locale locale;
-    private final AtomicBoolean cancelled;
+    private final CancellationSignal cancellationSignal;
+    private final @Nullable Instant deadline;
     private final boolean profileExecution;
 
     /**
@@ -60,8 +62,12 @@ public class ExecutionInput {
         this.locale = builder.locale != null ? builder.locale : Locale.getDefault(); // always have a locale in place
         this.localContext = builder.localContext;
         this.extensions = builder.extensions;
-        this.cancelled = builder.cancelled;
+        this.cancellationSignal = builder.cancellationSignal;
+        this.deadline = builder.deadline;
         this.profileExecution = builder.profileExecution;
+        if (builder.cancellable || builder.deadline != null) {
+            this.cancellationSignal.arm();
+        }
     }
 
     private static String assertQuery(Builder builder) {
@@ -206,20 +212,47 @@ public class ExecutionInput {
      * throw a {@link graphql.execution.AbortExecutionException} to cancel the execution.
      * <p>
      * This is a cooperative cancellation.  Some asynchronous data fetching code may still continue to
-     * run but there will be no more efforts run future field fetches say.
+     * run but there will be no more efforts run future field fetches say, and no more
+     * {@link org.dataloader.DataLoader} dispatches are made.  If the execution was built to be
+     * {@link Builder#cancellable(boolean) cancellable}, the engine also stops waiting on the outstanding
+     * {@link java.util.concurrent.CompletableFuture}s returned by data fetchers and cancels the data loader batches
+     * it has dispatched.
      *
      * @return true if the execution should be cancelled
      */
     public boolean isCancelled() {
-        return cancelled.get();
+        return cancellationSignal.isCancelled();
     }
 
     /**
      * This can be called to cancel the graphql execution.  Remember this is a cooperative cancellation
      * and the graphql engine needs to be running on a thread to allow is to respect this flag.
+     * <p>
+     * If the execution was built to be {@link Builder#cancellable(boolean) cancellable} or has a deadline, the engine
+     * stops waiting on outstanding data fetches straight away, and data fetchers that registered with
+     * {@link graphql.schema.DataFetchingEnvironment#onCancel(Runnable)} are told to stop their work.
      */
     public void cancel() {
-        cancelled.set(true);
+        cancellationSignal.cancel();
+    }
+
+    /**
+     * The deadline of this execution.  Fields whose data fetching has not started by the deadline are not fetched,
+     * and the outstanding {@link java.util.concurrent.CompletableFuture}s returned by data fetchers are completed with a
+     * {@link graphql.execution.DeadlineExceededException}.  Those fields get a {@link graphql.execution.DeadlineExceededError}
+     * and a null value, so the execution completes with the data it has fetched so far.
+     * <p>
+     * Data fetchers can see the deadline via {@link graphql.schema.DataFetchingEnvironment#getRemainingTime()}.
+     *
+     * @return the deadline of this execution or null if it has none
+     */
+    public @Nullable Instant getDeadline() {
+        return deadline;
+    }
+
+    @Internal
+    public CancellationSignal getCancellationSignal() {
+        return cancellationSignal;
     }
 
 
@@ -241,7 +274,8 @@ public class ExecutionInput {
                 .operationName(this.operationName)
                 .context(this.context)
                 .internalTransferContext(this.graphQLContext)
-                .internalTransferCancelBoolean(this.cancelled)
+                .internalTransferCancellationSignal(this.cancellationSignal)
+                .deadline(this.deadline)
                 .localContext(this.localContext)
                 .root(this.root)
                 .dataLoaderRegistry(this.dataLoaderRegistry)
@@ -306,7 +340,9 @@ public class ExecutionInput {
         private DataLoaderRegistry dataLoaderRegistry = EMPTY_DATALOADER_REGISTRY;
         private Locale locale = Locale.getDefault();
         private ExecutionId executionId;
-        private AtomicBoolean cancelled = new AtomicBoolean(false);
+        private CancellationSignal cancellationSignal = new CancellationSignal();
+        private boolean cancellable;
+        private Instant deadline;
         private boolean profileExecution;
 
         /**
@@ -413,8 +449,36 @@ public class ExecutionInput {
         }
 
         // hidden on purpose
-        private Builder internalTransferCancelBoolean(AtomicBoolean cancelled) {
-            this.cancelled = cancelled;
+        private Builder internalTransferCancellationSignal(CancellationSignal cancellationSignal) {
+            this.cancellationSignal = cancellationSignal;
+            return this;
+        }
+
+        /**
+         * Makes this execution cancellable while data fetches are outstanding.  The engine then keeps track of the
+         * futures returned by data fetchers and of the data loader batches it dispatches, so that {@link ExecutionInput#cancel()}
+         * can stop waiting on them and cancel the batches.  This tracking costs a little for every asynchronous
+         * fetch, which is why it is off by default.  Executions with a {@link #deadline(Instant)} are always cancellable.
+         *
+         * @param cancellable true if outstanding fetches should be cancelled when the execution is cancelled
+         *
+         * @return this builder
+         */
+        public Builder cancellable(boolean cancellable) {
+            this.cancellable = cancellable;
+            return this;
+        }
+
+        /**
+         * Sets a deadline for this execution.  Fields that are not fetched by the deadline are null in the result
+         * and have a {@link graphql.execution.DeadlineExceededError}.
+         *
+         * @param deadline the point in time by which the execution should be finished
+         *
+         * @return this builder
+         */
+        public Builder deadline(Instant deadline) {
+            this.deadline = deadline;
             return this;
         }
 
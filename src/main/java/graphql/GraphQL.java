@@ -6,9 +6,12 @@ import graphql.execution.AsyncExecutionStrategy;
 import graphql.execution.AsyncSerialExecutionStrategy;
 import graphql.execution.DataFetcherExceptionHandler;
 import graphql.execution.Execution;
+import graphql.execution.ExecutionCoalescer;
 import graphql.execution.ExecutionId;
 import graphql.execution.ExecutionIdProvider;
 import graphql.execution.ExecutionStrategy;
+import graphql.execution.ParsedQueryCache;
+import graphql.execution.ResponseCache;
 import graphql.execution.SimpleDataFetcherExceptionHandler;
 import graphql.execution.SubscriptionExecutionStrategy;
 import graphql.execution.ValueUnboxer;
@@ -17,29 +20,35 @@ import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.dataloader.BatchExecutionDataLoaderRegistry;
 import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
 import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.execution.preparsed.ParseAndValidateFunction;
 import graphql.execution.preparsed.PreparsedDocumentEntry;
 import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.result.ResultStreamer;
 import graphql.introspection.GoodFaithIntrospection;
 import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import graphql.validation.GoodFaithIntrospectionExceeded;
 import graphql.validation.OperationValidationRule;
 import graphql.validation.QueryComplexityLimits;
+import graphql.validation.ValidationCache;
 import graphql.validation.ValidationError;
+import org.dataloader.DataLoaderRegistry;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
@@ -165,7 +174,11 @@ public class GraphQL {
     private final PreparsedDocumentProvider preparsedDocumentProvider;
     private final ValueUnboxer valueUnboxer;
     private final boolean doNotAutomaticallyDispatchDataLoader;
-
+    private final @Nullable ResponseCache responseCache;
+    private final @Nullable ExecutionCoalescer executionCoalescer;
+    private final @Nullable ValidationCache validationCache;
+    // shared by the response cache and the execution coalescer, so that they parse a query text only once
+    private final @Nullable ParsedQueryCache parsedQueryCache;
 
     private GraphQL(Builder builder) {
         this.graphQLSchema = assertNotNull(builder.graphQLSchema, "graphQLSchema must be non null");
@@ -177,6 +190,10 @@ public class GraphQL {
         this.preparsedDocumentProvider = assertNotNull(builder.preparsedDocumentProvider, "preparsedDocumentProvider must be non null");
         this.valueUnboxer = assertNotNull(builder.valueUnboxer, "valueUnboxer must not be null");
         this.doNotAutomaticallyDispatchDataLoader = builder.doNotAutomaticallyDispatchDataLoader;
+        this.responseCache = builder.responseCache;
+        this.executionCoalescer = builder.executionCoalescer;
+        this.validationCache = builder.validationCache;
+        this.parsedQueryCache = responseCache != null || executionCoalescer != null ? new ParsedQueryCache() : null;
     }
 
     /**
@@ -239,6 +256,30 @@ public class GraphQL {
         return valueUnboxer;
     }
 
+    /**
+     * @return the ResponseCache for this {@link GraphQL} instance, if any
+     */
+    @ExperimentalApi
+    public @Nullable ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * @return the ExecutionCoalescer for this {@link GraphQL} instance, if any
+     */
+    @ExperimentalApi
+    public @Nullable ExecutionCoalescer getExecutionCoalescer() {
+        return executionCoalescer;
+    }
+
+    /**
+     * @return the ValidationCache for this {@link GraphQL} instance, if any
+     */
+    @ExperimentalApi
+    public @Nullable ValidationCache getValidationCache() {
+        return validationCache;
+    }
+
     /**
      * Helps you build a GraphQL object ready to execute queries
      *
@@ -266,7 +307,10 @@ public class GraphQL {
                 .subscriptionExecutionStrategy(this.subscriptionStrategy)
                 .executionIdProvider(this.idProvider)
                 .instrumentation(this.instrumentation)
-                .preparsedDocumentProvider(this.preparsedDocumentProvider);
+                .preparsedDocumentProvider(this.preparsedDocumentProvider)
+                .responseCache(this.responseCache)
+                .executionCoalescer(this.executionCoalescer)
+                .validationCache(this.validationCache);
 
         builderConsumer.accept(builder);
 
@@ -286,6 +330,9 @@ public class GraphQL {
         private PreparsedDocumentProvider preparsedDocumentProvider = NoOpPreparsedDocumentProvider.INSTANCE;
         private boolean doNotAutomaticallyDispatchDataLoader = false;
         private ValueUnboxer valueUnboxer = ValueUnboxer.DEFAULT;
+        private ResponseCache responseCache = null;
+        private ExecutionCoalescer executionCoalescer = null;
+        private ValidationCache validationCache = null;
 
         public Builder(GraphQLSchema graphQLSchema) {
             this.graphQLSchema = graphQLSchema;
@@ -356,6 +403,54 @@ public class GraphQL {
             return this;
         }
 
+        /**
+         * Sets a {@link ResponseCache} that answers repeated query operations with the results of earlier executions,
+         * without parsing, validating or executing them again.  There is no response cache by default.
+         * <p>
+         * A cached result still goes through {@link Instrumentation#createStateAsync}, {@link Instrumentation#instrumentExecutionInput},
+         * {@link Instrumentation#beginExecution} and {@link Instrumentation#instrumentExecutionResult}, but the parsing,
+         * validation, execution and data fetching instrumentation callbacks are not called for it, since none of that
+         * happens.  Results are cached without their extensions, which belong to the execution that made them, so
+         * extensions on a cached result are only those that {@link Instrumentation#instrumentExecutionResult} adds.
+         *
+         * @param responseCache the response cache, or null for none
+         *
+         * @return this builder
+         */
+        @ExperimentalApi
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Sets an {@link ExecutionCoalescer} that runs identical query operations that arrive at the same time only
+         * once, and shares the result with all of them.  There is no execution coalescer by default.
+         *
+         * @param executionCoalescer the execution coalescer, or null for none
+         *
+         * @return this builder
+         */
+        @ExperimentalApi
+        public Builder executionCoalescer(ExecutionCoalescer executionCoalescer) {
+            this.executionCoalescer = executionCoalescer;
+            return this;
+        }
+
+        /**
+         * Sets a {@link ValidationCache} that remembers the shapes of documents that passed validation, so that
+         * documents of the same shape only have their literal values validated again.  There is no validation cache by default.
+         *
+         * @param validationCache the validation cache, or null for none
+         *
+         * @return this builder
+         */
+        @ExperimentalApi
+        public Builder validationCache(ValidationCache validationCache) {
+            this.validationCache = validationCache;
+            return this;
+        }
+
         public GraphQL build() {
             // we use the data fetcher exception handler unless they set their own strategy in which case bets are off
             if (queryExecutionStrategy == null) {
@@ -484,6 +579,49 @@ public class GraphQL {
      * @return a promise to an {@link ExecutionResult} which can include errors
      */
     public CompletableFuture<ExecutionResult> executeAsync(ExecutionInput executionInput) {
+        // a streamed result is written as it executes, so it can not be shared
+        if (executionCoalescer != null && !ResultStreamer.isStreamed(executionInput.getGraphQLContext())) {
+            return executionCoalescer.execute(executionInput, assertNotNull(parsedQueryCache), this::executeAsyncImpl);
+        }
+        return executeAsyncImpl(executionInput);
+    }
+
+    /**
+     * Executes a batch of operations at the same time, as clients that batch their requests send them, and returns
+     * their results in the same order.
+     * <p>
+     * The executions share one {@link DataLoaderRegistry}, made of the {@link org.dataloader.DataLoader}s of the
+     * registries of the execution inputs, where the first registry that has a data loader of a given name wins.
+     * Dispatching is coordinated between the executions, so that the loads of all the operations are batched together.
+     * This works best with the default dispatching, since it dispatches the whole registry.
+     *
+     * @param executionInputs the execution inputs of the operations
+     *
+     * @return a promise to the execution results, in the order of the execution inputs
+     */
+    @ExperimentalApi
+    public CompletableFuture<List<ExecutionResult>> executeBatchAsync(List<ExecutionInput> executionInputs) {
+        DataLoaderRegistry dataLoaderRegistry = BatchExecutionDataLoaderRegistry.combine(executionInputs);
+        BatchExecutionDataLoaderRegistry batchRegistry = dataLoaderRegistry instanceof BatchExecutionDataLoaderRegistry
+                ? (BatchExecutionDataLoaderRegistry) dataLoaderRegistry : null;
+        List<CompletableFuture<ExecutionResult>> executionResults = new ArrayList<>(executionInputs.size());
+        if (batchRegistry != null) {
+            batchRegistry.holdDispatching();
+        }
+        try {
+            for (ExecutionInput executionInput : executionInputs) {
+                ExecutionInput batchExecutionInput = executionInput.transform(builder -> builder.dataLoaderRegistry(dataLoaderRegistry));
+                executionResults.add(Async.tryCatch(() -> executeAsync(batchExecutionInput)));
+            }
+        } finally {
+            if (batchRegistry != null) {
+                batchRegistry.releaseDispatching();
+            }
+        }
+        return Async.allOf(executionResults);
+    }
+
+    private CompletableFuture<ExecutionResult> executeAsyncImpl(ExecutionInput executionInput) {
         Profiler profiler = executionInput.isProfileExecution() ? new ProfilerImpl(executionInput.getGraphQLContext()) : Profiler.NO_OP;
         EngineRunningState engineRunningState = new EngineRunningState(executionInput, profiler);
         return engineRunningState.engineRun(() -> {
@@ -505,7 +643,15 @@ public class GraphQL {
 
                     GraphQLSchema graphQLSchema = instrumentation.instrumentSchema(this.graphQLSchema, instrumentationParameters, instrumentationState);
 
-                    CompletableFuture<ExecutionResult> executionResult = parseValidateAndExecute(instrumentedExecutionInput, graphQLSchema, instrumentationState, engineRunningState, profiler);
+                    CompletableFuture<ExecutionResult> executionResult;
+                    // a streamed result is written as it executes, so it can neither come from nor go into the cache
+                    if (responseCache != null && !ResultStreamer.isStreamed(instrumentedExecutionInput.getGraphQLContext())) {
+                        // the cached results are those of the schema of this instance, before the instrumentation had its say
+                        executionResult = responseCache.execute(instrumentedExecutionInput, this.graphQLSchema, assertNotNull(parsedQueryCache),
+                                input -> parseValidateAndExecute(input, graphQLSchema, instrumentationState, engineRunningState, profiler));
+                    } else {
+                        executionResult = parseValidateAndExecute(instrumentedExecutionInput, graphQLSchema, instrumentationState, engineRunningState, profiler);
+                    }
                     //
                     // finish up instrumentation
                     executionResult = executionResult.whenComplete(completeInstrumentationCtxCF(executionInstrumentation));
@@ -539,29 +685,38 @@ public class GraphQL {
 
     private CompletableFuture<ExecutionResult> parseValidateAndExecute(ExecutionInput executionInput, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState, EngineRunningState engineRunningState, Profiler profiler) {
         AtomicReference<ExecutionInput> executionInputRef = new AtomicReference<>(executionInput);
-        Function<ExecutionInput, PreparsedDocumentEntry> computeFunction = transformedInput -> {
-            // if they change the original query in the pre-parser, then we want to see it downstream from then on
-            executionInputRef.set(transformedInput);
-            return parseAndValidate(executionInputRef, graphQLSchema, instrumentationState);
+        ParseAndValidateFunction computeFunction = new ParseAndValidateFunction() {
+            @Override
+            public PreparsedDocumentEntry apply(ExecutionInput transformedInput) {
+                // if they change the original query in the pre-parser, then we want to see it downstream from then on
+                executionInputRef.set(transformedInput);
+                return parseAndValidate(executionInputRef, null, graphQLSchema, instrumentationState);
+            }
+
+            @Override
+            public PreparsedDocumentEntry validate(ExecutionInput transformedInput, Document document) {
+                executionInputRef.set(transformedInput);
+                return parseAndValidate(executionInputRef, document, graphQLSchema, instrumentationState);
+            }
         };
-        CompletableFuture<PreparsedDocumentEntry> preparsedDoc = preparsedDocumentProvider.getDocumentAsync(executionInput, computeFunction);
+        CompletableFuture<PreparsedDocumentEntry> preparsedDoc = preparsedDocumentProvider.getDocumentAsync(executionInput, graphQLSchema, computeFunction);
         return engineRunningState.compose(preparsedDoc, (preparsedDocumentEntry -> {
             if (preparsedDocumentEntry.hasErrors()) {
                 return CompletableFuture.completedFuture(new ExecutionResultImpl(preparsedDocumentEntry.getErrors()));
             }
             try {
-                return execute(Assert.assertNotNull(executionInputRef.get()), assertNotNull(preparsedDocumentEntry.getDocument(), "document must not be null"), graphQLSchema, instrumentationState, engineRunningState, profiler);
+                return execute(Assert.assertNotNull(executionInputRef.get()), preparsedDocumentEntry, graphQLSchema, instrumentationState, engineRunningState, profiler);
             } catch (AbortExecutionException e) {
                 return CompletableFuture.completedFuture(e.toExecutionResult());
             }
         }));
     }
 
-    private PreparsedDocumentEntry parseAndValidate(AtomicReference<ExecutionInput> executionInputRef, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private PreparsedDocumentEntry parseAndValidate(AtomicReference<ExecutionInput> executionInputRef, @Nullable Document parsedDocument, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
 
         ExecutionInput executionInput = assertNotNull(executionInputRef.get());
 
-        ParseAndValidateResult parseResult = parse(executionInput, graphQLSchema, instrumentationState);
+        ParseAndValidateResult parseResult = parse(executionInput, parsedDocument, graphQLSchema, instrumentationState);
         if (parseResult.isFailure()) {
             return new PreparsedDocumentEntry(assertNotNull(parseResult.getSyntaxException(), "Parse result syntax exception cannot be null when failed").toInvalidSyntaxError());
         } else {
@@ -584,12 +739,18 @@ public class GraphQL {
         }
     }
 
-    private ParseAndValidateResult parse(ExecutionInput executionInput, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private ParseAndValidateResult parse(ExecutionInput executionInput, @Nullable Document parsedDocument, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
         InstrumentationExecutionParameters parameters = new InstrumentationExecutionParameters(executionInput, graphQLSchema);
         InstrumentationContext<Document> parseInstrumentationCtx = nonNullCtx(instrumentation.beginParse(parameters, instrumentationState));
         parseInstrumentationCtx.onDispatched();
 
-        ParseAndValidateResult parseResult = ParseAndValidate.parse(executionInput);
+        // the preparsed document provider, the response cache or the execution coalescer may have parsed the query already
+        if (parsedDocument == null && parsedQueryCache != null) {
+            parsedDocument = parsedQueryCache.getParsedDocument(executionInput);
+        }
+        ParseAndValidateResult parseResult = parsedDocument != null
+                ? ParseAndValidateResult.newResult().document(parsedDocument).variables(executionInput.getVariables()).build()
+                : ParseAndValidate.parse(executionInput);
         if (parseResult.isFailure()) {
             parseInstrumentationCtx.onCompleted(null, parseResult.getSyntaxException());
             return parseResult;
@@ -617,14 +778,19 @@ public class GraphQL {
             validationRulePredicate = rule -> rule != OperationValidationRule.GOOD_FAITH_INTROSPECTION && existing.test(rule);
         }
 
-        List<ValidationError> validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale, limits);
+        List<ValidationError> validationErrors;
+        if (validationCache != null) {
+            validationErrors = validationCache.validate(graphQLSchema, document, validationRulePredicate, locale, limits);
+        } else {
+            validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale, limits);
+        }
 
         validationCtx.onCompleted(validationErrors, null);
         return validationErrors;
     }
 
     private CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput,
-                                                       Document document,
+                                                       PreparsedDocumentEntry preparsedDocumentEntry,
                                                        GraphQLSchema graphQLSchema,
                                                        InstrumentationState instrumentationState,
                                                        EngineRunningState engineRunningState,
@@ -634,7 +800,9 @@ public class GraphQL {
         Execution execution = new Execution(queryStrategy, mutationStrategy, subscriptionStrategy, instrumentation, valueUnboxer, doNotAutomaticallyDispatchDataLoader);
         ExecutionId executionId = executionInput.getExecutionId();
 
-        return execution.execute(document, graphQLSchema, executionId, executionInput, instrumentationState, engineRunningState, profiler);
+        Document document = assertNotNull(preparsedDocumentEntry.getDocument(), "document must not be null");
+
+        return execution.execute(document, preparsedDocumentEntry.getExecutionPlanCache(), graphQLSchema, executionId, executionInput, instrumentationState, engineRunningState, profiler);
     }
 
 }
@@ -1,12 +1,18 @@
 package graphql;
 
+import graphql.execution.ExecutionPlanContextKeys;
 import graphql.execution.ResponseMapFactory;
 import graphql.execution.incremental.IncrementalExecutionContextKeys;
 import graphql.introspection.GoodFaithIntrospection;
 import graphql.parser.ParserOptions;
 import graphql.schema.PropertyDataFetcherHelper;
 
+import java.time.Duration;
+
 import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+import static graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_BATCH_SIZE;
+import static graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_WINDOW;
 import static graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_CHAINING;
 import static graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING;
 
@@ -277,6 +283,13 @@ public class GraphQLUnusualConfiguration {
             return new ResponseMapFactoryConfig(this);
         }
 
+        /**
+         * @return an element that allows you to control how execution plans are compiled and reused
+         */
+        public ExecutionPlanConfig executionPlan() {
+            return new ExecutionPlanConfig(this);
+        }
+
         private void put(String named, Object value) {
             if (graphQLContext != null) {
                 graphQLContext.put(named, value);
@@ -376,14 +389,39 @@ public class GraphQLUnusualConfiguration {
 
         /**
          * Enables a dispatching strategy that will dispatch as long as there is no
-         * other data fetcher or batch loader running.
+         * other data fetcher or batch loader running.  It can not be enabled together with windowed dispatching.
          */
         @ExperimentalApi
         public DataloaderConfig enableDataLoaderExhaustedDispatching(boolean enable) {
+            assertTrue(!enable || getDataLoaderDispatchWindow() == null, "exhausted dispatching can not be enabled together with windowed dispatching");
             contextConfig.put(ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING, enable);
             return this;
         }
 
+        /**
+         * @return the time window of the windowed dispatching or null if it is not enabled
+         */
+        public Duration getDataLoaderDispatchWindow() {
+            return contextConfig.get(DATA_LOADER_DISPATCH_WINDOW);
+        }
+
+        /**
+         * Enables a dispatching strategy that dispatches a {@link org.dataloader.DataLoader} as soon as it has
+         * {@code batchSize} pending loads, and all the data loaders when the time window has passed since loads
+         * started pending, whichever comes first.  This means a slow data fetcher does not hold back the batches of
+         * faster ones for longer than the window.  It can not be enabled together with exhausted dispatching.
+         *
+         * @param window    the time that pending loads wait at most before they are dispatched
+         * @param batchSize the number of pending loads at which a data loader is dispatched straight away
+         */
+        @ExperimentalApi
+        public DataloaderConfig enableDataLoaderWindowedDispatching(Duration window, int batchSize) {
+            assertTrue(!contextConfig.getBoolean(ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING), "windowed dispatching can not be enabled together with exhausted dispatching");
+            contextConfig.put(DATA_LOADER_DISPATCH_WINDOW, assertNotNull(window));
+            contextConfig.put(DATA_LOADER_DISPATCH_BATCH_SIZE, batchSize);
+            return this;
+        }
+
 
     }
 
@@ -409,5 +447,39 @@ public class GraphQLUnusualConfiguration {
             contextConfig.put(ResponseMapFactory.class.getCanonicalName(), factory);
             return this;
         }
+
+        /**
+         * This uses the {@link ResponseMapFactory#COMPACT} factory for this request, whose immutable result maps share
+         * their keys between all the objects of a selection
+         */
+        @ExperimentalApi
+        public ResponseMapFactoryConfig useCompactFactory() {
+            return setFactory(ResponseMapFactory.COMPACT);
+        }
+    }
+
+    public static class ExecutionPlanConfig extends BaseContextConfig {
+        private ExecutionPlanConfig(GraphQLContextConfiguration contextConfig) {
+            super(contextConfig);
+        }
+
+        /**
+         * @return true if compiled field plans are enabled for this execution
+         */
+        public boolean isCompiledFieldPlansEnabled() {
+            return contextConfig.getBoolean(ExecutionPlanContextKeys.ENABLE_COMPILED_FIELD_PLANS);
+        }
+
+        /**
+         * This controls whether field definitions, data fetchers and literal arguments are resolved once per selection
+         * and object type and reused, rather than being looked up for every object.  Since data fetchers are then obtained
+         * from the {@link graphql.schema.GraphQLCodeRegistry} once and reused, this is only suitable for
+         * {@link graphql.schema.DataFetcherFactory}s that return the same data fetcher every time.
+         */
+        @ExperimentalApi
+        public ExecutionPlanConfig enableCompiledFieldPlans(boolean enable) {
+            contextConfig.put(ExecutionPlanContextKeys.ENABLE_COMPILED_FIELD_PLANS, enable);
+            return this;
+        }
     }
 }
@@ -97,7 +97,7 @@ public class GraphqlErrorBuilder<B extends GraphqlErrorBuilder<B>> implements Gr
     }
 
     public B location(@Nullable SourceLocation location) {
-        if (locations != null) {
+        if (locations != null && location != null) {
             this.locations.add(location);
         }
         return (B) this;
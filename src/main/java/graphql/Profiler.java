@@ -1,12 +1,14 @@
 package graphql;
 
 import graphql.execution.EngineRunningObserver;
-import graphql.execution.ResultPath;
+import graphql.execution.ExecutionStrategyParameters;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.language.OperationDefinition;
 import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLType;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
@@ -28,7 +30,22 @@ public interface Profiler {
 
     }
 
-    default void fieldFetched(Object fetchedObject, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher, ResultPath path, GraphQLFieldDefinition fieldDef, GraphQLOutputType parentType) {
+    /**
+     * @return the start time of a field fetch that is then passed to {@link #fieldFetched}
+     */
+    default long fieldFetchStarting() {
+        return 0L;
+    }
+
+    default void fieldFetched(Object fetchedObject, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, GraphQLOutputType parentType, long fetchStartTime) {
+
+    }
+
+    default void fieldResultCacheHit(GraphQLObjectType parentType, GraphQLFieldDefinition fieldDef) {
+
+    }
+
+    default void fieldUsedDataLoader(GraphQLType parentType, GraphQLFieldDefinition fieldDef, int level) {
 
     }
 
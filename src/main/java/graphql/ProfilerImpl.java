@@ -2,15 +2,18 @@ package graphql;
 
 import graphql.execution.EngineRunningObserver;
 import graphql.execution.ExecutionId;
-import graphql.execution.ResultPath;
+import graphql.execution.ExecutionStrategyParameters;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys;
 import graphql.introspection.Introspection;
 import graphql.language.OperationDefinition;
+import graphql.schema.BatchedDataFetcher;
 import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLTypeUtil;
 import graphql.schema.PropertyDataFetcher;
 import graphql.schema.SingletonPropertyDataFetcher;
@@ -62,8 +65,13 @@ public class ProfilerImpl implements Profiler {
 
 
     @Override
-    public void fieldFetched(Object fetchedObject, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher, ResultPath path, GraphQLFieldDefinition fieldDef, GraphQLOutputType parentType) {
-        String key = "/" + String.join("/", path.getKeysOnly());
+    public long fieldFetchStarting() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void fieldFetched(Object fetchedObject, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, GraphQLOutputType parentType, long fetchStartTime) {
+        String key = "/" + String.join("/", parameters.getPath().getKeysOnly());
         if (Introspection.isIntrospectionTypes(GraphQLTypeUtil.unwrapAll(fieldDef.getType()))
                 || Introspection.isIntrospectionTypes(GraphQLTypeUtil.unwrapAll(parentType))
                 || fieldDef.getName().equals(Introspection.SchemaMetaFieldDef.getName())
@@ -93,11 +101,39 @@ public class ProfilerImpl implements Profiler {
                 dataFetcherResultType = ProfilerResult.DataFetcherResultType.MATERIALIZED;
             }
             profilerResult.setDataFetcherResultType(key, dataFetcherResultType);
+            // batched data fetchers are fetched for many sources at once, so they are no candidates for N+1 fetching
+            if (!(originalDataFetcher instanceof BatchedDataFetcher)) {
+                recordCustomFetch(fetchedObject, parameters, fieldDef, parentType, fetchStartTime);
+            }
         }
 
         profilerResult.setDataFetcherType(key, dataFetcherType);
     }
 
+    private void recordCustomFetch(Object fetchedObject, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, GraphQLOutputType parentType, long fetchStartTime) {
+        ProfilerResult.FieldFetches fieldFetches = profilerResult.getFieldFetches(coordinates(parentType, fieldDef), parameters.getPathLevel());
+        Object source = parameters.getSource();
+        if (fetchedObject instanceof CompletableFuture && !((CompletableFuture<?>) fetchedObject).isDone()) {
+            ((CompletableFuture<?>) fetchedObject).whenComplete((result, throwable) -> fieldFetches.addFetch(source, System.nanoTime() - fetchStartTime));
+        } else {
+            fieldFetches.addFetch(source, System.nanoTime() - fetchStartTime);
+        }
+    }
+
+    @Override
+    public void fieldResultCacheHit(GraphQLObjectType parentType, GraphQLFieldDefinition fieldDef) {
+        profilerResult.addFieldResultCacheHit(coordinates(parentType, fieldDef));
+    }
+
+    @Override
+    public void fieldUsedDataLoader(GraphQLType parentType, GraphQLFieldDefinition fieldDef, int level) {
+        profilerResult.getFieldFetches(coordinates(parentType, fieldDef), level).dataLoaderUsed();
+    }
+
+    private static String coordinates(GraphQLType parentType, GraphQLFieldDefinition fieldDef) {
+        return GraphQLTypeUtil.unwrapAll(parentType).getName() + "." + fieldDef.getName();
+    }
+
     @Override
     public EngineRunningObserver wrapEngineRunningObserver(@Nullable EngineRunningObserver engineRunningObserver) {
         // nothing to wrap here
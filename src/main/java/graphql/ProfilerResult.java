@@ -8,6 +8,8 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ExperimentalApi
 @NullMarked
@@ -57,6 +60,10 @@ public class ProfilerResult {
     // the type of the data fetcher result field, key is the field path
     // in theory different DataFetcher invocations can return different types, but we only record the first one
     private final Map<String, DataFetcherResultType> dataFetcherResultType = new ConcurrentHashMap<>();
+    // this is the count of how many times a field was resolved from its FieldResultCache per field coordinates
+    private final Map<String, Integer> fieldResultCacheHits = new ConcurrentHashMap<>();
+    // the fetches of custom data fetchers per field coordinates and level, which is what N+1 fetching is spotted in
+    private final Map<String, Map<Integer, FieldFetches>> fieldFetches = new ConcurrentHashMap<>();
 
     public void setInstrumentationClasses(List<String> instrumentationClasses) {
         this.instrumentationClasses.addAll(instrumentationClasses);
@@ -111,6 +118,99 @@ public class ProfilerResult {
         }
     }
 
+    /**
+     * A field whose custom data fetcher was called for many different source objects on the same level of the query,
+     * without using a {@link org.dataloader.DataLoader}.  Such fields are the ones to batch.
+     */
+    public static class NPlusOneField {
+        final String fieldCoordinates;
+        final int level;
+        final int invocationCount;
+        final int sourceCount;
+        final long totalTimeNs;
+
+        public NPlusOneField(String fieldCoordinates, int level, int invocationCount, int sourceCount, long totalTimeNs) {
+            this.fieldCoordinates = fieldCoordinates;
+            this.level = level;
+            this.invocationCount = invocationCount;
+            this.sourceCount = sourceCount;
+            this.totalTimeNs = totalTimeNs;
+        }
+
+        /**
+         * @return the coordinates of the field, like {@code Type.field}
+         */
+        public String getFieldCoordinates() {
+            return fieldCoordinates;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public int getInvocationCount() {
+            return invocationCount;
+        }
+
+        /**
+         * @return how many different source objects the data fetcher was called for
+         */
+        public int getSourceCount() {
+            return sourceCount;
+        }
+
+        /**
+         * @return the sum of the times the invocations took to complete
+         */
+        public long getTotalTimeNs() {
+            return totalTimeNs;
+        }
+
+        @Override
+        public String toString() {
+            return "NPlusOneField{" +
+                    "fieldCoordinates='" + fieldCoordinates + '\'' +
+                    ", level=" + level +
+                    ", invocationCount=" + invocationCount +
+                    ", sourceCount=" + sourceCount +
+                    ", totalTimeNs=" + totalTimeNs +
+                    '}';
+        }
+    }
+
+    static class FieldFetches {
+        private final AtomicInteger invocationCount = new AtomicInteger();
+        private final AtomicLong totalTimeNs = new AtomicLong();
+        // the source objects by identity, so that the same object fetched under several aliases counts once.  They
+        // are only held while the execution runs and then only their count is kept, see releaseSources()
+        private @Nullable Set<@Nullable Object> sources = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int sourceCount;
+        private volatile boolean dataLoaderUsed;
+
+        void addFetch(@Nullable Object source, long timeNs) {
+            invocationCount.incrementAndGet();
+            totalTimeNs.addAndGet(timeNs);
+            synchronized (this) {
+                if (sources != null) {
+                    sources.add(source);
+                    sourceCount = sources.size();
+                }
+            }
+        }
+
+        synchronized int getSourceCount() {
+            return sourceCount;
+        }
+
+        synchronized void releaseSources() {
+            sources = null;
+        }
+
+        void dataLoaderUsed() {
+            dataLoaderUsed = true;
+        }
+    }
+
     public enum DataFetcherType {
         WRAPPED_TRIVIAL_DATA_FETCHER,
         TRIVIAL_DATA_FETCHER,
@@ -150,6 +250,11 @@ public class ProfilerResult {
         dataFetcherInvocationCount.compute(key, (k, v) -> v == null ? 1 : v + 1);
     }
 
+    FieldFetches getFieldFetches(String fieldCoordinates, int level) {
+        return fieldFetches.computeIfAbsent(fieldCoordinates, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(level, k -> new FieldFetches());
+    }
+
     void addFieldFetched(String fieldPath) {
         fieldsFetched.add(fieldPath);
     }
@@ -162,6 +267,8 @@ public class ProfilerResult {
         this.startTime = startTime;
         this.endTime = endTime;
         this.engineTotalRunningTime = engineTotalRunningTime;
+        // the execution has finished, so the source objects need not be kept alive by this result any longer
+        fieldFetches.values().forEach(fetchesPerLevel -> fetchesPerLevel.values().forEach(FieldFetches::releaseSources));
     }
 
     void setOperation(OperationDefinition operationDefinition) {
@@ -173,6 +280,10 @@ public class ProfilerResult {
         dataLoaderLoadInvocations.compute(dataLoaderName, (k, v) -> v == null ? 1 : v + 1);
     }
 
+    void addFieldResultCacheHit(String fieldCoordinates) {
+        fieldResultCacheHits.compute(fieldCoordinates, (k, v) -> v == null ? 1 : v + 1);
+    }
+
     void oldStrategyDispatchingAll(int level) {
         oldStrategyDispatchingAll.add(level);
     }
@@ -249,6 +360,14 @@ public class ProfilerResult {
         return dataFetcherResultType;
     }
 
+    /**
+     * @return how many times a field was resolved from its {@link graphql.schema.FieldResultCache} instead of its
+     * data fetcher, per field coordinates
+     */
+    public Map<String, Integer> getFieldResultCacheHits() {
+        return fieldResultCacheHits;
+    }
+
     public Map<String, Integer> getDataLoaderLoadInvocations() {
         return dataLoaderLoadInvocations;
     }
@@ -270,6 +389,39 @@ public class ProfilerResult {
         return instrumentationClasses;
     }
 
+    /**
+     * The fields whose custom data fetcher was called for more than one source object on the same level of the query,
+     * without the data fetcher using a {@link org.dataloader.DataLoader}.  The fields are ordered by the time
+     * their invocations took, longest first.
+     *
+     * @return the fields that are fetched N+1 style
+     */
+    public List<NPlusOneField> getNPlusOneFields() {
+        List<NPlusOneField> result = new ArrayList<>();
+        fieldFetches.forEach((fieldCoordinates, fetchesPerLevel) -> fetchesPerLevel.forEach((level, fetches) -> {
+            int sourceCount = fetches.getSourceCount();
+            if (!fetches.dataLoaderUsed && sourceCount > 1) {
+                result.add(new NPlusOneField(fieldCoordinates, level, fetches.invocationCount.get(), sourceCount, fetches.totalTimeNs.get()));
+            }
+        }));
+        result.sort(Comparator.comparingLong(NPlusOneField::getTotalTimeNs).reversed());
+        return result;
+    }
+
+    public List<Map<String, Object>> getNPlusOneFieldsAsMap() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (NPlusOneField field : getNPlusOneFields()) {
+            Map<String, Object> fieldMap = new LinkedHashMap<>();
+            fieldMap.put("field", field.getFieldCoordinates());
+            fieldMap.put("level", field.getLevel());
+            fieldMap.put("invocationCount", field.getInvocationCount());
+            fieldMap.put("sourceCount", field.getSourceCount());
+            fieldMap.put("totalTimeNs", field.getTotalTimeNs());
+            result.add(fieldMap);
+        }
+        return result;
+    }
+
 
     public Map<String, Object> shortSummaryMap() {
         Map<String, Object> result = new LinkedHashMap<>();
@@ -290,6 +442,8 @@ public class ProfilerResult {
         result.put("oldStrategyDispatchingAll", oldStrategyDispatchingAll);
         result.put("dispatchEvents", getDispatchEventsAsMap());
         result.put("instrumentationClasses", instrumentationClasses);
+        result.put("nPlusOneFields", getNPlusOneFieldsAsMap());
+        result.put("fieldResultCacheHits", fieldResultCacheHits);
         int completedCount = 0;
         int completedInvokeCount = 0;
         int notCompletedCount = 0;
@@ -7,13 +7,19 @@ import org.jspecify.annotations.NullMarked;
 import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.result.ResultStreamer;
 import graphql.introspection.Introspection;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLTypeUtil;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
+import static graphql.Assert.assertNotNull;
+
 /**
  * The standard graphql execution strategy that runs fields asynchronously non-blocking.
  */
@@ -55,6 +61,12 @@ public class AsyncExecutionStrategy extends AbstractAsyncExecutionStrategy {
         }
 
         DeferredExecutionSupport deferredExecutionSupport = createDeferredExecutionSupport(executionContext, parameters);
+        ResultStreamer resultStreamer = executionContext.getResultStreamer();
+        boolean streamResult = resultStreamer != null
+                && parameters.getPath().isRootPath()
+                && deferredExecutionSupport.getNonDeferredFieldNames(fieldNames).size() == fieldNames.size()
+                && hasOnlyNullableFields(executionContext, parameters)
+                && resultStreamer.startRootFields(fieldNames);
 
         dataLoaderDispatcherStrategy.executionStrategy(executionContext, parameters, deferredExecutionSupport.getNonDeferredFieldNames(fieldNames).size());
         Async.CombinedBuilder<FieldValueInfo> futures = getAsyncFieldValueInfo(executionContext, parameters, deferredExecutionSupport);
@@ -76,8 +88,13 @@ public class AsyncExecutionStrategy extends AbstractAsyncExecutionStrategy {
             }
 
             Async.CombinedBuilder<Object> fieldValuesFutures = Async.ofExpectedSize(completeValueInfos.size());
-            for (FieldValueInfo completeValueInfo : completeValueInfos) {
-                fieldValuesFutures.addObject(completeValueInfo.getFieldValueObject());
+            for (int i = 0; i < completeValueInfos.size(); i++) {
+                Object fieldValueObject = completeValueInfos.get(i).getFieldValueObject();
+                if (streamResult) {
+                    // the value is written as soon as it and the fields before it have completed, and null takes its place
+                    fieldValueObject = assertNotNull(resultStreamer).streamRootField(i, fieldValueObject);
+                }
+                fieldValuesFutures.addObject(fieldValueObject);
             }
             dataLoaderDispatcherStrategy.executionStrategyOnFieldValuesInfo(completeValueInfos, parameters);
             executionStrategyCtx.onFieldValuesInfo(completeValueInfos);
@@ -96,4 +113,17 @@ public class AsyncExecutionStrategy extends AbstractAsyncExecutionStrategy {
         return overallResult;
     }
 
+    // a null in a non-null root field makes the whole data null, so a root field can only be written early if none is
+    private boolean hasOnlyNullableFields(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        GraphQLObjectType rootType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
+        for (MergedField mergedField : parameters.getFields().getSubFieldsList()) {
+            GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), rootType, mergedField.getSingleField());
+            // __typename is non-null, but it can not be null either
+            if (GraphQLTypeUtil.isNonNull(fieldDef.getType()) && fieldDef != Introspection.TypeNameMetaFieldDef) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,106 @@
+package graphql.execution;
+
+import graphql.Internal;
+import graphql.schema.BatchedDataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gathers the fields that use a {@link BatchedDataFetcher} until a {@link DataLoaderDispatchStrategy} decides to
+ * fetch them, at which point each batched data fetcher is called once with the environments of its fields.
+ */
+@Internal
+@NullMarked
+public class BatchedFieldFetches {
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private Map<BatchedDataFetcher<?>, Batch> batches = new IdentityHashMap<>();
+    private int size;
+
+    private static class Batch {
+        private final List<DataFetchingEnvironment> environments = new ArrayList<>();
+        private final List<CompletableFuture<Object>> futures = new ArrayList<>();
+    }
+
+    /**
+     * Adds a field to the batch of its data fetcher
+     *
+     * @param dataFetcher the batched data fetcher of the field
+     * @param environment the data fetching environment of the field
+     *
+     * @return a promise of the value of the field, which completes once the batch has been fetched
+     */
+    public CompletableFuture<Object> add(BatchedDataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        lock.runLocked(() -> {
+            Batch batch = batches.computeIfAbsent(dataFetcher, key -> new Batch());
+            batch.environments.add(environment);
+            batch.futures.add(future);
+            size++;
+        });
+        return future;
+    }
+
+    /**
+     * @return the number of fields waiting to be fetched
+     */
+    public int size() {
+        return lock.callLocked(() -> size);
+    }
+
+    /**
+     * Fetches all the batches gathered so far.  Fields that are added meanwhile go into the next batches.
+     *
+     * @return the promises of the batches that were fetched
+     */
+    public List<CompletableFuture<?>> fetchAll() {
+        Map<BatchedDataFetcher<?>, Batch> toFetch = lock.callLocked(() -> {
+            Map<BatchedDataFetcher<?>, Batch> current = batches;
+            if (!current.isEmpty()) {
+                batches = new IdentityHashMap<>();
+                size = 0;
+            }
+            return current;
+        });
+        if (toFetch.isEmpty()) {
+            return List.of();
+        }
+        List<CompletableFuture<?>> fetched = new ArrayList<>(toFetch.size());
+        toFetch.forEach((dataFetcher, batch) -> fetched.add(fetch(dataFetcher, batch)));
+        return fetched;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<?> fetch(BatchedDataFetcher<?> dataFetcher, Batch batch) {
+        CompletableFuture<List<Object>> values;
+        try {
+            values = ((BatchedDataFetcher<Object>) dataFetcher).getBatch(batch.environments).toCompletableFuture();
+        } catch (Exception e) {
+            values = Async.exceptionallyCompletedFuture(e);
+        }
+        return values.whenComplete((list, throwable) -> complete(batch, list, throwable));
+    }
+
+    private static void complete(Batch batch, @Nullable List<Object> values, @Nullable Throwable throwable) {
+        List<CompletableFuture<Object>> futures = batch.futures;
+        if (throwable == null && (values == null || values.size() != futures.size())) {
+            throwable = new IllegalStateException(String.format("A batched data fetcher must return one value for each of its %d environments but it returned %s",
+                    futures.size(), values == null ? "null" : values.size() + " values"));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            if (throwable != null) {
+                futures.get(i).completeExceptionally(throwable);
+            } else {
+                futures.get(i).complete(values.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package graphql.execution;
+
+import graphql.Internal;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The cancellation state of an {@link graphql.ExecutionInput}, which is shared by all the transformed copies of that
+ * input.
+ * <p>
+ * Besides the cancelled flag that the engine checks between steps, an armed signal keeps track of the futures that
+ * data fetchers have returned and that are still outstanding.  The engine waits on a dependent future of its own for
+ * each of them, and it is these dependent futures that are cancelled when the execution is cancelled, so the engine
+ * stops waiting.  The futures of the data fetchers themselves are never touched, because they are not owned by this
+ * execution - they may be {@link org.dataloader.DataLoader} cache entries or values memoised by the application that
+ * other executions are waiting on too.  What the execution does own are the batches it has dispatched, and these are
+ * cancelled too.  Data fetchers that want to stop their own work can register a callback with {@link #onCancel(Runnable)}.
+ * <p>
+ * A signal is armed when the execution has a deadline or was built to be cancellable, see
+ * {@link graphql.ExecutionInput.Builder#cancellable(boolean)}.  Executions that can not be cancelled this way do not pay
+ * for tracking their futures, and a cancel only sets the flag.
+ * <p>
+ * When the deadline of the execution passes, the dependent futures are completed with a {@link DeadlineExceededException}
+ * instead, and the execution carries on with the fields it has fetched so far.  The timer of the deadline is cancelled
+ * when the execution finishes, so finished executions are not kept alive until their deadline.
+ */
+@Internal
+@NullMarked
+public class CancellationSignal {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile boolean armed;
+    private volatile boolean deadlineExceeded;
+    private final Set<CompletableFuture<?>> inFlightFutures = ConcurrentHashMap.newKeySet();
+    private final Set<CompletableFuture<?>> dispatchedBatches = ConcurrentHashMap.newKeySet();
+    private volatile @Nullable ScheduledFuture<?> deadlineTimer;
+    // guarded by this, and null once the callbacks have been run
+    private @Nullable List<Runnable> cancelCallbacks = new ArrayList<>();
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * @return true if the deadline of the execution has passed
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    /**
+     * Makes this signal track the outstanding futures of the execution, so that they can be cancelled
+     */
+    public void arm() {
+        armed = true;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            for (CompletableFuture<?> inFlightFuture : inFlightFutures) {
+                inFlightFuture.cancel(true);
+            }
+            cancelDispatchedBatches();
+            runCancelCallbacks();
+        }
+    }
+
+    /**
+     * Registers a callback that is run once, when the execution is cancelled or its deadline passes, or straight away
+     * if that has already happened.  Callbacks that have not run by the time the execution finishes are dropped.
+     *
+     * @param callback the callback to run
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (this) {
+            if (cancelCallbacks != null && !cancelled.get() && !deadlineExceeded) {
+                cancelCallbacks.add(callback);
+                return;
+            }
+        }
+        // a cancel or deadline that raced with the check above has taken the callbacks already
+        if (cancelled.get() || deadlineExceeded) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Arranges for the outstanding futures to be completed with a {@link DeadlineExceededException} when the deadline
+     * passes, or straight away if it already has
+     *
+     * @param deadline the deadline of the execution
+     */
+    public void expireAt(Instant deadline) {
+        long delayNanos = Duration.between(Instant.now(), deadline).toNanos();
+        if (delayNanos <= 0) {
+            deadlineExceeded();
+        } else {
+            // the timer thread only hands over, the engine carries on in the common pool
+            deadlineTimer = DeadlineTimer.INSTANCE.schedule(() -> ForkJoinPool.commonPool().execute(this::deadlineExceeded), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Called when the execution has finished, to cancel the timer of the deadline and let go of any futures still tracked
+     */
+    public void executionFinished() {
+        ScheduledFuture<?> timer = deadlineTimer;
+        if (timer != null) {
+            timer.cancel(false);
+            deadlineTimer = null;
+        }
+        inFlightFutures.clear();
+        dispatchedBatches.clear();
+        synchronized (this) {
+            if (cancelCallbacks != null) {
+                cancelCallbacks.clear();
+            }
+        }
+    }
+
+    private void deadlineExceeded() {
+        deadlineExceeded = true;
+        for (CompletableFuture<?> inFlightFuture : inFlightFutures) {
+            inFlightFuture.completeExceptionally(new DeadlineExceededException());
+        }
+        cancelDispatchedBatches();
+        runCancelCallbacks();
+    }
+
+    private void cancelDispatchedBatches() {
+        for (CompletableFuture<?> dispatchedBatch : dispatchedBatches) {
+            dispatchedBatch.cancel(true);
+        }
+    }
+
+    private void runCancelCallbacks() {
+        List<Runnable> callbacks;
+        synchronized (this) {
+            callbacks = cancelCallbacks;
+            cancelCallbacks = null;
+        }
+        if (callbacks != null) {
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * Makes a future that completes with the given future, or earlier if this signal is cancelled or the deadline passes
+     * in the meantime.  The given future itself is left alone.  If this signal is not armed, the given future is
+     * returned as is.
+     *
+     * @param future the outstanding future
+     * @param <T>    the type of the value
+     *
+     * @return a future owned by the caller to wait on instead of the given one
+     */
+    public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        if (!armed || future.isDone()) {
+            return future;
+        }
+        CompletableFuture<T> dependentFuture = new CompletableFuture<>();
+        inFlightFutures.add(dependentFuture);
+        dependentFuture.whenComplete((result, throwable) -> inFlightFutures.remove(dependentFuture));
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                dependentFuture.completeExceptionally(throwable);
+            } else {
+                dependentFuture.complete(result);
+            }
+        });
+        // a cancel or deadline that raced with the add above may not have seen this future
+        if (cancelled.get()) {
+            dependentFuture.cancel(true);
+        } else if (deadlineExceeded) {
+            dependentFuture.completeExceptionally(new DeadlineExceededException());
+        }
+        return dependentFuture;
+    }
+
+    /**
+     * Keeps a batch that the execution has dispatched, so that it is cancelled if the execution is cancelled or the
+     * deadline passes before the batch completes.  Only batches of data loaders that belong to this execution alone
+     * should be given here.
+     *
+     * @param dispatchedBatch the future of the dispatched batch
+     */
+    public void trackDispatchedBatch(CompletableFuture<?> dispatchedBatch) {
+        if (!armed || dispatchedBatch.isDone()) {
+            return;
+        }
+        dispatchedBatches.add(dispatchedBatch);
+        dispatchedBatch.whenComplete((result, throwable) -> dispatchedBatches.remove(dispatchedBatch));
+        if (cancelled.get() || deadlineExceeded) {
+            dispatchedBatch.cancel(true);
+        }
+    }
+
+    private static class DeadlineTimer {
+        private static final ScheduledThreadPoolExecutor INSTANCE = newDeadlineTimer();
+
+        private static ScheduledThreadPoolExecutor newDeadlineTimer() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "graphql-java-deadline-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // cancelled timers are dropped straight away rather than when they would have fired
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
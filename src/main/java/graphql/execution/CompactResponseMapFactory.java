@@ -0,0 +1,124 @@
+package graphql.execution;
+
+import graphql.Internal;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * Implements the contract of {@link ResponseMapFactory} with immutable, insertion ordered maps that only hold an
+ * array of values.  The execution creates the maps of a selection with the {@link ResponseKeys} of its
+ * {@link MergedSelectionSet}, whose keys and key to index lookup are then shared by all of them.  Any other list of keys
+ * gets keys of its own.
+ * <p>
+ * The factory holds no state, so the shared keys live as long as the selection does, which is for as long as its
+ * execution or its cached execution plan is around.
+ */
+@Internal
+@NullMarked
+public class CompactResponseMapFactory implements ResponseMapFactory {
+
+    @Override
+    public Map<String, @Nullable Object> createInsertionOrdered(List<String> keys, List<@Nullable Object> values) {
+        assertTrue(keys.size() == values.size(), "keys and values must be the same size");
+        ResponseKeys responseKeys = keys instanceof ResponseKeys ? (ResponseKeys) keys : new ResponseKeys(keys);
+        return new CompactMap(responseKeys, values.toArray());
+    }
+
+    private static class CompactMap extends AbstractMap<String, @Nullable Object> {
+        private final ResponseKeys keys;
+        private final @Nullable Object[] values;
+
+        private CompactMap(ResponseKeys keys, @Nullable Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return values.length == 0;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return keys.indexOf(key) >= 0;
+        }
+
+        @Override
+        public @Nullable Object get(@Nullable Object key) {
+            int index = keys.indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super @Nullable Object> action) {
+            for (int i = 0; i < values.length; i++) {
+                action.accept(keys.get(i), values[i]);
+            }
+        }
+
+        @Override
+        public Set<Entry<String, @Nullable Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, @Nullable Object>> iterator() {
+                    return new Iterator<>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, @Nullable Object> next() {
+                            if (index >= values.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = index++;
+                            return new SimpleImmutableEntry<>(keys.get(i), values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            for (int i = 0; i < values.length; i++) {
+                hashCode += keys.get(i).hashCode() ^ (values[i] == null ? 0 : values[i].hashCode());
+            }
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (o instanceof CompactMap && ((CompactMap) o).keys == keys) {
+                return Arrays.equals(values, ((CompactMap) o).values);
+            }
+            return super.equals(o);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package graphql.execution;
 
 import graphql.Internal;
 import graphql.execution.incremental.AlternativeCallContext;
+import graphql.schema.BatchedDataFetcher;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 @Internal
@@ -56,6 +58,13 @@ public interface DataLoaderDispatchStrategy {
 
     }
 
+    /**
+     * Called instead of {@link BatchedDataFetcher#get(graphql.schema.DataFetchingEnvironment)} so that the strategy can
+     * gather the field into a batch, and fetch that batch when it dispatches.  By default, the field is fetched on its own.
+     */
+    default CompletableFuture<?> fetchBatched(ExecutionStrategyParameters parameters, BatchedDataFetcher<?> dataFetcher, DataFetchingEnvironment environment) throws Exception {
+        return dataFetcher.get(environment);
+    }
 
     default void newSubscriptionExecution(AlternativeCallContext alternativeCallContext) {
 
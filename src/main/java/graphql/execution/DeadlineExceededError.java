@@ -0,0 +1,74 @@
+package graphql.execution;
+
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorHelper;
+import graphql.PublicApi;
+import graphql.language.SourceLocation;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+import static graphql.collect.ImmutableKit.emptyList;
+
+/**
+ * This error is placed in the result for a field that was not fetched, or whose fetch did not complete, before the
+ * deadline of the execution passed.  The field value is null and, like any other field error, that null
+ * propagates to the nearest nullable parent field.
+ *
+ * @see graphql.ExecutionInput#getDeadline()
+ */
+@PublicApi
+@NullMarked
+public class DeadlineExceededError implements GraphQLError {
+
+    private final String message;
+    private final List<Object> path;
+    private final List<SourceLocation> locations;
+
+    public DeadlineExceededError(ResultPath path, @Nullable SourceLocation sourceLocation) {
+        this.message = "The execution deadline passed before the field at '" + path + "' was fetched";
+        this.path = path.toList();
+        this.locations = sourceLocation == null ? emptyList() : List.of(sourceLocation);
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public List<Object> getPath() {
+        return path;
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return locations;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.ExecutionAborted;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadlineExceededError{" +
+                "message='" + message + '\'' +
+                ", path=" + path +
+                '}';
+    }
+
+    @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+    @Override
+    public boolean equals(Object o) {
+        return GraphqlErrorHelper.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return GraphqlErrorHelper.hashCode(this);
+    }
+}
@@ -0,0 +1,21 @@
+package graphql.execution;
+
+import graphql.GraphQLException;
+import graphql.PublicApi;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * The exception that outstanding data fetcher futures are completed with when the deadline of the execution passes.
+ * The engine reports such fields with a {@link DeadlineExceededError} rather than passing the exception to the
+ * {@link DataFetcherExceptionHandler}.
+ *
+ * @see graphql.ExecutionInput#getDeadline()
+ */
+@PublicApi
+@NullMarked
+public class DeadlineExceededException extends GraphQLException {
+
+    public DeadlineExceededException() {
+        super("The execution deadline has passed");
+    }
+}
@@ -22,10 +22,12 @@ import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys;
 import graphql.execution.instrumentation.dataloader.ExhaustedDataLoaderDispatchStrategy;
 import graphql.execution.instrumentation.dataloader.PerLevelDataLoaderDispatchStrategy;
+import graphql.execution.instrumentation.dataloader.WindowedDataLoaderDispatchStrategy;
 import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationReactiveResultsParameters;
 import graphql.execution.reactive.ReactiveSupport;
+import graphql.execution.result.ResultStreamer;
 import graphql.extensions.ExtensionsBuilder;
 import graphql.incremental.DelayedIncrementalPartialResult;
 import graphql.incremental.IncrementalExecutionResultImpl;
@@ -41,6 +43,7 @@ import graphql.util.FpKit;
 import org.jspecify.annotations.NonNull;
 import org.reactivestreams.Publisher;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -83,6 +86,10 @@ public class Execution {
     }
 
     public CompletableFuture<ExecutionResult> execute(Document document, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState, EngineRunningState engineRunningState, Profiler profiler) {
+        return execute(document, new ExecutionPlanCache(), graphQLSchema, executionId, executionInput, instrumentationState, engineRunningState, profiler);
+    }
+
+    public CompletableFuture<ExecutionResult> execute(Document document, ExecutionPlanCache executionPlanCache, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState, EngineRunningState engineRunningState, Profiler profiler) {
         NodeUtil.GetOperationResult getOperationResult;
         CoercedVariables coercedVariables;
         Supplier<NormalizedVariables> normalizedVariableValues;
@@ -136,10 +143,12 @@ public class Execution {
                 .locale(locale)
                 .valueUnboxer(valueUnboxer)
                 .responseMapFactory(responseMapFactory)
+                .resultStreamer(ResultStreamer.get(graphQLContext))
                 .executionInput(executionInput)
                 .propagapropagateErrorsOnNonNullContractFailureeErrors(propagateErrorsOnNonNullContractFailure)
                 .engineRunningState(engineRunningState)
                 .profiler(profiler)
+                .executionPlanCache(executionPlanCache)
                 .build();
 
         executionContext.getGraphQLContext().put(ResultNodesInfo.RESULT_NODES_INFO, executionContext.getResultNodesInfo());
@@ -204,7 +213,8 @@ public class Execution {
                 .graphQLContext(graphQLContext)
                 .build();
 
-        MergedSelectionSet fields = fieldCollector.collectFields(
+        MergedSelectionSet fields = executionContext.getExecutionPlanCache().collectFields(
+                fieldCollector,
                 collectorParameters,
                 operationDefinition.getSelectionSet(),
                 executionContext.hasIncrementalSupport()
@@ -284,15 +294,29 @@ public class Execution {
     }
 
     private DataLoaderDispatchStrategy createDataLoaderDispatchStrategy(ExecutionContext executionContext, ExecutionStrategy executionStrategy) {
-        if (executionContext.getDataLoaderRegistry() == EMPTY_DATALOADER_REGISTRY || doNotAutomaticallyDispatchDataLoader) {
+        // batched data fetchers are dispatched like data loaders, so they need a strategy even without a registry
+        boolean noDataLoaders = executionContext.getDataLoaderRegistry() == EMPTY_DATALOADER_REGISTRY
+                && !executionContext.getGraphQLSchema().getCodeRegistry().hasBatchedDataFetchers();
+        if (noDataLoaders || doNotAutomaticallyDispatchDataLoader) {
             return DataLoaderDispatchStrategy.NO_OP;
         }
+        Duration dispatchWindow = executionContext.getGraphQLContext().get(DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_WINDOW);
         if (executionContext.getGraphQLContext().getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING, false)) {
             if (executionContext.getGraphQLContext().getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_CHAINING, false)) {
                 throw new GraphQLException("enabling data loader chaining and exhausted dispatching at the same time ambiguous");
             }
+            if (dispatchWindow != null) {
+                throw new GraphQLException("enabling exhausted and windowed data loader dispatching at the same time ambiguous");
+            }
             return new ExhaustedDataLoaderDispatchStrategy(executionContext);
         }
+        if (dispatchWindow != null) {
+            if (executionContext.getGraphQLContext().getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_CHAINING, false)) {
+                throw new GraphQLException("enabling data loader chaining and windowed dispatching at the same time ambiguous");
+            }
+            Integer batchSize = executionContext.getGraphQLContext().get(DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_BATCH_SIZE);
+            return new WindowedDataLoaderDispatchStrategy(executionContext, dispatchWindow, batchSize != null ? batchSize : Integer.MAX_VALUE);
+        }
         return new PerLevelDataLoaderDispatchStrategy(executionContext);
     }
 
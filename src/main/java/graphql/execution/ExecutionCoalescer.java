@@ -0,0 +1,135 @@
+package graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * Runs identical query operations that arrive while one of them is still executing only once, and gives all of them
+ * the result of that one execution.  This protects the backends of a schema from bursts of the same requests, for
+ * example when a popular page is loaded by many clients at once or when a cache in front of the server was just emptied.
+ * <p>
+ * Operations are identical when they have the same query text, operation name and variables, and the same coalescing
+ * key, which the coalescing key function works out from the {@link ExecutionInput}.  Since the other requests get the
+ * result of the execution that ran with the {@link ExecutionInput} of the first request, the coalescing key must tell
+ * apart everything in the execution input that changes the result, like the user, the locale or the tenant of a
+ * request, which is why there is no default coalescing key function.
+ * <p>
+ * Only query operations are coalesced, and an operation is only shared while it executes, nothing is kept after it
+ * has completed.  An execution coalescer is set via {@link graphql.GraphQL.Builder#executionCoalescer(ExecutionCoalescer)}.
+ */
+@ExperimentalApi
+@NullMarked
+public class ExecutionCoalescer {
+
+    private final Function<ExecutionInput, @Nullable Object> coalescingKeyFunction;
+    private final Map<Object, CompletableFuture<ExecutionResult>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private ExecutionCoalescer(Builder builder) {
+        this.coalescingKeyFunction = builder.coalescingKeyFunction;
+    }
+
+    /**
+     * Shares the execution of an identical operation that is still executing, or executes the execution input
+     *
+     * @param executionInput   the execution input
+     * @param parsedQueryCache the parsed queries of the {@link graphql.GraphQL} instance
+     * @param execution        the function that executes the execution input
+     *
+     * @return a promise to the execution result
+     */
+    @Internal
+    public CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput, ParsedQueryCache parsedQueryCache, Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution) {
+        String query = executionInput.getQuery();
+        Object coalescingKey = coalescingKeyFunction.apply(executionInput);
+        if (coalescingKey == null || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            return execution.apply(executionInput);
+        }
+        // invalid queries are left to the engine to report
+        ParsedQueryCache.ParsedQuery parsedQuery = parsedQueryCache.get(executionInput);
+        if (parsedQuery == null || !parsedQuery.isQueryOperation()) {
+            return execution.apply(executionInput);
+        }
+
+        Object key = Arrays.asList(query, executionInput.getOperationName(), executionInput.getVariables(), coalescingKey);
+        CompletableFuture<ExecutionResult> newExecution = new CompletableFuture<>();
+        CompletableFuture<ExecutionResult> existingExecution = inFlight.putIfAbsent(key, newExecution);
+        if (existingExecution != null) {
+            coalescedCount.increment();
+            // a copy, so that the callers can not complete the shared execution for each other
+            return existingExecution.copy();
+        }
+
+        CompletableFuture<ExecutionResult> executionResult;
+        try {
+            executionResult = execution.apply(executionInput);
+        } catch (RuntimeException e) {
+            executionResult = CompletableFuture.failedFuture(e);
+        }
+        executionResult.whenComplete((result, throwable) -> {
+            inFlight.remove(key, newExecution);
+            if (throwable != null) {
+                newExecution.completeExceptionally(throwable);
+            } else {
+                newExecution.complete(result);
+            }
+        });
+        return newExecution.copy();
+    }
+
+    /**
+     * @return the number of executions that got the result of an identical execution instead of executing
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * @return the number of distinct operations that are executing right now
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * The coalescing key function works out the part of the key executions are shared by from the things in the
+     * execution input that change the result but are not part of the query or the variables, like the user or the
+     * locale.  It must return a value with proper equals and hashCode methods, or null if the execution should not be
+     * shared.
+     *
+     * @param coalescingKeyFunction the function from execution inputs to keys
+     *
+     * @return a new builder of {@link ExecutionCoalescer}s
+     */
+    public static Builder newExecutionCoalescer(Function<ExecutionInput, Object> coalescingKeyFunction) {
+        return new Builder(coalescingKeyFunction);
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private final Function<ExecutionInput, Object> coalescingKeyFunction;
+
+        private Builder(Function<ExecutionInput, Object> coalescingKeyFunction) {
+            this.coalescingKeyFunction = assertNotNull(coalescingKeyFunction, "coalescingKeyFunction must not be null");
+        }
+
+        public ExecutionCoalescer build() {
+            return new ExecutionCoalescer(this);
+        }
+    }
+}
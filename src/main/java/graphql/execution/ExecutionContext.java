@@ -15,7 +15,9 @@ import graphql.execution.directives.OperationDirectivesResolver;
 import graphql.execution.directives.QueryAppliedDirective;
 import graphql.execution.incremental.IncrementalCallState;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationKit;
 import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.result.ResultStreamer;
 import graphql.language.Document;
 import graphql.language.FragmentDefinition;
 import graphql.language.OperationDefinition;
@@ -61,6 +63,7 @@ public class ExecutionContext {
     private final GraphQLContext graphQLContext;
     private final @Nullable Object localContext;
     private final Instrumentation instrumentation;
+    private final boolean fieldInstrumentation;
     private final AtomicReference<ImmutableList<GraphQLError>> errors = new AtomicReference<>(ImmutableKit.emptyList());
     private final LockKit.ReentrantLock errorsLock = new LockKit.ReentrantLock();
     private final Set<ResultPath> errorPaths = new HashSet<>();
@@ -69,6 +72,7 @@ public class ExecutionContext {
     private final IncrementalCallState incrementalCallState = new IncrementalCallState();
     private final ValueUnboxer valueUnboxer;
     private final ResponseMapFactory responseMapFactory;
+    private final @Nullable ResultStreamer resultStreamer;
 
     private final ExecutionInput executionInput;
     private final Supplier<ExecutableNormalizedOperation> queryTree;
@@ -83,6 +87,7 @@ public class ExecutionContext {
     private final Supplier<Map<OperationDefinition, ImmutableList<QueryAppliedDirective>>> allOperationsDirectives;
     private final Supplier<Map<String, ImmutableList<QueryAppliedDirective>>> operationDirectives;
     private final Profiler profiler;
+    private final ExecutionPlanCache executionPlanCache;
 
     ExecutionContext(ExecutionContextBuilder builder) {
         this.graphQLSchema = builder.graphQLSchema;
@@ -100,10 +105,12 @@ public class ExecutionContext {
         this.graphQLContext = builder.graphQLContext;
         this.root = builder.root;
         this.instrumentation = builder.instrumentation;
+        this.fieldInstrumentation = instrumentation == null || InstrumentationKit.hasFieldCallbacks(instrumentation);
         this.dataLoaderRegistry = builder.dataLoaderRegistry;
         this.locale = builder.locale;
         this.valueUnboxer = builder.valueUnboxer;
         this.responseMapFactory = builder.responseMapFactory;
+        this.resultStreamer = builder.resultStreamer;
         this.errors.set(builder.errors);
         this.localContext = builder.localContext;
         this.executionInput = builder.executionInput;
@@ -111,6 +118,7 @@ public class ExecutionContext {
         this.propagateErrorsOnNonNullContractFailure = builder.propagateErrorsOnNonNullContractFailure;
         this.engineRunningState = builder.engineRunningState;
         this.profiler = builder.profiler;
+        this.executionPlanCache = builder.executionPlanCache != null ? builder.executionPlanCache : new ExecutionPlanCache();
         // lazy loading for performance
         this.queryTree = mkExecutableNormalizedOperation();
         this.allOperationsDirectives = builder.allOperationsDirectives;
@@ -344,6 +352,14 @@ public class ExecutionContext {
         return responseMapFactory;
     }
 
+    /**
+     * @return the result streamer that writes the data of this execution while it runs, or null if the result is not streamed
+     */
+    @Internal
+    public @Nullable ResultStreamer getResultStreamer() {
+        return resultStreamer;
+    }
+
     /**
      * @return the total list of errors for this execution context
      */
@@ -415,6 +431,14 @@ public class ExecutionContext {
         return graphqlContext != null && graphqlContext.getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT);
     }
 
+    /**
+     * @return true if the instrumentation of this execution wants to be called back for each field
+     */
+    @Internal
+    public boolean hasFieldInstrumentation() {
+        return fieldInstrumentation;
+    }
+
     @Internal
     public EngineRunningState getEngineRunningState() {
         return engineRunningState;
@@ -432,6 +456,11 @@ public class ExecutionContext {
         return profiler;
     }
 
+    @Internal
+    public ExecutionPlanCache getExecutionPlanCache() {
+        return executionPlanCache;
+    }
+
     @Internal
     void throwIfCancelled() throws AbortExecutionException {
         engineRunningState.throwIfCancelled();
@@ -13,6 +13,7 @@ import graphql.collect.ImmutableKit;
 import graphql.execution.directives.QueryAppliedDirective;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.result.ResultStreamer;
 import graphql.language.Document;
 import graphql.language.FragmentDefinition;
 import graphql.language.OperationDefinition;
@@ -56,7 +57,9 @@ public class ExecutionContextBuilder {
     boolean propagateErrorsOnNonNullContractFailure = true;
     EngineRunningState engineRunningState;
     ResponseMapFactory responseMapFactory = ResponseMapFactory.DEFAULT;
+    @Nullable ResultStreamer resultStreamer;
     Profiler profiler;
+    ExecutionPlanCache executionPlanCache;
     Supplier<Map<OperationDefinition, ImmutableList<QueryAppliedDirective>>> allOperationsDirectives = Collections::emptyMap;
 
     /**
@@ -107,7 +110,9 @@ public class ExecutionContextBuilder {
         propagateErrorsOnNonNullContractFailure = other.propagateErrorsOnNonNullContractFailure();
         engineRunningState = other.getEngineRunningState();
         responseMapFactory = other.getResponseMapFactory();
+        resultStreamer = other.getResultStreamer();
         profiler = other.getProfiler();
+        executionPlanCache = other.getExecutionPlanCache();
     }
 
     public ExecutionContextBuilder instrumentation(Instrumentation instrumentation) {
@@ -239,6 +244,12 @@ public class ExecutionContextBuilder {
         return this;
     }
 
+    @Internal
+    public ExecutionContextBuilder resultStreamer(@Nullable ResultStreamer resultStreamer) {
+        this.resultStreamer = resultStreamer;
+        return this;
+    }
+
     public ExecutionContextBuilder resetErrors() {
         this.errors = emptyList();
         return this;
@@ -260,6 +271,12 @@ public class ExecutionContextBuilder {
         return this;
     }
 
+    @Internal
+    public ExecutionContextBuilder executionPlanCache(ExecutionPlanCache executionPlanCache) {
+        this.executionPlanCache = executionPlanCache;
+        return this;
+    }
+
     public ExecutionContextBuilder operationDirectives(Supplier<Map<OperationDefinition, ImmutableList<QueryAppliedDirective>>> allOperationsDirectives) {
         this.allOperationsDirectives = allOperationsDirectives;
         return this;
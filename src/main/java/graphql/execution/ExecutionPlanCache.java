@@ -0,0 +1,268 @@
+package graphql.execution;
+
+import graphql.GraphQLContext;
+import graphql.Internal;
+import graphql.execution.conditional.ConditionalNodeDecision;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.DirectivesContainer;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static graphql.Directives.IncludeDirective;
+import static graphql.Directives.SkipDirective;
+
+/**
+ * Execution results that only depend on the document being executed (and not on the data being fetched) can be
+ * memoized here and reused for every object in a list and, when the cache is held by a
+ * {@link graphql.execution.preparsed.PreparsedDocumentEntry}, across executions of the same document.
+ * <p>
+ * Field collection for a selection is keyed on the identity of the AST nodes, the schema, the concrete object type and
+ * the values of any variables used by {@code @skip} and {@code @include} directives in that selection, since those are
+ * the only inputs to {@link FieldCollector} when incremental delivery and custom
+ * {@link ConditionalNodeDecision}s are not in play.
+ * <p>
+ * Since a memoized {@link MergedSelectionSet} is only ever produced for one object type, it can in turn be compiled
+ * into {@link FieldPlan}s once.  Selection sets that were not produced by this cache never get plans.
+ */
+@Internal
+@NullMarked
+public class ExecutionPlanCache {
+
+    private final Map<SelectionKey, CollectedSelection> collectedSelections = new ConcurrentHashMap<>();
+    private final Map<IdentityKey, CompiledSelection> compiledSelections = new ConcurrentHashMap<>();
+
+    public MergedSelectionSet collectFields(FieldCollector fieldCollector, FieldCollectorParameters parameters, MergedField mergedField, boolean incrementalSupport) {
+        if (!isCacheable(parameters, incrementalSupport)) {
+            return fieldCollector.collectFields(parameters, mergedField, incrementalSupport);
+        }
+        List<Field> fields = mergedField.getFields();
+        SelectionKey key = new SelectionKey(fields.toArray(), parameters.getGraphQLSchema(), parameters.getObjectType());
+        CollectedSelection collectedSelection = collectedSelections.computeIfAbsent(key, k -> new CollectedSelection(conditionalVariableNames(fields, parameters.getFragmentsByName())));
+        List<Object> variableValues = collectedSelection.variableValues(parameters.getVariables());
+        MergedSelectionSet mergedSelectionSet = collectedSelection.get(variableValues);
+        if (mergedSelectionSet == null) {
+            mergedSelectionSet = fieldCollector.collectFields(parameters, mergedField, false);
+            collectedSelection.put(variableValues, mergedSelectionSet);
+            compiledSelections.putIfAbsent(new IdentityKey(mergedSelectionSet), new CompiledSelection());
+        }
+        return mergedSelectionSet;
+    }
+
+    public MergedSelectionSet collectFields(FieldCollector fieldCollector, FieldCollectorParameters parameters, SelectionSet selectionSet, boolean incrementalSupport) {
+        if (!isCacheable(parameters, incrementalSupport)) {
+            return fieldCollector.collectFields(parameters, selectionSet, incrementalSupport);
+        }
+        SelectionKey key = new SelectionKey(new Object[]{selectionSet}, parameters.getGraphQLSchema(), parameters.getObjectType());
+        CollectedSelection collectedSelection = collectedSelections.computeIfAbsent(key, k -> {
+            Set<String> variableNames = new LinkedHashSet<>();
+            collectConditionalVariableNames(selectionSet, parameters.getFragmentsByName(), new LinkedHashSet<>(), variableNames);
+            return new CollectedSelection(variableNames.toArray(new String[0]));
+        });
+        List<Object> variableValues = collectedSelection.variableValues(parameters.getVariables());
+        MergedSelectionSet mergedSelectionSet = collectedSelection.get(variableValues);
+        if (mergedSelectionSet == null) {
+            mergedSelectionSet = fieldCollector.collectFields(parameters, selectionSet, false);
+            collectedSelection.put(variableValues, mergedSelectionSet);
+            compiledSelections.putIfAbsent(new IdentityKey(mergedSelectionSet), new CompiledSelection());
+        }
+        return mergedSelectionSet;
+    }
+
+    /**
+     * Returns the field plans of a selection set that was memoized by this cache, compiling them on first use.
+     *
+     * @param mergedSelectionSet the selection set to get plans for
+     * @param compiler           compiles the plans of the selection set, in the order of {@link MergedSelectionSet#getKeys()}
+     *
+     * @return the field plans or null if the selection set was not produced by this cache
+     */
+    public FieldPlan @Nullable [] getFieldPlans(MergedSelectionSet mergedSelectionSet, Function<MergedSelectionSet, FieldPlan[]> compiler) {
+        CompiledSelection compiledSelection = compiledSelections.get(new IdentityKey(mergedSelectionSet));
+        if (compiledSelection == null) {
+            return null;
+        }
+        FieldPlan[] fieldPlans = compiledSelection.fieldPlans;
+        if (fieldPlans == null) {
+            // racing compilations produce equivalent plans so the last one can win
+            fieldPlans = compiler.apply(mergedSelectionSet);
+            compiledSelection.fieldPlans = fieldPlans;
+        }
+        return fieldPlans;
+    }
+
+    private static boolean isCacheable(FieldCollectorParameters parameters, boolean incrementalSupport) {
+        // deferred executions are created fresh per collection and custom decisions can depend on anything
+        if (incrementalSupport) {
+            return false;
+        }
+        GraphQLContext graphQLContext = parameters.getGraphQLContext();
+        return graphQLContext == null || graphQLContext.get(ConditionalNodeDecision.class) == null;
+    }
+
+    private static String[] conditionalVariableNames(List<Field> fields, Map<String, FragmentDefinition> fragmentsByName) {
+        Set<String> variableNames = new LinkedHashSet<>();
+        Set<String> visitedFragments = new LinkedHashSet<>();
+        for (Field field : fields) {
+            if (field.getSelectionSet() != null) {
+                collectConditionalVariableNames(field.getSelectionSet(), fragmentsByName, visitedFragments, variableNames);
+            }
+        }
+        return variableNames.toArray(new String[0]);
+    }
+
+    private static void collectConditionalVariableNames(SelectionSet selectionSet, Map<String, FragmentDefinition> fragmentsByName, Set<String> visitedFragments, Set<String> variableNames) {
+        for (Selection selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                addConditionalVariableNames((Field) selection, variableNames);
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                addConditionalVariableNames(inlineFragment, variableNames);
+                collectConditionalVariableNames(inlineFragment.getSelectionSet(), fragmentsByName, visitedFragments, variableNames);
+            } else if (selection instanceof FragmentSpread) {
+                collectFragmentSpreadVariableNames((FragmentSpread) selection, fragmentsByName, visitedFragments, variableNames);
+            }
+        }
+    }
+
+    private static void collectFragmentSpreadVariableNames(FragmentSpread fragmentSpread, Map<String, FragmentDefinition> fragmentsByName, Set<String> visitedFragments, Set<String> variableNames) {
+        addConditionalVariableNames(fragmentSpread, variableNames);
+        FragmentDefinition fragmentDefinition = fragmentsByName.get(fragmentSpread.getName());
+        if (fragmentDefinition == null || !visitedFragments.add(fragmentSpread.getName())) {
+            return;
+        }
+        addConditionalVariableNames(fragmentDefinition, variableNames);
+        collectConditionalVariableNames(fragmentDefinition.getSelectionSet(), fragmentsByName, visitedFragments, variableNames);
+    }
+
+    private static void addConditionalVariableNames(DirectivesContainer<?> directivesContainer, Set<String> variableNames) {
+        for (Directive directive : directivesContainer.getDirectives()) {
+            if (!directive.getName().equals(SkipDirective.getName()) && !directive.getName().equals(IncludeDirective.getName())) {
+                continue;
+            }
+            Argument ifArgument = directive.getArgument("if");
+            if (ifArgument != null && ifArgument.getValue() instanceof VariableReference) {
+                variableNames.add(((VariableReference) ifArgument.getValue()).getName());
+            }
+        }
+    }
+
+    private static class CollectedSelection {
+        private final String[] conditionalVariableNames;
+        private volatile @Nullable MergedSelectionSet unconditional;
+        private final Map<List<Object>, MergedSelectionSet> byVariableValues;
+
+        private CollectedSelection(String[] conditionalVariableNames) {
+            this.conditionalVariableNames = conditionalVariableNames;
+            this.byVariableValues = conditionalVariableNames.length == 0 ? Map.of() : new ConcurrentHashMap<>();
+        }
+
+        private List<Object> variableValues(Map<String, Object> variables) {
+            if (conditionalVariableNames.length == 0) {
+                return List.of();
+            }
+            List<Object> values = new ArrayList<>(conditionalVariableNames.length);
+            for (String variableName : conditionalVariableNames) {
+                values.add(variables.get(variableName));
+            }
+            return values;
+        }
+
+        private @Nullable MergedSelectionSet get(List<Object> variableValues) {
+            if (conditionalVariableNames.length == 0) {
+                return unconditional;
+            }
+            return byVariableValues.get(variableValues);
+        }
+
+        private void put(List<Object> variableValues, MergedSelectionSet mergedSelectionSet) {
+            if (conditionalVariableNames.length == 0) {
+                unconditional = mergedSelectionSet;
+            } else {
+                byVariableValues.put(variableValues, mergedSelectionSet);
+            }
+        }
+    }
+
+    private static class CompiledSelection {
+        private volatile FieldPlan @Nullable [] fieldPlans;
+    }
+
+    private static class IdentityKey {
+        private final Object object;
+
+        private IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+
+    private static class SelectionKey {
+        private final Object[] nodes;
+        private final GraphQLSchema schema;
+        private final GraphQLObjectType objectType;
+        private final int hashCode;
+
+        private SelectionKey(Object[] nodes, GraphQLSchema schema, GraphQLObjectType objectType) {
+            this.nodes = nodes;
+            this.schema = schema;
+            this.objectType = objectType;
+            int hash = 31 * System.identityHashCode(schema) + System.identityHashCode(objectType);
+            for (Object node : nodes) {
+                hash = 31 * hash + System.identityHashCode(node);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SelectionKey)) {
+                return false;
+            }
+            SelectionKey that = (SelectionKey) o;
+            if (hashCode != that.hashCode || schema != that.schema || objectType != that.objectType || nodes.length != that.nodes.length) {
+                return false;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] != that.nodes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
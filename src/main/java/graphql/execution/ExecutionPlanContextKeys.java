@@ -0,0 +1,26 @@
+package graphql.execution;
+
+
+import graphql.Internal;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * GraphQLContext keys for controlling how execution plans are compiled and reused.
+ */
+@Internal
+@NullMarked
+public final class ExecutionPlanContextKeys {
+    private ExecutionPlanContextKeys() {
+    }
+
+    /**
+     * Enables compiled field plans, where field definitions, data fetchers and literal arguments are resolved once
+     * per selection and object type instead of once per object.  When the document comes from a caching
+     * {@link graphql.execution.preparsed.PreparsedDocumentProvider} the plans are reused across executions.
+     * Defaults to false.
+     * <p>
+     * Expects a boolean value.
+     */
+    public static final String ENABLE_COMPILED_FIELD_PLANS = "__GJ_enable_compiled_field_plans";
+
+}
@@ -31,6 +31,20 @@ public class ExecutionStepInfoFactory {
         return executionInfo.transform(typeInList, executionInfo, indexedPath);
     }
 
+    /**
+     * Creates the info of a list element whose path is the path of the list plus the index, which is only created if asked for
+     *
+     * @param executionInfo the info of the list
+     * @param index         the index of the element in the list
+     *
+     * @return a new type info
+     */
+    public ExecutionStepInfo newExecutionStepInfoForListElement(ExecutionStepInfo executionInfo, int index) {
+        GraphQLList fieldType = executionInfo.getUnwrappedNonNullTypeAs();
+        GraphQLOutputType typeInList = (GraphQLOutputType) fieldType.getWrappedType();
+        return executionInfo.transformForListElement(typeInList, index);
+    }
+
     /**
      * Builds the type info hierarchy for the current field
      *
@@ -54,19 +68,36 @@ public class ExecutionStepInfoFactory {
         // no need to create args at all if there are none on the field def
         //
         if (!fieldArgDefs.isEmpty()) {
-            argumentValues = getArgumentValues(executionContext, fieldArgDefs, field.getArguments());
+            FieldPlan fieldPlan = parameters.getFieldPlan();
+            if (fieldPlan != null && fieldPlan.hasConstantArguments() && fieldPlan.getMergedField() == field && fieldPlan.getFieldDefinition() == fieldDefinition) {
+                argumentValues = getConstantArgumentValues(executionContext, fieldPlan);
+            } else {
+                argumentValues = getArgumentValues(executionContext, fieldArgDefs, field.getArguments());
+            }
         }
 
 
-        return newExecutionStepInfo()
+        ExecutionStepInfo.Builder builder = newExecutionStepInfo()
                 .type(fieldType)
                 .fieldDefinition(fieldDefinition)
                 .fieldContainer(fieldContainer)
                 .field(field)
-                .path(parameters.getPath())
                 .parentInfo(parentStepInfo)
-                .arguments(argumentValues)
-                .build();
+                .arguments(argumentValues);
+        // the path is derived from the parent info when the path of the parameters is
+        if (parameters.isPathOfField()) {
+            builder.pathOfField();
+        } else {
+            builder.path(parameters.getPath());
+        }
+        return builder.build();
+    }
+
+    private static Supplier<ImmutableMapWithNullValues<String, Object>> getConstantArgumentValues(ExecutionContext executionContext, FieldPlan fieldPlan) {
+        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
+        return FpKit.intraThreadMemoize(() -> fieldPlan.getConstantArgumentValues(codeRegistry,
+                executionContext.getGraphQLContext(),
+                executionContext.getLocale()));
     }
 
     @NonNull
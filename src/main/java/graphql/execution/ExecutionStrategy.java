@@ -5,8 +5,10 @@ import graphql.DuckTyped;
 import graphql.EngineRunningState;
 import graphql.ExecutionResult;
 import graphql.ExecutionResultImpl;
+import graphql.ExperimentalApi;
 import graphql.GraphQLError;
 import graphql.Internal;
+import graphql.Profiler;
 import graphql.PublicSpi;
 import graphql.SerializationError;
 import graphql.TrivialDataFetcher;
@@ -26,15 +28,18 @@ import graphql.execution.instrumentation.parameters.InstrumentationFieldComplete
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
 import graphql.execution.reactive.ReactiveSupport;
+import graphql.execution.result.ResultStreamer;
 import graphql.extensions.ExtensionsBuilder;
 import graphql.introspection.Introspection;
 import graphql.language.Field;
 import graphql.normalized.ExecutableNormalizedField;
 import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.BatchedDataFetcher;
 import graphql.schema.CoercingSerializeException;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.FieldResultCache;
 import graphql.schema.DataFetchingFieldSelectionSetImpl;
 import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLEnumType;
@@ -43,6 +48,7 @@ import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
 import graphql.schema.LightDataFetcher;
 import graphql.util.FpKit;
 import org.jspecify.annotations.NonNull;
@@ -54,6 +60,7 @@ import java.util.Map;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -315,13 +322,15 @@ public abstract class ExecutionStrategy {
         Async.CombinedBuilder<FieldValueInfo> futures = Async
                 .ofExpectedSize(fields.size() - deferredExecutionSupport.deferredFieldsCount());
 
-        for (String fieldName : fields.getKeys()) {
+        FieldPlan[] fieldPlans = getFieldPlans(executionContext, parameters);
+        List<String> fieldNames = fields.getKeys();
+        for (int i = 0; i < fieldNames.size(); i++) {
             executionContext.throwIfCancelled();
 
-            MergedField currentField = fields.getSubField(fieldName);
+            MergedField currentField = fields.getSubField(fieldNames.get(i));
+            FieldPlan fieldPlan = fieldPlans != null ? fieldPlans[i] : null;
 
-            ResultPath fieldPath = parameters.getPath().segment(mkNameForPath(currentField));
-            ExecutionStrategyParameters newParameters = parameters.transform(currentField, fieldPath, parameters);
+            ExecutionStrategyParameters newParameters = parameters.transform(currentField, fieldPlan, parameters);
 
             if (!deferredExecutionSupport.isDeferredField(currentField)) {
                 Object fieldValueInfo = resolveFieldWithInfo(executionContext, newParameters);
@@ -340,6 +349,29 @@ public abstract class ExecutionStrategy {
         return futures;
     }
 
+    private FieldPlan[] getFieldPlans(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        if (!executionContext.getGraphQLContext().getBoolean(ExecutionPlanContextKeys.ENABLE_COMPILED_FIELD_PLANS, false)) {
+            return null;
+        }
+        return executionContext.getExecutionPlanCache().getFieldPlans(parameters.getFields(),
+                fields -> compileFieldPlans(executionContext, parameters, fields));
+    }
+
+    private FieldPlan[] compileFieldPlans(ExecutionContext executionContext, ExecutionStrategyParameters parameters, MergedSelectionSet fields) {
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+        GraphQLCodeRegistry codeRegistry = schema.getCodeRegistry();
+        GraphQLObjectType parentType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
+        List<String> fieldNames = fields.getKeys();
+        FieldPlan[] fieldPlans = new FieldPlan[fieldNames.size()];
+        for (int i = 0; i < fieldPlans.length; i++) {
+            MergedField mergedField = fields.getSubField(fieldNames.get(i));
+            GraphQLFieldDefinition fieldDef = getFieldDef(schema, parentType, mergedField.getSingleField());
+            DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parentType.getName(), fieldDef.getName(), fieldDef);
+            fieldPlans[i] = new FieldPlan(mergedField, parentType, fieldDef, dataFetcher);
+        }
+        return fieldPlans;
+    }
+
     /**
      * Called to fetch a value for a field and its extra runtime info and resolve it further in terms of the graphql query.  This will call
      * #fetchField followed by #completeField and the completed {@link graphql.execution.FieldValueInfo} is returned.
@@ -361,6 +393,13 @@ public abstract class ExecutionStrategy {
     @DuckTyped(shape = "CompletableFuture<FieldValueInfo> | FieldValueInfo")
     protected Object resolveFieldWithInfo(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
         GraphQLFieldDefinition fieldDef = getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
+        DataFetcher<?> dataFetcher = null;
+        if (canCompleteLeafFieldsDirectly(executionContext) && isLeafField(fieldDef)) {
+            dataFetcher = getDataFetcher(executionContext, parameters, fieldDef);
+            if (dataFetcher instanceof LightDataFetcher) {
+                return resolveLeafField(executionContext, parameters, fieldDef, dataFetcher);
+            }
+        }
         Supplier<ExecutionStepInfo> executionStepInfo = FpKit.intraThreadMemoize(() -> createExecutionStepInfo(executionContext, parameters, fieldDef, null));
 
         Instrumentation instrumentation = executionContext.getInstrumentation();
@@ -368,16 +407,12 @@ public abstract class ExecutionStrategy {
                 new InstrumentationFieldParameters(executionContext, executionStepInfo), executionContext.getInstrumentationState()
         ));
 
-        Object fetchedValueObj = fetchField(executionContext, parameters);
+        // the data fetcher has already been looked up when the field was considered for direct completion
+        Object fetchedValueObj = dataFetcher != null
+                ? fetchField(fieldDef, dataFetcher, executionContext, parameters, true)
+                : fetchField(executionContext, parameters);
         if (fetchedValueObj instanceof CompletableFuture) {
-            CompletableFuture<Object> fetchFieldFuture = (CompletableFuture<Object>) fetchedValueObj;
-            CompletableFuture<FieldValueInfo> result = fetchFieldFuture.thenApply((fetchedValue) -> {
-                executionContext.getDataLoaderDispatcherStrategy().startComplete(parameters);
-                FieldValueInfo completeFieldResult = completeField(fieldDef, executionContext, parameters, fetchedValue);
-                executionContext.getDataLoaderDispatcherStrategy().stopComplete(parameters);
-                return completeFieldResult;
-            });
-
+            CompletableFuture<FieldValueInfo> result = completeFieldLater(executionContext, parameters, fieldDef, (CompletableFuture<Object>) fetchedValueObj);
             fieldCtx.onDispatched();
             result.whenComplete(fieldCtx::onCompleted);
             return result;
@@ -393,6 +428,90 @@ public abstract class ExecutionStrategy {
         }
     }
 
+    private CompletableFuture<FieldValueInfo> completeFieldLater(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, CompletableFuture<Object> fetchFieldFuture) {
+        return fetchFieldFuture.thenApply((fetchedValue) -> {
+            executionContext.getDataLoaderDispatcherStrategy().startComplete(parameters);
+            FieldValueInfo completeFieldResult = completeField(fieldDef, executionContext, parameters, fetchedValue);
+            executionContext.getDataLoaderDispatcherStrategy().stopComplete(parameters);
+            return completeFieldResult;
+        });
+    }
+
+    /*
+     * Scalar and enum fields that are fetched by a LightDataFetcher, such as the default PropertyDataFetcher, are the bulk
+     * of most responses.  When nobody is listening in on field execution, such a field can be fetched and serialized
+     * without creating its ExecutionStepInfo, its DataFetchingEnvironment or the parameters and contexts of the field
+     * instrumentation.  Anything out of the ordinary, like a null or a value that cannot be serialized, is handed to
+     * the regular completion so that it is reported in the usual way.
+     */
+    @SuppressWarnings("unchecked")
+    @DuckTyped(shape = "CompletableFuture<FieldValueInfo> | FieldValueInfo")
+    private Object resolveLeafField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, DataFetcher<?> dataFetcher) {
+        Object fetchedValueObj = fetchField(fieldDef, dataFetcher, executionContext, parameters, false);
+        if (fetchedValueObj instanceof CompletableFuture) {
+            return completeFieldLater(executionContext, parameters, fieldDef, (CompletableFuture<Object>) fetchedValueObj);
+        }
+        if (fetchedValueObj != null && !(fetchedValueObj instanceof FetchedValue)) {
+            FieldValueInfo fieldValueInfo = serializeLeafValue(executionContext, fieldDef, fetchedValueObj);
+            if (fieldValueInfo != null) {
+                return fieldValueInfo;
+            }
+        }
+        try {
+            return completeField(fieldDef, executionContext, parameters, fetchedValueObj);
+        } catch (Exception e) {
+            return Async.exceptionallyCompletedFuture(e);
+        }
+    }
+
+    private FieldValueInfo serializeLeafValue(ExecutionContext executionContext, GraphQLFieldDefinition fieldDef, Object fetchedValue) {
+        Object value = executionContext.getValueUnboxer().unbox(fetchedValue);
+        if (value == null) {
+            return null;
+        }
+        GraphQLType fieldType = GraphQLTypeUtil.unwrapNonNull(fieldDef.getType());
+        try {
+            if (fieldType instanceof GraphQLScalarType) {
+                Object serialized = ((GraphQLScalarType) fieldType).getCoercing().serialize(value, executionContext.getGraphQLContext(), executionContext.getLocale());
+                return serialized != null ? new FieldValueInfo(SCALAR, serialized) : null;
+            }
+            Object serialized = ((GraphQLEnumType) fieldType).serialize(value, executionContext.getGraphQLContext(), executionContext.getLocale());
+            return serialized != null ? new FieldValueInfo(ENUM, serialized) : null;
+        } catch (CoercingSerializeException e) {
+            // the regular completion serializes the value again and reports the problem
+            return null;
+        }
+    }
+
+    private static boolean isLeafField(GraphQLFieldDefinition fieldDef) {
+        GraphQLType fieldType = GraphQLTypeUtil.unwrapNonNull(fieldDef.getType());
+        return fieldType instanceof GraphQLScalarType || fieldType instanceof GraphQLEnumType;
+    }
+
+    private boolean canCompleteLeafFieldsDirectly(ExecutionContext executionContext) {
+        return !executionContext.hasFieldInstrumentation()
+                && !executionContext.isSubscriptionOperation()
+                && completesLeafFieldsDirectly();
+    }
+
+    /**
+     * Scalar and enum fields with a {@link LightDataFetcher} can be fetched and completed directly, without their
+     * {@link ExecutionStepInfo}, {@link DataFetchingEnvironment} and instrumentation parameters, when the instrumentation
+     * has no field level callbacks.  This bypasses {@link #fetchField(ExecutionContext, ExecutionStrategyParameters)},
+     * {@link #completeField(ExecutionContext, ExecutionStrategyParameters, Object)},
+     * {@link #completeValue(ExecutionContext, ExecutionStrategyParameters)},
+     * {@link #completeValueForScalar} and {@link #completeValueForEnum} for those fields, so it is only done for the
+     * built-in strategies by default.  A subclass that does not override these methods can opt in by returning true.
+     *
+     * @return true if leaf fields may be completed directly
+     */
+    @ExperimentalApi
+    protected boolean completesLeafFieldsDirectly() {
+        // subclasses may override the methods that are bypassed, so only the exact classes complete leaf fields directly
+        Class<?> strategyClass = getClass();
+        return strategyClass == AsyncExecutionStrategy.class || strategyClass == AsyncSerialExecutionStrategy.class;
+    }
+
     /**
      * Called to fetch a value for a field from the {@link DataFetcher} associated with the field
      * {@link GraphQLFieldDefinition}.
@@ -409,20 +528,33 @@ public abstract class ExecutionStrategy {
      */
     @DuckTyped(shape = "CompletableFuture<FetchedValue|Object> | <FetchedValue|Object>")
     protected Object fetchField(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
-        MergedField field = parameters.getField();
+        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
+        return fetchField(fieldDef, null, executionContext, parameters, true);
+    }
+
+    private DataFetcher<?> getDataFetcher(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef) {
+        FieldPlan fieldPlan = parameters.getFieldPlan();
+        if (fieldPlan != null) {
+            return fieldPlan.getDataFetcher();
+        }
         GraphQLObjectType parentType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, field.getSingleField());
-        return fetchField(fieldDef, executionContext, parameters);
+        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
+        return codeRegistry.getDataFetcher(parentType.getName(), fieldDef.getName(), fieldDef);
     }
 
     @DuckTyped(shape = "CompletableFuture<FetchedValue|Object> | <FetchedValue|Object>")
-    private Object fetchField(GraphQLFieldDefinition fieldDef, ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+    private Object fetchField(GraphQLFieldDefinition fieldDef, DataFetcher<?> originalDataFetcher, ExecutionContext executionContext, ExecutionStrategyParameters parameters, boolean instrumented) {
         executionContext.throwIfCancelled();
 
         if (incrementAndCheckMaxNodesExceeded(executionContext)) {
             return null;
         }
 
+        // fields that have not started by the deadline are not fetched, so the execution can finish with what it has
+        if (executionContext.getEngineRunningState().isDeadlineExceeded()) {
+            return unboxPossibleDataFetcherResult(executionContext, parameters, deadlineExceededResult(parameters));
+        }
+
         MergedField field = parameters.getField();
         GraphQLObjectType parentType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
 
@@ -459,22 +591,34 @@ public abstract class ExecutionStrategy {
                     .selectionSet(fieldCollector)
                     .queryDirectives(queryDirectives)
                     .alternativeCallContext(parameters.getAlternativeCallContext())
-                    .level(parameters.getPath().getLevel())
+                    .level(parameters.getPathLevel())
                     .build();
         });
 
-        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
-        DataFetcher<?> originalDataFetcher = codeRegistry.getDataFetcher(parentType.getName(), fieldDef.getName(), fieldDef);
-
-        Instrumentation instrumentation = executionContext.getInstrumentation();
-
-        InstrumentationFieldFetchParameters instrumentationFieldFetchParams = new InstrumentationFieldFetchParameters(executionContext, dataFetchingEnvironment, parameters, originalDataFetcher instanceof TrivialDataFetcher);
-        FieldFetchingInstrumentationContext fetchCtx = FieldFetchingInstrumentationContext.nonNullCtx(instrumentation.beginFieldFetching(instrumentationFieldFetchParams,
-                executionContext.getInstrumentationState())
-        );
+        if (originalDataFetcher == null) {
+            originalDataFetcher = getDataFetcher(executionContext, parameters, fieldDef);
+        }
+        // a batched field is handed to the dispatch strategy by the data fetcher that the instrumentation wraps
+        DataFetcher<?> fieldDataFetcher = originalDataFetcher instanceof BatchedDataFetcher
+                ? new DispatchedBatchedDataFetcher(executionContext.getDataLoaderDispatcherStrategy(), parameters, (BatchedDataFetcher<?>) originalDataFetcher)
+                : originalDataFetcher;
+
+        DataFetcher<?> dataFetcher;
+        FieldFetchingInstrumentationContext fetchCtx;
+        if (instrumented) {
+            Instrumentation instrumentation = executionContext.getInstrumentation();
+
+            InstrumentationFieldFetchParameters instrumentationFieldFetchParams = new InstrumentationFieldFetchParameters(executionContext, dataFetchingEnvironment, parameters, originalDataFetcher instanceof TrivialDataFetcher);
+            fetchCtx = FieldFetchingInstrumentationContext.nonNullCtx(instrumentation.beginFieldFetching(instrumentationFieldFetchParams,
+                    executionContext.getInstrumentationState())
+            );
 
-        DataFetcher<?> dataFetcher = instrumentation.instrumentDataFetcher(originalDataFetcher, instrumentationFieldFetchParams, executionContext.getInstrumentationState());
-        Object fetchedObject = invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, originalDataFetcher, dataFetcher);
+            dataFetcher = instrumentation.instrumentDataFetcher(fieldDataFetcher, instrumentationFieldFetchParams, executionContext.getInstrumentationState());
+        } else {
+            fetchCtx = FieldFetchingInstrumentationContext.NOOP;
+            dataFetcher = fieldDataFetcher;
+        }
+        Object fetchedObject = invokeDataFetcherOrUseCachedResult(executionContext, parameters, fieldDef, parentType, dataFetchingEnvironment, originalDataFetcher, dataFetcher);
         executionContext.getDataLoaderDispatcherStrategy().fieldFetched(executionContext, parameters, dataFetcher, fetchedObject, dataFetchingEnvironment);
         fetchCtx.onDispatched();
         fetchCtx.onFetchedValue(fetchedObject);
@@ -485,15 +629,18 @@ public abstract class ExecutionStrategy {
         }
         if (fetchedObject instanceof CompletableFuture) {
             @SuppressWarnings("unchecked")
-            CompletableFuture<Object> fetchedValue = (CompletableFuture<Object>) fetchedObject;
+            CompletableFuture<Object> fetchedFuture = (CompletableFuture<Object>) fetchedObject;
             EngineRunningState engineRunningState = executionContext.getEngineRunningState();
+            CompletableFuture<Object> fetchedValue = engineRunningState.cancelWithExecution(fetchedFuture);
 
             CompletableFuture<CompletableFuture<Object>> handleCF = engineRunningState.handle(fetchedValue, (result, exception) -> {
                 // because we added an artificial CF, we need to unwrap the exception
                 Throwable possibleWrappedException = engineRunningState.possibleCancellation(exception);
 
                 if (possibleWrappedException != null) {
-                    CompletableFuture<DataFetcherResult<Object>> handledExceptionResult = handleFetchingException(dataFetchingEnvironment.get(), parameters, possibleWrappedException);
+                    CompletableFuture<DataFetcherResult<Object>> handledExceptionResult = isDeadlineExceeded(possibleWrappedException)
+                            ? CompletableFuture.completedFuture(deadlineExceededResult(parameters))
+                            : handleFetchingException(dataFetchingEnvironment.get(), parameters, possibleWrappedException);
                     return handledExceptionResult.thenApply( handledResult -> {
                         fetchCtx.onExceptionHandled(handledResult);
                         fetchCtx.onCompleted(result, exception);
@@ -514,12 +661,44 @@ public abstract class ExecutionStrategy {
         }
     }
 
+    private static boolean isDeadlineExceeded(Throwable exception) {
+        return exception instanceof DeadlineExceededException
+                || (exception instanceof CompletionException && exception.getCause() instanceof DeadlineExceededException);
+    }
+
+    private static DataFetcherResult<Object> deadlineExceededResult(ExecutionStrategyParameters parameters) {
+        DeadlineExceededError error = new DeadlineExceededError(parameters.getPath(), parameters.getField().getSingleField().getSourceLocation());
+        return DataFetcherResult.newResult().error(error).build();
+    }
+
+    private Object invokeDataFetcherOrUseCachedResult(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, GraphQLObjectType parentType, Supplier<DataFetchingEnvironment> dataFetchingEnvironment, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher) {
+        FieldResultCache fieldResultCache = executionContext.getGraphQLSchema().getCodeRegistry().getFieldResultCache(parentType.getName(), fieldDef.getName());
+        Object cacheKey = fieldResultCache != null ? fieldResultCache.cacheKey(parentType.getName(), fieldDef.getName(), parameters.getSource(), dataFetchingEnvironment.get().getArguments()) : null;
+        if (cacheKey == null) {
+            return invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, originalDataFetcher, dataFetcher);
+        }
+        Object cachedValue = fieldResultCache.get(cacheKey);
+        if (cachedValue != null) {
+            executionContext.getProfiler().fieldResultCacheHit(parentType, fieldDef);
+            return cachedValue;
+        }
+        Object fetchedObject = invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, originalDataFetcher, dataFetcher);
+        if (fetchedObject instanceof CompletableFuture) {
+            ((CompletableFuture<?>) fetchedObject).thenAccept(fetchedValue -> fieldResultCache.put(cacheKey, fetchedValue));
+        } else {
+            fieldResultCache.put(cacheKey, fetchedObject);
+        }
+        return fetchedObject;
+    }
+
     /*
      * ExecutionContext is not used in the method, but the java agent uses it, so it needs to be present
      */
     @SuppressWarnings("unused")
     private Object invokeDataFetcher(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, Supplier<DataFetchingEnvironment> dataFetchingEnvironment, DataFetcher<?> originalDataFetcher, DataFetcher<?> dataFetcher) {
         Object fetchedValue;
+        Profiler profiler = executionContext.getProfiler();
+        long fetchStartTime = profiler.fieldFetchStarting();
         try {
             Object fetchedValueRaw;
             if (dataFetcher instanceof LightDataFetcher) {
@@ -527,7 +706,7 @@ public abstract class ExecutionStrategy {
             } else {
                 fetchedValueRaw = dataFetcher.get(dataFetchingEnvironment.get());
             }
-            executionContext.getProfiler().fieldFetched(fetchedValueRaw, originalDataFetcher, dataFetcher, parameters.getPath(), fieldDef, parameters.getExecutionStepInfo().getType());
+            profiler.fieldFetched(fetchedValueRaw, originalDataFetcher, dataFetcher, parameters, fieldDef, parameters.getExecutionStepInfo().getType(), fetchStartTime);
             fetchedValue = Async.toCompletableFutureOrMaterializedObject(fetchedValueRaw);
         } catch (Exception e) {
             fetchedValue = Async.exceptionallyCompletedFuture(e);
@@ -535,6 +714,34 @@ public abstract class ExecutionStrategy {
         return fetchedValue;
     }
 
+    /*
+     * Stands in for the batched data fetcher of a field, so that the instrumented data fetchers wrap the gathering of
+     * the field into a batch.  It is a batched data fetcher itself, so that instrumentations still see it as one.
+     */
+    private static class DispatchedBatchedDataFetcher implements BatchedDataFetcher<Object> {
+        private final DataLoaderDispatchStrategy dispatchStrategy;
+        private final ExecutionStrategyParameters parameters;
+        private final BatchedDataFetcher<?> batchedDataFetcher;
+
+        private DispatchedBatchedDataFetcher(DataLoaderDispatchStrategy dispatchStrategy, ExecutionStrategyParameters parameters, BatchedDataFetcher<?> batchedDataFetcher) {
+            this.dispatchStrategy = dispatchStrategy;
+            this.parameters = parameters;
+            this.batchedDataFetcher = batchedDataFetcher;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletableFuture<Object> get(DataFetchingEnvironment environment) throws Exception {
+            return (CompletableFuture<Object>) dispatchStrategy.fetchBatched(parameters, batchedDataFetcher, environment);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletionStage<List<Object>> getBatch(List<DataFetchingEnvironment> environments) throws Exception {
+            return ((BatchedDataFetcher<Object>) batchedDataFetcher).getBatch(environments);
+        }
+    }
+
     protected Supplier<ExecutableNormalizedField> getNormalizedField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Supplier<ExecutionStepInfo> executionStepInfo) {
         Supplier<ExecutableNormalizedOperation> normalizedQuery = executionContext.getNormalizedQueryTree();
         return () -> normalizedQuery.get().getNormalizedField(parameters.getField(), executionStepInfo.get().getObjectType(), executionStepInfo.get().getPath());
@@ -636,9 +843,7 @@ public abstract class ExecutionStrategy {
                                            Object fetchedValue) {
         executionContext.throwIfCancelled();
 
-        Field field = parameters.getField().getSingleField();
-        GraphQLObjectType parentType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
         return completeField(fieldDef, executionContext, parameters, fetchedValue);
     }
 
@@ -802,6 +1007,8 @@ public abstract class ExecutionStrategy {
                 instrumentationParams, executionContext.getInstrumentationState()
         ));
 
+        // the paths of the elements are only created when asked for if they can be derived from the step infos
+        boolean pathOfStepInfo = parameters.isPathOfStepInfo();
         List<FieldValueInfo> fieldValueInfos = new ArrayList<>(size.orElse(1));
         int index = 0;
         for (Object item : iterableValues) {
@@ -809,23 +1016,29 @@ public abstract class ExecutionStrategy {
                 return new FieldValueInfo(NULL, null, fieldValueInfos);
             }
 
-            ResultPath indexedPath = parameters.getPath().segment(index);
-
-            ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(executionStepInfo, indexedPath);
-
             Object fetchedValue = unboxPossibleDataFetcherResult(executionContext, parameters, item);
+            Object localContext = FetchedValue.getLocalContext(fetchedValue, parameters.getLocalContext());
 
-            ExecutionStrategyParameters newParameters = parameters.transform(
-                    stepInfoForListElement,
-                    indexedPath,
-                    FetchedValue.getLocalContext(fetchedValue, parameters.getLocalContext()),
-                    FetchedValue.getFetchedValue(fetchedValue)
-            );
+            ExecutionStrategyParameters newParameters;
+            if (pathOfStepInfo) {
+                ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(executionStepInfo, index);
+                newParameters = parameters.transformForListElement(stepInfoForListElement, localContext, FetchedValue.getFetchedValue(fetchedValue));
+            } else {
+                ResultPath indexedPath = parameters.getPath().segment(index);
+                ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(executionStepInfo, indexedPath);
+                newParameters = parameters.transform(stepInfoForListElement, indexedPath, localContext, FetchedValue.getFetchedValue(fetchedValue));
+            }
 
             fieldValueInfos.add(completeValue(executionContext, newParameters));
             index++;
         }
 
+        ResultStreamer resultStreamer = executionContext.getResultStreamer();
+        if (resultStreamer != null) {
+            // the elements of a root field list may be written as they complete, in which case null takes their place
+            resultStreamer.streamElements(executionStepInfo, fieldValueInfos);
+        }
+
         Object listResults = Async.eachPolymorphic(fieldValueInfos, FieldValueInfo::getFieldValueObject);
         Object listOrPromiseToList;
         if (listResults instanceof CompletableFuture) {
@@ -952,7 +1165,8 @@ public abstract class ExecutionStrategy {
                 .graphQLContext(executionContext.getGraphQLContext())
                 .build();
 
-        MergedSelectionSet subFields = fieldCollector.collectFields(
+        MergedSelectionSet subFields = executionContext.getExecutionPlanCache().collectFields(
+                fieldCollector,
                 collectorParameters,
                 parameters.getField(),
                 executionContext.hasIncrementalSupport()
@@ -1030,6 +1244,10 @@ public abstract class ExecutionStrategy {
      * @return a {@link GraphQLFieldDefinition}
      */
     protected GraphQLFieldDefinition getFieldDef(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Field field) {
+        FieldPlan fieldPlan = parameters.getFieldPlan();
+        if (fieldPlan != null && fieldPlan.getMergedField() == parameters.getField() && fieldPlan.getMergedField().getSingleField() == field) {
+            return fieldPlan.getFieldDefinition();
+        }
         GraphQLObjectType parentType = parameters.getExecutionStepInfo().getUnwrappedNonNullTypeAs();
         return getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
     }
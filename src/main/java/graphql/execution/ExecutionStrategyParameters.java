@@ -17,25 +17,36 @@ import static graphql.Assert.assertNotNull;
 @PublicApi
 @NullMarked
 public class ExecutionStrategyParameters {
+    // the path is either given or derived from the execution step info when first asked for, so that
+    // executing a field does not have to allocate a path that is only needed for errors and the like
+    private static final int PATH_GIVEN = 0;
+    private static final int PATH_OF_FIELD = 1;
+    private static final int PATH_OF_STEP_INFO = 2;
+
     private final ExecutionStepInfo executionStepInfo;
     private final @Nullable Object source;
     private final @Nullable Object localContext;
     private final MergedSelectionSet fields;
     private final NonNullableFieldValidator nonNullableFieldValidator;
-    private final ResultPath path;
+    private @Nullable ResultPath path;
+    private final int pathKind;
+    private final int pathLevel;
     private final @Nullable MergedField currentField;
     private final @Nullable ExecutionStrategyParameters parent;
     private final @Nullable AlternativeCallContext alternativeCallContext;
+    private final @Nullable FieldPlan fieldPlan;
 
     private ExecutionStrategyParameters(ExecutionStepInfo executionStepInfo,
                                         @Nullable Object source,
                                         @Nullable Object localContext,
                                         MergedSelectionSet fields,
                                         NonNullableFieldValidator nonNullableFieldValidator,
-                                        ResultPath path,
+                                        @Nullable ResultPath path,
+                                        int pathKind,
                                         @Nullable MergedField currentField,
                                         @Nullable ExecutionStrategyParameters parent,
-                                        @Nullable AlternativeCallContext alternativeCallContext) {
+                                        @Nullable AlternativeCallContext alternativeCallContext,
+                                        @Nullable FieldPlan fieldPlan) {
 
         this.executionStepInfo = assertNotNull(executionStepInfo, "executionStepInfo is null");
         this.localContext = localContext;
@@ -43,9 +54,12 @@ public class ExecutionStrategyParameters {
         this.source = source;
         this.nonNullableFieldValidator = assertNotNull(nonNullableFieldValidator, "requires a NonNullValidator");;
         this.path = path;
+        this.pathKind = pathKind;
+        this.pathLevel = pathLevel(this.executionStepInfo, path, pathKind);
         this.currentField = currentField;
         this.parent = parent;
         this.alternativeCallContext = alternativeCallContext;
+        this.fieldPlan = fieldPlan;
     }
 
     public ExecutionStepInfo getExecutionStepInfo() {
@@ -65,9 +79,35 @@ public class ExecutionStrategyParameters {
     }
 
     public ResultPath getPath() {
+        ResultPath path = this.path;
+        if (path == null) {
+            if (pathKind == PATH_OF_STEP_INFO) {
+                return executionStepInfo.getPath();
+            }
+            path = executionStepInfo.getPath().segment(assertNotNull(currentField).getResultKey());
+            this.path = path;
+        }
         return path;
     }
 
+    /**
+     * This is the same as {@code getPath().getLevel()} but does not need the path of the current field to be created
+     *
+     * @return the level of the path of the current field
+     */
+    @Internal
+    public int getPathLevel() {
+        return pathLevel;
+    }
+
+    private static int pathLevel(ExecutionStepInfo executionStepInfo, @Nullable ResultPath path, int pathKind) {
+        if (path != null) {
+            return path.getLevel();
+        }
+        int stepInfoLevel = executionStepInfo.getPathLevel();
+        return pathKind == PATH_OF_FIELD ? stepInfoLevel + 1 : stepInfoLevel;
+    }
+
     public @Nullable Object getLocalContext() {
         return localContext;
     }
@@ -105,6 +145,19 @@ public class ExecutionStrategyParameters {
         return currentField;
     }
 
+    /**
+     * Returns the compiled plan of the current field, if compiled field plans are enabled and the field could be planned.
+     *
+     * @return the field plan of the current field or null
+     *
+     * @see ExecutionPlanContextKeys#ENABLE_COMPILED_FIELD_PLANS
+     */
+    @Nullable
+    @Internal
+    public FieldPlan getFieldPlan() {
+        return fieldPlan;
+    }
+
     @Internal
     ExecutionStrategyParameters transform(MergedField currentField,
                                           ResultPath path) {
@@ -114,24 +167,30 @@ public class ExecutionStrategyParameters {
                 fields,
                 nonNullableFieldValidator,
                 path,
+                PATH_GIVEN,
                 currentField,
                 parent,
-                alternativeCallContext);
+                alternativeCallContext,
+                null);
     }
 
     @Internal
     ExecutionStrategyParameters transform(ExecutionStepInfo executionStepInfo,
                                           MergedSelectionSet fields,
                                           @Nullable Object source) {
+        // the new step info is for the same result path, eg the resolved object type of the current one
+        boolean pathOfStepInfo = pathKind == PATH_OF_STEP_INFO;
         return new ExecutionStrategyParameters(executionStepInfo,
                 source,
                 localContext,
                 fields,
                 nonNullableFieldValidator,
-                path,
+                pathOfStepInfo ? path : getPath(),
+                pathOfStepInfo ? PATH_OF_STEP_INFO : PATH_GIVEN,
                 currentField,
                 parent,
-                alternativeCallContext);
+                alternativeCallContext,
+                fieldPlan);
     }
 
     @Internal
@@ -145,39 +204,109 @@ public class ExecutionStrategyParameters {
                 fields,
                 nonNullableFieldValidator,
                 path,
+                PATH_GIVEN,
                 currentField,
                 parent,
-                alternativeCallContext);
+                alternativeCallContext,
+                fieldPlan);
     }
 
     @Internal
     ExecutionStrategyParameters transform(ExecutionStepInfo executionStepInfo,
                                           @Nullable Object localContext,
                                           @Nullable Object source) {
+        // the new step info is the one of the current field, so a path of the field is now the path of the step info
+        boolean pathOfStepInfo = pathKind != PATH_GIVEN;
         return new ExecutionStrategyParameters(executionStepInfo,
                 source,
                 localContext,
                 fields,
                 nonNullableFieldValidator,
                 path,
+                pathOfStepInfo ? PATH_OF_STEP_INFO : PATH_GIVEN,
+                currentField,
+                parent,
+                alternativeCallContext,
+                fieldPlan);
+    }
+
+    @Internal
+    ExecutionStrategyParameters transformForListElement(ExecutionStepInfo elementStepInfo,
+                                                        @Nullable Object localContext,
+                                                        @Nullable Object source) {
+        return new ExecutionStrategyParameters(elementStepInfo,
+                source,
+                localContext,
+                fields,
+                nonNullableFieldValidator,
+                null,
+                PATH_OF_STEP_INFO,
                 currentField,
                 parent,
-                alternativeCallContext);
+                alternativeCallContext,
+                fieldPlan);
     }
 
     @Internal
     ExecutionStrategyParameters transform(MergedField currentField,
                                           ResultPath path,
                                           ExecutionStrategyParameters parent) {
+        return transform(currentField, null, path, parent);
+    }
+
+    @Internal
+    ExecutionStrategyParameters transform(MergedField currentField,
+                                          @Nullable FieldPlan fieldPlan,
+                                          ResultPath path,
+                                          ExecutionStrategyParameters parent) {
         return new ExecutionStrategyParameters(executionStepInfo,
                 source,
                 localContext,
                 fields,
                 nonNullableFieldValidator,
                 path,
+                PATH_GIVEN,
                 currentField,
                 parent,
-                alternativeCallContext);
+                alternativeCallContext,
+                fieldPlan);
+    }
+
+    @Internal
+    ExecutionStrategyParameters transform(MergedField currentField,
+                                          @Nullable FieldPlan fieldPlan,
+                                          ExecutionStrategyParameters parent) {
+        if (!isPathOfStepInfo()) {
+            return transform(currentField, fieldPlan, getPath().segment(currentField.getResultKey()), parent);
+        }
+        return new ExecutionStrategyParameters(executionStepInfo,
+                source,
+                localContext,
+                fields,
+                nonNullableFieldValidator,
+                null,
+                PATH_OF_FIELD,
+                currentField,
+                parent,
+                alternativeCallContext,
+                fieldPlan);
+    }
+
+    /**
+     * @return true if the path is the path of the execution step info, in which case the paths of sub fields and list
+     * elements can be derived from the step infos of those
+     */
+    @Internal
+    boolean isPathOfStepInfo() {
+        return pathKind == PATH_OF_STEP_INFO || (path != null && path == executionStepInfo.getPath());
+    }
+
+    /**
+     * @return true if the path is the path of the execution step info plus the result key of the current field
+     */
+    @Internal
+    boolean isPathOfField() {
+        return pathKind == PATH_OF_FIELD;
     }
 
     public ExecutionStrategyParameters transform(Consumer<Builder> builderConsumer) {
@@ -189,7 +318,7 @@ public class ExecutionStrategyParameters {
     @Override
     public String toString() {
         return String.format("ExecutionStrategyParameters { path=%s, executionStepInfo=%s, source=%s, fields=%s }",
-                path, executionStepInfo, source, fields);
+                getPath(), executionStepInfo, source, fields);
     }
 
     public static Builder newParameters() {
@@ -229,7 +358,7 @@ public class ExecutionStrategyParameters {
             this.nonNullableFieldValidator = oldParameters.nonNullableFieldValidator;
             this.currentField = oldParameters.currentField;
             this.alternativeCallContext = oldParameters.alternativeCallContext;
-            this.path = oldParameters.path;
+            this.path = oldParameters.getPath();
             this.parent = oldParameters.parent;
         }
 
@@ -284,7 +413,7 @@ public class ExecutionStrategyParameters {
         }
 
         public ExecutionStrategyParameters build() {
-            return new ExecutionStrategyParameters(executionStepInfo, source, localContext, fields, nonNullableFieldValidator, path, currentField, parent, alternativeCallContext);
+            return new ExecutionStrategyParameters(executionStepInfo, source, localContext, fields, nonNullableFieldValidator, path, PATH_GIVEN, currentField, parent, alternativeCallContext, null);
         }
     }
 }
@@ -0,0 +1,194 @@
+package graphql.execution;
+
+import graphql.GraphQLContext;
+import graphql.Internal;
+import graphql.collect.ImmutableMapWithNullValues;
+import graphql.execution.values.InputInterceptor;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLType;
+import graphql.schema.idl.ScalarInfo;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static graphql.schema.GraphQLTypeUtil.unwrapAll;
+
+/**
+ * The parts of executing a field that only depend on the document and the schema, resolved once per
+ * selection and parent type rather than once per object.
+ * <p>
+ * A field plan holds the field definition, the data fetcher from the code registry and, when the field arguments
+ * are all literals, the coerced argument values.
+ *
+ * @see ExecutionPlanCache#getFieldPlans(MergedSelectionSet, java.util.function.Function)
+ */
+@Internal
+@NullMarked
+public class FieldPlan {
+
+    private final MergedField mergedField;
+    private final GraphQLObjectType parentType;
+    private final GraphQLFieldDefinition fieldDefinition;
+    private final DataFetcher<?> dataFetcher;
+    private final boolean constantArguments;
+    private final boolean reusableArgumentValues;
+    private volatile @Nullable ImmutableMapWithNullValues<String, Object> constantArgumentValues;
+
+    public FieldPlan(MergedField mergedField, GraphQLObjectType parentType, GraphQLFieldDefinition fieldDefinition, DataFetcher<?> dataFetcher) {
+        this.mergedField = mergedField;
+        this.parentType = parentType;
+        this.fieldDefinition = fieldDefinition;
+        this.dataFetcher = dataFetcher;
+        this.constantArguments = !fieldDefinition.getArguments().isEmpty() && !hasVariableReferences(mergedField.getArguments());
+        this.reusableArgumentValues = constantArguments && hasBuiltInInputTypes(fieldDefinition.getArguments());
+    }
+
+    public MergedField getMergedField() {
+        return mergedField;
+    }
+
+    public GraphQLObjectType getParentType() {
+        return parentType;
+    }
+
+    public GraphQLFieldDefinition getFieldDefinition() {
+        return fieldDefinition;
+    }
+
+    public GraphQLOutputType getFieldType() {
+        return fieldDefinition.getType();
+    }
+
+    public DataFetcher<?> getDataFetcher() {
+        return dataFetcher;
+    }
+
+    /**
+     * @return true if the arguments of this field are all literals and hence can be coerced once and reused
+     */
+    public boolean hasConstantArguments() {
+        return constantArguments;
+    }
+
+    /**
+     * Returns the coerced argument values of a field with {@link #hasConstantArguments() constant arguments}.  The values
+     * are coerced on first use and reused after that, unless an {@link InputInterceptor} is in play since that
+     * can change the values on every request, or an argument uses a scalar that is not one of the built-in scalars,
+     * since its coercing may depend on the context or the locale of the request.
+     *
+     * @param codeRegistry   the code registry of the schema
+     * @param graphQLContext the context of the current execution
+     * @param locale         the locale of the current execution
+     *
+     * @return the coerced argument values
+     */
+    public ImmutableMapWithNullValues<String, Object> getConstantArgumentValues(GraphQLCodeRegistry codeRegistry, GraphQLContext graphQLContext, Locale locale) {
+        ImmutableMapWithNullValues<String, Object> argumentValues = constantArgumentValues;
+        if (argumentValues != null) {
+            return argumentValues;
+        }
+        Map<String, Object> resolvedValues = ValuesResolver.getArgumentValues(codeRegistry,
+                fieldDefinition.getArguments(),
+                mergedField.getArguments(),
+                CoercedVariables.emptyVariables(),
+                graphQLContext,
+                locale);
+        argumentValues = ImmutableMapWithNullValues.copyOf(resolvedValues);
+        if (reusableArgumentValues && graphQLContext.get(InputInterceptor.class) == null) {
+            constantArgumentValues = argumentValues;
+        }
+        return argumentValues;
+    }
+
+    /*
+     * true if the arguments only use the built-in scalars, enums and input objects made of them, whose coercion
+     * does not depend on the request
+     */
+    private static boolean hasBuiltInInputTypes(List<GraphQLArgument> arguments) {
+        Set<String> visitedInputObjects = new HashSet<>();
+        for (GraphQLArgument argument : arguments) {
+            if (!isBuiltInInputType(argument.getType(), visitedInputObjects)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBuiltInInputType(GraphQLInputType inputType, Set<String> visitedInputObjects) {
+        GraphQLType type = unwrapAll(inputType);
+        if (type instanceof GraphQLEnumType) {
+            return true;
+        }
+        if (type instanceof GraphQLScalarType) {
+            for (GraphQLScalarType builtInScalar : ScalarInfo.GRAPHQL_SPECIFICATION_SCALARS) {
+                if (builtInScalar == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (type instanceof GraphQLInputObjectType) {
+            GraphQLInputObjectType inputObjectType = (GraphQLInputObjectType) type;
+            if (!visitedInputObjects.add(inputObjectType.getName())) {
+                return true;
+            }
+            for (GraphQLInputObjectField inputField : inputObjectType.getFieldDefinitions()) {
+                if (!isBuiltInInputType(inputField.getType(), visitedInputObjects)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean hasVariableReferences(List<Argument> arguments) {
+        for (Argument argument : arguments) {
+            if (hasVariableReferences(argument.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasVariableReferences(Value<?> value) {
+        if (value instanceof VariableReference) {
+            return true;
+        }
+        if (value instanceof ArrayValue) {
+            for (Value<?> element : ((ArrayValue) value).getValues()) {
+                if (hasVariableReferences(element)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof ObjectValue) {
+            for (ObjectField objectField : ((ObjectValue) value).getObjectFields()) {
+                if (hasVariableReferences(objectField.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
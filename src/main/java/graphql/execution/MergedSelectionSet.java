@@ -21,7 +21,7 @@ public class MergedSelectionSet {
 
     protected MergedSelectionSet(Map<String, MergedField> subFields) {
         this.subFields = subFields == null ? ImmutableMap.of() : subFields;
-        this.keys =  ImmutableList.copyOf(this.subFields.keySet());
+        this.keys = new ResponseKeys(this.subFields.keySet());
     }
 
     public Map<String, MergedField> getSubFields() {
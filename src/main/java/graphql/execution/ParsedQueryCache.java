@@ -0,0 +1,156 @@
+package graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.Internal;
+import graphql.ParseAndValidate;
+import graphql.ParseAndValidateResult;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.NodeUtil;
+import graphql.language.OperationDefinition;
+import graphql.parser.ParserOptions;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The operations of the query texts that the {@link ResponseCache} and the {@link ExecutionCoalescer} of a
+ * {@link graphql.GraphQL} instance look at before a query is executed, so that a query text is parsed once for both of
+ * them rather than once by each.  Query texts are parsed without a schema, so the operations do not change when the
+ * schema does.  They are parsed with the {@link ParserOptions} of the execution, just like the engine parses them, so
+ * a query text that goes over the parser limits of the execution is not parsed any further here either, and the
+ * engine takes the parsed document from here rather than parsing the query text a second time.
+ */
+@Internal
+@NullMarked
+public class ParsedQueryCache {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final int maximumSize;
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    // empty for query texts that can not be parsed, so that they are not parsed again either
+    private final LinkedHashMap<Object, Optional<ParsedQuery>> parsedQueries;
+
+    public ParsedQueryCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ParsedQueryCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        // access ordered, so the eldest entry is the least recently used one
+        this.parsedQueries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Optional<ParsedQuery>> eldest) {
+                return size() > ParsedQueryCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * @param executionInput the execution input with the query text and the name of the operation to execute
+     *
+     * @return the parsed operation, or null if the query can not be parsed or has no such operation, which is left to
+     * the graphql engine to report
+     */
+    public @Nullable ParsedQuery get(ExecutionInput executionInput) {
+        Object key = cacheKey(executionInput);
+        Optional<ParsedQuery> parsedQuery = lock.callLocked(() -> parsedQueries.get(key));
+        if (parsedQuery == null) {
+            Optional<ParsedQuery> newParsedQuery = parse(executionInput);
+            lock.runLocked(() -> parsedQueries.put(key, newParsedQuery));
+            parsedQuery = newParsedQuery;
+        }
+        return parsedQuery.orElse(null);
+    }
+
+    /**
+     * Called by the engine when it parses the execution input, so that a query text that has just been parsed to look
+     * at its operation is not parsed again
+     *
+     * @param executionInput the execution input the engine is about to parse
+     *
+     * @return the document the query text of the execution input was parsed into, or null if it is not in the cache
+     */
+    public @Nullable Document getParsedDocument(ExecutionInput executionInput) {
+        Object key = cacheKey(executionInput);
+        Optional<ParsedQuery> parsedQuery = lock.callLocked(() -> parsedQueries.get(key));
+        return parsedQuery != null ? parsedQuery.map(query -> query.document).orElse(null) : null;
+    }
+
+    private static Object cacheKey(ExecutionInput executionInput) {
+        // parser options have no equals, a query text is parsed again for each distinct instance
+        ParserOptions parserOptions = executionInput.getGraphQLContext().get(ParserOptions.class);
+        return Arrays.asList(executionInput.getQuery(), executionInput.getOperationName(),
+                parserOptions != null ? parserOptions : ParserOptions.getDefaultOperationParserOptions());
+    }
+
+    private static Optional<ParsedQuery> parse(ExecutionInput executionInput) {
+        try {
+            ParseAndValidateResult parseResult = ParseAndValidate.parse(executionInput);
+            Document document = parseResult.getDocument();
+            if (parseResult.isFailure() || document == null) {
+                return Optional.empty();
+            }
+            NodeUtil.GetOperationResult operationResult = NodeUtil.getOperation(document, executionInput.getOperationName());
+            return Optional.of(new ParsedQuery(document, operationResult.operationDefinition, operationResult.fragmentsByName));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the number of query texts in the cache
+     */
+    public int size() {
+        return lock.callLocked(parsedQueries::size);
+    }
+
+    /**
+     * The operation of a query text that was parsed by a {@link ParsedQueryCache}
+     */
+    @Internal
+    public static class ParsedQuery {
+        private final Document document;
+        private final OperationDefinition operationDefinition;
+        private final Map<String, FragmentDefinition> fragmentsByName;
+        private volatile @Nullable String normalisedQuery;
+
+        private ParsedQuery(Document document, OperationDefinition operationDefinition, Map<String, FragmentDefinition> fragmentsByName) {
+            this.document = document;
+            this.operationDefinition = operationDefinition;
+            this.fragmentsByName = fragmentsByName;
+        }
+
+        public OperationDefinition getOperationDefinition() {
+            return operationDefinition;
+        }
+
+        public Map<String, FragmentDefinition> getFragmentsByName() {
+            return fragmentsByName;
+        }
+
+        public boolean isQueryOperation() {
+            return operationDefinition.getOperation() == OperationDefinition.Operation.QUERY;
+        }
+
+        /**
+         * @return the compact printed form of the document, which is the same for query texts that only differ in
+         * white space, comments or commas
+         */
+        public String getNormalisedQuery() {
+            String normalisedQuery = this.normalisedQuery;
+            if (normalisedQuery == null) {
+                normalisedQuery = AstPrinter.printAstCompact(document);
+                this.normalisedQuery = normalisedQuery;
+            }
+            return normalisedQuery;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.schema.GraphQLAppliedDirective;
+import graphql.schema.GraphQLAppliedDirectiveArgument;
+import graphql.schema.GraphQLCompositeType;
+import graphql.schema.GraphQLDirectiveContainer;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+import static graphql.schema.GraphQLTypeUtil.isLeaf;
+import static graphql.schema.GraphQLTypeUtil.unwrapAll;
+
+/**
+ * A cache of whole {@link ExecutionResult}s, so that an operation that was executed a moment ago with the same
+ * variables can be answered without parsing, validating or executing it again.  This suits public read APIs, where
+ * many clients send the very same queries.
+ * <p>
+ * Results are cached by the query, the operation name, the variables and a scope key that the scope key function
+ * works out from the {@link ExecutionInput}, for example the locale or the tenant of the request.  Queries are
+ * normalised by their compact printed form, so queries that only differ in white space, comments or commas share
+ * their cached results.
+ * <p>
+ * How long a result is cached for is decided by the {@code @cacheControl} hints of the fields and types in the schema,
+ * which need to be declared like this:
+ * <pre>
+ * {@code
+ * enum CacheControlScope { PUBLIC PRIVATE }
+ * directive @cacheControl(maxAge: Int, scope: CacheControlScope) on FIELD_DEFINITION | OBJECT | INTERFACE | UNION
+ * }
+ * </pre>
+ * The max age of a field, in seconds, is taken from the hint of the field or else from the hint of the type it returns.
+ * Fields of scalar and enum types without a hint inherit the max age of their parent field, while other fields without
+ * a hint get the default max age, which is 0 unless set on the builder.  A result is cached for the smallest max age of
+ * all the fields the operation could select, and it is not cached at all if that is 0 or if any of these fields has
+ * the {@code PRIVATE} scope.
+ * <p>
+ * Only query operations are cached, and results with errors are never cached.  Results are cached without their
+ * extensions, which belong to the execution that made them.  A cached result is still handed to the
+ * {@link graphql.execution.instrumentation.Instrumentation} of the {@link graphql.GraphQL} instance when the execution
+ * begins and ends, but not for parsing, validation or data fetching, since none of that happens for it.  When the
+ * cache is full, the least recently used result is dropped.  A response cache is set via {@link graphql.GraphQL.Builder#responseCache(ResponseCache)}.
+ */
+@ExperimentalApi
+@NullMarked
+public class ResponseCache {
+
+    /**
+     * The name of the directive that holds the cache control hints
+     */
+    public static final String CACHE_CONTROL_DIRECTIVE = "cacheControl";
+
+    private static final Object NO_SCOPE_KEY = new Object();
+    private static final long UNCACHEABLE = 0;
+
+    private final int maximumSize;
+    private final long defaultMaxAgeSeconds;
+    private final Function<ExecutionInput, @Nullable Object> scopeKeyFunction;
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final LinkedHashMap<Object, CachedResult> results;
+    private @Nullable GraphQLSchema currentSchema;
+
+    private static class CachedResult {
+        private final ExecutionResult executionResult;
+        private final long expiresAt;
+
+        private CachedResult(ExecutionResult executionResult, long expiresAt) {
+            this.executionResult = executionResult;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private ResponseCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.defaultMaxAgeSeconds = builder.defaultMaxAge.getSeconds();
+        this.scopeKeyFunction = builder.scopeKeyFunction;
+        // access ordered, so the eldest entries are the least recently used ones
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedResult> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Answers the execution input from the cache, or executes it and caches the result if it can be cached
+     *
+     * @param executionInput   the execution input
+     * @param graphQLSchema    the schema the execution input is executed against
+     * @param parsedQueryCache the parsed queries of the {@link graphql.GraphQL} instance
+     * @param execution        the function that executes the execution input
+     *
+     * @return a promise to the execution result
+     */
+    @Internal
+    public CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput, GraphQLSchema graphQLSchema, ParsedQueryCache parsedQueryCache, Function<ExecutionInput, CompletableFuture<ExecutionResult>> execution) {
+        String query = executionInput.getQuery();
+        Object scopeKey = scopeKeyFunction.apply(executionInput);
+        if (scopeKey == null || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            return execution.apply(executionInput);
+        }
+        // invalid queries are left to the engine to report
+        ParsedQueryCache.ParsedQuery parsedQuery = parsedQueryCache.get(executionInput);
+        if (parsedQuery == null || !parsedQuery.isQueryOperation()) {
+            return execution.apply(executionInput);
+        }
+        invalidateIfSchemaChanged(graphQLSchema);
+
+        Object cacheKey = Arrays.asList(parsedQuery.getNormalisedQuery(), executionInput.getOperationName(), executionInput.getVariables(), scopeKey);
+        ExecutionResult cachedResult = getIfPresent(cacheKey);
+        if (cachedResult != null) {
+            return CompletableFuture.completedFuture(cachedResult);
+        }
+        // only cacheable results are in the cache, so the max age is only needed when the query is executed
+        long maxAgeSeconds = maxAgeSeconds(parsedQuery, graphQLSchema);
+        if (maxAgeSeconds == UNCACHEABLE) {
+            return execution.apply(executionInput);
+        }
+        return execution.apply(executionInput).whenComplete((executionResult, throwable) -> {
+            if (executionResult != null && executionResult.getErrors().isEmpty()) {
+                long expiresAt = System.nanoTime() + Duration.ofSeconds(maxAgeSeconds).toNanos();
+                lock.runLocked(() -> {
+                    if (currentSchema == graphQLSchema) {
+                        results.put(cacheKey, new CachedResult(withoutExtensions(executionResult), expiresAt));
+                    }
+                });
+            }
+        });
+    }
+
+    // the extensions belong to the execution that made the result, like its tracing, and are not handed to others
+    private static ExecutionResult withoutExtensions(ExecutionResult executionResult) {
+        if (executionResult.getExtensions() == null) {
+            return executionResult;
+        }
+        return ExecutionResult.newExecutionResult().data(executionResult.getData()).errors(executionResult.getErrors()).build();
+    }
+
+    private @Nullable ExecutionResult getIfPresent(Object cacheKey) {
+        return lock.callLocked(() -> {
+            CachedResult cachedResult = results.get(cacheKey);
+            if (cachedResult == null) {
+                return null;
+            }
+            if (cachedResult.expiresAt - System.nanoTime() <= 0) {
+                results.remove(cacheKey);
+                return null;
+            }
+            return cachedResult.executionResult;
+        });
+    }
+
+    private long maxAgeSeconds(ParsedQueryCache.ParsedQuery parsedQuery, GraphQLSchema graphQLSchema) {
+        long maxAgeSeconds;
+        try {
+            maxAgeSeconds = maxAgeSeconds(parsedQuery.getOperationDefinition().getSelectionSet(), graphQLSchema.getQueryType(), defaultMaxAgeSeconds, true,
+                    parsedQuery.getFragmentsByName(), graphQLSchema, new HashSet<>());
+        } catch (RuntimeException e) {
+            // the query has not been validated yet, invalid queries are left to the engine to report
+            return UNCACHEABLE;
+        }
+        if (maxAgeSeconds == Long.MAX_VALUE) {
+            // only introspection fields were selected
+            return defaultMaxAgeSeconds;
+        }
+        return maxAgeSeconds;
+    }
+
+    private long maxAgeSeconds(SelectionSet selectionSet,
+                               GraphQLCompositeType parentType,
+                               long parentMaxAgeSeconds,
+                               boolean rootFields,
+                               Map<String, FragmentDefinition> fragmentsByName,
+                               GraphQLSchema graphQLSchema,
+                               Set<String> visitedFragments) {
+        long maxAgeSeconds = Long.MAX_VALUE;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            long selectionMaxAgeSeconds;
+            if (selection instanceof Field) {
+                selectionMaxAgeSeconds = fieldMaxAgeSeconds((Field) selection, parentType, parentMaxAgeSeconds, rootFields, fragmentsByName, graphQLSchema, visitedFragments);
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                GraphQLCompositeType fragmentType = inlineFragment.getTypeCondition() == null ? parentType
+                        : (GraphQLCompositeType) graphQLSchema.getType(inlineFragment.getTypeCondition().getName());
+                selectionMaxAgeSeconds = maxAgeSeconds(inlineFragment.getSelectionSet(), assertNotNull(fragmentType), parentMaxAgeSeconds, rootFields, fragmentsByName, graphQLSchema, visitedFragments);
+            } else {
+                String fragmentName = ((FragmentSpread) selection).getName();
+                FragmentDefinition fragmentDefinition = assertNotNull(fragmentsByName.get(fragmentName));
+                // fragment cycles are invalid, but the query has not been validated yet
+                assertTrue(visitedFragments.add(fragmentName), "fragment cycle");
+                GraphQLCompositeType fragmentType = (GraphQLCompositeType) graphQLSchema.getType(fragmentDefinition.getTypeCondition().getName());
+                selectionMaxAgeSeconds = maxAgeSeconds(fragmentDefinition.getSelectionSet(), assertNotNull(fragmentType), parentMaxAgeSeconds, rootFields, fragmentsByName, graphQLSchema, visitedFragments);
+                visitedFragments.remove(fragmentName);
+            }
+            maxAgeSeconds = Math.min(maxAgeSeconds, selectionMaxAgeSeconds);
+            if (maxAgeSeconds == UNCACHEABLE) {
+                return UNCACHEABLE;
+            }
+        }
+        return maxAgeSeconds;
+    }
+
+    private long fieldMaxAgeSeconds(Field field,
+                                    GraphQLCompositeType parentType,
+                                    long parentMaxAgeSeconds,
+                                    boolean rootField,
+                                    Map<String, FragmentDefinition> fragmentsByName,
+                                    GraphQLSchema graphQLSchema,
+                                    Set<String> visitedFragments) {
+        if (field.getName().startsWith("__")) {
+            return Long.MAX_VALUE;
+        }
+        GraphQLFieldDefinition fieldDefinition = assertNotNull(((GraphQLFieldsContainer) parentType).getFieldDefinition(field.getName()));
+        GraphQLType fieldType = unwrapAll(fieldDefinition.getType());
+
+        Long hintedMaxAgeSeconds = hintedMaxAgeSeconds(fieldDefinition);
+        if (hintedMaxAgeSeconds == null && fieldType instanceof GraphQLDirectiveContainer) {
+            hintedMaxAgeSeconds = hintedMaxAgeSeconds((GraphQLDirectiveContainer) fieldType);
+        }
+        long maxAgeSeconds;
+        if (hintedMaxAgeSeconds != null) {
+            maxAgeSeconds = hintedMaxAgeSeconds;
+        } else if (isLeaf(fieldType) && !rootField) {
+            maxAgeSeconds = parentMaxAgeSeconds;
+        } else {
+            maxAgeSeconds = defaultMaxAgeSeconds;
+        }
+        if (maxAgeSeconds == UNCACHEABLE || field.getSelectionSet() == null) {
+            return maxAgeSeconds;
+        }
+        long subSelectionMaxAgeSeconds = maxAgeSeconds(field.getSelectionSet(), (GraphQLCompositeType) fieldType, maxAgeSeconds, false, fragmentsByName, graphQLSchema, visitedFragments);
+        return Math.min(maxAgeSeconds, subSelectionMaxAgeSeconds);
+    }
+
+    /**
+     * @return the max age of the cache control hint, 0 for the private scope, or null if there is no hint
+     */
+    private @Nullable Long hintedMaxAgeSeconds(GraphQLDirectiveContainer directiveContainer) {
+        GraphQLAppliedDirective cacheControl = directiveContainer.getAppliedDirective(CACHE_CONTROL_DIRECTIVE);
+        if (cacheControl == null) {
+            return null;
+        }
+        GraphQLAppliedDirectiveArgument scope = cacheControl.getArgument("scope");
+        if (scope != null && "PRIVATE".equals(String.valueOf((Object) scope.getValue()))) {
+            return UNCACHEABLE;
+        }
+        GraphQLAppliedDirectiveArgument maxAge = cacheControl.getArgument("maxAge");
+        Object maxAgeValue = maxAge == null ? null : maxAge.getValue();
+        if (maxAgeValue == null) {
+            return null;
+        }
+        return Math.max(UNCACHEABLE, ((Number) maxAgeValue).longValue());
+    }
+
+    private void invalidateIfSchemaChanged(GraphQLSchema graphQLSchema) {
+        lock.runLocked(() -> {
+            if (currentSchema != graphQLSchema) {
+                currentSchema = graphQLSchema;
+                results.clear();
+            }
+        });
+    }
+
+    /**
+     * @return the number of results in the cache, some of which may no longer be fresh
+     */
+    public int size() {
+        return lock.callLocked(results::size);
+    }
+
+    /**
+     * Drops all the cached results, for example because the underlying data has changed
+     */
+    public void invalidateAll() {
+        lock.runLocked(results::clear);
+    }
+
+    /**
+     * @return a new builder of {@link ResponseCache}s
+     */
+    public static Builder newResponseCache() {
+        return new Builder();
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private int maximumSize = 1000;
+        private Duration defaultMaxAge = Duration.ZERO;
+        private Function<ExecutionInput, Object> scopeKeyFunction = executionInput -> NO_SCOPE_KEY;
+
+        /**
+         * The number of results that are kept, which defaults to 1000
+         *
+         * @param maximumSize the maximum number of cached results
+         *
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize) {
+            assertTrue(maximumSize > 0, "the maximum size must be greater than 0");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * The max age of root fields and fields of object, interface and union types that have no cache control hint.
+         * This defaults to zero, which means that results are only cached when all of these fields have a hint.
+         *
+         * @param defaultMaxAge the default max age, in whole seconds
+         *
+         * @return this builder
+         */
+        public Builder defaultMaxAge(Duration defaultMaxAge) {
+            assertNotNull(defaultMaxAge, "defaultMaxAge must not be null");
+            assertTrue(!defaultMaxAge.isNegative(), "the default max age must not be negative");
+            this.defaultMaxAge = defaultMaxAge;
+            return this;
+        }
+
+        /**
+         * The function that works out the part of the key results are cached by from the things in the execution input
+         * that change the result but are not part of the query or the variables, like the locale or the tenant.  It must
+         * return a value with proper equals and hashCode methods, or null if the result should not be cached.
+         *
+         * @param scopeKeyFunction the function from execution inputs to keys
+         *
+         * @return this builder
+         */
+        public Builder scopeKey(Function<ExecutionInput, Object> scopeKeyFunction) {
+            this.scopeKeyFunction = assertNotNull(scopeKeyFunction, "scopeKeyFunction must not be null");
+            return this;
+        }
+
+        public ResponseCache build() {
+            return new ResponseCache(this);
+        }
+    }
+}
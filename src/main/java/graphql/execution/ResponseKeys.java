@@ -0,0 +1,58 @@
+package graphql.execution;
+
+import graphql.Internal;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The immutable list of the result keys of a {@link MergedSelectionSet}, which is the same list for every object the
+ * selection is executed for.  It carries a lookup from key to index, so that the {@link CompactResponseMapFactory} can
+ * share it between all the result maps of the selection, for as long as the selection itself is around.
+ */
+@Internal
+@NullMarked
+public class ResponseKeys extends AbstractList<String> implements RandomAccess {
+
+    private final String[] names;
+    // only built for the response map factories that need it
+    private volatile @Nullable Map<String, Integer> indexes;
+
+    public ResponseKeys(Collection<String> keys) {
+        this.names = keys.toArray(new String[0]);
+    }
+
+    @Override
+    public String get(int index) {
+        return names[index];
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param key the key to look up
+     *
+     * @return the index of the key or -1 if this is not one of the keys
+     */
+    public int indexOf(@Nullable Object key) {
+        Map<String, Integer> indexes = this.indexes;
+        if (indexes == null) {
+            // racing threads build the same lookup, so it does not matter which one wins
+            indexes = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                indexes.put(names[i], i);
+            }
+            this.indexes = indexes;
+        }
+        Integer index = indexes.get(key);
+        return index == null ? -1 : index;
+    }
+}
@@ -22,6 +22,13 @@ public interface ResponseMapFactory {
      */
     ResponseMapFactory DEFAULT = new DefaultResponseMapFactory();
 
+    /**
+     * An implementation that creates immutable maps holding only an array of values, with the keys shared between
+     * all the maps of a selection.  This allocates a lot less per object than {@link #DEFAULT} but the maps cannot
+     * be modified after execution.
+     */
+    ResponseMapFactory COMPACT = new CompactResponseMapFactory();
+
     /**
      * The general contract is that the resulting map keeps the insertion orders of keys. Values are nullable but keys are not.
      * Implementations are free to create or to reuse map instances.
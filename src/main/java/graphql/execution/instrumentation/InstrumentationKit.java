@@ -0,0 +1,68 @@
+package graphql.execution.instrumentation;
+
+import graphql.Internal;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.schema.DataFetcher;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Helpers that let the engine skip work on behalf of {@link Instrumentation}s that would not do anything with it.
+ */
+@Internal
+@NullMarked
+public class InstrumentationKit {
+
+    private static final ClassValue<Boolean> HAS_FIELD_CALLBACKS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> instrumentationClass) {
+            try {
+                return isOverridden(instrumentationClass, "beginFieldExecution", InstrumentationFieldParameters.class)
+                        || isOverridden(instrumentationClass, "beginFieldFetch", InstrumentationFieldFetchParameters.class)
+                        || isOverridden(instrumentationClass, "beginFieldFetching", InstrumentationFieldFetchParameters.class)
+                        || isOverridden(instrumentationClass, "beginFieldCompletion", InstrumentationFieldCompleteParameters.class)
+                        || isOverridden(instrumentationClass, "beginFieldListCompletion", InstrumentationFieldCompleteParameters.class)
+                        || isOverridden(instrumentationClass, "instrumentDataFetcher", DataFetcher.class, InstrumentationFieldFetchParameters.class);
+            } catch (NoSuchMethodException | SecurityException e) {
+                // if we cant tell, we assume the callbacks are wanted
+                return true;
+            }
+        }
+    };
+
+    private static boolean isOverridden(Class<?> instrumentationClass, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Class<?>[] allParameterTypes = new Class<?>[parameterTypes.length + 1];
+        System.arraycopy(parameterTypes, 0, allParameterTypes, 0, parameterTypes.length);
+        allParameterTypes[parameterTypes.length] = InstrumentationState.class;
+        Class<?> declaringClass = instrumentationClass.getMethod(methodName, allParameterTypes).getDeclaringClass();
+        return declaringClass != Instrumentation.class
+                && declaringClass != SimplePerformantInstrumentation.class
+                && declaringClass != SimpleInstrumentation.class;
+    }
+
+    /**
+     * Works out if an instrumentation wants to be called back for each field that is executed, that is whether it, or any
+     * instrumentation it chains to, implements one of the field level methods of {@link Instrumentation}.
+     * <p>
+     * When it does not, the engine is free to complete simple fields without creating the parameter objects
+     * that those methods take.
+     *
+     * @param instrumentation the instrumentation to check
+     *
+     * @return true if the instrumentation has field level callbacks
+     */
+    public static boolean hasFieldCallbacks(Instrumentation instrumentation) {
+        // subclasses of the chained instrumentations may add callbacks of their own, so only the exact classes are looked through
+        Class<?> instrumentationClass = instrumentation.getClass();
+        if (instrumentationClass == ChainedInstrumentation.class || instrumentationClass == NoContextChainedInstrumentation.class) {
+            for (Instrumentation chainedInstrumentation : ((ChainedInstrumentation) instrumentation).getInstrumentations()) {
+                if (hasFieldCallbacks(chainedInstrumentation)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return HAS_FIELD_CALLBACKS.get(instrumentationClass);
+    }
+}
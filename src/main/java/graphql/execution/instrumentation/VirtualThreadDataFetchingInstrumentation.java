@@ -0,0 +1,161 @@
+package graphql.execution.instrumentation;
+
+import graphql.EngineRunningState;
+import graphql.ExperimentalApi;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.AsyncDataFetcher;
+import graphql.schema.BatchedDataFetcher;
+import graphql.schema.DataFetcher;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * This {@link Instrumentation} runs data fetchers on virtual threads, so that blocking data fetchers, such as
+ * ones that make JDBC or HTTP calls, no longer tie up the thread that is executing the query and there is no
+ * thread pool to size.
+ * <p>
+ * The data fetchers to run on virtual threads are chosen with {@link Builder#shouldRunOnVirtualThread(Predicate)}, and
+ * by default none are.  {@link graphql.TrivialDataFetcher}s (such as the default property fetching),
+ * {@link AsyncDataFetcher}s and {@link BatchedDataFetcher}s are never run on virtual threads.  The returned
+ * {@link CompletableFuture} is handled by the engine like that of any other asynchronous data fetcher,
+ * and data fetchers that start after the execution has been cancelled via {@link graphql.ExecutionInput#cancel()}
+ * fail with an {@link graphql.execution.AbortExecutionException}.
+ * <p>
+ * Virtual threads are available on JDK 21 and above.  On older JDKs the data fetchers are run in the fallback
+ * executor, which is the {@link ForkJoinPool#commonPool()} unless configured otherwise,
+ * and {@link #isUsingVirtualThreads()} is false.
+ * <p>
+ * Data fetchers that call {@link org.dataloader.DataLoader}s should not be run on another thread, since the
+ * {@link org.dataloader.DataLoader#load(Object)} calls can then happen after the engine has dispatched
+ * the data loaders, which is why only the data fetchers known to block should be chosen.
+ */
+@ExperimentalApi
+@NullMarked
+public class VirtualThreadDataFetchingInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final @Nullable MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    private final Executor executor;
+    private final boolean usingVirtualThreads;
+    private final Predicate<InstrumentationFieldFetchParameters> shouldRunOnVirtualThread;
+
+    private VirtualThreadDataFetchingInstrumentation(Builder builder) {
+        ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        this.usingVirtualThreads = virtualThreadExecutor != null;
+        this.executor = virtualThreadExecutor != null ? virtualThreadExecutor : builder.fallbackExecutor;
+        this.shouldRunOnVirtualThread = builder.shouldRunOnVirtualThread;
+    }
+
+    /**
+     * @return true if data fetchers are run on virtual threads or false if the JDK does not support them and the
+     * fallback executor is used
+     */
+    public boolean isUsingVirtualThreads() {
+        return usingVirtualThreads;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || dataFetcher instanceof AsyncDataFetcher || dataFetcher instanceof BatchedDataFetcher || !shouldRunOnVirtualThread.test(parameters)) {
+            return dataFetcher;
+        }
+        EngineRunningState engineRunningState = parameters.getExecutionContext().getEngineRunningState();
+        return environment -> CompletableFuture.supplyAsync(() -> {
+            engineRunningState.throwIfCancelled();
+            try {
+                return dataFetcher.get(environment);
+            } catch (Exception e) {
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                } else {
+                    throw new RuntimeException(e);
+                }
+            }
+        }, executor).thenCompose(VirtualThreadDataFetchingInstrumentation::unwrapFuture);
+    }
+
+    // a data fetcher that was already asynchronous would otherwise give us a future of a future
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<Object> unwrapFuture(@Nullable Object value) {
+        if (value instanceof CompletableFuture) {
+            return (CompletableFuture<Object>) value;
+        }
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static @Nullable MethodHandle findNewVirtualThreadPerTaskExecutor() {
+        try {
+            // we are compiled for JDK 11, so we have to look up the JDK 21 API
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return a new builder of {@link VirtualThreadDataFetchingInstrumentation}s
+     */
+    public static Builder newVirtualThreadDataFetchingInstrumentation() {
+        return new Builder();
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private Executor fallbackExecutor = ForkJoinPool.commonPool();
+        private Predicate<InstrumentationFieldFetchParameters> shouldRunOnVirtualThread = parameters -> false;
+
+        /**
+         * The executor to run data fetchers in when virtual threads are not available.  This defaults to the
+         * {@link ForkJoinPool#commonPool()}
+         *
+         * @param fallbackExecutor the executor to use on JDKs without virtual threads
+         *
+         * @return this builder
+         */
+        public Builder fallbackExecutor(Executor fallbackExecutor) {
+            this.fallbackExecutor = assertNotNull(fallbackExecutor, "fallbackExecutor must not be null");
+            return this;
+        }
+
+        /**
+         * Chooses which non-trivial data fetchers are run on virtual threads, typically the ones that make blocking
+         * calls and do not use {@link org.dataloader.DataLoader}s.  By default none are.
+         *
+         * @param shouldRunOnVirtualThread the predicate deciding whether a data fetcher is run on a virtual thread
+         *
+         * @return this builder
+         */
+        public Builder shouldRunOnVirtualThread(Predicate<InstrumentationFieldFetchParameters> shouldRunOnVirtualThread) {
+            this.shouldRunOnVirtualThread = assertNotNull(shouldRunOnVirtualThread, "shouldRunOnVirtualThread must not be null");
+            return this;
+        }
+
+        public VirtualThreadDataFetchingInstrumentation build() {
+            return new VirtualThreadDataFetchingInstrumentation(this);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.ExecutionInput;
+import graphql.Internal;
+import graphql.util.LockKit;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+import java.util.Map;
+
+import static graphql.execution.instrumentation.dataloader.EmptyDataLoaderRegistryInstance.EMPTY_DATALOADER_REGISTRY;
+
+/**
+ * The {@link DataLoaderRegistry} that the executions of a batch of operations share, see
+ * {@link graphql.GraphQL#executeBatchAsync(List)}.
+ * <p>
+ * While the executions of the batch are being started, dispatching the whole registry is held back, so that the loads
+ * of all the operations that are known up front go out together in one dispatch when the last execution has started.
+ * In the same way, the dispatches that the executions ask for while a dispatch is running, because the values they
+ * waited on have been loaded, are merged into one dispatch after it.  Any other dispatch of an execution also
+ * dispatches the pending loads of the other executions.
+ */
+@Internal
+@NullMarked
+public class BatchExecutionDataLoaderRegistry extends DataLoaderRegistry {
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private boolean dispatchingHeld;
+    private boolean dispatchRequested;
+
+    private BatchExecutionDataLoaderRegistry() {
+    }
+
+    /**
+     * Combines the registries of the execution inputs into one registry.  When several registries have a
+     * {@link DataLoader} of the same name, the one of the first execution input wins.
+     *
+     * @param executionInputs the execution inputs of the batch
+     *
+     * @return the combined registry or the empty registry if none of the execution inputs has data loaders
+     */
+    public static DataLoaderRegistry combine(List<ExecutionInput> executionInputs) {
+        BatchExecutionDataLoaderRegistry combined = new BatchExecutionDataLoaderRegistry();
+        for (ExecutionInput executionInput : executionInputs) {
+            DataLoaderRegistry registry = executionInput.getDataLoaderRegistry();
+            for (Map.Entry<String, DataLoader<?, ?>> entry : registry.getDataLoadersMap().entrySet()) {
+                combined.dataLoaders.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return combined.dataLoaders.isEmpty() ? EMPTY_DATALOADER_REGISTRY : combined;
+    }
+
+    /**
+     * Holds back dispatching until {@link #releaseDispatching()} is called
+     */
+    public void holdDispatching() {
+        lock.runLocked(() -> dispatchingHeld = true);
+    }
+
+    /**
+     * Dispatches the registry if that was asked for while dispatching was held back
+     */
+    public void releaseDispatching() {
+        boolean dispatch = lock.callLocked(() -> {
+            if (dispatchRequested) {
+                dispatchRequested = false;
+                return true;
+            }
+            dispatchingHeld = false;
+            return false;
+        });
+        if (dispatch) {
+            dispatchHeldBack();
+        }
+    }
+
+    @Override
+    public void dispatchAll() {
+        dispatchAllWithCount();
+    }
+
+    @Override
+    public int dispatchAllWithCount() {
+        boolean dispatch = lock.callLocked(() -> {
+            if (dispatchingHeld) {
+                dispatchRequested = true;
+                return false;
+            }
+            dispatchingHeld = true;
+            return true;
+        });
+        return dispatch ? dispatchHeldBack() : 0;
+    }
+
+    /*
+     * Dispatches while holding back the dispatches that the completed loads cause, and then dispatches
+     * them together, until no more dispatches are asked for
+     */
+    private int dispatchHeldBack() {
+        int count = 0;
+        boolean dispatchAgain = true;
+        try {
+            while (dispatchAgain) {
+                count += super.dispatchAllWithCount();
+                dispatchAgain = lock.callLocked(() -> {
+                    boolean requested = dispatchRequested;
+                    dispatchRequested = false;
+                    dispatchingHeld = requested;
+                    return requested;
+                });
+            }
+        } finally {
+            if (dispatchAgain) {
+                lock.runLocked(() -> dispatchingHeld = false);
+            }
+        }
+        return count;
+    }
+}
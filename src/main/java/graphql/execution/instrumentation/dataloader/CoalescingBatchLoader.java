@@ -0,0 +1,201 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.ExperimentalApi;
+import graphql.util.LockKit;
+import org.dataloader.BatchLoader;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A {@link BatchLoader} that is meant to be shared by the {@link org.dataloader.DataLoader}s of concurrently running
+ * executions, and that merges their batches into one call of the backend {@link BatchLoader}.
+ * <p>
+ * Each execution still has its own {@link org.dataloader.DataLoader}, with its own cache, that is dispatched by the
+ * dispatch strategy of that execution as usual.  When it is dispatched, its keys are held back for a short window
+ * in which the keys of other executions are gathered, after which the backend is called once with the distinct keys
+ * of all of them.  Every execution then gets the values of its own keys.
+ * <p>
+ * A value of the backend that is a {@link Throwable} fails the load of that key only, in the executions that asked for it.
+ * If the backend call fails as a whole, the loads of all executions in that batch fail.
+ * <p>
+ * Since the keys of many executions are loaded together, the backend must not depend on anything that is specific to
+ * one execution, such as the user the request is made for.  Create one instance per loader name and register it when
+ * setting up the {@link org.dataloader.DataLoaderRegistry} of each execution:
+ * <pre>
+ * {@code
+ * CoalescingBatchLoader<String, User> userLoader = CoalescingBatchLoader.newCoalescingBatchLoader(userService::getUsers).build();
+ * ...
+ * registry.register("users", DataLoaderFactory.newDataLoader(userLoader));
+ * }
+ * </pre>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+@ExperimentalApi
+@NullMarked
+public class CoalescingBatchLoader<K, V> implements BatchLoader<K, V> {
+
+    private final BatchLoader<K, V> batchLoader;
+    private final Executor windowExecutor;
+    private final int maxBatchSize;
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private @Nullable PendingBatch<K, V> pendingBatch;
+
+    private CoalescingBatchLoader(Builder<K, V> builder) {
+        this.batchLoader = builder.batchLoader;
+        this.windowExecutor = CompletableFuture.delayedExecutor(builder.window.toNanos(), TimeUnit.NANOSECONDS);
+        this.maxBatchSize = builder.maxBatchSize;
+    }
+
+    @Override
+    public CompletionStage<List<V>> load(List<K> keys) {
+        CompletableFuture<List<V>> values = new CompletableFuture<>();
+        PendingBatch<K, V> fullBatch = lock.callLocked(() -> {
+            PendingBatch<K, V> batch = pendingBatch;
+            if (batch == null) {
+                PendingBatch<K, V> newBatch = new PendingBatch<>();
+                pendingBatch = batch = newBatch;
+                windowExecutor.execute(() -> windowPassed(newBatch));
+            }
+            batch.add(keys, values);
+            if (batch.keyIndexes.size() < maxBatchSize) {
+                return null;
+            }
+            pendingBatch = null;
+            return batch;
+        });
+        if (fullBatch != null) {
+            fullBatch.load(batchLoader);
+        }
+        return values;
+    }
+
+    private void windowPassed(PendingBatch<K, V> batch) {
+        // the batch may have been loaded already because it was full
+        boolean stillPending = lock.callLocked(() -> {
+            if (pendingBatch != batch) {
+                return false;
+            }
+            pendingBatch = null;
+            return true;
+        });
+        if (stillPending) {
+            batch.load(batchLoader);
+        }
+    }
+
+    private static class PendingBatch<K, V> {
+        // the distinct keys of all the executions in the order they were added
+        private final Map<K, Integer> keyIndexes = new LinkedHashMap<>();
+        private final List<int[]> requestedKeyIndexes = new ArrayList<>();
+        private final List<CompletableFuture<List<V>>> requestedValues = new ArrayList<>();
+
+        private void add(List<K> keys, CompletableFuture<List<V>> values) {
+            int[] indexes = new int[keys.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = keyIndexes.computeIfAbsent(keys.get(i), key -> keyIndexes.size());
+            }
+            requestedKeyIndexes.add(indexes);
+            requestedValues.add(values);
+        }
+
+        private void load(BatchLoader<K, V> batchLoader) {
+            CompletableFuture<List<V>> values;
+            try {
+                values = batchLoader.load(new ArrayList<>(keyIndexes.keySet())).toCompletableFuture();
+            } catch (RuntimeException e) {
+                values = CompletableFuture.failedFuture(e);
+            }
+            values.whenComplete(this::complete);
+        }
+
+        private void complete(@Nullable List<V> values, @Nullable Throwable throwable) {
+            if (throwable == null && (values == null || values.size() != keyIndexes.size())) {
+                throwable = new IllegalStateException(String.format("The batch loader must return one value for each of its %d keys but it returned %s",
+                        keyIndexes.size(), values == null ? "null" : values.size() + " values"));
+            }
+            for (int i = 0; i < requestedValues.size(); i++) {
+                if (throwable != null) {
+                    requestedValues.get(i).completeExceptionally(throwable);
+                } else {
+                    int[] indexes = requestedKeyIndexes.get(i);
+                    List<V> requested = new ArrayList<>(indexes.length);
+                    for (int index : indexes) {
+                        requested.add(values.get(index));
+                    }
+                    requestedValues.get(i).complete(requested);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param batchLoader the backend batch loader that is called with the keys of many executions
+     * @param <K>         the type of the keys
+     * @param <V>         the type of the values
+     *
+     * @return a new builder of {@link CoalescingBatchLoader}s
+     */
+    public static <K, V> Builder<K, V> newCoalescingBatchLoader(BatchLoader<K, V> batchLoader) {
+        return new Builder<>(batchLoader);
+    }
+
+    @NullUnmarked
+    public static class Builder<K, V> {
+        private final BatchLoader<K, V> batchLoader;
+        private Duration window = Duration.ofMillis(2);
+        private int maxBatchSize = Integer.MAX_VALUE;
+
+        private Builder(BatchLoader<K, V> batchLoader) {
+            this.batchLoader = assertNotNull(batchLoader, "batchLoader must not be null");
+        }
+
+        /**
+         * How long the keys of a dispatched {@link org.dataloader.DataLoader} are held back for the keys of other
+         * executions to join them.  This is added to the time of every dispatch, and defaults to 2 milliseconds.
+         *
+         * @param window the time to gather keys for
+         *
+         * @return this builder
+         */
+        public Builder<K, V> window(Duration window) {
+            assertNotNull(window, "window must not be null");
+            assertTrue(!window.isNegative(), "the window must not be negative");
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * The number of distinct keys at which the backend is called without waiting for the window to pass.  There is
+         * no limit by default.
+         *
+         * @param maxBatchSize the number of distinct keys
+         *
+         * @return this builder
+         */
+        public Builder<K, V> maxBatchSize(int maxBatchSize) {
+            assertTrue(maxBatchSize > 0, "the max batch size must be greater than 0");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public CoalescingBatchLoader<K, V> build() {
+            return new CoalescingBatchLoader<>(this);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import graphql.GraphQLContext;
 import graphql.Internal;
 import org.jspecify.annotations.NullMarked;
 
+import java.time.Duration;
+
 /**
  * GraphQLContext keys related to DataLoader dispatching.
  */
@@ -32,6 +34,22 @@ public final class DataLoaderDispatchingContextKeys {
      */
     public static final String ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING = "__GJ_enable_data_loader_exhausted_dispatching";
 
+    /**
+     * Enables a dispatching strategy that dispatches a DataLoader as soon as it has {@link #DATA_LOADER_DISPATCH_BATCH_SIZE}
+     * pending loads, and all DataLoaders when this time window has passed since loads started pending, whichever comes first.
+     * <p>
+     * Expects a {@link java.time.Duration} value.
+     */
+    public static final String DATA_LOADER_DISPATCH_WINDOW = "__GJ_data_loader_dispatch_window";
+
+    /**
+     * The number of pending loads at which a DataLoader is dispatched before the {@link #DATA_LOADER_DISPATCH_WINDOW}
+     * has passed.  Without it, DataLoaders are only dispatched when the window has passed.
+     * <p>
+     * Expects an integer value.
+     */
+    public static final String DATA_LOADER_DISPATCH_BATCH_SIZE = "__GJ_data_loader_dispatch_batch_size";
+
     /**
      * Enables the ability that chained DataLoaders are dispatched automatically.
      *
@@ -50,5 +68,17 @@ public final class DataLoaderDispatchingContextKeys {
         graphQLContext.put(ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING, enabled);
     }
 
+    /**
+     * Enables the dispatching of DataLoaders when a batch is full or a time window has passed, whichever comes first.
+     *
+     * @param graphQLContext the context to enable it in
+     * @param window         the time that pending loads wait at most before they are dispatched
+     * @param batchSize      the number of pending loads at which a DataLoader is dispatched straight away
+     */
+    public static void setDataLoaderWindowedDispatching(GraphQLContext graphQLContext, Duration window, int batchSize) {
+        graphQLContext.put(DATA_LOADER_DISPATCH_WINDOW, window);
+        graphQLContext.put(DATA_LOADER_DISPATCH_BATCH_SIZE, batchSize);
+    }
+
 
 }
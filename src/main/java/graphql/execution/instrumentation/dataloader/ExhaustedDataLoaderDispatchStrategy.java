@@ -3,10 +3,13 @@ package graphql.execution.instrumentation.dataloader;
 import graphql.Assert;
 import graphql.Internal;
 import graphql.Profiler;
+import graphql.execution.BatchedFieldFetches;
 import graphql.execution.DataLoaderDispatchStrategy;
 import graphql.execution.ExecutionContext;
 import graphql.execution.ExecutionStrategyParameters;
 import graphql.execution.incremental.AlternativeCallContext;
+import graphql.schema.BatchedDataFetcher;
+import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
 import graphql.VisibleForTesting;
@@ -118,6 +121,8 @@ public class ExhaustedDataLoaderDispatchStrategy implements DataLoaderDispatchSt
 
         private final AtomicInteger deferredFragmentRootFieldsCompleted = new AtomicInteger();
 
+        private final BatchedFieldFetches batchedFieldFetches = new BatchedFieldFetches();
+
         public CallStack() {
         }
 
@@ -249,6 +254,10 @@ public class ExhaustedDataLoaderDispatchStrategy implements DataLoaderDispatchSt
 
 
     private void dispatchImpl(CallStack callStack) {
+        // a cancelled execution is not waiting on any more batches
+        if (executionContext.getEngineRunningState().isCancelled()) {
+            return;
+        }
         while (true) {
             int oldState = callStack.getState();
             if (!CallStack.getDataLoaderToDispatch(oldState)) {
@@ -266,9 +275,10 @@ public class ExhaustedDataLoaderDispatchStrategy implements DataLoaderDispatchSt
 
         DataLoaderRegistry dataLoaderRegistry = executionContext.getDataLoaderRegistry();
         List<DataLoader<?, ?>> dataLoaders = dataLoaderRegistry.getDataLoaders();
-        List<CompletableFuture<? extends List<?>>> allDispatchedCFs = new ArrayList<>();
+        List<CompletableFuture<?>> allDispatchedCFs = new ArrayList<>(callStack.batchedFieldFetches.fetchAll());
         for (DataLoader<?, ?> dataLoader : dataLoaders) {
             CompletableFuture<? extends List<?>> dispatch = dataLoader.dispatch();
+            executionContext.getEngineRunningState().cancelWithExecution(dataLoaderRegistry, dispatch);
             allDispatchedCFs.add(dispatch);
         }
         CompletableFuture.allOf(allDispatchedCFs.toArray(new CompletableFuture[0]))
@@ -279,6 +289,14 @@ public class ExhaustedDataLoaderDispatchStrategy implements DataLoaderDispatchSt
     }
 
 
+    @Override
+    public CompletableFuture<?> fetchBatched(ExecutionStrategyParameters parameters, BatchedDataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        CallStack callStack = getCallStack(parameters);
+        CompletableFuture<Object> value = callStack.batchedFieldFetches.add(dataFetcher, environment);
+        newDataLoaderInvocationMaybeDispatch(callStack);
+        return value;
+    }
+
     public void newDataLoaderInvocation(@Nullable AlternativeCallContext alternativeCallContext) {
         CallStack callStack = getCallStack(alternativeCallContext);
         newDataLoaderInvocationMaybeDispatch(callStack);
@@ -1,16 +1,20 @@
 package graphql.execution.instrumentation.dataloader;
 
 import graphql.Assert;
+import graphql.EngineRunningState;
 import graphql.GraphQLContext;
 import graphql.Internal;
 import graphql.Profiler;
+import graphql.execution.BatchedFieldFetches;
 import graphql.execution.DataLoaderDispatchStrategy;
 import graphql.execution.ExecutionContext;
 import graphql.execution.ExecutionStrategyParameters;
 import graphql.execution.FieldValueInfo;
 import graphql.execution.incremental.AlternativeCallContext;
+import graphql.schema.BatchedDataFetcher;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.util.LockKit;
 import org.dataloader.DataLoader;
 import org.dataloader.DataLoaderRegistry;
 import graphql.VisibleForTesting;
@@ -18,13 +22,14 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 @Internal
@@ -41,13 +46,115 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
     private final Map<AlternativeCallContext, CallStack> alternativeCallContextMap = new ConcurrentHashMap<>();
 
+    /*
+     * Levels are small dense integers, so the per level state is kept in arrays that are indexed by level.  The arrays
+     * are split into fixed size chunks so that growing them never copies a state, which could lose a concurrent CAS
+     * on the old copy.  Only the array of chunks is copied, under a lock, when a deeper level is first used.
+     */
+    private static final int LEVELS_PER_CHUNK = 16;
+
+    private static class LevelStates {
+        private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+        private volatile AtomicLongArray[] chunks = new AtomicLongArray[]{new AtomicLongArray(LEVELS_PER_CHUNK)};
+
+        long get(int level) {
+            return chunk(level).get(level % LEVELS_PER_CHUNK);
+        }
+
+        boolean compareAndSet(int level, long expectedState, long newState) {
+            return chunk(level).compareAndSet(level % LEVELS_PER_CHUNK, expectedState, newState);
+        }
+
+        private AtomicLongArray chunk(int level) {
+            AtomicLongArray[] currentChunks = chunks;
+            int chunkIndex = level / LEVELS_PER_CHUNK;
+            if (chunkIndex < currentChunks.length) {
+                return currentChunks[chunkIndex];
+            }
+            return lock.callLocked(() -> {
+                AtomicLongArray[] lockedChunks = chunks;
+                if (chunkIndex >= lockedChunks.length) {
+                    AtomicLongArray[] newChunks = Arrays.copyOf(lockedChunks, chunkIndex + 1);
+                    for (int i = lockedChunks.length; i < newChunks.length; i++) {
+                        newChunks[i] = new AtomicLongArray(LEVELS_PER_CHUNK);
+                    }
+                    chunks = lockedChunks = newChunks;
+                }
+                return lockedChunks[chunkIndex];
+            });
+        }
+
+        void clear() {
+            chunks = new AtomicLongArray[]{new AtomicLongArray(LEVELS_PER_CHUNK)};
+        }
+    }
+
+    private static class LevelReferences<T> {
+        private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+        private volatile AtomicReferenceArray<T>[] chunks = newChunks(1);
+
+        @SuppressWarnings("unchecked")
+        private static <T> AtomicReferenceArray<T>[] newChunks(int count) {
+            AtomicReferenceArray<T>[] newChunks = new AtomicReferenceArray[count];
+            for (int i = 0; i < count; i++) {
+                newChunks[i] = new AtomicReferenceArray<>(LEVELS_PER_CHUNK);
+            }
+            return newChunks;
+        }
+
+        @Nullable T get(int level) {
+            return chunk(level).get(level % LEVELS_PER_CHUNK);
+        }
+
+        boolean compareAndSet(int level, @Nullable T expectedValue, T newValue) {
+            return chunk(level).compareAndSet(level % LEVELS_PER_CHUNK, expectedValue, newValue);
+        }
+
+        private AtomicReferenceArray<T> chunk(int level) {
+            AtomicReferenceArray<T>[] currentChunks = chunks;
+            int chunkIndex = level / LEVELS_PER_CHUNK;
+            if (chunkIndex < currentChunks.length) {
+                return currentChunks[chunkIndex];
+            }
+            return lock.callLocked(() -> {
+                AtomicReferenceArray<T>[] lockedChunks = chunks;
+                if (chunkIndex >= lockedChunks.length) {
+                    AtomicReferenceArray<T>[] newChunks = Arrays.copyOf(lockedChunks, chunkIndex + 1);
+                    for (int i = lockedChunks.length; i < newChunks.length; i++) {
+                        newChunks[i] = new AtomicReferenceArray<>(LEVELS_PER_CHUNK);
+                    }
+                    chunks = lockedChunks = newChunks;
+                }
+                return lockedChunks[chunkIndex];
+            });
+        }
+
+        void clear() {
+            chunks = newChunks(1);
+        }
+    }
+
     private static class ChainedDLStack {
 
-        private final Map<Integer, AtomicReference<@Nullable StateForLevel>> stateMapPerLevel = new ConcurrentHashMap<>();
+        private final LevelReferences<StateForLevel> stateForLevels = new LevelReferences<>();
 
         // a state for level points to a previous one
         // all the invocations that are linked together are the relevant invocations for the next dispatch
         private static class StateForLevel {
+
+            // the states without a data loader are fully described by their flags, so they are shared
+            private static final StateForLevel[] FLAGS_ONLY = new StateForLevel[8];
+
+            static {
+                for (int i = 0; i < FLAGS_ONLY.length; i++) {
+                    FLAGS_ONLY[i] = new StateForLevel(null, (i & 1) != 0, (i & 2) != 0, (i & 4) != 0, null);
+                }
+            }
+
+            static StateForLevel flagsOnly(boolean dispatchingStarted, boolean dispatchingFinished, boolean currentlyDelayedDispatching) {
+                return FLAGS_ONLY[(dispatchingStarted ? 1 : 0) | (dispatchingFinished ? 2 : 0) | (currentlyDelayedDispatching ? 4 : 0)];
+            }
+
             final @Nullable DataLoader dataLoader;
             final boolean dispatchingStarted;
             final boolean dispatchingFinished;
@@ -69,9 +176,8 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
 
         public @Nullable StateForLevel aboutToStartDispatching(int level, boolean normalDispatchOrDelayed, boolean chained) {
-            AtomicReference<@Nullable StateForLevel> currentStateRef = stateMapPerLevel.computeIfAbsent(level, __ -> new AtomicReference<>());
             while (true) {
-                StateForLevel currentState = currentStateRef.get();
+                StateForLevel currentState = stateForLevels.get(level);
 
 
                 boolean dispatchingStarted = false;
@@ -101,9 +207,9 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
                     }
                 }
 
-                StateForLevel newState = new StateForLevel(null, dispatchingStarted, dispatchingFinished, currentlyDelayedDispatching, null);
+                StateForLevel newState = StateForLevel.flagsOnly(dispatchingStarted, dispatchingFinished, currentlyDelayedDispatching);
 
-                if (currentStateRef.compareAndSet(currentState, newState)) {
+                if (stateForLevels.compareAndSet(level, currentState, newState)) {
                     return currentState;
                 }
             }
@@ -111,9 +217,8 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
 
         public boolean newDataLoaderInvocation(int level, DataLoader dataLoader) {
-            AtomicReference<@Nullable StateForLevel> currentStateRef = stateMapPerLevel.computeIfAbsent(level, __ -> new AtomicReference<>());
             while (true) {
-                StateForLevel currentState = currentStateRef.get();
+                StateForLevel currentState = stateForLevels.get(level);
 
                 boolean dispatchingStarted = false;
                 boolean dispatchingFinished = false;
@@ -135,14 +240,14 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
                 StateForLevel newState = new StateForLevel(dataLoader, dispatchingStarted, dispatchingFinished, currentlyDelayedDispatching, currentState);
 
-                if (currentStateRef.compareAndSet(currentState, newState)) {
+                if (stateForLevels.compareAndSet(level, currentState, newState)) {
                     return newDelayedInvocation;
                 }
             }
         }
 
         public void clear() {
-            stateMapPerLevel.clear();
+            stateForLevels.clear();
         }
 
     }
@@ -177,75 +282,133 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
         /**
          * The whole algo is impleted lock free and relies purely on CAS methods to handle concurrency.
+         * <p/>
+         * The state of a level is packed into a single long, so that updating it is an allocation free CAS:
+         * - bits 0-30 hold the number of execute object calls
+         * - bits 31-61 hold the number of object completion calls
+         * - bit 62 is set once the level is dispatched
          */
 
-        static class StateForLevel {
-            @VisibleForTesting
-            final int happenedCompletionFinishedCount;
-            @VisibleForTesting
-            final int happenedExecuteObjectCalls;
+        static final int executeObjectCallsShift = 0;
+        static final int completionFinishedCountShift = 31;
+        static final int dispatchedShift = 62;
 
+        static final long countMask = (1L << 31) - 1;
 
-            public StateForLevel() {
-                this.happenedCompletionFinishedCount = 0;
-                this.happenedExecuteObjectCalls = 0;
-            }
+        public static int getHappenedExecuteObjectCalls(long state) {
+            return (int) ((state >> executeObjectCallsShift) & countMask);
+        }
 
-            public StateForLevel(int happenedCompletionFinishedCount, int happenedExecuteObjectCalls) {
-                this.happenedCompletionFinishedCount = happenedCompletionFinishedCount;
-                this.happenedExecuteObjectCalls = happenedExecuteObjectCalls;
-            }
+        public static int getHappenedCompletionFinishedCount(long state) {
+            return (int) ((state >> completionFinishedCountShift) & countMask);
+        }
 
-            public StateForLevel(StateForLevel other) {
-                this.happenedCompletionFinishedCount = other.happenedCompletionFinishedCount;
-                this.happenedExecuteObjectCalls = other.happenedExecuteObjectCalls;
-            }
+        public static boolean isDispatched(long state) {
+            return ((state >> dispatchedShift) & 1) != 0;
+        }
 
-            public StateForLevel copy() {
-                return new StateForLevel(this);
-            }
+        public static long increaseHappenedExecuteObjectCalls(long state) {
+            return state + (1L << executeObjectCallsShift);
+        }
 
-            public StateForLevel increaseHappenedCompletionFinishedCount() {
-                return new StateForLevel(happenedCompletionFinishedCount + 1, happenedExecuteObjectCalls);
-            }
+        public static long increaseHappenedCompletionFinishedCount(long state) {
+            return state + (1L << completionFinishedCountShift);
+        }
 
-            public StateForLevel increaseHappenedExecuteObjectCalls() {
-                return new StateForLevel(happenedCompletionFinishedCount, happenedExecuteObjectCalls + 1);
-            }
+        public static long setDispatched(long state) {
+            return state | (1L << dispatchedShift);
+        }
 
+        // for debugging
+        public static String printState(long state) {
+            return "happenedExecuteObjectCalls: " + getHappenedExecuteObjectCalls(state) +
+                   ",happenedCompletionFinishedCount: " + getHappenedCompletionFinishedCount(state) +
+                   ",dispatched: " + isDispatched(state);
         }
 
         private volatile int expectedFirstLevelFetchCount;
         private final AtomicInteger happenedFirstLevelFetchCount = new AtomicInteger();
 
-
-        private final Map<Integer, AtomicReference<StateForLevel>> stateForLevelMap = new ConcurrentHashMap<>();
-
-        @VisibleForTesting
-        final Set<Integer> dispatchedLevels = ConcurrentHashMap.newKeySet();
+        private final LevelStates stateForLevels = new LevelStates();
 
         public ChainedDLStack chainedDLStack = new ChainedDLStack();
 
+        private final LevelReferences<BatchedFieldFetches> batchedFieldFetches = new LevelReferences<>();
+
         private final AtomicInteger deferredFragmentRootFieldsCompleted = new AtomicInteger();
 
         public CallStack() {
         }
 
 
-        public StateForLevel get(int level) {
-            AtomicReference<StateForLevel> dataPerLevelAtomicReference = stateForLevelMap.computeIfAbsent(level, __ -> new AtomicReference<>(new StateForLevel()));
-            return Assert.assertNotNull(dataPerLevelAtomicReference.get());
+        public long get(int level) {
+            return stateForLevels.get(level);
+        }
+
+        public boolean tryUpdateLevel(int level, long oldState, long newState) {
+            return stateForLevels.compareAndSet(level, oldState, newState);
+        }
+
+        public void increaseHappenedExecuteObjectCalls(int level) {
+            while (true) {
+                long currentState = get(level);
+                if (tryUpdateLevel(level, currentState, increaseHappenedExecuteObjectCalls(currentState))) {
+                    return;
+                }
+            }
+        }
+
+        public void increaseHappenedCompletionFinishedCount(int level) {
+            while (true) {
+                long currentState = get(level);
+                if (tryUpdateLevel(level, currentState, increaseHappenedCompletionFinishedCount(currentState))) {
+                    return;
+                }
+            }
+        }
+
+        public boolean isDispatched(int level) {
+            return isDispatched(get(level));
+        }
+
+        /**
+         * @return true if the level was marked as dispatched by this call and false if it already was
+         */
+        public boolean markDispatched(int level) {
+            while (true) {
+                long currentState = get(level);
+                if (isDispatched(currentState)) {
+                    return false;
+                }
+                if (tryUpdateLevel(level, currentState, setDispatched(currentState))) {
+                    return true;
+                }
+            }
         }
 
-        public boolean tryUpdateLevel(int level, StateForLevel oldData, StateForLevel newData) {
-            AtomicReference<StateForLevel> dataPerLevelAtomicReference = Assert.assertNotNull(stateForLevelMap.get(level));
-            return dataPerLevelAtomicReference.compareAndSet(oldData, newData);
+        public BatchedFieldFetches getBatchedFieldFetches(int level) {
+            while (true) {
+                BatchedFieldFetches currentFetches = batchedFieldFetches.get(level);
+                if (currentFetches != null) {
+                    return currentFetches;
+                }
+                BatchedFieldFetches newFetches = new BatchedFieldFetches();
+                if (batchedFieldFetches.compareAndSet(level, null, newFetches)) {
+                    return newFetches;
+                }
+            }
         }
 
+        public void fetchBatchedFields(int level) {
+            BatchedFieldFetches fetches = batchedFieldFetches.get(level);
+            if (fetches != null) {
+                fetches.fetchAll();
+            }
+        }
 
         public void clear() {
-            dispatchedLevels.clear();
-            stateForLevelMap.clear();
+            stateForLevels.clear();
+            batchedFieldFetches.clear();
             expectedFirstLevelFetchCount = 0;
             happenedFirstLevelFetchCount.set(0);
             deferredFragmentRootFieldsCompleted.set(0);
@@ -268,8 +431,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     public void executionStrategy(ExecutionContext executionContext, ExecutionStrategyParameters parameters, int fieldCount) {
         Assert.assertTrue(parameters.getExecutionStepInfo().getPath().isRootPath());
         // no concurrency access happening
-        CallStack.StateForLevel currentState = initialCallStack.get(0);
-        initialCallStack.tryUpdateLevel(0, currentState, new CallStack.StateForLevel(0, 1));
+        initialCallStack.increaseHappenedExecuteObjectCalls(0);
         initialCallStack.expectedFirstLevelFetchCount = fieldCount;
     }
 
@@ -277,8 +439,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     public void executionSerialStrategy(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
         CallStack callStack = getCallStack(parameters);
         callStack.clear();
-        CallStack.StateForLevel currentState = initialCallStack.get(0);
-        initialCallStack.tryUpdateLevel(0, currentState, new CallStack.StateForLevel(0, 1));
+        initialCallStack.increaseHappenedExecuteObjectCalls(0);
         // field count is always 1 for serial execution
         initialCallStack.expectedFirstLevelFetchCount = 1;
     }
@@ -300,18 +461,13 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     @Override
     public void executeObject(ExecutionContext executionContext, ExecutionStrategyParameters parameters, int fieldCount) {
         CallStack callStack = getCallStack(parameters);
-        int curLevel = parameters.getPath().getLevel();
-        while (true) {
-            CallStack.StateForLevel currentState = callStack.get(curLevel);
-            if (callStack.tryUpdateLevel(curLevel, currentState, currentState.increaseHappenedExecuteObjectCalls())) {
-                return;
-            }
-        }
+        int curLevel = parameters.getPathLevel();
+        callStack.increaseHappenedExecuteObjectCalls(curLevel);
     }
 
     @Override
     public void executeObjectOnFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList, ExecutionStrategyParameters parameters) {
-        int curLevel = parameters.getPath().getLevel();
+        int curLevel = parameters.getPathLevel();
         CallStack callStack = getCallStack(parameters);
         onCompletionFinished(curLevel, callStack);
     }
@@ -319,18 +475,13 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     @Override
     public void executeObjectOnFieldValuesException(Throwable t, ExecutionStrategyParameters parameters) {
         CallStack callStack = getCallStack(parameters);
-        int curLevel = parameters.getPath().getLevel();
+        int curLevel = parameters.getPathLevel();
         onCompletionFinished(curLevel, callStack);
     }
 
 
     private void onCompletionFinished(int level, CallStack callStack) {
-        while (true) {
-            CallStack.StateForLevel currentState = callStack.get(level);
-            if (callStack.tryUpdateLevel(level, currentState, currentState.increaseHappenedCompletionFinishedCount())) {
-                break;
-            }
-        }
+        callStack.increaseHappenedCompletionFinishedCount(level);
 
         // due to synchronous DataFetcher the completion calls on higher levels
         // can happen before the completion calls on lower level
@@ -339,7 +490,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
         int currentLevel = level + 2;
         while (true) {
             boolean levelReady;
-            if (callStack.dispatchedLevels.contains(currentLevel)) {
+            if (callStack.isDispatched(currentLevel)) {
                 break;
             }
             levelReady = markLevelAsDispatchedIfReady(currentLevel, callStack);
@@ -361,17 +512,28 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
                              Object fetchedValue,
                              Supplier<DataFetchingEnvironment> dataFetchingEnvironment) {
         CallStack callStack = getCallStack(executionStrategyParameters);
-        int level = executionStrategyParameters.getPath().getLevel();
+        int level = executionStrategyParameters.getPathLevel();
         AlternativeCallContext alternativeCallContext = executionStrategyParameters.getAlternativeCallContext();
         if (level == 1 || (alternativeCallContext != null && level == alternativeCallContext.getStartLevel())) {
             int happenedFirstLevelFetchCount = callStack.happenedFirstLevelFetchCount.incrementAndGet();
             if (happenedFirstLevelFetchCount == callStack.expectedFirstLevelFetchCount) {
-                callStack.dispatchedLevels.add(level);
+                callStack.markDispatched(level);
                 dispatch(level, callStack);
             }
         }
     }
 
+    @Override
+    public CompletableFuture<?> fetchBatched(ExecutionStrategyParameters parameters, BatchedDataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        CallStack callStack = getCallStack(parameters);
+        int level = parameters.getPathLevel();
+        CompletableFuture<Object> value = callStack.getBatchedFieldFetches(level).add(dataFetcher, environment);
+        // a field that comes after its level was dispatched can not wait for the next dispatch of the level
+        if (callStack.isDispatched(level)) {
+            callStack.fetchBatchedFields(level);
+        }
+        return value;
+    }
 
     @Override
     public void newSubscriptionExecution(AlternativeCallContext alternativeCallContext) {
@@ -385,13 +547,8 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
         CallStack callStack = getCallStack(alternativeCallContext);
         // this means the single root field is completed (it was never "fetched" because it is
         // the event payload) and we can mark level 1 (root fields) as dispatched and level 0 as completed
-        callStack.dispatchedLevels.add(1);
-        while (true) {
-            CallStack.StateForLevel currentState = callStack.get(0);
-            if (callStack.tryUpdateLevel(0, currentState, currentState.increaseHappenedExecuteObjectCalls())) {
-                break;
-            }
-        }
+        callStack.markDispatched(1);
+        callStack.increaseHappenedExecuteObjectCalls(0);
         onCompletionFinished(0, callStack);
     }
 
@@ -433,14 +590,12 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
                 int fields = k.getFields();
                 if (startLevel > 1) {
                     // parent level is considered dispatched and all fields completed (meaning the grandparent level has all object completion call happened)
-                    callStack.dispatchedLevels.add(startLevel - 1);
-                    CallStack.StateForLevel stateForLevel = callStack.get(startLevel - 2);
-                    CallStack.StateForLevel newStateForLevel = stateForLevel.increaseHappenedExecuteObjectCalls().increaseHappenedCompletionFinishedCount();
-                    callStack.tryUpdateLevel(startLevel - 2, stateForLevel, newStateForLevel);
+                    callStack.markDispatched(startLevel - 1);
+                    callStack.increaseHappenedExecuteObjectCalls(startLevel - 2);
+                    callStack.increaseHappenedCompletionFinishedCount(startLevel - 2);
                 }
                 // the parent will have one completion therefore we set the expectation to 1
-                CallStack.StateForLevel stateForLevel = callStack.get(startLevel - 1);
-                callStack.tryUpdateLevel(startLevel - 1, stateForLevel, stateForLevel.increaseHappenedExecuteObjectCalls());
+                callStack.increaseHappenedExecuteObjectCalls(startLevel - 1);
 
                 // for the current level we set the fetch expectations
                 callStack.expectedFirstLevelFetchCount = fields;
@@ -454,7 +609,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     boolean markLevelAsDispatchedIfReady(int level, CallStack callStack) {
         boolean ready = isLevelReady(level, callStack);
         if (ready) {
-            if (!callStack.dispatchedLevels.add(level)) {
+            if (!callStack.markDispatched(level)) {
                 // meaning another thread came before us, so they will take care of dispatching
                 return false;
             }
@@ -468,13 +623,19 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
         Assert.assertTrue(level > 1);
         // we expect that parent has been dispatched and that all parents fields are completed
         // all parent fields completed means all parent parent on completions finished calls must have happened
-        int happenedExecuteObjectCalls = callStack.get(level - 2).happenedExecuteObjectCalls;
-        return callStack.dispatchedLevels.contains(level - 1) &&
-               happenedExecuteObjectCalls > 0 && happenedExecuteObjectCalls == callStack.get(level - 2).happenedCompletionFinishedCount;
+        long grandParentState = callStack.get(level - 2);
+        int happenedExecuteObjectCalls = CallStack.getHappenedExecuteObjectCalls(grandParentState);
+        return callStack.isDispatched(level - 1) &&
+               happenedExecuteObjectCalls > 0 && happenedExecuteObjectCalls == CallStack.getHappenedCompletionFinishedCount(grandParentState);
 
     }
 
     void dispatch(int level, CallStack callStack) {
+        // a cancelled execution is not waiting on any more batches
+        if (executionContext.getEngineRunningState().isCancelled()) {
+            return;
+        }
+        callStack.fetchBatchedFields(level);
         if (!enableDataLoaderChaining) {
             profiler.oldStrategyDispatchingAll(level);
             DataLoaderRegistry dataLoaderRegistry = executionContext.getDataLoaderRegistry();
@@ -485,10 +646,22 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     }
 
     private void dispatchAll(DataLoaderRegistry dataLoaderRegistry, int level) {
-        dataLoaderRegistry.dispatchAll();
+        EngineRunningState engineRunningState = executionContext.getEngineRunningState();
+        // the data loaders of a plain registry are dispatched one by one, so that their batches can be cancelled
+        // along with the execution - other registries may dispatch in their own way
+        if (engineRunningState.isCancellable() && dataLoaderRegistry.getClass() == DataLoaderRegistry.class) {
+            for (DataLoader<?, ?> dataLoader : dataLoaderRegistry.getDataLoaders()) {
+                engineRunningState.cancelWithExecution(dataLoaderRegistry, dataLoader.dispatch());
+            }
+        } else {
+            dataLoaderRegistry.dispatchAll();
+        }
     }
 
     private void dispatchDLCFImpl(Integer level, CallStack callStack, boolean normalOrDelayed, boolean chained) {
+        if (executionContext.getEngineRunningState().isCancelled()) {
+            return;
+        }
 
         ChainedDLStack.StateForLevel stateForLevel = callStack.chainedDLStack.aboutToStartDispatching(level, normalOrDelayed, chained);
         if (stateForLevel == null || stateForLevel.dataLoader == null) {
@@ -498,6 +671,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
         List<CompletableFuture> allDispatchedCFs = new ArrayList<>();
         while (stateForLevel != null && stateForLevel.dataLoader != null) {
             CompletableFuture<List> dispatch = stateForLevel.dataLoader.dispatch();
+            executionContext.getEngineRunningState().cancelWithExecution(executionContext.getDataLoaderRegistry(), dispatch);
             allDispatchedCFs.add(dispatch);
             stateForLevel = stateForLevel.prev;
         }
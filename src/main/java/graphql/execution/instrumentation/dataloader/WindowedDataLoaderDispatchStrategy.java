@@ -0,0 +1,123 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.Internal;
+import graphql.execution.BatchedFieldFetches;
+import graphql.execution.DataLoaderDispatchStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.schema.BatchedDataFetcher;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoader;
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * A dispatch strategy that does not follow the structure of the execution, but dispatches a {@link DataLoader} as soon
+ * as it has a batch size worth of pending loads, and all the {@link DataLoader}s when a time window has passed since
+ * loads started pending, whichever comes first.
+ * <p>
+ * Unlike the per level dispatching, a slow data fetcher does not hold back the batches of its faster siblings
+ * for longer than the window, and unlike the exhausted dispatching, loads that trickle in are gathered into
+ * bigger batches.
+ * <p>
+ * Pending loads are noticed when a data fetcher returns a future that is not yet done, and when
+ * a {@link DataLoader} obtained via {@link DataFetchingEnvironment#getDataLoader(String)} is called.  The fields of
+ * {@link BatchedDataFetcher}s count towards the batch size as a whole and are fetched with every dispatch.
+ */
+@Internal
+@NullMarked
+public class WindowedDataLoaderDispatchStrategy implements DataLoaderDispatchStrategy {
+
+    private final ExecutionContext executionContext;
+    private final Executor windowExecutor;
+    private final int batchSize;
+    private final AtomicBoolean windowOpen = new AtomicBoolean();
+    private final BatchedFieldFetches batchedFieldFetches = new BatchedFieldFetches();
+
+    public WindowedDataLoaderDispatchStrategy(ExecutionContext executionContext, Duration window, int batchSize) {
+        assertTrue(!window.isNegative(), "the dispatch window must not be negative");
+        assertTrue(batchSize > 0, "the dispatch batch size must be greater than 0");
+        this.executionContext = executionContext;
+        this.windowExecutor = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void fieldFetched(ExecutionContext executionContext,
+                             ExecutionStrategyParameters executionStrategyParameters,
+                             DataFetcher<?> dataFetcher,
+                             Object fetchedValue,
+                             Supplier<DataFetchingEnvironment> dataFetchingEnvironment) {
+        // a data fetcher that has used a data loader returns a future that is waiting on the dispatch
+        if (fetchedValue instanceof CompletableFuture && !((CompletableFuture<?>) fetchedValue).isDone()) {
+            for (DataLoader<?, ?> dataLoader : executionContext.getDataLoaderRegistry().getDataLoaders()) {
+                dispatchIfBatchIsFull(dataLoader);
+            }
+            openWindowIfLoadsArePending();
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> fetchBatched(ExecutionStrategyParameters parameters, BatchedDataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        CompletableFuture<Object> value = batchedFieldFetches.add(dataFetcher, environment);
+        if (batchedFieldFetches.size() >= batchSize) {
+            dispatch(List.of());
+        }
+        return value;
+    }
+
+    public void newDataLoaderInvocation(DataLoader<?, ?> dataLoader) {
+        dispatchIfBatchIsFull(dataLoader);
+        openWindowIfLoadsArePending();
+    }
+
+    private void dispatchIfBatchIsFull(DataLoader<?, ?> dataLoader) {
+        if (dataLoader.dispatchDepth() >= batchSize) {
+            dispatch(List.of(dataLoader));
+        }
+    }
+
+    private void openWindowIfLoadsArePending() {
+        if ((executionContext.getDataLoaderRegistry().dispatchDepth() > 0 || batchedFieldFetches.size() > 0) && windowOpen.compareAndSet(false, true)) {
+            windowExecutor.execute(this::windowPassed);
+        }
+    }
+
+    private void windowPassed() {
+        windowOpen.set(false);
+        dispatch(executionContext.getDataLoaderRegistry().getDataLoaders());
+    }
+
+    // the batched fields are always fetched along with the data loaders
+    private void dispatch(List<DataLoader<?, ?>> dataLoaders) {
+        // a cancelled execution is not waiting on any more batches
+        if (executionContext.getEngineRunningState().isCancelled()) {
+            return;
+        }
+        List<CompletableFuture<?>> dispatchedCFs = new ArrayList<>(batchedFieldFetches.fetchAll());
+        for (DataLoader<?, ?> dataLoader : dataLoaders) {
+            if (dataLoader.dispatchDepth() > 0) {
+                CompletableFuture<?> dispatch = dataLoader.dispatch();
+                executionContext.getEngineRunningState().cancelWithExecution(executionContext.getDataLoaderRegistry(), dispatch);
+                dispatchedCFs.add(dispatch);
+            }
+        }
+        if (dispatchedCFs.isEmpty()) {
+            return;
+        }
+        // batch loaders and batched data fetchers can load more values, which are picked up by the next window
+        CompletableFuture.allOf(dispatchedCFs.toArray(new CompletableFuture[0]))
+                .whenComplete((unused, throwable) -> openWindowIfLoadsArePending());
+    }
+}
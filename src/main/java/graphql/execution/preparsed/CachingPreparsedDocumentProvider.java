@@ -0,0 +1,326 @@
+package graphql.execution.preparsed;
+
+import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.AstCompactor;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A {@link PreparsedDocumentProvider} that keeps parsed and validated documents in a bounded, least recently used
+ * in memory cache.
+ * <p>
+ * Entries are keyed on the query text, the operation name and the identity of the {@link GraphQLSchema} the
+ * query was validated against.  When the provider sees a new schema instance, all entries for the previous schema
+ * are discarded, so a provider can safely be reused by {@link graphql.GraphQL#transform(java.util.function.Consumer)}
+ * when the schema is replaced.
+ * <p>
+ * The cache can be bounded by number of entries and / or by total weight, where the weight of an entry is
+ * calculated by a weigher function.  Concurrent requests for the same uncached query will only parse and validate
+ * the query once, with the other requests waiting on that result.
+ * <p>
+ * Note that parse and validation is not influenced by the variables of a request, but it can be influenced
+ * by {@link graphql.execution.instrumentation.Instrumentation} and by values in the {@link graphql.GraphQLContext}
+ * such as validation predicates.  If those vary per request for the same query text then this provider is not
+ * a good fit, since the first validation result will be reused.
+ */
+@ExperimentalApi
+@NullMarked
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final ToIntBiFunction<String, PreparsedDocumentEntry> weigher;
+    private final boolean compactDocuments;
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final LinkedHashMap<CacheKey, CachedEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<CacheKey, CompletableFuture<PreparsedDocumentEntry>> inFlight = new ConcurrentHashMap<>();
+    private volatile @Nullable GraphQLSchema currentSchema;
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private CachingPreparsedDocumentProvider(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.compactDocuments = builder.compactDocuments;
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentImpl(executionInput, null, parseAndValidateFunction);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, GraphQLSchema graphQLSchema, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentImpl(executionInput, graphQLSchema, parseAndValidateFunction);
+    }
+
+    private CompletableFuture<PreparsedDocumentEntry> getDocumentImpl(ExecutionInput executionInput, @Nullable GraphQLSchema graphQLSchema, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        if (PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            // the query text is not known yet so there is nothing sensible to cache on
+            return CompletableFuture.completedFuture(parseAndValidateFunction.apply(executionInput));
+        }
+        if (graphQLSchema != null) {
+            invalidateIfSchemaChanged(graphQLSchema);
+        }
+        CacheKey key = new CacheKey(query, executionInput.getOperationName(), graphQLSchema);
+
+        PreparsedDocumentEntry cachedEntry = getIfPresent(key);
+        if (cachedEntry != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(cachedEntry);
+        }
+
+        CompletableFuture<PreparsedDocumentEntry> newLoad = new CompletableFuture<>();
+        CompletableFuture<PreparsedDocumentEntry> existingLoad = inFlight.putIfAbsent(key, newLoad);
+        if (existingLoad != null) {
+            hitCount.increment();
+            return existingLoad;
+        }
+        missCount.increment();
+        load(key, executionInput, parseAndValidateFunction, newLoad);
+        return newLoad;
+    }
+
+    private void load(CacheKey key, ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction, CompletableFuture<PreparsedDocumentEntry> loadingFuture) {
+        try {
+            // another request may have finished loading this key between our cache read and claiming the in flight slot
+            PreparsedDocumentEntry entry = getIfPresent(key);
+            if (entry == null) {
+                loadCount.increment();
+                entry = assertNotNull(parseAndValidateFunction.apply(executionInput), "parseAndValidateFunction must not return null");
+                entry = compact(entry);
+                put(key, entry);
+            }
+            inFlight.remove(key);
+            loadingFuture.complete(entry);
+        } catch (RuntimeException e) {
+            loadFailureCount.increment();
+            inFlight.remove(key);
+            loadingFuture.completeExceptionally(e);
+        }
+    }
+
+    private PreparsedDocumentEntry compact(PreparsedDocumentEntry entry) {
+        Document document = entry.getDocument();
+        if (!compactDocuments || entry.hasErrors() || document == null) {
+            return entry;
+        }
+        return new PreparsedDocumentEntry(new AstCompactor().compact(document));
+    }
+
+    private @Nullable PreparsedDocumentEntry getIfPresent(CacheKey key) {
+        return lock.callLocked(() -> {
+            CachedEntry cachedEntry = cache.get(key);
+            return cachedEntry == null ? null : cachedEntry.entry;
+        });
+    }
+
+    private void put(CacheKey key, PreparsedDocumentEntry entry) {
+        int weight = weigher.applyAsInt(key.query, entry);
+        assertTrue(weight >= 0, "the weigher must not return a negative weight");
+        lock.runLocked(() -> {
+            if (key.schema != null && key.schema != currentSchema) {
+                // the schema changed while we were loading - this entry is already stale
+                return;
+            }
+            CachedEntry previous = cache.put(key, new CachedEntry(entry, weight));
+            if (previous != null) {
+                totalWeight -= previous.weight;
+            }
+            totalWeight += weight;
+            evictIfNeeded();
+        });
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CachedEntry> leastRecentlyUsed = cache.values().iterator();
+        while (leastRecentlyUsed.hasNext() && (cache.size() > maximumSize || totalWeight > maximumWeight)) {
+            CachedEntry evicted = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            totalWeight -= evicted.weight;
+            evictionCount.increment();
+        }
+    }
+
+    private void invalidateIfSchemaChanged(GraphQLSchema graphQLSchema) {
+        if (currentSchema == graphQLSchema) {
+            return;
+        }
+        lock.runLocked(() -> {
+            if (currentSchema != graphQLSchema) {
+                currentSchema = graphQLSchema;
+                invalidateAllImpl();
+            }
+        });
+    }
+
+    /**
+     * Discards all the entries in the cache.  Requests that are currently parsing and validating a query
+     * will still complete, but their results will be cached again.
+     */
+    public void invalidateAll() {
+        lock.runLocked(this::invalidateAllImpl);
+    }
+
+    private void invalidateAllImpl() {
+        invalidationCount.add(cache.size());
+        cache.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * @return a snapshot of the statistics of this cache
+     */
+    public PreparsedDocumentCacheStats getStats() {
+        return lock.callLocked(() -> new PreparsedDocumentCacheStats(
+                hitCount.sum(),
+                missCount.sum(),
+                loadCount.sum(),
+                loadFailureCount.sum(),
+                evictionCount.sum(),
+                invalidationCount.sum(),
+                cache.size(),
+                totalWeight));
+    }
+
+    /**
+     * @return a new builder of {@link CachingPreparsedDocumentProvider}s
+     */
+    public static Builder newCachingPreparsedDocumentProvider() {
+        return new Builder();
+    }
+
+    private static class CacheKey {
+        private final String query;
+        private final @Nullable String operationName;
+        private final @Nullable GraphQLSchema schema;
+        private final int hashCode;
+
+        private CacheKey(String query, @Nullable String operationName, @Nullable GraphQLSchema schema) {
+            this.query = query;
+            this.operationName = operationName;
+            this.schema = schema;
+            this.hashCode = Objects.hash(query, operationName, System.identityHashCode(schema));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return schema == that.schema
+                    && hashCode == that.hashCode
+                    && query.equals(that.query)
+                    && Objects.equals(operationName, that.operationName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class CachedEntry {
+        private final PreparsedDocumentEntry entry;
+        private final int weight;
+
+        private CachedEntry(PreparsedDocumentEntry entry, int weight) {
+            this.entry = entry;
+            this.weight = weight;
+        }
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private long maximumSize = 1_000;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToIntBiFunction<String, PreparsedDocumentEntry> weigher = (query, entry) -> 1;
+        private boolean compactDocuments = false;
+
+        /**
+         * The maximum number of documents that will be kept in the cache.  This defaults to 1000.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         */
+        public Builder maximumSize(long maximumSize) {
+            assertTrue(maximumSize >= 0, "maximumSize must not be negative");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * The maximum total weight of the documents kept in the cache, as calculated by {@link #weigher(ToIntBiFunction)}.
+         * This is unbounded by default.
+         *
+         * @param maximumWeight the maximum total weight of all entries
+         * @return this builder
+         */
+        public Builder maximumWeight(long maximumWeight) {
+            assertTrue(maximumWeight >= 0, "maximumWeight must not be negative");
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * The function used to calculate the weight of an entry, given the query text and the parsed and validated
+         * entry.  A common choice is the length of the query text.  By default every entry weighs 1.
+         *
+         * @param weigher the function that calculates the non-negative weight of an entry
+         * @return this builder
+         */
+        public Builder weigher(ToIntBiFunction<String, PreparsedDocumentEntry> weigher) {
+            this.weigher = assertNotNull(weigher, "weigher must not be null");
+            return this;
+        }
+
+        /**
+         * Cached documents are made lean by {@link AstCompactor} before they are cached, which drops their source
+         * locations, comments and ignored chars to reduce the memory the cache retains.  Errors about the cached
+         * documents will have no locations.  This is off by default.
+         *
+         * @param compactDocuments true if cached documents should be made lean
+         * @return this builder
+         */
+        public Builder compactDocuments(boolean compactDocuments) {
+            this.compactDocuments = compactDocuments;
+            return this;
+        }
+
+        public CachingPreparsedDocumentProvider build() {
+            return new CachingPreparsedDocumentProvider(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package graphql.execution.preparsed;
+
+import graphql.ExecutionInput;
+import graphql.Internal;
+import graphql.language.Document;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.function.Function;
+
+/**
+ * The parse and validate function that the graphql engine hands to its {@link PreparsedDocumentProvider}, which can
+ * also validate a document that was parsed already, say one that was decoded from a persisted query cache, without
+ * printing it and parsing it again.
+ */
+@Internal
+@NullMarked
+public interface ParseAndValidateFunction extends Function<ExecutionInput, PreparsedDocumentEntry> {
+
+    /**
+     * Validates an already parsed document the way the engine validates the documents it parses, including the
+     * instrumentation calls and the validation cache
+     *
+     * @param executionInput the execution input the document is for
+     * @param document       the parsed document
+     *
+     * @return the validated document entry
+     */
+    PreparsedDocumentEntry validate(ExecutionInput executionInput, Document document);
+}
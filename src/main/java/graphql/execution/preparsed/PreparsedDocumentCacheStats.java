@@ -0,0 +1,121 @@
+package graphql.execution.preparsed;
+
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * An immutable snapshot of the statistics of a {@link CachingPreparsedDocumentProvider}.
+ *
+ * @see CachingPreparsedDocumentProvider#getStats()
+ */
+@ExperimentalApi
+@NullMarked
+public class PreparsedDocumentCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long loadFailureCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+    private final long size;
+    private final long weight;
+
+    @Internal
+    public PreparsedDocumentCacheStats(long hitCount,
+                                       long missCount,
+                                       long loadCount,
+                                       long loadFailureCount,
+                                       long evictionCount,
+                                       long invalidationCount,
+                                       long size,
+                                       long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.loadFailureCount = loadFailureCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * @return the number of times a document was served from the cache, including requests that waited on
+     * another request that was already parsing and validating the same query
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of times a document was not in the cache and had to be parsed and validated
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of times the parse and validate function was actually called
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * @return the number of times the parse and validate function threw an exception
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * @return the number of entries removed because the cache exceeded its size or weight bounds
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of entries removed because the schema changed or the cache was explicitly invalidated
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * @return the number of entries in the cache at the time the snapshot was taken
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the total weight of the entries in the cache at the time the snapshot was taken
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the ratio of hits to requests or 1.0 if there have been no requests
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparsedDocumentCacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadCount=" + loadCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", evictionCount=" + evictionCount +
+                ", invalidationCount=" + invalidationCount +
+                ", size=" + size +
+                ", weight=" + weight +
+                '}';
+    }
+}
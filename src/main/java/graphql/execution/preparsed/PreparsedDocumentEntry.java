@@ -1,7 +1,9 @@
 package graphql.execution.preparsed;
 
 import graphql.GraphQLError;
+import graphql.Internal;
 import graphql.PublicApi;
+import graphql.execution.ExecutionPlanCache;
 import graphql.language.Document;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -28,6 +30,7 @@ import static java.util.Collections.singletonList;
 public class PreparsedDocumentEntry implements Serializable {
     private final @Nullable Document document;
     private final List<? extends GraphQLError> errors;
+    private transient volatile @Nullable ExecutionPlanCache executionPlanCache;
 
     public PreparsedDocumentEntry(Document document,
                                   List<? extends GraphQLError> errors) {
@@ -65,4 +68,21 @@ public class PreparsedDocumentEntry implements Serializable {
     public boolean hasErrors() {
         return !errors.isEmpty();
     }
+
+    /**
+     * The execution plan cache lives alongside the document so that work that only depends on the document,
+     * such as field collection, can be reused every time this entry is executed.
+     *
+     * @return the execution plan cache for this entry's document
+     */
+    @Internal
+    public ExecutionPlanCache getExecutionPlanCache() {
+        ExecutionPlanCache cache = executionPlanCache;
+        if (cache == null) {
+            // a race here only means one of the threads throws its cache away
+            cache = new ExecutionPlanCache();
+            executionPlanCache = cache;
+        }
+        return cache;
+    }
 }
@@ -3,6 +3,7 @@ package graphql.execution.preparsed;
 
 import graphql.ExecutionInput;
 import graphql.PublicSpi;
+import graphql.schema.GraphQLSchema;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -25,6 +26,22 @@ public interface PreparsedDocumentProvider {
      * @return a promise to an {@link PreparsedDocumentEntry}
      */
     CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction);
+
+    /**
+     * This is called by the engine to get a "cached" pre-parsed query for the given schema.  The schema is the one the
+     * query will be validated and executed against, so providers that cache documents can use it to make sure
+     * an entry validated against one schema is never used with another.
+     * <p>
+     * By default this delegates to {@link #getDocumentAsync(ExecutionInput, Function)} and ignores the schema.
+     *
+     * @param executionInput           The {@link graphql.ExecutionInput} containing the query
+     * @param graphQLSchema            the schema the query will be validated and executed against
+     * @param parseAndValidateFunction If the query has not be pre-parsed, this function MUST be called to parse and validate it
+     * @return a promise to an {@link PreparsedDocumentEntry}
+     */
+    default CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, GraphQLSchema graphQLSchema, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsync(executionInput, parseAndValidateFunction);
+    }
 }
 
 
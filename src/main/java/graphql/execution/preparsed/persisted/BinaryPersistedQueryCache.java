@@ -0,0 +1,179 @@
+package graphql.execution.preparsed.persisted;
+
+import graphql.Assert;
+import graphql.ExecutionInput;
+import graphql.PublicApi;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.AstBinaryCodec;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A PersistedQueryCache that keeps its documents in the compact binary form of {@link AstBinaryCodec} rather than as
+ * query text.  The encoded documents can be read with {@link #getEncodedDocuments()} and stored somewhere, and a new
+ * cache can be started from them with {@link Builder#addEncodedDocument(Object, byte[])} so that they are not parsed on
+ * start up.
+ * <p>
+ * Encoded documents that were added to the builder may have been encoded against another version of the schema, so they
+ * are decoded and handed to the graphql engine via {@link PersistedQueryCacheMiss#apply(Document)} the first time they
+ * are used, which validates them against the schema of the execution without parsing them again.  The resulting
+ * {@link PreparsedDocumentEntry}s, including the ones for queries that were parsed and validated by the graphql engine,
+ * are kept and handed out as is, so that the state attached to them, like their
+ * {@link PreparsedDocumentEntry#getExecutionPlanCache() execution plans}, is shared by all the executions of a query.
+ * When a new schema instance is seen, these entries are discarded and made again from the encoded documents.
+ */
+@NullMarked
+@PublicApi
+public class BinaryPersistedQueryCache implements PersistedQueryCache {
+
+    private final Map<Object, byte[]> cache;
+    private final Map<Object, String> knownQueries;
+    private final boolean includeSourceLocations;
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final Map<Object, PreparsedDocumentEntry> entries = new ConcurrentHashMap<>();
+    private volatile @Nullable GraphQLSchema entriesSchema;
+
+    public BinaryPersistedQueryCache(Map<Object, String> knownQueries, Map<Object, byte[]> encodedDocuments, boolean includeSourceLocations) {
+        this.knownQueries = Assert.assertNotNull(knownQueries);
+        this.cache = new ConcurrentHashMap<>(Assert.assertNotNull(encodedDocuments));
+        this.includeSourceLocations = includeSourceLocations;
+    }
+
+    public Map<Object, String> getKnownQueries() {
+        return knownQueries;
+    }
+
+    /**
+     * @return the encoded documents currently in the cache, keyed by their persisted query id
+     */
+    public Map<Object, byte[]> getEncodedDocuments() {
+        return Collections.unmodifiableMap(cache);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId, ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        PreparsedDocumentEntry entry = entries.get(persistedQueryId);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+        return CompletableFuture.completedFuture(parseAndValidate(persistedQueryId, executionInput, null, onCacheMiss));
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId, ExecutionInput executionInput, GraphQLSchema graphQLSchema, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        invalidateIfSchemaChanged(graphQLSchema);
+        PreparsedDocumentEntry entry = entries.get(persistedQueryId);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry);
+        }
+        return CompletableFuture.completedFuture(parseAndValidate(persistedQueryId, executionInput, graphQLSchema, onCacheMiss));
+    }
+
+    private PreparsedDocumentEntry parseAndValidate(Object persistedQueryId, ExecutionInput executionInput, @Nullable GraphQLSchema graphQLSchema, PersistedQueryCacheMiss onCacheMiss) {
+        PreparsedDocumentEntry documentEntry;
+        byte[] encodedDocument = cache.get(persistedQueryId);
+        if (encodedDocument != null) {
+            // the decoded document is validated by the graphql engine without being parsed again
+            documentEntry = onCacheMiss.apply(AstBinaryCodec.decode(encodedDocument));
+        } else {
+            //get the query from the execution input. Make sure it's not null, empty or the APQ marker.
+            // if it is, fallback to the known queries.
+            String queryText = executionInput.getQuery();
+            if (queryText == null || queryText.isEmpty() || queryText.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+                queryText = knownQueries.get(persistedQueryId);
+            }
+            if (queryText == null) {
+                throw new PersistedQueryNotFound(persistedQueryId);
+            }
+            documentEntry = onCacheMiss.apply(queryText);
+        }
+        Document document = documentEntry.getDocument();
+        if (!documentEntry.hasErrors() && document != null) {
+            if (encodedDocument == null) {
+                cache.putIfAbsent(persistedQueryId, AstBinaryCodec.encode(document, includeSourceLocations));
+            }
+            return putEntry(persistedQueryId, documentEntry, graphQLSchema);
+        }
+        return documentEntry;
+    }
+
+    private PreparsedDocumentEntry putEntry(Object persistedQueryId, PreparsedDocumentEntry entry, @Nullable GraphQLSchema graphQLSchema) {
+        return lock.callLocked(() -> {
+            // an entry made for a schema that has since been replaced is handed out once but not kept
+            if (graphQLSchema != null && graphQLSchema != entriesSchema) {
+                return entry;
+            }
+            PreparsedDocumentEntry existing = entries.putIfAbsent(persistedQueryId, entry);
+            return existing != null ? existing : entry;
+        });
+    }
+
+    private void invalidateIfSchemaChanged(GraphQLSchema graphQLSchema) {
+        if (entriesSchema == graphQLSchema) {
+            return;
+        }
+        lock.runLocked(() -> {
+            if (entriesSchema != graphQLSchema) {
+                entriesSchema = graphQLSchema;
+                entries.clear();
+            }
+        });
+    }
+
+    public static Builder newBinaryPersistedQueryCache() {
+        return new Builder();
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private final Map<Object, String> knownQueries = new HashMap<>();
+        private final Map<Object, byte[]> encodedDocuments = new HashMap<>();
+        private boolean includeSourceLocations = true;
+
+        public Builder addQuery(Object key, String queryText) {
+            knownQueries.put(key, queryText);
+            return this;
+        }
+
+        /**
+         * Adds a document that was encoded by a {@link BinaryPersistedQueryCache} before.  It is validated against the
+         * schema of the execution the first time it is used.
+         *
+         * @param key             the persisted query id
+         * @param encodedDocument the encoded document
+         *
+         * @return this builder
+         */
+        public Builder addEncodedDocument(Object key, byte[] encodedDocument) {
+            encodedDocuments.put(key, encodedDocument);
+            return this;
+        }
+
+        /**
+         * Source locations make the encoded documents larger but are needed for error locations.  They are included by default.
+         *
+         * @param includeSourceLocations true if source locations should be encoded
+         *
+         * @return this builder
+         */
+        public Builder includeSourceLocations(boolean includeSourceLocations) {
+            this.includeSourceLocations = includeSourceLocations;
+            return this;
+        }
+
+        public BinaryPersistedQueryCache build() {
+            return new BinaryPersistedQueryCache(knownQueries, encodedDocuments, includeSourceLocations);
+        }
+    }
+}
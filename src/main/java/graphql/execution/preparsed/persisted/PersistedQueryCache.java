@@ -3,6 +3,7 @@ package graphql.execution.preparsed.persisted;
 import graphql.ExecutionInput;
 import graphql.PublicSpi;
 import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.schema.GraphQLSchema;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -29,4 +30,23 @@ public interface PersistedQueryCache {
      * @throws graphql.execution.preparsed.persisted.PersistedQueryNotFound if the query id is not know at all and you have no query text
      */
     CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId, ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound;
+
+    /**
+     * This is called by {@link PersistedQuerySupport} to get a persisted query from cache for the schema it will be
+     * executed against.  Caches that hold documents which were not validated by the graphql engine, say because they
+     * were loaded from storage, can use the schema to validate them before they are used.
+     * <p>
+     * By default this delegates to {@link #getPersistedQueryDocumentAsync(Object, ExecutionInput, PersistedQueryCacheMiss)}
+     * and ignores the schema.
+     *
+     * @param persistedQueryId the persisted query id
+     * @param executionInput   the original execution input
+     * @param graphQLSchema    the schema the query will be executed against
+     * @param onCacheMiss      the call back should it be a valid query id but it's not currently in the cache
+     * @return a promise to parsed and validated {@link PreparsedDocumentEntry} where {@link graphql.execution.preparsed.PreparsedDocumentEntry#getDocument()} is set
+     * @throws graphql.execution.preparsed.persisted.PersistedQueryNotFound if the query id is not know at all and you have no query text
+     */
+    default CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId, ExecutionInput executionInput, GraphQLSchema graphQLSchema, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        return getPersistedQueryDocumentAsync(persistedQueryId, executionInput, onCacheMiss);
+    }
 }
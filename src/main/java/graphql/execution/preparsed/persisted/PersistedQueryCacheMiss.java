@@ -2,6 +2,8 @@ package graphql.execution.preparsed.persisted;
 
 import graphql.PublicApi;
 import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
 import org.jspecify.annotations.NullMarked;
 
 import java.util.function.Function;
@@ -22,4 +24,18 @@ public interface PersistedQueryCacheMiss extends Function<String, PreparsedDocum
      */
     @Override
     PreparsedDocumentEntry apply(String queryToBeParsedAndValidated);
+
+    /**
+     * You give back a document that was parsed already, say one that was decoded from a binary form, and graphql-java
+     * will validate it just like it validates the documents it parses, without parsing it again.
+     * <p>
+     * By default the document is printed and handed to {@link #apply(String)}.
+     *
+     * @param parsedDocument the document to be validated
+     *
+     * @return a validated query document ready for caching
+     */
+    default PreparsedDocumentEntry apply(Document parsedDocument) {
+        return apply(AstPrinter.printAst(parsedDocument));
+    }
 }
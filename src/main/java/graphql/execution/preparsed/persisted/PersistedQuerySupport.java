@@ -4,8 +4,12 @@ import graphql.ExecutionInput;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.PublicSpi;
+import graphql.execution.preparsed.ParseAndValidateFunction;
 import graphql.execution.preparsed.PreparsedDocumentEntry;
 import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -39,24 +43,50 @@ public abstract class PersistedQuerySupport implements PreparsedDocumentProvider
 
     @Override
     public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsyncImpl(executionInput, null, parseAndValidateFunction);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, GraphQLSchema graphQLSchema, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsyncImpl(executionInput, graphQLSchema, parseAndValidateFunction);
+    }
+
+    private CompletableFuture<PreparsedDocumentEntry> getDocumentAsyncImpl(ExecutionInput executionInput, GraphQLSchema graphQLSchema, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
         Optional<Object> queryIdOption = getPersistedQueryId(executionInput);
         assertNotNull(queryIdOption, "The class %s MUST return a non null optional query id", this.getClass().getName());
 
         try {
             if (queryIdOption.isPresent()) {
                 Object persistedQueryId = queryIdOption.get();
-                return persistedQueryCache.getPersistedQueryDocumentAsync(persistedQueryId, executionInput, (queryText) -> {
-                    // we have a miss and they gave us nothing - bah!
-                    if (queryText == null || queryText.isBlank()) {
-                        throw new PersistedQueryNotFound(persistedQueryId);
+                PersistedQueryCacheMiss onCacheMiss = new PersistedQueryCacheMiss() {
+                    @Override
+                    public PreparsedDocumentEntry apply(String queryText) {
+                        // we have a miss and they gave us nothing - bah!
+                        if (queryText == null || queryText.isBlank()) {
+                            throw new PersistedQueryNotFound(persistedQueryId);
+                        }
+                        // validate the queryText hash before returning to the cache which we assume will set it
+                        if (persistedQueryIdIsInvalid(persistedQueryId, queryText)) {
+                            throw new PersistedQueryIdInvalid(persistedQueryId);
+                        }
+                        ExecutionInput newEI = executionInput.transform(builder -> builder.query(queryText));
+                        return parseAndValidateFunction.apply(newEI);
                     }
-                    // validate the queryText hash before returning to the cache which we assume will set it
-                    if (persistedQueryIdIsInvalid(persistedQueryId, queryText)) {
-                        throw new PersistedQueryIdInvalid(persistedQueryId);
+
+                    @Override
+                    public PreparsedDocumentEntry apply(Document parsedDocument) {
+                        // the document comes from the cache itself, so there is no query text to check the id against
+                        if (parseAndValidateFunction instanceof ParseAndValidateFunction) {
+                            return ((ParseAndValidateFunction) parseAndValidateFunction).validate(executionInput, parsedDocument);
+                        }
+                        ExecutionInput newEI = executionInput.transform(builder -> builder.query(AstPrinter.printAst(parsedDocument)));
+                        return parseAndValidateFunction.apply(newEI);
                     }
-                    ExecutionInput newEI = executionInput.transform(builder -> builder.query(queryText));
-                    return parseAndValidateFunction.apply(newEI);
-                });
+                };
+                if (graphQLSchema == null) {
+                    return persistedQueryCache.getPersistedQueryDocumentAsync(persistedQueryId, executionInput, onCacheMiss);
+                }
+                return persistedQueryCache.getPersistedQueryDocumentAsync(persistedQueryId, executionInput, graphQLSchema, onCacheMiss);
             }
             // ok there is no query id - we assume the query is indeed ready to go as is - ie its not a persisted query
             return completedFuture(parseAndValidateFunction.apply(executionInput));
@@ -0,0 +1,195 @@
+package graphql.execution.result;
+
+import graphql.ExperimentalApi;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import static graphql.Assert.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@link ResultSink} that writes compact JSON to a {@link Writer}, without needing a JSON library.
+ * <p>
+ * Strings, booleans and finite numbers are written as their JSON equivalents and any other leaf value, such as
+ * the output of a custom scalar, is written as a JSON string of its {@link String#valueOf(Object)} form.
+ * <p>
+ * This sink does not close the underlying writer.
+ *
+ * <pre>
+ * {@code
+ * ResultWriter.execute(graphQL, executionInput, JsonResultSink.newJsonResultSink(response.getOutputStream()));
+ * }
+ * </pre>
+ */
+@ExperimentalApi
+@NullMarked
+public class JsonResultSink implements ResultSink {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    // whether the object or list at each nesting level has had an entry written yet
+    private boolean[] hasEntries = new boolean[16];
+    private int depth;
+    private boolean afterFieldName;
+
+    private JsonResultSink(Writer writer) {
+        this.writer = assertNotNull(writer, "writer must not be null");
+    }
+
+    /**
+     * @param writer the writer to write JSON to
+     *
+     * @return a sink that writes JSON to the writer
+     */
+    public static JsonResultSink newJsonResultSink(Writer writer) {
+        return new JsonResultSink(writer);
+    }
+
+    /**
+     * @param outputStream the output stream to write UTF-8 encoded JSON to
+     *
+     * @return a sink that writes JSON to the output stream
+     */
+    public static JsonResultSink newJsonResultSink(OutputStream outputStream) {
+        return new JsonResultSink(new BufferedWriter(new OutputStreamWriter(assertNotNull(outputStream, "outputStream must not be null"), UTF_8)));
+    }
+
+    @Override
+    public void startObject() throws IOException {
+        beforeValue();
+        writer.write('{');
+        push();
+    }
+
+    @Override
+    public void fieldName(String name) throws IOException {
+        if (hasEntries[depth]) {
+            writer.write(',');
+        }
+        hasEntries[depth] = true;
+        writeString(name);
+        writer.write(':');
+        afterFieldName = true;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        depth--;
+        writer.write('}');
+    }
+
+    @Override
+    public void startList() throws IOException {
+        beforeValue();
+        writer.write('[');
+        push();
+    }
+
+    @Override
+    public void endList() throws IOException {
+        depth--;
+        writer.write(']');
+    }
+
+    @Override
+    public void value(@Nullable Object value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof Number && isFinite((Number) value)) {
+            writer.write(value.toString());
+        } else {
+            writeString(String.valueOf(value));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterFieldName) {
+            afterFieldName = false;
+            return;
+        }
+        // a value directly in a list (or at the top level) needs to be separated from its predecessor
+        if (hasEntries[depth]) {
+            writer.write(',');
+        }
+        hasEntries[depth] = true;
+    }
+
+    private void push() {
+        depth++;
+        if (depth == hasEntries.length) {
+            hasEntries = Arrays.copyOf(hasEntries, depth * 2);
+        }
+        hasEntries[depth] = false;
+    }
+
+    private static boolean isFinite(Number number) {
+        if (number instanceof Double) {
+            return Double.isFinite((Double) number);
+        }
+        if (number instanceof Float) {
+            return Float.isFinite((Float) number);
+        }
+        return true;
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x20 && ch != '"' && ch != '\\') {
+                continue;
+            }
+            writer.write(value, start, i - start);
+            start = i + 1;
+            switch (ch) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX_DIGITS[ch >> 4]);
+                    writer.write(HEX_DIGITS[ch & 0xF]);
+            }
+        }
+        writer.write(value, start, length - start);
+        writer.write('"');
+    }
+}
@@ -0,0 +1,86 @@
+package graphql.execution.result;
+
+import graphql.ExperimentalApi;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A result sink receives a completed graphql response as a sequence of events in response order, much like the
+ * generator API of a JSON library.  This allows a response to be serialized straight to its destination without first
+ * being copied into another in memory representation, such as the maps of {@link graphql.ExecutionResult#toSpecification()}
+ * or a string.
+ * <p>
+ * {@link ResultWriter#write(graphql.ExecutionResult, ResultSink)} sends the events of a completed result, while
+ * {@link ResultWriter#execute(graphql.GraphQL, graphql.ExecutionInput, ResultSink)} sends the events of the data as parts
+ * of it complete during the execution, so that they do not all have to be held in memory.  Either way the events make
+ * up one response; for sending a response in several payloads, see incremental delivery with {@code @defer}.
+ * <p>
+ * The events of one response are sent one after another, though not necessarily from the same thread.
+ * <p>
+ * {@link JsonResultSink} is a dependency free implementation that writes JSON to a {@link java.io.Writer} or
+ * {@link java.io.OutputStream}, but you can also adapt the generator of your favourite JSON library to this interface.
+ *
+ * @see ResultWriter
+ */
+@ExperimentalApi
+@NullMarked
+public interface ResultSink {
+
+    /**
+     * Called at the start of an object, which is followed by a {@link #fieldName(String)} and value per entry and then
+     * {@link #endObject()}
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void startObject() throws IOException;
+
+    /**
+     * Called with the name of the next entry in the current object
+     *
+     * @param name the name of the entry
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void fieldName(String name) throws IOException;
+
+    /**
+     * Called at the end of an object
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void endObject() throws IOException;
+
+    /**
+     * Called at the start of a list, which is followed by the values of the list and then {@link #endList()}
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void startList() throws IOException;
+
+    /**
+     * Called at the end of a list
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void endList() throws IOException;
+
+    /**
+     * Called with a leaf value, which is null, a {@link String}, a {@link Number}, a {@link Boolean} or
+     * any other value a custom scalar may have serialized to.
+     *
+     * @param value the leaf value
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    void value(@Nullable Object value) throws IOException;
+
+    /**
+     * Called when the whole response has been written
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    default void flush() throws IOException {
+    }
+}
@@ -0,0 +1,344 @@
+package graphql.execution.result;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.Internal;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.ResultPath;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * Writes the data of an execution to a {@link ResultSink} while the execution is still running, for
+ * {@link ResultWriter#execute(graphql.GraphQL, graphql.ExecutionInput, ResultSink)}.
+ * <p>
+ * A completed value can only be written once null bubbling can no longer replace it, or an object it is in, with null.
+ * When all the root fields of an operation are nullable, a root field that has completed is final, and so is a completed
+ * element of a root field list whose elements are nullable.  So the root fields are written in response order as they
+ * complete, and the elements of such lists are written in order as they complete, rather than once the whole list has.
+ * <p>
+ * A written value is handed back to the engine as null, so that only the values that are waiting for an earlier value
+ * to be written are held in memory, and the data of the execution result has nulls in place of the written values.
+ */
+@Internal
+@NullMarked
+public class ResultStreamer {
+
+    private static final String RESULT_STREAMER = ResultStreamer.class.getCanonicalName();
+
+    private final ResultSink resultSink;
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final Map<String, RootField> rootFieldsByName = new LinkedHashMap<>();
+    private final List<RootField> rootFields = new ArrayList<>();
+    // the promises of the values that have been written, which are completed once the lock is released
+    private final List<CompletableFuture<Object>> releasedValues = new ArrayList<>();
+    private boolean started;
+    private int nextRootField;
+    private boolean dataWritten;
+    // once the execution has failed, has finished or the sink can not be written to, values are no longer written
+    private boolean stopped;
+    private @Nullable IOException ioException;
+
+    ResultStreamer(ResultSink resultSink) {
+        this.resultSink = assertNotNull(resultSink, "resultSink must not be null");
+    }
+
+    /**
+     * @param graphQLContext the graphql context of an execution
+     *
+     * @return the result streamer of the execution, or null if its result is not streamed
+     */
+    public static @Nullable ResultStreamer get(GraphQLContext graphQLContext) {
+        return graphQLContext.get(RESULT_STREAMER);
+    }
+
+    /**
+     * @param graphQLContext the graphql context of an execution
+     *
+     * @return true if the result of the execution is streamed
+     */
+    public static boolean isStreamed(GraphQLContext graphQLContext) {
+        return graphQLContext.hasKey(RESULT_STREAMER);
+    }
+
+    void putInto(GraphQLContext graphQLContext) {
+        graphQLContext.put(RESULT_STREAMER, this);
+    }
+
+    /**
+     * Called by the execution strategy before the root fields of the operation are executed, once it has made sure that
+     * they are all nullable
+     *
+     * @param fieldNames the result keys of the root fields in response order
+     *
+     * @return false if the root fields of the execution are already being streamed
+     */
+    public boolean startRootFields(List<String> fieldNames) {
+        return lock.callLocked(() -> {
+            if (started || stopped) {
+                return false;
+            }
+            started = true;
+            for (String fieldName : fieldNames) {
+                RootField rootField = new RootField(fieldName);
+                rootFields.add(rootField);
+                rootFieldsByName.put(fieldName, rootField);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Called by the execution strategy with the value of a root field, in response order
+     *
+     * @param fieldIndex    the index of the root field in response order
+     * @param valueOrFuture the completed value of the root field or a promise to it
+     *
+     * @return a promise that completes with null once the value has been written
+     */
+    public CompletableFuture<Object> streamRootField(int fieldIndex, @Nullable Object valueOrFuture) {
+        StreamedValue streamedValue = lock.callLocked(() -> rootFields.get(fieldIndex).value);
+        return streamedValue.streamFrom(valueOrFuture);
+    }
+
+    /**
+     * Called by the execution strategy with the completed elements of a list, before they are awaited.  If the list is
+     * the value of a root field whose elements are nullable, the element values are replaced by promises that complete
+     * with null once the elements have been written.
+     *
+     * @param listStepInfo  the step info of the list
+     * @param elementValues the values of the elements of the list, which are replaced if they are streamed
+     */
+    public void streamElements(ExecutionStepInfo listStepInfo, List<FieldValueInfo> elementValues) {
+        ResultPath path = listStepInfo.getPath();
+        if (path.getLevel() != 1 || !path.isNamedSegment() || !hasNullableElements(listStepInfo)) {
+            return;
+        }
+        List<StreamedValue> elements = lock.callLocked(() -> {
+            RootField rootField = rootFieldsByName.get(path.getSegmentName());
+            if (rootField == null || rootField.elements != null || stopped) {
+                return null;
+            }
+            List<StreamedValue> streamedElements = new ArrayList<>(elementValues.size());
+            for (int i = 0; i < elementValues.size(); i++) {
+                streamedElements.add(new StreamedValue());
+            }
+            rootField.elements = streamedElements;
+            return streamedElements;
+        });
+        if (elements == null) {
+            return;
+        }
+        for (int i = 0; i < elementValues.size(); i++) {
+            FieldValueInfo elementValue = elementValues.get(i);
+            CompletableFuture<Object> written = elements.get(i).streamFrom(elementValue.getFieldValueObject());
+            elementValues.set(i, new FieldValueInfo(elementValue.getCompleteValueType(), written, elementValue.getFieldValueInfos()));
+        }
+    }
+
+    private static boolean hasNullableElements(ExecutionStepInfo listStepInfo) {
+        GraphQLType listType = listStepInfo.getUnwrappedNonNullType();
+        return listType instanceof GraphQLList && !GraphQLTypeUtil.isNonNull(((GraphQLList) listType).getWrappedType());
+    }
+
+    /**
+     * Writes what is left of the response once the execution has completed
+     *
+     * @param executionResult the result of the execution, or null if it failed
+     *
+     * @return the problem writing to the sink, if there was one
+     */
+    @Nullable IOException finish(@Nullable ExecutionResult executionResult) {
+        IOException problem = lock.callLocked(() -> {
+            stop();
+            if (ioException != null) {
+                return ioException;
+            }
+            try {
+                if (!dataWritten) {
+                    // nothing was streamed, say because a root field is non-null, so the result is written as a whole
+                    if (executionResult != null) {
+                        ResultWriter.write(executionResult, resultSink);
+                    }
+                    return null;
+                }
+                if (nextRootField < rootFields.size() && rootFields.get(nextRootField).listStarted) {
+                    // the execution was cut short while the elements of this list were being written
+                    resultSink.endList();
+                }
+                resultSink.endObject();
+                if (executionResult != null) {
+                    ResultWriter.writeErrors(executionResult, resultSink);
+                    ResultWriter.writeExtensions(executionResult, resultSink);
+                }
+                resultSink.endObject();
+                resultSink.flush();
+            } catch (IOException e) {
+                ioException = e;
+            }
+            return ioException;
+        });
+        completeReleasedValues();
+        return problem;
+    }
+
+    // called under the lock
+    private void stop() {
+        stopped = true;
+        // nothing is written any more, so the values that are waiting to be written are let go of
+        for (RootField rootField : rootFields) {
+            rootField.value.release();
+            if (rootField.elements != null) {
+                for (StreamedValue element : rootField.elements) {
+                    element.release();
+                }
+            }
+        }
+    }
+
+    // called under the lock whenever a value has completed
+    private void writeCompletedValues() {
+        if (stopped) {
+            return;
+        }
+        try {
+            while (nextRootField < rootFields.size()) {
+                RootField rootField = rootFields.get(nextRootField);
+                List<StreamedValue> elements = rootField.elements;
+                if (elements != null) {
+                    if (!rootField.listStarted) {
+                        writeFieldName(rootField.name);
+                        resultSink.startList();
+                        rootField.listStarted = true;
+                    }
+                    while (rootField.nextElement < elements.size()) {
+                        StreamedValue element = elements.get(rootField.nextElement);
+                        if (!element.completed) {
+                            return;
+                        }
+                        ResultWriter.writeValue(element.value, resultSink);
+                        element.release();
+                        rootField.nextElement++;
+                    }
+                    // the list itself completes once all of its elements have been written
+                    if (!rootField.value.completed) {
+                        return;
+                    }
+                    resultSink.endList();
+                } else {
+                    if (!rootField.value.completed) {
+                        return;
+                    }
+                    writeFieldName(rootField.name);
+                    ResultWriter.writeValue(rootField.value.value, resultSink);
+                }
+                rootField.value.release();
+                nextRootField++;
+            }
+        } catch (IOException e) {
+            ioException = e;
+            stop();
+        }
+    }
+
+    private void writeFieldName(String name) throws IOException {
+        if (!dataWritten) {
+            resultSink.startObject();
+            resultSink.fieldName("data");
+            resultSink.startObject();
+            dataWritten = true;
+        }
+        resultSink.fieldName(name);
+    }
+
+    /*
+     * Completing the promise of a written value can complete the list or the execution that awaits it on this thread,
+     * so the promises are completed outside the lock, rather than by a write that is still holding it.
+     */
+    private void completeReleasedValues() {
+        List<CompletableFuture<Object>> released = lock.callLocked(() -> {
+            if (releasedValues.isEmpty()) {
+                return Collections.<CompletableFuture<Object>>emptyList();
+            }
+            List<CompletableFuture<Object>> values = new ArrayList<>(releasedValues);
+            releasedValues.clear();
+            return values;
+        });
+        for (CompletableFuture<Object> written : released) {
+            written.complete(null);
+        }
+    }
+
+    private class RootField {
+        private final String name;
+        private final StreamedValue value = new StreamedValue();
+        private @Nullable List<StreamedValue> elements;
+        private boolean listStarted;
+        private int nextElement;
+
+        private RootField(String name) {
+            this.name = name;
+        }
+    }
+
+    private class StreamedValue {
+        private final CompletableFuture<Object> written = new CompletableFuture<>();
+        private @Nullable Object value;
+        private boolean completed;
+        private boolean released;
+
+        @SuppressWarnings({"unchecked", "FutureReturnValueIgnored"})
+        private CompletableFuture<Object> streamFrom(@Nullable Object valueOrFuture) {
+            if (valueOrFuture instanceof CompletableFuture) {
+                ((CompletableFuture<Object>) valueOrFuture).whenComplete((completedValue, exception) -> {
+                    if (exception != null) {
+                        // the failure is passed on to the engine straight away, and the value counts as a written null
+                        // so that the values after it are not held up
+                        written.completeExceptionally(exception);
+                    }
+                    completed(exception != null ? null : completedValue);
+                });
+            } else {
+                completed(valueOrFuture);
+            }
+            return written;
+        }
+
+        private void completed(@Nullable Object value) {
+            lock.runLocked(() -> {
+                this.value = value;
+                this.completed = true;
+                if (stopped) {
+                    release();
+                } else {
+                    writeCompletedValues();
+                }
+            });
+            completeReleasedValues();
+        }
+
+        // called under the lock once the value has been written, or will never be
+        private void release() {
+            if (completed && !released) {
+                released = true;
+                value = null;
+                releasedValues.add(written);
+            }
+        }
+    }
+}
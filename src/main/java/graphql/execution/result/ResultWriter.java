@@ -0,0 +1,156 @@
+package graphql.execution.result;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes an {@link ExecutionResult} to a {@link ResultSink} in the shape of
+ * {@link ExecutionResult#toSpecification()} by walking the result tree directly, so the response is never
+ * copied into another map or rendered into an intermediate string.
+ * <p>
+ * {@link #write(ExecutionResult, ResultSink)} serializes a completed result, whose whole result tree has been built
+ * in memory by the execution.  {@link #execute(GraphQL, ExecutionInput, ResultSink)} instead writes the data while
+ * the operation is executing, as parts of it complete, so that a large response never exists in memory as a whole.
+ * <p>
+ * The result tree is walked in response order, that is the order of the keys in the result maps, which the
+ * {@link graphql.execution.ResponseMapFactory} in play creates in query order.
+ */
+@ExperimentalApi
+@NullMarked
+public class ResultWriter {
+
+    private ResultWriter() {
+    }
+
+    /**
+     * Executes the operation and writes its result to the sink as it executes, and then flushes the sink.
+     * <p>
+     * The value of a field can be replaced by null when a non-null field within it fails, so a value can only be written
+     * once that can no longer happen.  When all the root fields of the operation are nullable, they are written in
+     * response order as soon as they have completed, and the elements of a root field list whose elements are nullable
+     * are written in order as soon as they have completed, rather than once the whole list has.  Anything nested deeper
+     * is written along with the root field or list element it is in.  If a root field is non-null, or the operation is a
+     * subscription, uses a serial execution strategy such as mutations do or defers fields, nothing is written until the
+     * result has completed.
+     * <p>
+     * The data is written first, followed by the errors and the extensions once the execution has completed.  If the
+     * execution is cut short once data has been written, say because it was cancelled, the data written so far is
+     * closed off and followed by the errors.  If it fails with an exception, the data is closed off and the returned
+     * promise fails with the exception.
+     * <p>
+     * Written values are not kept, so the data of the returned result has nulls in their place and is not a copy of
+     * the data that was written.  The {@link graphql.execution.instrumentation.Instrumentation}s see the same data.
+     * Such an execution also bypasses the {@link graphql.execution.ResponseCache} and the
+     * {@link graphql.execution.ExecutionCoalescer} of the graphql instance, as its result can not be shared.
+     * <p>
+     * The result is streamed by means of the {@link graphql.GraphQLContext} of the execution input, so an execution
+     * input can only be executed this way once.
+     *
+     * @param graphQL        the graphql instance to execute the operation with
+     * @param executionInput the operation to execute
+     * @param resultSink     the sink to write to
+     *
+     * @return a promise to the execution result, for its errors and extensions, which fails with an
+     * {@link IOException} if the sink cannot be written to
+     */
+    public static CompletableFuture<ExecutionResult> execute(GraphQL graphQL, ExecutionInput executionInput, ResultSink resultSink) {
+        ResultStreamer resultStreamer = new ResultStreamer(resultSink);
+        resultStreamer.putInto(executionInput.getGraphQLContext());
+        CompletableFuture<ExecutionResult> result = new CompletableFuture<>();
+        graphQL.executeAsync(executionInput).whenComplete((executionResult, exception) -> {
+            IOException ioException = resultStreamer.finish(exception == null ? executionResult : null);
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else if (ioException != null) {
+                result.completeExceptionally(ioException);
+            } else {
+                result.complete(executionResult);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Writes the execution result to the sink and then flushes the sink
+     *
+     * @param executionResult the result to write
+     * @param resultSink      the sink to write to
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    public static void write(ExecutionResult executionResult, ResultSink resultSink) throws IOException {
+        resultSink.startObject();
+        writeErrors(executionResult, resultSink);
+        if (executionResult.isDataPresent()) {
+            resultSink.fieldName("data");
+            writeValue(executionResult.getData(), resultSink);
+        }
+        writeExtensions(executionResult, resultSink);
+        resultSink.endObject();
+        resultSink.flush();
+    }
+
+    static void writeErrors(ExecutionResult executionResult, ResultSink resultSink) throws IOException {
+        List<GraphQLError> errors = executionResult.getErrors();
+        if (errors != null && !errors.isEmpty()) {
+            resultSink.fieldName("errors");
+            resultSink.startList();
+            for (GraphQLError error : errors) {
+                writeValue(error.toSpecification(), resultSink);
+            }
+            resultSink.endList();
+        }
+    }
+
+    static void writeExtensions(ExecutionResult executionResult, ResultSink resultSink) throws IOException {
+        Map<Object, Object> extensions = executionResult.getExtensions();
+        if (extensions != null) {
+            resultSink.fieldName("extensions");
+            writeValue(extensions, resultSink);
+        }
+    }
+
+    /**
+     * Writes a value of the result tree to the sink, where maps become objects, iterables and arrays become lists
+     * and anything else is a leaf value
+     *
+     * @param value      the value to write
+     * @param resultSink the sink to write to
+     *
+     * @throws IOException if the sink cannot be written to
+     */
+    public static void writeValue(@Nullable Object value, ResultSink resultSink) throws IOException {
+        if (value instanceof Map) {
+            resultSink.startObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                resultSink.fieldName(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue(), resultSink);
+            }
+            resultSink.endObject();
+        } else if (value instanceof Iterable) {
+            resultSink.startList();
+            for (Object element : (Iterable<?>) value) {
+                writeValue(element, resultSink);
+            }
+            resultSink.endList();
+        } else if (value instanceof Object[]) {
+            resultSink.startList();
+            for (Object element : (Object[]) value) {
+                writeValue(element, resultSink);
+            }
+            resultSink.endList();
+        } else {
+            resultSink.value(value);
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package graphql.language;
+
+import com.google.common.collect.ImmutableList;
+import graphql.Assert;
+import graphql.PublicApi;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This encodes executable {@link Document}s, that is documents made of operations and fragments, into a compact binary
+ * form and decodes them back into {@link Document}s without going through the parser.
+ * <p>
+ * This is useful to store already parsed documents, for example persisted queries, and load them again much faster
+ * than the query text can be parsed.  Names, values, directives, descriptions and optionally {@link SourceLocation}s
+ * are kept.  Comments, ignored chars and additional data are not.
+ * <p>
+ * Every name is written once per document, later uses refer back to it, and numbers are written as variable length
+ * integers.
+ */
+@PublicApi
+@NullMarked
+public class AstBinaryCodec {
+
+    private static final int MAGIC = 0x47;
+    private static final int VERSION = 1;
+    private static final int SOURCE_LOCATIONS_FLAG = 1;
+
+    private static final int OPERATION_DEFINITION = 1;
+    private static final int FRAGMENT_DEFINITION = 2;
+
+    private static final int FIELD = 1;
+    private static final int FRAGMENT_SPREAD = 2;
+    private static final int INLINE_FRAGMENT = 3;
+
+    private static final int TYPE_NAME = 1;
+    private static final int LIST_TYPE = 2;
+    private static final int NON_NULL_TYPE = 3;
+
+    private static final int INT_VALUE = 1;
+    private static final int BIG_INT_VALUE = 2;
+    private static final int FLOAT_VALUE = 3;
+    private static final int STRING_VALUE = 4;
+    private static final int TRUE_VALUE = 5;
+    private static final int FALSE_VALUE = 6;
+    private static final int NULL_VALUE = 7;
+    private static final int ENUM_VALUE = 8;
+    private static final int VARIABLE_REFERENCE = 9;
+    private static final int ARRAY_VALUE = 10;
+    private static final int OBJECT_VALUE = 11;
+
+    private static final OperationDefinition.Operation[] OPERATIONS = OperationDefinition.Operation.values();
+
+    private AstBinaryCodec() {
+    }
+
+    /**
+     * Encodes a document without its source locations
+     *
+     * @param document the executable document to encode
+     *
+     * @return the encoded document
+     *
+     * @throws graphql.AssertException if the document contains type system definitions
+     */
+    public static byte[] encode(Document document) {
+        return encode(document, false);
+    }
+
+    /**
+     * Encodes a document
+     *
+     * @param document               the executable document to encode
+     * @param includeSourceLocations true if the {@link SourceLocation}s of the nodes should be encoded as well
+     *
+     * @return the encoded document
+     *
+     * @throws graphql.AssertException if the document contains type system definitions
+     */
+    public static byte[] encode(Document document, boolean includeSourceLocations) {
+        return new Writer(includeSourceLocations).document(document);
+    }
+
+    /**
+     * Decodes a document encoded by {@link #encode(Document, boolean)}
+     *
+     * @param bytes the encoded document
+     *
+     * @return the decoded document
+     *
+     * @throws graphql.AssertException if the bytes are not an encoded document
+     */
+    public static Document decode(byte[] bytes) {
+        return new Reader(bytes).document();
+    }
+
+    private static class Writer {
+        private final boolean includeSourceLocations;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        Writer(boolean includeSourceLocations) {
+            this.includeSourceLocations = includeSourceLocations;
+        }
+
+        byte[] document(Document document) {
+            writeByte(MAGIC);
+            writeByte(VERSION);
+            writeByte(includeSourceLocations ? SOURCE_LOCATIONS_FLAG : 0);
+            sourceLocation(document);
+            List<Definition> definitions = document.getDefinitions();
+            writeInt(definitions.size());
+            for (Definition<?> definition : definitions) {
+                if (definition instanceof OperationDefinition) {
+                    writeByte(OPERATION_DEFINITION);
+                    operationDefinition((OperationDefinition) definition);
+                } else if (definition instanceof FragmentDefinition) {
+                    writeByte(FRAGMENT_DEFINITION);
+                    fragmentDefinition((FragmentDefinition) definition);
+                } else {
+                    Assert.assertShouldNeverHappen("Only executable documents can be encoded but found a %s", definition.getClass().getSimpleName());
+                }
+            }
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void operationDefinition(OperationDefinition operationDefinition) {
+            sourceLocation(operationDefinition);
+            writeByte(operationDefinition.getOperation().ordinal());
+            writeString(operationDefinition.getName());
+            description(operationDefinition.getDescription());
+            List<VariableDefinition> variableDefinitions = operationDefinition.getVariableDefinitions();
+            writeInt(variableDefinitions.size());
+            for (VariableDefinition variableDefinition : variableDefinitions) {
+                variableDefinition(variableDefinition);
+            }
+            directives(operationDefinition.getDirectives());
+            selectionSet(operationDefinition.getSelectionSet());
+        }
+
+        private void variableDefinition(VariableDefinition variableDefinition) {
+            sourceLocation(variableDefinition);
+            writeString(variableDefinition.getName());
+            description(variableDefinition.getDescription());
+            type(variableDefinition.getType());
+            Value<?> defaultValue = variableDefinition.getDefaultValue();
+            writeByte(defaultValue == null ? 0 : 1);
+            if (defaultValue != null) {
+                value(defaultValue);
+            }
+            directives(variableDefinition.getDirectives());
+        }
+
+        private void fragmentDefinition(FragmentDefinition fragmentDefinition) {
+            sourceLocation(fragmentDefinition);
+            writeString(fragmentDefinition.getName());
+            description(fragmentDefinition.getDescription());
+            typeName(fragmentDefinition.getTypeCondition());
+            directives(fragmentDefinition.getDirectives());
+            selectionSet(fragmentDefinition.getSelectionSet());
+        }
+
+        private void selectionSet(SelectionSet selectionSet) {
+            sourceLocation(selectionSet);
+            List<Selection> selections = selectionSet.getSelections();
+            writeInt(selections.size());
+            for (Selection<?> selection : selections) {
+                if (selection instanceof Field) {
+                    Field field = (Field) selection;
+                    writeByte(FIELD);
+                    sourceLocation(field);
+                    writeString(field.getAlias());
+                    writeString(field.getName());
+                    arguments(field.getArguments());
+                    directives(field.getDirectives());
+                    optionalSelectionSet(field.getSelectionSet());
+                } else if (selection instanceof FragmentSpread) {
+                    FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                    writeByte(FRAGMENT_SPREAD);
+                    sourceLocation(fragmentSpread);
+                    writeString(fragmentSpread.getName());
+                    directives(fragmentSpread.getDirectives());
+                } else {
+                    InlineFragment inlineFragment = (InlineFragment) selection;
+                    writeByte(INLINE_FRAGMENT);
+                    sourceLocation(inlineFragment);
+                    TypeName typeCondition = inlineFragment.getTypeCondition();
+                    writeByte(typeCondition == null ? 0 : 1);
+                    if (typeCondition != null) {
+                        typeName(typeCondition);
+                    }
+                    directives(inlineFragment.getDirectives());
+                    selectionSet(inlineFragment.getSelectionSet());
+                }
+            }
+        }
+
+        private void optionalSelectionSet(@Nullable SelectionSet selectionSet) {
+            writeByte(selectionSet == null ? 0 : 1);
+            if (selectionSet != null) {
+                selectionSet(selectionSet);
+            }
+        }
+
+        private void directives(List<Directive> directives) {
+            writeInt(directives.size());
+            for (Directive directive : directives) {
+                sourceLocation(directive);
+                writeString(directive.getName());
+                arguments(directive.getArguments());
+            }
+        }
+
+        private void arguments(List<Argument> arguments) {
+            writeInt(arguments.size());
+            for (Argument argument : arguments) {
+                sourceLocation(argument);
+                writeString(argument.getName());
+                value(argument.getValue());
+            }
+        }
+
+        private void type(Type<?> type) {
+            if (type instanceof TypeName) {
+                writeByte(TYPE_NAME);
+                typeName((TypeName) type);
+            } else if (type instanceof ListType) {
+                writeByte(LIST_TYPE);
+                sourceLocation(type);
+                type(((ListType) type).getType());
+            } else {
+                writeByte(NON_NULL_TYPE);
+                sourceLocation(type);
+                type(((NonNullType) type).getType());
+            }
+        }
+
+        private void typeName(TypeName typeName) {
+            sourceLocation(typeName);
+            writeString(typeName.getName());
+        }
+
+        private void value(Value<?> value) {
+            if (value instanceof IntValue) {
+                BigInteger intValue = ((IntValue) value).getValue();
+                if (intValue.bitLength() < Long.SIZE) {
+                    writeByte(INT_VALUE);
+                    sourceLocation(value);
+                    writeLong(intValue.longValue());
+                } else {
+                    writeByte(BIG_INT_VALUE);
+                    sourceLocation(value);
+                    writeString(intValue.toString());
+                }
+            } else if (value instanceof FloatValue) {
+                writeByte(FLOAT_VALUE);
+                sourceLocation(value);
+                writeString(((FloatValue) value).getValue().toString());
+            } else if (value instanceof StringValue) {
+                writeByte(STRING_VALUE);
+                sourceLocation(value);
+                writeString(((StringValue) value).getValue());
+            } else if (value instanceof BooleanValue) {
+                writeByte(((BooleanValue) value).isValue() ? TRUE_VALUE : FALSE_VALUE);
+                sourceLocation(value);
+            } else if (value instanceof NullValue) {
+                writeByte(NULL_VALUE);
+                sourceLocation(value);
+            } else if (value instanceof EnumValue) {
+                writeByte(ENUM_VALUE);
+                sourceLocation(value);
+                writeString(((EnumValue) value).getName());
+            } else if (value instanceof VariableReference) {
+                writeByte(VARIABLE_REFERENCE);
+                sourceLocation(value);
+                writeString(((VariableReference) value).getName());
+            } else if (value instanceof ArrayValue) {
+                writeByte(ARRAY_VALUE);
+                sourceLocation(value);
+                List<Value> values = ((ArrayValue) value).getValues();
+                writeInt(values.size());
+                for (Value<?> element : values) {
+                    value(element);
+                }
+            } else if (value instanceof ObjectValue) {
+                writeByte(OBJECT_VALUE);
+                sourceLocation(value);
+                List<ObjectField> objectFields = ((ObjectValue) value).getObjectFields();
+                writeInt(objectFields.size());
+                for (ObjectField objectField : objectFields) {
+                    sourceLocation(objectField);
+                    writeString(objectField.getName());
+                    value(objectField.getValue());
+                }
+            } else {
+                Assert.assertShouldNeverHappen("Unknown value %s", value.getClass().getSimpleName());
+            }
+        }
+
+        private void description(@Nullable Description description) {
+            writeByte(description == null ? 0 : (description.isMultiLine() ? 2 : 1));
+            if (description != null) {
+                writeString(description.getContent());
+                writeSourceLocation(description.getSourceLocation());
+            }
+        }
+
+        private void sourceLocation(Node<?> node) {
+            writeSourceLocation(node.getSourceLocation());
+        }
+
+        /*
+         * 0 is no source location, otherwise the line and column follow shifted by one so that the empty location fits
+         */
+        private void writeSourceLocation(@Nullable SourceLocation sourceLocation) {
+            if (!includeSourceLocations) {
+                return;
+            }
+            if (sourceLocation == null) {
+                writeByte(0);
+            } else {
+                writeByte(1);
+                writeInt(sourceLocation.getLine() + 1);
+                writeInt(sourceLocation.getColumn() + 1);
+                writeString(sourceLocation.getSourceName());
+            }
+        }
+
+        /*
+         * Strings are written as 0 for null, 1 followed by the UTF-8 bytes the first time and index + 2 after that
+         */
+        private void writeString(@Nullable String string) {
+            if (string == null) {
+                writeByte(0);
+                return;
+            }
+            Integer index = strings.get(string);
+            if (index != null) {
+                writeInt(index + 2);
+                return;
+            }
+            strings.put(string, strings.size());
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeByte(1);
+            writeInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeLong(long value) {
+            // zig zag encoding keeps small negative numbers small
+            long zigZag = (value << 1) ^ (value >> 63);
+            ensureCapacity(10);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[position++] = (byte) zigZag;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void ensureCapacity(int count) {
+            if (position + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + count));
+            }
+        }
+    }
+
+    @NullUnmarked
+    private static class Reader {
+        private final byte[] bytes;
+        private final List<String> strings = new ArrayList<>();
+        private boolean includeSourceLocations;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        Document document() {
+            try {
+                Assert.assertTrue(readByte() == MAGIC && readByte() == VERSION, "The bytes are not an encoded document");
+                includeSourceLocations = (readByte() & SOURCE_LOCATIONS_FLAG) != 0;
+                Document.Builder document = Document.newDocument().sourceLocation(readSourceLocation());
+                int count = readInt();
+                ImmutableList.Builder<Definition> definitions = ImmutableList.builderWithExpectedSize(count);
+                for (int i = 0; i < count; i++) {
+                    int kind = readByte();
+                    if (kind == OPERATION_DEFINITION) {
+                        definitions.add(operationDefinition());
+                    } else {
+                        Assert.assertTrue(kind == FRAGMENT_DEFINITION, "Unknown definition kind %s", kind);
+                        definitions.add(fragmentDefinition());
+                    }
+                }
+                Assert.assertTrue(position == bytes.length, "The bytes are not an encoded document");
+                return document.definitions(definitions.build()).build();
+            } catch (IndexOutOfBoundsException e) {
+                return Assert.assertShouldNeverHappen("The bytes are not an encoded document");
+            }
+        }
+
+        private OperationDefinition operationDefinition() {
+            OperationDefinition.Builder operationDefinition = OperationDefinition.newOperationDefinition()
+                    .sourceLocation(readSourceLocation())
+                    .operation(OPERATIONS[readByte()])
+                    .name(readString())
+                    .description(description());
+            int count = readInt();
+            ImmutableList.Builder<VariableDefinition> variableDefinitions = ImmutableList.builderWithExpectedSize(count);
+            for (int i = 0; i < count; i++) {
+                variableDefinitions.add(variableDefinition());
+            }
+            return operationDefinition
+                    .variableDefinitions(variableDefinitions.build())
+                    .directives(directives())
+                    .selectionSet(selectionSet())
+                    .build();
+        }
+
+        private VariableDefinition variableDefinition() {
+            VariableDefinition.Builder variableDefinition = VariableDefinition.newVariableDefinition()
+                    .sourceLocation(readSourceLocation())
+                    .name(readNonNullString())
+                    .description(description())
+                    .type(type());
+            if (readByte() != 0) {
+                variableDefinition.defaultValue(value());
+            }
+            return variableDefinition.directives(directives()).build();
+        }
+
+        private FragmentDefinition fragmentDefinition() {
+            return FragmentDefinition.newFragmentDefinition()
+                    .sourceLocation(readSourceLocation())
+                    .name(readNonNullString())
+                    .description(description())
+                    .typeCondition(typeName())
+                    .directives(directives())
+                    .selectionSet(selectionSet())
+                    .build();
+        }
+
+        private SelectionSet selectionSet() {
+            SourceLocation sourceLocation = readSourceLocation();
+            int count = readInt();
+            ImmutableList.Builder<Selection> selections = ImmutableList.builderWithExpectedSize(count);
+            for (int i = 0; i < count; i++) {
+                int kind = readByte();
+                if (kind == FIELD) {
+                    selections.add(Field.newField()
+                            .sourceLocation(readSourceLocation())
+                            .alias(readString())
+                            .name(readNonNullString())
+                            .arguments(arguments())
+                            .directives(directives())
+                            .selectionSet(readByte() != 0 ? selectionSet() : null)
+                            .build());
+                } else if (kind == FRAGMENT_SPREAD) {
+                    selections.add(FragmentSpread.newFragmentSpread()
+                            .sourceLocation(readSourceLocation())
+                            .name(readNonNullString())
+                            .directives(directives())
+                            .build());
+                } else {
+                    Assert.assertTrue(kind == INLINE_FRAGMENT, "Unknown selection kind %s", kind);
+                    selections.add(InlineFragment.newInlineFragment()
+                            .sourceLocation(readSourceLocation())
+                            .typeCondition(readByte() != 0 ? typeName() : null)
+                            .directives(directives())
+                            .selectionSet(selectionSet())
+                            .build());
+                }
+            }
+            return SelectionSet.newSelectionSet().sourceLocation(sourceLocation).selections(selections.build()).build();
+        }
+
+        private List<Directive> directives() {
+            int count = readInt();
+            if (count == 0) {
+                return ImmutableList.of();
+            }
+            ImmutableList.Builder<Directive> directives = ImmutableList.builderWithExpectedSize(count);
+            for (int i = 0; i < count; i++) {
+                directives.add(Directive.newDirective()
+                        .sourceLocation(readSourceLocation())
+                        .name(readNonNullString())
+                        .arguments(arguments())
+                        .build());
+            }
+            return directives.build();
+        }
+
+        private List<Argument> arguments() {
+            int count = readInt();
+            if (count == 0) {
+                return ImmutableList.of();
+            }
+            ImmutableList.Builder<Argument> arguments = ImmutableList.builderWithExpectedSize(count);
+            for (int i = 0; i < count; i++) {
+                arguments.add(Argument.newArgument()
+                        .sourceLocation(readSourceLocation())
+                        .name(readNonNullString())
+                        .value(value())
+                        .build());
+            }
+            return arguments.build();
+        }
+
+        private Type<?> type() {
+            int kind = readByte();
+            if (kind == TYPE_NAME) {
+                return typeName();
+            } else if (kind == LIST_TYPE) {
+                return ListType.newListType().sourceLocation(readSourceLocation()).type(type()).build();
+            }
+            Assert.assertTrue(kind == NON_NULL_TYPE, "Unknown type kind %s", kind);
+            return NonNullType.newNonNullType().sourceLocation(readSourceLocation()).type(type()).build();
+        }
+
+        private TypeName typeName() {
+            return TypeName.newTypeName().sourceLocation(readSourceLocation()).name(readNonNullString()).build();
+        }
+
+        private Value<?> value() {
+            int kind = readByte();
+            SourceLocation sourceLocation = readSourceLocation();
+            switch (kind) {
+                case INT_VALUE:
+                    return IntValue.newIntValue(BigInteger.valueOf(readLong())).sourceLocation(sourceLocation).build();
+                case BIG_INT_VALUE:
+                    return IntValue.newIntValue(new BigInteger(readNonNullString())).sourceLocation(sourceLocation).build();
+                case FLOAT_VALUE:
+                    return FloatValue.newFloatValue(new BigDecimal(readNonNullString())).sourceLocation(sourceLocation).build();
+                case STRING_VALUE:
+                    return StringValue.newStringValue(readNonNullString()).sourceLocation(sourceLocation).build();
+                case TRUE_VALUE:
+                case FALSE_VALUE:
+                    return BooleanValue.newBooleanValue(kind == TRUE_VALUE).sourceLocation(sourceLocation).build();
+                case NULL_VALUE:
+                    return NullValue.newNullValue().sourceLocation(sourceLocation).build();
+                case ENUM_VALUE:
+                    return EnumValue.newEnumValue(readNonNullString()).sourceLocation(sourceLocation).build();
+                case VARIABLE_REFERENCE:
+                    return VariableReference.newVariableReference().name(readNonNullString()).sourceLocation(sourceLocation).build();
+                case ARRAY_VALUE:
+                    int valueCount = readInt();
+                    List<Value> values = new ArrayList<>(valueCount);
+                    for (int i = 0; i < valueCount; i++) {
+                        values.add(value());
+                    }
+                    return ArrayValue.newArrayValue().values(values).sourceLocation(sourceLocation).build();
+                case OBJECT_VALUE:
+                    int fieldCount = readInt();
+                    List<ObjectField> objectFields = new ArrayList<>(fieldCount);
+                    for (int i = 0; i < fieldCount; i++) {
+                        objectFields.add(ObjectField.newObjectField()
+                                .sourceLocation(readSourceLocation())
+                                .name(readNonNullString())
+                                .value(value())
+                                .build());
+                    }
+                    return ObjectValue.newObjectValue().objectFields(objectFields).sourceLocation(sourceLocation).build();
+                default:
+                    return Assert.assertShouldNeverHappen("Unknown value kind %s", kind);
+            }
+        }
+
+        private @Nullable Description description() {
+            int kind = readByte();
+            if (kind == 0) {
+                return null;
+            }
+            return new Description(readNonNullString(), readSourceLocation(), kind == 2);
+        }
+
+        private @Nullable SourceLocation readSourceLocation() {
+            if (!includeSourceLocations || readByte() == 0) {
+                return null;
+            }
+            int line = readInt() - 1;
+            int column = readInt() - 1;
+            String sourceName = readString();
+            if (line == -1 && column == -1 && sourceName == null) {
+                return SourceLocation.EMPTY;
+            }
+            return new SourceLocation(line, column, sourceName);
+        }
+
+        private String readNonNullString() {
+            return Assert.assertNotNull(readString(), "The bytes are not an encoded document");
+        }
+
+        private @Nullable String readString() {
+            int index = readInt();
+            if (index == 0) {
+                return null;
+            }
+            if (index > 1) {
+                return strings.get(index - 2);
+            }
+            int length = readInt();
+            String string = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(string);
+            return string;
+        }
+
+        private long readLong() {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+
+        private int readInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+    }
+}
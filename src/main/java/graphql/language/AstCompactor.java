@@ -0,0 +1,174 @@
+package graphql.language;
+
+import graphql.PublicApi;
+import graphql.collect.ImmutableKit;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import static graphql.util.TreeTransformerUtil.changeNode;
+
+/**
+ * A class that makes the nodes of executable documents lean, that is it drops their {@link SourceLocation}s,
+ * {@link Comment}s, {@link IgnoredChars} and additional data, so that they share the same empty lists and maps.
+ * <p>
+ * This is the same AST that {@link graphql.parser.ParserOptions#isLeanAst()} parses, for documents that were
+ * parsed otherwise but are kept for a long time, for example in a {@link graphql.execution.preparsed.PreparsedDocumentProvider}.
+ * Errors about lean nodes have no locations.
+ * <p>
+ * Only the nodes of operations and fragments are made lean, type system definitions are left as they are.
+ */
+@PublicApi
+@NullMarked
+public class AstCompactor {
+
+    /**
+     * This makes the executable nodes in a tree of nodes lean
+     *
+     * @param nodeToBeCompacted the node to be compacted
+     * @param <T>               of type {@link graphql.language.Node}
+     *
+     * @return a new lean node (because {@link graphql.language.Node}s are immutable)
+     */
+    public <T extends Node> T compact(T nodeToBeCompacted) {
+
+        NodeVisitorStub visitor = new NodeVisitorStub() {
+
+            @Override
+            public TraversalControl visitDocument(Document node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitOperationDefinition(OperationDefinition node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(builder -> lean(builder).description(lean(node.getDescription()))));
+            }
+
+            @Override
+            public TraversalControl visitFragmentDefinition(FragmentDefinition node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(builder -> lean(builder).description(lean(node.getDescription()))));
+            }
+
+            @Override
+            public TraversalControl visitVariableDefinition(VariableDefinition node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(builder -> lean(builder).description(lean(node.getDescription()))));
+            }
+
+            @Override
+            public TraversalControl visitSelectionSet(SelectionSet node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitField(Field node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitFragmentSpread(FragmentSpread node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitInlineFragment(InlineFragment node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitDirective(Directive node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitArgument(Argument node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitTypeName(TypeName node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitListType(ListType node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitNonNullType(NonNullType node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitObjectField(ObjectField node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitArrayValue(ArrayValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitObjectValue(ObjectValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitBooleanValue(BooleanValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitEnumValue(EnumValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitFloatValue(FloatValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitIntValue(IntValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitNullValue(NullValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitStringValue(StringValue node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+
+            @Override
+            public TraversalControl visitVariableReference(VariableReference node, TraverserContext<Node> context) {
+                return changeNode(context, node.transform(AstCompactor::lean));
+            }
+        };
+
+        AstTransformer astTransformer = new AstTransformer();
+        Node newDoc = astTransformer.transform(nodeToBeCompacted, visitor);
+        //noinspection unchecked
+        return (T) newDoc;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B extends NodeBuilder> B lean(B builder) {
+        return (B) builder.sourceLocation(null)
+                .comments(ImmutableKit.emptyList())
+                .ignoredChars(IgnoredChars.EMPTY)
+                .additionalData(ImmutableKit.emptyMap());
+    }
+
+    private static @Nullable Description lean(@Nullable Description description) {
+        if (description == null) {
+            return null;
+        }
+        return new Description(description.getContent(), null, description.isMultiLine());
+    }
+}
@@ -0,0 +1,940 @@
+package graphql.parser;
+
+import com.google.common.collect.ImmutableList;
+import graphql.Internal;
+import graphql.collect.ImmutableKit;
+import graphql.i18n.I18n;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.BooleanValue;
+import graphql.language.Comment;
+import graphql.language.Definition;
+import graphql.language.Description;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.ListType;
+import graphql.language.NodeBuilder;
+import graphql.language.NonNullType;
+import graphql.language.NullValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.SourceLocation;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static graphql.parser.StringValueParsing.parseSingleQuotedString;
+import static graphql.parser.StringValueParsing.parseTripleQuotedString;
+
+/**
+ * A hand-written lexer and recursive descent parser for executable documents, that is documents made of operations and
+ * fragments, which builds the same {@link Document} as the ANTLR based {@link Parser} without the ANTLR parse tree
+ * in between.
+ * <p>
+ * It only handles valid executable documents.  When it meets anything else, a type system definition, a syntax
+ * error or a document that goes over one of the {@link ParserOptions} limits, it gives up and {@link #parseDocument()}
+ * returns null, so that the ANTLR parser can parse the document and report the problem exactly as it always has.
+ * The limits are counted the same way as the ANTLR parser counts them, so documents are never parsed deeper or further
+ * than the limits allow.
+ */
+@Internal
+@NullMarked
+class ExecutableDocumentParser {
+
+    private static final List<Comment> NO_COMMENTS = ImmutableKit.emptyList();
+
+    private static final int EOF = 0;
+    private static final int NAME = 1;
+    private static final int INT = 2;
+    private static final int FLOAT = 3;
+    private static final int STRING = 4;
+    private static final int PUNCTUATOR = 5;
+
+    /**
+     * Thrown to unwind the parse when the document has to be left to the ANTLR parser
+     */
+    private static final class GiveUp extends RuntimeException {
+        private GiveUp() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final GiveUp GIVE_UP = new GiveUp();
+
+    private final String source;
+    private final int length;
+    private final MultiSourceReader multiSourceReader;
+    private final I18n i18n;
+    private final boolean captureSourceLocation;
+    private final boolean leanAst;
+    private final boolean captureLineComments;
+    private final int maxTokens;
+    private final int maxWhitespaceTokens;
+    private final int maxRuleDepth;
+
+    // the lexer state
+    private int position;
+    private int line = 1;
+    private int column;
+    private int grammarTokenCount;
+    private int commentTokenCount;
+    private int whitespaceTokenCount;
+    private @Nullable List<int[]> pendingComments;
+
+    // the current token
+    private int tokenKind;
+    private char tokenPunctuator;
+    private int tokenStart;
+    private int tokenEnd;
+    private int tokenLine;
+    private int tokenColumn;
+    private List<Comment> tokenComments = NO_COMMENTS;
+    private @Nullable SourceLocation tokenSourceLocation;
+
+    // the parser state, the depth of the grammar rules of the ANTLR parser
+    private int depth;
+
+    ExecutableDocumentParser(String source, MultiSourceReader multiSourceReader, ParserOptions parserOptions, I18n i18n) {
+        this.source = source;
+        this.length = source.length();
+        this.multiSourceReader = multiSourceReader;
+        this.i18n = i18n;
+        this.captureSourceLocation = parserOptions.isCaptureSourceLocation();
+        this.leanAst = parserOptions.isLeanAst();
+        this.captureLineComments = parserOptions.isCaptureLineComments() && !leanAst;
+        this.maxTokens = parserOptions.getMaxTokens();
+        this.maxWhitespaceTokens = parserOptions.getMaxWhitespaceTokens();
+        this.maxRuleDepth = parserOptions.getMaxRuleDepth();
+    }
+
+    /**
+     * @return the parsed document or null if the document has to be parsed by the ANTLR parser
+     */
+    @Nullable Document parseDocument() {
+        try {
+            nextToken();
+            return document();
+        } catch (GiveUp giveUp) {
+            return null;
+        }
+    }
+
+    //
+    // the parser, its methods follow the rules of the ANTLR grammar and enter them in the same way, so that the rule depth
+    // is the same.  Where ANTLR looks ahead to choose between rules, the deeper rule is entered to be on the safe side
+    //
+
+    private Document document() {
+        enterRule();
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        List<Definition> definitions = new ArrayList<>();
+        do {
+            definitions.add(definition());
+        } while (tokenKind != EOF);
+        exitRule();
+
+        Document.Builder document = Document.newDocument();
+        addCommonData(document, sourceLocation, comments);
+        document.definitions(definitions);
+        return document.build();
+    }
+
+    private Definition definition() {
+        enterRule();
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        Description description = null;
+        if (tokenKind == STRING) {
+            enterLeafRule(2);
+            description = description();
+        }
+        Definition definition;
+        if (tokenKind == PUNCTUATOR && tokenPunctuator == '{' && description == null) {
+            definition = operationDefinition(sourceLocation, comments, null);
+        } else if (isKeyword("query") || isKeyword("mutation") || isKeyword("subscription")) {
+            definition = operationDefinition(sourceLocation, comments, description);
+        } else if (isKeyword("fragment")) {
+            definition = fragmentDefinition(sourceLocation, comments, description);
+        } else {
+            // type system definitions and extensions are left to the ANTLR parser
+            throw GIVE_UP;
+        }
+        exitRule();
+        return definition;
+    }
+
+    private OperationDefinition operationDefinition(@Nullable SourceLocation sourceLocation, List<Comment> comments, @Nullable Description description) {
+        enterRule();
+        OperationDefinition.Builder operationDefinition = OperationDefinition.newOperationDefinition();
+        addCommonData(operationDefinition, sourceLocation, comments);
+        if (tokenKind == PUNCTUATOR) {
+            operationDefinition.operation(OperationDefinition.Operation.QUERY);
+            operationDefinition.variableDefinitions(ImmutableKit.emptyList());
+            operationDefinition.directives(ImmutableKit.emptyList());
+        } else {
+            enterLeafRule(1);
+            operationDefinition.operation(operation(tokenText()));
+            nextToken();
+            if (tokenKind == NAME) {
+                operationDefinition.name(name());
+            }
+            operationDefinition.variableDefinitions(isPunctuator('(') ? variableDefinitions() : ImmutableKit.emptyList());
+            operationDefinition.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        }
+        operationDefinition.description(description);
+        operationDefinition.selectionSet(selectionSet());
+        exitRule();
+        return operationDefinition.build();
+    }
+
+    private static OperationDefinition.Operation operation(String operationType) {
+        switch (operationType) {
+            case "query":
+                return OperationDefinition.Operation.QUERY;
+            case "mutation":
+                return OperationDefinition.Operation.MUTATION;
+            default:
+                return OperationDefinition.Operation.SUBSCRIPTION;
+        }
+    }
+
+    private List<VariableDefinition> variableDefinitions() {
+        enterRule();
+        nextToken();
+        List<VariableDefinition> variableDefinitions = new ArrayList<>();
+        do {
+            variableDefinitions.add(variableDefinition());
+        } while (!isPunctuator(')'));
+        nextToken();
+        exitRule();
+        return variableDefinitions;
+    }
+
+    private VariableDefinition variableDefinition() {
+        enterRule();
+        VariableDefinition.Builder variableDefinition = VariableDefinition.newVariableDefinition();
+        addCommonData(variableDefinition, sourceLocation(), tokenComments);
+        Description description = null;
+        if (tokenKind == STRING) {
+            enterLeafRule(1);
+            description = description();
+        }
+        variableDefinition.description(description);
+        variableDefinition.name(variable());
+        expectPunctuator(':');
+        Type<?> type = type();
+        if (isPunctuator('=')) {
+            enterRule();
+            nextToken();
+            variableDefinition.defaultValue(value(true));
+            exitRule();
+        }
+        variableDefinition.type(type);
+        variableDefinition.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        exitRule();
+        return variableDefinition.build();
+    }
+
+    private String variable() {
+        enterRule();
+        expectPunctuator('$');
+        String name = name();
+        exitRule();
+        return name;
+    }
+
+    private FragmentDefinition fragmentDefinition(@Nullable SourceLocation sourceLocation, List<Comment> comments, @Nullable Description description) {
+        enterRule();
+        nextToken();
+        FragmentDefinition.Builder fragmentDefinition = FragmentDefinition.newFragmentDefinition();
+        addCommonData(fragmentDefinition, sourceLocation, comments);
+        fragmentDefinition.description(description);
+        fragmentDefinition.name(fragmentName());
+        if (!isKeyword("on")) {
+            throw GIVE_UP;
+        }
+        // the type condition of a fragment definition has no source location or comments
+        fragmentDefinition.typeCondition(TypeName.newTypeName().name(typeCondition().getName()).build());
+        fragmentDefinition.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        fragmentDefinition.selectionSet(selectionSet());
+        exitRule();
+        return fragmentDefinition.build();
+    }
+
+    private TypeName typeCondition() {
+        enterRule();
+        nextToken();
+        TypeName typeName = typeName();
+        exitRule();
+        return typeName;
+    }
+
+    private SelectionSet selectionSet() {
+        enterRule();
+        SelectionSet.Builder selectionSet = SelectionSet.newSelectionSet();
+        addCommonData(selectionSet, sourceLocation(), tokenComments);
+        expectPunctuator('{');
+        List<Selection> selections = new ArrayList<>();
+        do {
+            selections.add(selection());
+        } while (!isPunctuator('}'));
+        nextToken();
+        selectionSet.selections(selections);
+        exitRule();
+        return selectionSet.build();
+    }
+
+    private Selection<?> selection() {
+        enterRule();
+        Selection<?> selection;
+        if (tokenKind == NAME) {
+            selection = field();
+        } else if (isPunctuator('.')) {
+            SourceLocation sourceLocation = sourceLocation();
+            List<Comment> comments = tokenComments;
+            nextToken();
+            if (tokenKind == NAME && !isKeyword("on")) {
+                selection = fragmentSpread(sourceLocation, comments);
+            } else {
+                selection = inlineFragment(sourceLocation, comments);
+            }
+        } else {
+            throw GIVE_UP;
+        }
+        exitRule();
+        return selection;
+    }
+
+    private Field field() {
+        enterRule();
+        Field.Builder field = Field.newField();
+        addCommonData(field, sourceLocation(), tokenComments);
+        // the name might be an alias
+        enterRule();
+        String name = name();
+        exitRule();
+        if (isPunctuator(':')) {
+            nextToken();
+            field.alias(name);
+            name = name();
+        }
+        field.name(name);
+        field.arguments(isPunctuator('(') ? arguments() : ImmutableKit.emptyList());
+        field.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        field.selectionSet(isPunctuator('{') ? selectionSet() : null);
+        exitRule();
+        return field.build();
+    }
+
+    private FragmentSpread fragmentSpread(@Nullable SourceLocation sourceLocation, List<Comment> comments) {
+        enterRule();
+        FragmentSpread.Builder fragmentSpread = FragmentSpread.newFragmentSpread().name(fragmentName());
+        addCommonData(fragmentSpread, sourceLocation, comments);
+        fragmentSpread.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        exitRule();
+        return fragmentSpread.build();
+    }
+
+    private InlineFragment inlineFragment(@Nullable SourceLocation sourceLocation, List<Comment> comments) {
+        enterRule();
+        InlineFragment.Builder inlineFragment = InlineFragment.newInlineFragment();
+        addCommonData(inlineFragment, sourceLocation, comments);
+        if (isKeyword("on")) {
+            inlineFragment.typeCondition(typeCondition());
+        }
+        inlineFragment.directives(isPunctuator('@') ? directives() : ImmutableKit.emptyList());
+        inlineFragment.selectionSet(selectionSet());
+        exitRule();
+        return inlineFragment.build();
+    }
+
+    private List<Argument> arguments() {
+        enterRule();
+        nextToken();
+        List<Argument> arguments = new ArrayList<>();
+        do {
+            arguments.add(argument());
+        } while (!isPunctuator(')'));
+        nextToken();
+        exitRule();
+        return arguments;
+    }
+
+    private Argument argument() {
+        enterRule();
+        Argument.Builder argument = Argument.newArgument();
+        addCommonData(argument, sourceLocation(), tokenComments);
+        argument.name(name());
+        expectPunctuator(':');
+        argument.value(value(false));
+        exitRule();
+        return argument.build();
+    }
+
+    private List<Directive> directives() {
+        enterRule();
+        List<Directive> directives = new ArrayList<>();
+        do {
+            directives.add(directive());
+        } while (isPunctuator('@'));
+        exitRule();
+        return directives;
+    }
+
+    private Directive directive() {
+        enterRule();
+        Directive.Builder directive = Directive.newDirective();
+        addCommonData(directive, sourceLocation(), tokenComments);
+        nextToken();
+        directive.name(name());
+        directive.arguments(isPunctuator('(') ? arguments() : ImmutableKit.emptyList());
+        exitRule();
+        return directive.build();
+    }
+
+    private Type<?> type() {
+        enterRule();
+        // the type might be a non null type
+        enterRule();
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        Type<?> type;
+        if (isPunctuator('[')) {
+            type = listType(sourceLocation, comments);
+        } else {
+            type = typeName();
+        }
+        if (isPunctuator('!')) {
+            nextToken();
+            NonNullType.Builder nonNullType = NonNullType.newNonNullType();
+            addCommonData(nonNullType, sourceLocation, comments);
+            nonNullType.type(type);
+            type = nonNullType.build();
+        }
+        exitRule();
+        exitRule();
+        return type;
+    }
+
+    private ListType listType(@Nullable SourceLocation sourceLocation, List<Comment> comments) {
+        enterRule();
+        nextToken();
+        ListType.Builder listType = ListType.newListType();
+        addCommonData(listType, sourceLocation, comments);
+        listType.type(type());
+        expectPunctuator(']');
+        exitRule();
+        return listType.build();
+    }
+
+    private TypeName typeName() {
+        enterRule();
+        TypeName.Builder typeName = TypeName.newTypeName();
+        addCommonData(typeName, sourceLocation(), tokenComments);
+        typeName.name(name());
+        exitRule();
+        return typeName.build();
+    }
+
+    private Value<?> value(boolean constant) {
+        enterRule();
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        Value<?> value;
+        switch (tokenKind) {
+            case NAME:
+                value = nameValue(sourceLocation, comments);
+                break;
+            case INT:
+                IntValue.Builder intValue = IntValue.newIntValue().value(new BigInteger(tokenText()));
+                addCommonData(intValue, sourceLocation, comments);
+                value = intValue.build();
+                nextToken();
+                break;
+            case FLOAT:
+                FloatValue.Builder floatValue = FloatValue.newFloatValue().value(new BigDecimal(tokenText()));
+                addCommonData(floatValue, sourceLocation, comments);
+                value = floatValue.build();
+                nextToken();
+                break;
+            case STRING:
+                StringValue.Builder stringValue = StringValue.newStringValue().value(quotedString());
+                addCommonData(stringValue, sourceLocation, comments);
+                value = stringValue.build();
+                nextToken();
+                break;
+            case PUNCTUATOR:
+                if (tokenPunctuator == '$' && !constant) {
+                    VariableReference.Builder variableReference = VariableReference.newVariableReference().name(variable());
+                    addCommonData(variableReference, sourceLocation, comments);
+                    value = variableReference.build();
+                } else if (tokenPunctuator == '[') {
+                    value = arrayValue(sourceLocation, comments, constant);
+                } else if (tokenPunctuator == '{') {
+                    value = objectValue(sourceLocation, comments, constant);
+                } else {
+                    throw GIVE_UP;
+                }
+                break;
+            default:
+                throw GIVE_UP;
+        }
+        exitRule();
+        return value;
+    }
+
+    private Value<?> nameValue(@Nullable SourceLocation sourceLocation, List<Comment> comments) {
+        String text = tokenText();
+        Value<?> value;
+        if (text.equals("true") || text.equals("false")) {
+            BooleanValue.Builder booleanValue = BooleanValue.newBooleanValue().value(Boolean.parseBoolean(text));
+            addCommonData(booleanValue, sourceLocation, comments);
+            value = booleanValue.build();
+        } else if (text.equals("null")) {
+            NullValue.Builder nullValue = NullValue.newNullValue();
+            addCommonData(nullValue, sourceLocation, comments);
+            value = nullValue.build();
+        } else {
+            // enumValue : enumValueName and enumValueName : baseName | ON_KEYWORD
+            enterLeafRule(text.equals("on") ? 2 : 3);
+            EnumValue.Builder enumValue = EnumValue.newEnumValue().name(text);
+            addCommonData(enumValue, sourceLocation, comments);
+            value = enumValue.build();
+        }
+        nextToken();
+        return value;
+    }
+
+    private ArrayValue arrayValue(@Nullable SourceLocation sourceLocation, List<Comment> comments, boolean constant) {
+        enterRule();
+        nextToken();
+        ArrayValue.Builder arrayValue = ArrayValue.newArrayValue();
+        addCommonData(arrayValue, sourceLocation, comments);
+        List<Value> values = new ArrayList<>();
+        while (!isPunctuator(']')) {
+            values.add(value(constant));
+        }
+        nextToken();
+        exitRule();
+        return arrayValue.values(values).build();
+    }
+
+    private ObjectValue objectValue(@Nullable SourceLocation sourceLocation, List<Comment> comments, boolean constant) {
+        enterRule();
+        nextToken();
+        ObjectValue.Builder objectValue = ObjectValue.newObjectValue();
+        addCommonData(objectValue, sourceLocation, comments);
+        List<ObjectField> objectFields = new ArrayList<>();
+        while (!isPunctuator('}')) {
+            enterRule();
+            String name = name();
+            expectPunctuator(':');
+            objectFields.add(ObjectField.newObjectField().name(name).value(value(constant)).build());
+            exitRule();
+        }
+        nextToken();
+        exitRule();
+        return objectValue.objectFields(objectFields).build();
+    }
+
+    private String name() {
+        if (tokenKind != NAME) {
+            throw GIVE_UP;
+        }
+        String name = tokenText();
+        // name : baseName | BooleanValue | NullValue | ON_KEYWORD
+        boolean baseName = !(name.equals("true") || name.equals("false") || name.equals("null") || name.equals("on"));
+        enterLeafRule(baseName ? 2 : 1);
+        nextToken();
+        return name;
+    }
+
+    private String fragmentName() {
+        if (tokenKind != NAME || isKeyword("on")) {
+            throw GIVE_UP;
+        }
+        String name = tokenText();
+        // fragmentName : baseName | BooleanValue | NullValue
+        boolean baseName = !(name.equals("true") || name.equals("false") || name.equals("null"));
+        enterLeafRule(baseName ? 2 : 1);
+        nextToken();
+        return name;
+    }
+
+    private Description description() {
+        String content = tokenText();
+        boolean multiLine = content.startsWith("\"\"\"");
+        SourceLocation sourceLocation = sourceLocation();
+        if (multiLine) {
+            content = parseTripleQuotedString(content);
+        } else {
+            // lean nodes have no source location but string errors still report where they are
+            content = parseSingleQuoted(content, sourceLocation != null ? sourceLocation : AntlrHelper.createSourceLocation(multiSourceReader, tokenLine, tokenColumn));
+        }
+        nextToken();
+        return new Description(content, sourceLocation, multiLine);
+    }
+
+    private String quotedString() {
+        String text = tokenText();
+        if (text.startsWith("\"\"\"")) {
+            return parseTripleQuotedString(text);
+        }
+        return parseSingleQuoted(text, AntlrHelper.createSourceLocation(multiSourceReader, tokenLine, tokenColumn));
+    }
+
+    private String parseSingleQuoted(String text, SourceLocation sourceLocation) {
+        try {
+            return parseSingleQuotedString(i18n, text, sourceLocation);
+        } catch (InvalidSyntaxException e) {
+            // the ANTLR parser reports syntax errors before string errors, so it has to decide which one it is
+            throw GIVE_UP;
+        }
+    }
+
+    private void enterRule() {
+        if (++depth > maxRuleDepth) {
+            throw GIVE_UP;
+        }
+    }
+
+    private void exitRule() {
+        depth--;
+    }
+
+    /*
+     * Enters and exits rules that only consist of tokens, nested count deep
+     */
+    private void enterLeafRule(int count) {
+        if (depth + count > maxRuleDepth) {
+            throw GIVE_UP;
+        }
+    }
+
+    private void addCommonData(NodeBuilder nodeBuilder, @Nullable SourceLocation sourceLocation, List<Comment> comments) {
+        if (!comments.isEmpty()) {
+            nodeBuilder.comments(comments);
+        }
+        nodeBuilder.sourceLocation(sourceLocation);
+    }
+
+    private @Nullable SourceLocation sourceLocation() {
+        if (leanAst) {
+            return null;
+        }
+        if (!captureSourceLocation) {
+            return SourceLocation.EMPTY;
+        }
+        if (tokenSourceLocation == null) {
+            tokenSourceLocation = AntlrHelper.createSourceLocation(multiSourceReader, tokenLine, tokenColumn);
+        }
+        return tokenSourceLocation;
+    }
+
+    private boolean isPunctuator(char punctuator) {
+        return tokenKind == PUNCTUATOR && tokenPunctuator == punctuator;
+    }
+
+    private boolean isKeyword(String keyword) {
+        return tokenKind == NAME && source.startsWith(keyword, tokenStart) && tokenEnd - tokenStart == keyword.length();
+    }
+
+    private void expectPunctuator(char punctuator) {
+        if (!isPunctuator(punctuator)) {
+            throw GIVE_UP;
+        }
+        nextToken();
+    }
+
+    private String tokenText() {
+        return source.substring(tokenStart, tokenEnd);
+    }
+
+    //
+    // the lexer, it follows the lexer rules of the ANTLR grammar.  Lines are counted by line feeds and
+    // columns by code points, like ANTLR does
+    //
+
+    private void nextToken() {
+        skipIgnored();
+        tokenStart = position;
+        tokenLine = line;
+        tokenColumn = column;
+        tokenSourceLocation = null;
+        tokenComments = pendingComments == null ? NO_COMMENTS : comments();
+        pendingComments = null;
+        if (++grammarTokenCount > maxTokens) {
+            throw GIVE_UP;
+        }
+
+        if (position == length) {
+            tokenKind = EOF;
+        } else {
+            char c = source.charAt(position);
+            if (isNameStart(c)) {
+                position++;
+                while (position < length && isNameContinue(source.charAt(position))) {
+                    position++;
+                }
+                column += position - tokenStart;
+                tokenKind = NAME;
+            } else if (c == '-' || isDigit(c)) {
+                number();
+                column += position - tokenStart;
+            } else if (c == '"') {
+                string();
+            } else if (c == '.') {
+                if (!source.startsWith("...", position)) {
+                    throw GIVE_UP;
+                }
+                position += 3;
+                column += 3;
+                tokenKind = PUNCTUATOR;
+                tokenPunctuator = c;
+            } else if ("!$&():=@[]{|}".indexOf(c) >= 0) {
+                position++;
+                column++;
+                tokenKind = PUNCTUATOR;
+                tokenPunctuator = c;
+            } else {
+                throw GIVE_UP;
+            }
+        }
+        tokenEnd = position;
+    }
+
+    private void skipIgnored() {
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '\n') {
+                line++;
+                column = 0;
+            } else if (c == ' ' || c == ',' || c == '\t' || c == '\r' || c == '\ufeff' || c == '\u2028' || c == '\u2029') {
+                column++;
+            } else if (c == '#') {
+                comment();
+                continue;
+            } else {
+                return;
+            }
+            position++;
+            if (++whitespaceTokenCount > maxWhitespaceTokens) {
+                throw GIVE_UP;
+            }
+        }
+    }
+
+    private void comment() {
+        if (++commentTokenCount > maxTokens) {
+            throw GIVE_UP;
+        }
+        int start = position;
+        int startColumn = column;
+        position++;
+        column++;
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == '\n' || c == '\r') {
+                break;
+            }
+            sourceCharacter(c);
+        }
+        if (captureLineComments) {
+            if (pendingComments == null) {
+                pendingComments = new ArrayList<>(2);
+            }
+            pendingComments.add(new int[]{start, position, line, startColumn});
+        }
+    }
+
+    private List<Comment> comments() {
+        ImmutableList.Builder<Comment> comments = ImmutableList.builder();
+        for (int[] comment : pendingComments) {
+            // the text of comments is without the leading # character
+            String text = source.substring(comment[0] + 1, comment[1]);
+            MultiSourceReader.SourceAndLine sourceAndLine = multiSourceReader.getSourceAndLineFromOverallLine(comment[2]);
+            SourceLocation sourceLocation = SourceLocation.EMPTY;
+            if (captureSourceLocation) {
+                sourceLocation = new SourceLocation(sourceAndLine.getLine() + 1, comment[3], sourceAndLine.getSourceName());
+            }
+            comments.add(new Comment(text, sourceLocation));
+        }
+        return comments.build();
+    }
+
+    private void number() {
+        boolean isFloat = false;
+        if (source.charAt(position) == '-') {
+            position++;
+        }
+        if (charAt(position) == '0') {
+            position++;
+        } else if (isDigit(charAt(position))) {
+            skipDigits();
+        } else {
+            throw GIVE_UP;
+        }
+        if (charAt(position) == '.' && isDigit(charAt(position + 1))) {
+            position++;
+            skipDigits();
+            isFloat = true;
+        }
+        char c = charAt(position);
+        if (c == 'e' || c == 'E') {
+            int exponent = position + 1;
+            if (charAt(exponent) == '+' || charAt(exponent) == '-') {
+                exponent++;
+            }
+            if (isDigit(charAt(exponent))) {
+                position = exponent;
+                skipDigits();
+                isFloat = true;
+            }
+        }
+        c = charAt(position);
+        if (isDigit(c) || c == '.' || isNameStart(c)) {
+            throw GIVE_UP;
+        }
+        tokenKind = isFloat ? FLOAT : INT;
+    }
+
+    private void skipDigits() {
+        while (isDigit(charAt(position))) {
+            position++;
+        }
+    }
+
+    /*
+     * Strings can contain line feeds and other than ASCII characters, so they count their lines and columns themselves
+     */
+    private void string() {
+        if (source.startsWith("\"\"\"", position)) {
+            position += 3;
+            column += 3;
+            while (!source.startsWith("\"\"\"", position)) {
+                if (position == length) {
+                    throw GIVE_UP;
+                }
+                if (source.startsWith("\\\"\"\"", position)) {
+                    position += 4;
+                    column += 4;
+                } else {
+                    char c = source.charAt(position);
+                    if (c == '\n') {
+                        position++;
+                        line++;
+                        column = 0;
+                    } else {
+                        sourceCharacter(c);
+                    }
+                }
+            }
+            position += 3;
+            column += 3;
+        } else if (source.startsWith("\"\"", position)) {
+            position += 2;
+            column += 2;
+        } else {
+            position++;
+            column++;
+            char c;
+            while ((c = charAt(position)) != '"') {
+                if (c == '\n' || c == '\r' || position == length) {
+                    throw GIVE_UP;
+                } else if (c == '\\') {
+                    escapeSequence();
+                } else {
+                    sourceCharacter(c);
+                }
+            }
+            position++;
+            column++;
+        }
+        tokenKind = STRING;
+    }
+
+    private void escapeSequence() {
+        char escaped = charAt(position + 1);
+        if (escaped == 'u') {
+            int hex = position + 2;
+            if (charAt(hex) == '{') {
+                int start = ++hex;
+                while (isHex(charAt(hex))) {
+                    hex++;
+                }
+                if (hex == start || charAt(hex) != '}') {
+                    throw GIVE_UP;
+                }
+                hex++;
+            } else {
+                for (int i = 0; i < 4; i++, hex++) {
+                    if (!isHex(charAt(hex))) {
+                        throw GIVE_UP;
+                    }
+                }
+            }
+            column += hex - position;
+            position = hex;
+        } else if ("\"\\/bfnrt".indexOf(escaped) >= 0) {
+            position += 2;
+            column += 2;
+        } else {
+            throw GIVE_UP;
+        }
+    }
+
+    /*
+     * Consumes a source character, a surrogate pair is one code point and lone surrogates are not source characters
+     */
+    private void sourceCharacter(char c) {
+        if (Character.isSurrogate(c)) {
+            if (!Character.isHighSurrogate(c) || !Character.isLowSurrogate(charAt(position + 1))) {
+                throw GIVE_UP;
+            }
+            position++;
+        }
+        position++;
+        column++;
+    }
+
+    private char charAt(int index) {
+        return index < length ? source.charAt(index) : 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isNameStart(char c) {
+        return c == '_' || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isNameContinue(char c) {
+        return isNameStart(c) || isDigit(c);
+    }
+}
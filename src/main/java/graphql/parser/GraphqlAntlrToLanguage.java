@@ -809,7 +809,7 @@ public class GraphqlAntlrToLanguage {
     }
 
     private void addIgnoredChars(ParserRuleContext ctx, NodeBuilder nodeBuilder) {
-        if (!parserOptions.isCaptureIgnoredChars()) {
+        if (!parserOptions.isCaptureIgnoredChars() || parserOptions.isLeanAst()) {
             return;
         }
         Token start = ctx.getStart();
@@ -872,7 +872,9 @@ public class GraphqlAntlrToLanguage {
         if (multiLine) {
             content = parseTripleQuotedString(content);
         } else {
-            content = parseSingleQuotedString(i18N, content, sourceLocation);
+            // lean nodes have no source location but string errors still report where they are
+            SourceLocation stringSourceLocation = sourceLocation != null ? sourceLocation : AntlrHelper.createSourceLocation(multiSourceReader, terminalNode);
+            content = parseSingleQuotedString(i18N, content, stringSourceLocation);
         }
         return new Description(content, sourceLocation, multiLine);
     }
@@ -882,6 +884,9 @@ public class GraphqlAntlrToLanguage {
     }
 
     protected SourceLocation getSourceLocation(Token token) {
+        if (parserOptions.isLeanAst()) {
+            return null;
+        }
         if (parserOptions.isCaptureSourceLocation()) {
             return AntlrHelper.createSourceLocation(multiSourceReader, token);
         } else {
@@ -890,7 +895,7 @@ public class GraphqlAntlrToLanguage {
     }
 
     protected List<Comment> getComments(ParserRuleContext ctx) {
-        if (!parserOptions.isCaptureLineComments()) {
+        if (!parserOptions.isCaptureLineComments() || parserOptions.isLeanAst()) {
             return NO_COMMENTS;
         }
 
@@ -1,6 +1,7 @@
 package graphql.parser;
 
 import graphql.Assert;
+import graphql.Internal;
 import graphql.PublicApi;
 import graphql.util.LockKit;
 
@@ -226,6 +227,24 @@ public class MultiSourceReader extends Reader {
         }
     }
 
+    /**
+     * Splits this reader into one reader per source, so that the sources can be read independently of each other.
+     * This must be called before anything has been read from this reader, and afterwards only the returned readers
+     * should be read.  Closing this reader still closes all the sources.
+     *
+     * @return a reader per source, in the order the sources were added
+     */
+    @Internal
+    public List<MultiSourceReader> splitBySource() {
+        List<MultiSourceReader> readers = new ArrayList<>(sourceParts.size());
+        for (SourcePart sourcePart : sourceParts) {
+            Builder builder = new Builder().trackData(trackData);
+            builder.sourceParts.add(sourcePart);
+            readers.add(builder.build());
+        }
+        return readers;
+    }
+
     @Override
     public void close() throws IOException {
         readerLock.lock();
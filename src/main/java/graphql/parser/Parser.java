@@ -183,9 +183,28 @@ public class Parser {
             Document doc = toLanguage.createDocument(documentContext);
             return new Object[]{documentContext, doc};
         };
+        ParserOptions parserOptions = Optional.ofNullable(environment.getParserOptions()).orElse(ParserOptions.getDefaultParserOptions());
+        if (isRecursiveDescentParsing(parserOptions)) {
+            MultiSourceReader multiSourceReader = setupMultiSourceReader(environment, parserOptions);
+            String source = readAll(setupSafeTokenReader(environment, parserOptions, multiSourceReader));
+            Document document = new ExecutableDocumentParser(source, multiSourceReader, parserOptions, environment.getI18N()).parseDocument();
+            if (document != null) {
+                return document;
+            }
+            // type system definitions, syntax errors and limits are left to the ANTLR parser
+            return (Document) parseImpl(environment, parserOptions, multiSourceReader, CharStreams.fromString(source), nodeFunction);
+        }
         return (Document) parseImpl(environment, nodeFunction);
     }
 
+    private boolean isRecursiveDescentParsing(ParserOptions parserOptions) {
+        // subclasses of the parser work with the ANTLR parse tree
+        return parserOptions.isRecursiveDescentParsing()
+                && (!parserOptions.isCaptureIgnoredChars() || parserOptions.isLeanAst())
+                && parserOptions.getParsingListener() == ParsingListener.NOOP
+                && getClass() == Parser.class;
+    }
+
     private Value<?> parseValueImpl(String input) throws InvalidSyntaxException {
         BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction = (parser, toLanguage) -> {
             GraphqlParser.ValueContext documentContext = parser.value();
@@ -241,6 +260,10 @@ public class Parser {
 
         CodePointCharStream charStream = setupCharStream(safeTokenReader);
 
+        return parseImpl(environment, parserOptions, multiSourceReader, charStream, nodeFunction);
+    }
+
+    private Node<?> parseImpl(ParserEnvironment environment, ParserOptions parserOptions, MultiSourceReader multiSourceReader, CodePointCharStream charStream, BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction) throws InvalidSyntaxException {
         GraphqlLexer lexer = setupGraphqlLexer(environment, multiSourceReader, charStream);
 
         // this lexer wrapper allows us to stop lexing when too many tokens are in place.  This prevents DOS attacks.
@@ -319,6 +342,21 @@ public class Parser {
         return charStream;
     }
 
+    @NonNull
+    private static String readAll(SafeTokenReader safeTokenReader) {
+        StringBuilder source = new StringBuilder();
+        char[] buffer = new char[4096];
+        try {
+            int read;
+            while ((read = safeTokenReader.read(buffer, 0, buffer.length)) != -1) {
+                source.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return source.toString();
+    }
+
     @NonNull
     private static GraphqlLexer setupGraphqlLexer(ParserEnvironment environment, MultiSourceReader multiSourceReader, CodePointCharStream charStream) {
         GraphqlLexer lexer = new GraphqlLexer(charStream);
@@ -194,6 +194,8 @@ public class ParserOptions {
     private final int maxRuleDepth;
     private final boolean redactTokenParserErrorMessages;
     private final ParsingListener parsingListener;
+    private final boolean recursiveDescentParsing;
+    private final boolean leanAst;
 
     private ParserOptions(Builder builder) {
         this.captureIgnoredChars = builder.captureIgnoredChars;
@@ -206,6 +208,8 @@ public class ParserOptions {
         this.maxRuleDepth = builder.maxRuleDepth;
         this.redactTokenParserErrorMessages = builder.redactTokenParserErrorMessages;
         this.parsingListener = builder.parsingListener;
+        this.recursiveDescentParsing = builder.recursiveDescentParsing;
+        this.leanAst = builder.leanAst;
     }
 
     /**
@@ -313,6 +317,36 @@ public class ParserOptions {
         return parsingListener;
     }
 
+    /**
+     * Executable documents, that is operations and fragments, can be parsed by a hand-written recursive descent parser
+     * instead of the ANTLR parser.  It builds the same AST {@link graphql.language.Document}s with less setup and
+     * allocation per parse.  Documents with type system definitions, documents with syntax errors and parses that
+     * capture ignored characters or have a {@link ParsingListener} are still handed to the ANTLR parser.
+     * <p>
+     * This is off by default.
+     *
+     * @return true if executable documents should be parsed by the recursive descent parser
+     */
+    public boolean isRecursiveDescentParsing() {
+        return recursiveDescentParsing;
+    }
+
+    /**
+     * A lean AST leaves out everything that is not needed to validate and execute a document.  The nodes have no
+     * {@link graphql.language.SourceLocation}s, no {@link graphql.language.Comment}s and no
+     * {@link graphql.language.IgnoredChars}, whatever the other capture options say, and share the same empty lists
+     * and maps.  This is useful for documents that are cached for a long time, where the per node data adds up.
+     * <p>
+     * Errors about lean nodes have no locations.  Syntax errors still have their locations.
+     * <p>
+     * See {@link graphql.language.AstCompactor} to make an already parsed document lean.  This is off by default.
+     *
+     * @return true if the parser should build lean AST nodes
+     */
+    public boolean isLeanAst() {
+        return leanAst;
+    }
+
     public ParserOptions transform(Consumer<Builder> builderConsumer) {
         Builder builder = new Builder(this);
         builderConsumer.accept(builder);
@@ -335,6 +369,8 @@ public class ParserOptions {
         private int maxWhitespaceTokens = MAX_WHITESPACE_TOKENS;
         private int maxRuleDepth = MAX_RULE_DEPTH;
         private boolean redactTokenParserErrorMessages = false;
+        private boolean recursiveDescentParsing = false;
+        private boolean leanAst = false;
 
         Builder() {
         }
@@ -349,6 +385,8 @@ public class ParserOptions {
             this.maxRuleDepth = parserOptions.maxRuleDepth;
             this.redactTokenParserErrorMessages = parserOptions.redactTokenParserErrorMessages;
             this.parsingListener = parserOptions.parsingListener;
+            this.recursiveDescentParsing = parserOptions.recursiveDescentParsing;
+            this.leanAst = parserOptions.leanAst;
         }
 
         public Builder captureIgnoredChars(boolean captureIgnoredChars) {
@@ -401,6 +439,16 @@ public class ParserOptions {
             return this;
         }
 
+        public Builder recursiveDescentParsing(boolean recursiveDescentParsing) {
+            this.recursiveDescentParsing = recursiveDescentParsing;
+            return this;
+        }
+
+        public Builder leanAst(boolean leanAst) {
+            this.leanAst = leanAst;
+            return this;
+        }
+
         public ParserOptions build() {
             return new ParserOptions(this);
         }
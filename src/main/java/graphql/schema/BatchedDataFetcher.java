@@ -0,0 +1,66 @@
+package graphql.schema;
+
+import graphql.PublicSpi;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A {@link BatchedDataFetcher} fetches the values of a field for many source objects at once, which avoids the N+1
+ * problem of a field inside a list without having to set up {@link org.dataloader.DataLoader}s for it.
+ * <p>
+ * The engine gathers the {@link DataFetchingEnvironment}s of the fields that use the same batched data fetcher
+ * and calls {@link #getBatch(List)} once for them, at the same points it would dispatch the
+ * {@link org.dataloader.DataLoaderRegistry}, which with the default per level dispatching means once per level of the
+ * query.  The values are then handed back to the fields in the order of the environments.
+ * <p>
+ * Register a batched data fetcher like any other data fetcher, for example via
+ * {@link GraphQLCodeRegistry.Builder#dataFetcher(FieldCoordinates, DataFetcher)}, or make it in a
+ * {@link DataFetcherFactory}.  If the engine cannot see that a field uses a batched data fetcher, because it is wrapped
+ * in another data fetcher, then it is called via {@link #get(DataFetchingEnvironment)} with a batch of one.
+ * <p>
+ * {@link graphql.execution.instrumentation.Instrumentation#instrumentDataFetcher} is given a batched data fetcher that
+ * adds the field to its batch when it is called, so the instrumented data fetcher of each field is called as usual, and
+ * what it gets back is the promise of the value of that field.  An instrumentation that wraps it must call it on the
+ * calling thread, because a field that is added to its batch after the batch was fetched is fetched on its own.
+ * <p>
+ * Batches are fetched by the {@link graphql.execution.DataLoaderDispatchStrategy} of the execution, so when the
+ * {@link graphql.GraphQL} instance is built with {@code doNotAutomaticallyDispatchDataLoader}, there is nothing to
+ * fetch them and each field is fetched on its own via {@link #get(DataFetchingEnvironment)}.
+ *
+ * @param <T> the type of the values fetched
+ */
+@PublicSpi
+@NullMarked
+public interface BatchedDataFetcher<T> extends DataFetcher<CompletableFuture<T>> {
+
+    /**
+     * This is called by the graphql engine to fetch the values of a batch of fields.
+     *
+     * @param environments the data fetching environments of the fields, which is never empty
+     *
+     * @return a promise of the values, one for each environment and in the same order.  A value may be wrapped in a
+     * {@link graphql.execution.DataFetcherResult}
+     *
+     * @throws Exception to relieve the implementations from having to wrap checked exceptions. Any exception thrown
+     *                   from a {@code BatchedDataFetcher} will eventually be handled by the registered {@link graphql.execution.DataFetcherExceptionHandler}
+     *                   for each field of the batch and the fields will have a value of {@code null} in the result.
+     */
+    CompletionStage<List<T>> getBatch(List<DataFetchingEnvironment> environments) throws Exception;
+
+    /**
+     * Fetches the value of a single field as a batch of one
+     *
+     * @param environment the data fetching environment of the field
+     *
+     * @return a promise of the value
+     *
+     * @throws Exception if {@link #getBatch(List)} throws one
+     */
+    @Override
+    default CompletableFuture<T> get(DataFetchingEnvironment environment) throws Exception {
+        return getBatch(List.of(environment)).toCompletableFuture().thenApply(values -> values.get(0));
+    }
+}
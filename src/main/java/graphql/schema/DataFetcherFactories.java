@@ -20,18 +20,34 @@ public class DataFetcherFactories {
      * @return a data fetcher factory that always returns the provided data fetcher
      */
     public static <T> DataFetcherFactory<T> useDataFetcher(DataFetcher<T> dataFetcher) {
-        //noinspection deprecation
-        return new DataFetcherFactory<>() {
-            @Override
-            public DataFetcher<T> get(DataFetcherFactoryEnvironment environment) {
-                return dataFetcher;
-            }
+        return new StaticDataFetcherFactory<>(dataFetcher);
+    }
 
-            @Override
-            public DataFetcher<T> get(GraphQLFieldDefinition fieldDefinition) {
-                return dataFetcher;
-            }
-        };
+    /**
+     * The factory of {@link #useDataFetcher(DataFetcher)}, which lets the {@link GraphQLCodeRegistry} see the data fetcher
+     * without asking for it
+     */
+    static class StaticDataFetcherFactory<T> implements DataFetcherFactory<T> {
+        private final DataFetcher<T> dataFetcher;
+
+        StaticDataFetcherFactory(DataFetcher<T> dataFetcher) {
+            this.dataFetcher = dataFetcher;
+        }
+
+        DataFetcher<T> getDataFetcher() {
+            return dataFetcher;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public DataFetcher<T> get(DataFetcherFactoryEnvironment environment) {
+            return dataFetcher;
+        }
+
+        @Override
+        public DataFetcher<T> get(GraphQLFieldDefinition fieldDefinition) {
+            return dataFetcher;
+        }
     }
 
     /**
@@ -17,6 +17,8 @@ import org.dataloader.DataLoaderRegistry;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -251,6 +253,50 @@ public interface DataFetchingEnvironment extends IntrospectionDataFetchingEnviro
      */
     Locale getLocale();
 
+    /**
+     * @return the deadline of the current request as set via {@link graphql.ExecutionInput.Builder#deadline(Instant)}
+     * or null if it has none
+     */
+    default @Nullable Instant getDeadline() {
+        return null;
+    }
+
+    /**
+     * The time that is left until the deadline of the current request, which can be used as the timeout of calls to other
+     * services.  Once the deadline has passed, fields that have not been fetched get a {@link graphql.execution.DeadlineExceededError}.
+     *
+     * @return the time left until the deadline, which is {@link Duration#ZERO} once it has passed, or null if the request
+     * has no deadline
+     */
+    default @Nullable Duration getRemainingTime() {
+        Instant deadline = getDeadline();
+        if (deadline == null) {
+            return null;
+        }
+        Duration remainingTime = Duration.between(Instant.now(), deadline);
+        return remainingTime.isNegative() ? Duration.ZERO : remainingTime;
+    }
+
+    /**
+     * @return true if the current request has been cancelled via {@link graphql.ExecutionInput#cancel()} or its
+     * deadline has passed, in which case the value of this data fetcher is no longer waited on
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Registers a callback that is run when the current request is cancelled via {@link graphql.ExecutionInput#cancel()}
+     * or its deadline passes, so that a data fetcher can stop its own work, for example by cancelling the call to
+     * another service or interrupting the thread it runs on.  The callback runs straight away if that has happened
+     * already, and it is dropped when the request finishes.  It is run on the thread that cancels the request, so it
+     * should be quick.
+     *
+     * @param callback the callback to run on cancellation
+     */
+    default void onCancel(Runnable callback) {
+    }
+
     /**
      * @return the current operation that is being executed
      */
@@ -8,6 +8,7 @@ import graphql.Internal;
 import graphql.Profiler;
 import graphql.collect.ImmutableKit;
 import graphql.collect.ImmutableMapWithNullValues;
+import graphql.execution.CancellationSignal;
 import graphql.execution.DataLoaderDispatchStrategy;
 import graphql.execution.ExecutionContext;
 import graphql.execution.ExecutionId;
@@ -26,6 +27,7 @@ import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.NullUnmarked;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -56,6 +58,9 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
     private final Supplier<ExecutionStepInfo> executionStepInfo;
     private final DataLoaderRegistry dataLoaderRegistry;
     private final Locale locale;
+    @Nullable
+    private final Instant deadline;
+    private final @Nullable CancellationSignal cancellationSignal;
     private final OperationDefinition operationDefinition;
     private final Document document;
     private final ImmutableMapWithNullValues<String, Object> variables;
@@ -83,6 +88,8 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
         this.executionStepInfo = builder.executionStepInfo;
         this.dataLoaderRegistry = builder.dataLoaderRegistry;
         this.locale = builder.locale;
+        this.deadline = builder.deadline;
+        this.cancellationSignal = builder.cancellationSignal;
         this.operationDefinition = builder.operationDefinition;
         this.document = builder.document;
         this.variables = builder.variables == null ? ImmutableMapWithNullValues.emptyMap() : builder.variables;
@@ -113,6 +120,8 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
                 .fragmentsByName(executionContext.getFragmentsByName())
                 .dataLoaderRegistry(executionContext.getDataLoaderRegistry())
                 .locale(executionContext.getLocale())
+                .deadline(executionContext.getExecutionInput() != null ? executionContext.getExecutionInput().getDeadline() : null)
+                .cancellationSignal(executionContext.getExecutionInput() != null ? executionContext.getExecutionInput().getCancellationSignal() : null)
                 .document(executionContext.getDocument())
                 .operationDefinition(executionContext.getOperationDefinition())
                 .variables(executionContext.getCoercedVariables().toMap())
@@ -235,8 +244,12 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
         if (dataLoader == null) {
             return null;
         }
+        if (dfeInternalState.profiler != null) {
+            dfeInternalState.profiler.fieldUsedDataLoader(parentType, fieldDefinition, level);
+        }
         if (!graphQLContext.getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_CHAINING, false)
-            && !graphQLContext.getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING, false)) {
+            && !graphQLContext.getBoolean(DataLoaderDispatchingContextKeys.ENABLE_DATA_LOADER_EXHAUSTED_DISPATCHING, false)
+            && !graphQLContext.hasKey(DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_WINDOW)) {
             return dataLoader;
         }
         return new DataLoaderWithContext<>(this, dataLoaderName, dataLoader);
@@ -252,6 +265,23 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
         return locale;
     }
 
+    @Override
+    public @Nullable Instant getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancellationSignal != null && (cancellationSignal.isCancelled() || cancellationSignal.isDeadlineExceeded());
+    }
+
+    @Override
+    public void onCancel(Runnable callback) {
+        if (cancellationSignal != null) {
+            cancellationSignal.onCancel(callback);
+        }
+    }
+
     @Override
     public OperationDefinition getOperationDefinition() {
         return operationDefinition;
@@ -302,6 +332,8 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
         private Supplier<ExecutionStepInfo> executionStepInfo;
         private DataLoaderRegistry dataLoaderRegistry;
         private Locale locale;
+        private Instant deadline;
+        private CancellationSignal cancellationSignal;
         private OperationDefinition operationDefinition;
         private Document document;
         private Supplier<Map<String, Object>> arguments;
@@ -331,6 +363,8 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
             this.executionStepInfo = env.executionStepInfo;
             this.dataLoaderRegistry = env.dataLoaderRegistry;
             this.locale = env.locale;
+            this.deadline = env.deadline;
+            this.cancellationSignal = env.cancellationSignal;
             this.operationDefinition = env.operationDefinition;
             this.document = env.document;
             this.variables = env.variables;
@@ -438,6 +472,17 @@ public class DataFetchingEnvironmentImpl implements DataFetchingEnvironment {
             return this;
         }
 
+        public Builder deadline(Instant deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        @Internal
+        public Builder cancellationSignal(CancellationSignal cancellationSignal) {
+            this.cancellationSignal = cancellationSignal;
+            return this;
+        }
+
         public Builder operationDefinition(OperationDefinition operationDefinition) {
             this.operationDefinition = operationDefinition;
             return this;
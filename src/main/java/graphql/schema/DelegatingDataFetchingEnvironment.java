@@ -15,6 +15,7 @@ import org.dataloader.DataLoaderRegistry;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -162,6 +163,21 @@ public class DelegatingDataFetchingEnvironment implements DataFetchingEnvironmen
         return delegateEnvironment.getLocale();
     }
 
+    @Override
+    public @Nullable Instant getDeadline() {
+        return delegateEnvironment.getDeadline();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegateEnvironment.isCancelled();
+    }
+
+    @Override
+    public void onCancel(Runnable callback) {
+        delegateEnvironment.onCancel(callback);
+    }
+
     @Override
     public OperationDefinition getOperationDefinition() {
         return delegateEnvironment.getOperationDefinition();
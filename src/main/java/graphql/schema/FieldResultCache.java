@@ -0,0 +1,211 @@
+package graphql.schema;
+
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import graphql.execution.DataFetcherResult;
+import graphql.util.LockKit;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A cache of the values that the {@link DataFetcher} of a field has fetched, so that the field can be resolved without
+ * calling the data fetcher, or any {@link org.dataloader.DataLoader} it uses, while the value is still fresh.  This is
+ * meant for fields that are expensive to fetch but change rarely, like configuration or reference data.
+ * <p>
+ * Values are cached by the coordinates of the field, the source object of the field, as told by the source key function,
+ * and the coerced field arguments.  So one cache can be registered for several fields, which then share its maximum size.  The source key function should return something that identifies the source object, like its id.  Without
+ * a source key function, values are only cached when the source object is null, which is the case for the fields of the
+ * root types unless a root object is given with the {@link graphql.ExecutionInput}.
+ * <p>
+ * The cache is shared by all the executions of a schema.  Null values, values that were fetched with errors and values
+ * of failed fetches are not cached.  When the cache is full, the least recently used value is dropped.
+ * <p>
+ * A field result cache is registered for a field via
+ * {@link GraphQLCodeRegistry.Builder#fieldResultCache(FieldCoordinates, FieldResultCache)}.
+ */
+@ExperimentalApi
+@NullMarked
+public class FieldResultCache {
+
+    private static final Object NO_SOURCE_KEY = new Object();
+
+    private final long timeToLiveNanos;
+    private final int maximumSize;
+    private final @Nullable Function<Object, @Nullable Object> sourceKeyFunction;
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final LinkedHashMap<Object, CachedValue> entries;
+
+    private static class CachedValue {
+        private final Object value;
+        private final long expiresAt;
+
+        private CachedValue(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private FieldResultCache(Builder builder) {
+        this.timeToLiveNanos = builder.timeToLive.toNanos();
+        this.maximumSize = builder.maximumSize;
+        this.sourceKeyFunction = builder.sourceKeyFunction;
+        // access ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedValue> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Works out the key a value is cached by
+     *
+     * @param parentTypeName the name of the object type of the field
+     * @param fieldName      the name of the field
+     * @param source         the source object of the field
+     * @param arguments      the coerced arguments of the field
+     *
+     * @return the key or null if the value should not be cached, because there is a source object but no source key
+     * function or the source key function returned null
+     */
+    @Internal
+    public @Nullable Object cacheKey(String parentTypeName, String fieldName, @Nullable Object source, Map<String, Object> arguments) {
+        Object sourceKey;
+        if (source == null) {
+            sourceKey = NO_SOURCE_KEY;
+        } else {
+            // different source objects must not share values, so without a source key nothing is cached
+            sourceKey = sourceKeyFunction != null ? sourceKeyFunction.apply(source) : null;
+        }
+        if (sourceKey == null) {
+            return null;
+        }
+        // the cache may be registered for more than one field, which must not share values
+        return Arrays.asList(parentTypeName, fieldName, sourceKey, arguments);
+    }
+
+    /**
+     * @param cacheKey the key from {@link #cacheKey(String, String, Object, Map)}
+     *
+     * @return the cached value or null if there is no fresh value for the key
+     */
+    @Internal
+    public @Nullable Object get(Object cacheKey) {
+        return lock.callLocked(() -> {
+            CachedValue cachedValue = entries.get(cacheKey);
+            if (cachedValue == null) {
+                return null;
+            }
+            if (cachedValue.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(cacheKey);
+                return null;
+            }
+            return cachedValue.value;
+        });
+    }
+
+    /**
+     * Caches a value that the data fetcher of the field has fetched, unless it is null or has errors
+     *
+     * @param cacheKey     the key from {@link #cacheKey(String, String, Object, Map)}
+     * @param fetchedValue the value the data fetcher has fetched
+     */
+    @Internal
+    public void put(Object cacheKey, @Nullable Object fetchedValue) {
+        if (fetchedValue == null) {
+            return;
+        }
+        if (fetchedValue instanceof DataFetcherResult) {
+            DataFetcherResult<?> dataFetcherResult = (DataFetcherResult<?>) fetchedValue;
+            if (dataFetcherResult.hasErrors() || dataFetcherResult.getData() == null) {
+                return;
+            }
+        }
+        CachedValue cachedValue = new CachedValue(fetchedValue, System.nanoTime() + timeToLiveNanos);
+        lock.runLocked(() -> entries.put(cacheKey, cachedValue));
+    }
+
+    /**
+     * @return the number of values in the cache, some of which may no longer be fresh
+     */
+    public int size() {
+        return lock.callLocked(entries::size);
+    }
+
+    /**
+     * Drops all the cached values, for example because the underlying data has changed
+     */
+    public void invalidateAll() {
+        lock.runLocked(entries::clear);
+    }
+
+    /**
+     * @return a new builder of {@link FieldResultCache}s
+     */
+    public static Builder newFieldResultCache() {
+        return new Builder();
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private Duration timeToLive = Duration.ofMinutes(1);
+        private int maximumSize = 1000;
+        private Function<Object, Object> sourceKeyFunction;
+
+        /**
+         * How long a value is used for after it has been fetched.  This defaults to one minute.
+         *
+         * @param timeToLive the time to live of the cached values
+         *
+         * @return this builder
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            assertNotNull(timeToLive, "timeToLive must not be null");
+            assertTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "the time to live must be positive");
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * The number of values that are kept, which defaults to 1000
+         *
+         * @param maximumSize the maximum number of cached values
+         *
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize) {
+            assertTrue(maximumSize > 0, "the maximum size must be greater than 0");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * The function that turns the source object of a field into the part of the key the value is cached by.  It must
+         * return a value with proper equals and hashCode methods, or null if the value should not be cached for the source.
+         * Without it, values of fields with a source object are not cached.
+         *
+         * @param sourceKeyFunction the function from source objects to keys
+         *
+         * @return this builder
+         */
+        public Builder sourceKey(Function<Object, Object> sourceKeyFunction) {
+            this.sourceKeyFunction = assertNotNull(sourceKeyFunction, "sourceKeyFunction must not be null");
+            return this;
+        }
+
+        public FieldResultCache build() {
+            return new FieldResultCache(this);
+        }
+    }
+}
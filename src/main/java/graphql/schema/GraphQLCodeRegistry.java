@@ -6,6 +6,7 @@ import graphql.PublicApi;
 import graphql.schema.visibility.GraphqlFieldVisibility;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -38,6 +39,10 @@ public class GraphQLCodeRegistry {
     private final DataFetcherFactory<?> defaultDataFetcherFactory;
     // Fast lookup: typeName -> fieldName -> DataFetcherFactory, avoids creating FieldCoordinates on every field fetch
     private final Map<String, Map<String, DataFetcherFactory<?>>> dataFetcherByNames;
+    private final boolean batchedDataFetchers;
+    private final Map<FieldCoordinates, FieldResultCache> fieldResultCacheMap;
+    // typeName -> fieldName -> FieldResultCache, for the same reason as dataFetcherByNames
+    private final Map<String, Map<String, FieldResultCache>> fieldResultCacheByNames;
 
     private GraphQLCodeRegistry(Builder builder) {
         this.dataFetcherMap = builder.dataFetcherMap;
@@ -46,6 +51,27 @@ public class GraphQLCodeRegistry {
         this.fieldVisibility = builder.fieldVisibility;
         this.defaultDataFetcherFactory = builder.defaultDataFetcherFactory;
         this.dataFetcherByNames = buildDataFetcherByNames(this.dataFetcherMap);
+        this.batchedDataFetchers = hasBatchedDataFetchers(this.dataFetcherMap);
+        this.fieldResultCacheMap = builder.fieldResultCacheMap;
+        this.fieldResultCacheByNames = buildFieldResultCacheByNames(this.fieldResultCacheMap);
+    }
+
+    private static Map<String, Map<String, FieldResultCache>> buildFieldResultCacheByNames(Map<FieldCoordinates, FieldResultCache> fieldResultCacheMap) {
+        Map<String, Map<String, FieldResultCache>> result = new HashMap<>();
+        fieldResultCacheMap.forEach((coords, fieldResultCache) -> result.computeIfAbsent(coords.getTypeName(), k -> new HashMap<>())
+                .put(coords.getFieldName(), fieldResultCache));
+        return result;
+    }
+
+    private static boolean hasBatchedDataFetchers(Map<FieldCoordinates, DataFetcherFactory<?>> dataFetcherMap) {
+        for (DataFetcherFactory<?> dataFetcherFactory : dataFetcherMap.values()) {
+            // what a custom factory makes is only known once it is called, so it might make a batched data fetcher
+            if (!(dataFetcherFactory instanceof DataFetcherFactories.StaticDataFetcherFactory)
+                    || ((DataFetcherFactories.StaticDataFetcherFactory<?>) dataFetcherFactory).getDataFetcher() instanceof BatchedDataFetcher) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static Map<String, Map<String, DataFetcherFactory<?>>> buildDataFetcherByNames(Map<FieldCoordinates, DataFetcherFactory<?>> dataFetcherMap) {
@@ -100,6 +126,46 @@ public class GraphQLCodeRegistry {
         return hasDataFetcherImpl(coordinates, dataFetcherMap, systemDataFetcherMap);
     }
 
+    /**
+     * Returns the cache of the values of a field, if it has one
+     *
+     * @param coordinates the field coordinates
+     *
+     * @return the {@link FieldResultCache} of the field or null if its values are not cached
+     */
+    public @Nullable FieldResultCache getFieldResultCache(FieldCoordinates coordinates) {
+        return fieldResultCacheMap.get(coordinates);
+    }
+
+    /**
+     * The same as {@link #getFieldResultCache(FieldCoordinates)} but without creating the coordinates, since the engine
+     * asks this for every field it fetches
+     *
+     * @param parentTypeName the name of the object type
+     * @param fieldName      the name of the field
+     *
+     * @return the {@link FieldResultCache} of the field or null if its values are not cached
+     */
+    @Internal
+    public @Nullable FieldResultCache getFieldResultCache(String parentTypeName, String fieldName) {
+        if (fieldResultCacheByNames.isEmpty()) {
+            return null;
+        }
+        Map<String, FieldResultCache> byField = fieldResultCacheByNames.get(parentTypeName);
+        return byField != null ? byField.get(fieldName) : null;
+    }
+
+    /**
+     * Tells the engine whether it needs to gather fields into batches.  A field whose data fetcher is made by a custom
+     * {@link DataFetcherFactory} might have a batched data fetcher, so it counts as having one.
+     *
+     * @return true if a field has or might have a {@link BatchedDataFetcher}
+     */
+    @Internal
+    public boolean hasBatchedDataFetchers() {
+        return batchedDataFetchers;
+    }
+
     /**
      * Returns a data fetcher associated with a field, looked up by parent type name and field name strings.
      * <p>
@@ -245,6 +311,7 @@ public class GraphQLCodeRegistry {
         private final Map<FieldCoordinates, DataFetcherFactory<?>> dataFetcherMap = new LinkedHashMap<>();
         private final Map<String, DataFetcherFactory<?>> systemDataFetcherMap = new LinkedHashMap<>();
         private final Map<String, TypeResolver> typeResolverMap = new HashMap<>();
+        private final Map<FieldCoordinates, FieldResultCache> fieldResultCacheMap = new LinkedHashMap<>();
         private GraphqlFieldVisibility fieldVisibility = DEFAULT_FIELD_VISIBILITY;
         private DataFetcherFactory<?> defaultDataFetcherFactory = SingletonPropertyDataFetcher.singletonFactory();
         private boolean changed = false;
@@ -256,6 +323,7 @@ public class GraphQLCodeRegistry {
             this.systemDataFetcherMap.putAll(codeRegistry.systemDataFetcherMap);
             this.dataFetcherMap.putAll(codeRegistry.dataFetcherMap);
             this.typeResolverMap.putAll(codeRegistry.typeResolverMap);
+            this.fieldResultCacheMap.putAll(codeRegistry.fieldResultCacheMap);
             this.fieldVisibility = codeRegistry.fieldVisibility;
             this.defaultDataFetcherFactory = codeRegistry.defaultDataFetcherFactory;
         }
@@ -522,6 +590,22 @@ public class GraphQLCodeRegistry {
             return markChanged();
         }
 
+        /**
+         * Caches the values that the data fetcher of a field fetches
+         *
+         * @param coordinates      the field coordinates
+         * @param fieldResultCache the cache of the values of the field
+         *
+         * @return this builder
+         */
+        public Builder fieldResultCache(FieldCoordinates coordinates, FieldResultCache fieldResultCache) {
+            assertNotNull(fieldResultCache);
+            assertNotNull(coordinates);
+            coordinates.assertValidNames();
+            fieldResultCacheMap.put(coordinates, fieldResultCache);
+            return markChanged();
+        }
+
         public Builder clearDataFetchers() {
             dataFetcherMap.clear();
             return markChanged();
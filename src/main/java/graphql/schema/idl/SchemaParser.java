@@ -7,6 +7,7 @@ import graphql.language.Definition;
 import graphql.language.Document;
 import graphql.language.SDLDefinition;
 import graphql.parser.InvalidSyntaxException;
+import graphql.parser.MultiSourceReader;
 import graphql.parser.Parser;
 import graphql.parser.ParserEnvironment;
 import graphql.parser.ParserOptions;
@@ -21,11 +22,15 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import static graphql.collect.ImmutableKit.map;
 import static graphql.parser.ParserEnvironment.newParserEnvironment;
 import static java.nio.charset.Charset.defaultCharset;
 
@@ -130,6 +135,121 @@ public class SchemaParser {
         }
     }
 
+    /**
+     * Parse schema definition files in parallel and create a {@link TypeDefinitionRegistry}.  The files are named by
+     * their paths in any error locations.
+     *
+     * @param files the files to parse
+     *
+     * @return registry of type definitions
+     *
+     * @throws SchemaProblem if there are problems compiling the schema definitions
+     *
+     * @see #parseInParallel(MultiSourceReader, ParserOptions, ForkJoinPool)
+     */
+    public TypeDefinitionRegistry parseInParallel(List<File> files) throws SchemaProblem {
+        MultiSourceReader.Builder multiSourceReader = MultiSourceReader.newMultiSourceReader();
+        try {
+            for (File file : files) {
+                multiSourceReader.reader(Files.newBufferedReader(file.toPath(), defaultCharset()), file.getPath());
+            }
+        } catch (IOException e) {
+            // close the files that were opened before the one that could not be
+            try {
+                multiSourceReader.build().close();
+            } catch (IOException closeProblem) {
+                e.addSuppressed(closeProblem);
+            }
+            throw new RuntimeException(e);
+        }
+        return parseInParallel(multiSourceReader.build(), null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse the sources of a {@link MultiSourceReader} in parallel and create a {@link TypeDefinitionRegistry}.
+     * <p>
+     * Each source is parsed on its own in the fork join pool, and the definitions of all sources are then added
+     * to one registry in the order of the sources, so the registry and its errors are the same as if the sources
+     * were parsed as one document.  A syntax error is reported for the first source that has one.
+     * <p>
+     * Every source must consist of whole definitions and the {@link ParserOptions} limits apply to each source
+     * on its own.  Sources without any definitions, such as empty files or files with only comments, are skipped,
+     * as they add nothing to the document the sources make up together.
+     *
+     * @param multiSourceReader the sources to parse, nothing must have been read from it yet
+     * @param parserOptions     the parse options to use while parsing or null for the default SDL parser options
+     * @param forkJoinPool      the pool that parses the sources
+     *
+     * @return registry of type definitions
+     *
+     * @throws SchemaProblem if there are problems compiling the schema definitions
+     */
+    public TypeDefinitionRegistry parseInParallel(MultiSourceReader multiSourceReader, @Nullable ParserOptions parserOptions, ForkJoinPool forkJoinPool) throws SchemaProblem {
+        ParserOptions options = parserOptions == null ? ParserOptions.getDefaultSdlParserOptions() : parserOptions;
+        try (MultiSourceReader input = multiSourceReader) {
+            List<ForkJoinTask<Object>> tasks = map(input.splitBySource(), sourceReader -> forkJoinPool.submit(() -> parseSource(sourceReader, options)));
+            List<Definition> definitions = new ArrayList<>();
+            for (ForkJoinTask<Object> task : tasks) {
+                Object parsed = task.join();
+                if (parsed instanceof InvalidSyntaxException) {
+                    throw handleParseException(((InvalidSyntaxException) parsed).toInvalidSyntaxError());
+                }
+                definitions.addAll(((Document) parsed).getDefinitions());
+            }
+            return buildRegistry(Document.newDocument().definitions(definitions).build());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Syntax errors are returned rather than thrown so that the first source with one can be reported
+     */
+    private static Object parseSource(MultiSourceReader sourceReader, ParserOptions parserOptions) {
+        String sourceName = sourceReader.getSourceName();
+        String source = readSource(sourceReader);
+        // a document needs at least one definition, which a source on its own does not have to have
+        if (!hasTokens(source)) {
+            return Document.newDocument().build();
+        }
+        MultiSourceReader reader = MultiSourceReader.newMultiSourceReader().string(source, sourceName).build();
+        try {
+            return Parser.parse(newParserEnvironment().document(reader).parserOptions(parserOptions).build());
+        } catch (InvalidSyntaxException e) {
+            return e;
+        }
+    }
+
+    private static String readSource(Reader reader) {
+        StringBuilder source = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                source.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return source.toString();
+    }
+
+    // whether the source has anything besides the ignored tokens of the grammar, that is white space, commas and comments
+    private static boolean hasTokens(String source) {
+        boolean inComment = false;
+        for (int i = 0; i < source.length(); i++) {
+            char ch = source.charAt(i);
+            if (inComment) {
+                inComment = ch != '\n' && ch != '\r';
+            } else if (ch == '#') {
+                inComment = true;
+            } else if (ch != ' ' && ch != '\t' && ch != '\n' && ch != '\r' && ch != ',' && ch != '\uFEFF') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private SchemaProblem handleParseException(InvalidSyntaxError invalidSyntaxError) throws RuntimeException {
         return new SchemaProblem(Collections.singletonList(invalidSyntaxError));
     }
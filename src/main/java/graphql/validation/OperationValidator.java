@@ -324,6 +324,8 @@ public class OperationValidator implements DocumentVisitor {
     private final Set<Set<FieldAndType>> sameResponseShapeChecked = new LinkedHashSet<>();
     private final Set<Set<FieldAndType>> sameForCommonParentsChecked = new LinkedHashSet<>();
     private final Set<Set<Field>> conflictsReported = new LinkedHashSet<>();
+    private final Map<SelectionSetAndType, FieldMap> fieldMaps = new HashMap<>();
+    private final Set<SelectionSetAndType> fieldMapsInProgress = new HashSet<>();
 
     // --- State: LoneAnonymousOperation ---
     private boolean hasAnonymousOp = false;
@@ -1433,10 +1435,7 @@ public class OperationValidator implements DocumentVisitor {
     }
 
     private void overlappingFieldsImpl(SelectionSet selectionSet, @Nullable GraphQLOutputType graphQLOutputType) {
-        Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>(selectionSet.getSelections().size());
-        Set<String> visitedFragments = new LinkedHashSet<>();
-        overlappingFields_collectFields(fieldMap, selectionSet, graphQLOutputType, visitedFragments);
-        List<Conflict> conflicts = findConflicts(fieldMap);
+        List<Conflict> conflicts = findConflicts(getFieldMap(selectionSet, graphQLOutputType).fields);
         for (Conflict conflict : conflicts) {
             if (conflictsReported.contains(conflict.fields)) {
                 continue;
@@ -1446,42 +1445,67 @@ public class OperationValidator implements DocumentVisitor {
         }
     }
 
-    private void overlappingFields_collectFields(Map<String, Set<FieldAndType>> fieldMap, SelectionSet selectionSet, @Nullable GraphQLType parentType, Set<String> visitedFragments) {
+    /*
+     * The fields of a selection set by response name, with its fragment spreads expanded.  A selection set has the same
+     * fields wherever it is merged, so they are collected once per selection set and parent type and shared by every
+     * operation, field and fragment spread that merges it.
+     */
+    private FieldMap getFieldMap(SelectionSet selectionSet, @Nullable GraphQLType parentType) {
+        SelectionSetAndType key = new SelectionSetAndType(selectionSet, parentType);
+        FieldMap fieldMap = fieldMaps.get(key);
+        if (fieldMap == null) {
+            fieldMap = new FieldMap();
+            fieldMapsInProgress.add(key);
+            overlappingFields_collectFields(fieldMap, selectionSet, parentType);
+            fieldMapsInProgress.remove(key);
+            fieldMaps.put(key, fieldMap);
+        }
+        return fieldMap;
+    }
+
+    private void overlappingFields_collectFields(FieldMap fieldMap, SelectionSet selectionSet, @Nullable GraphQLType parentType) {
         for (Selection selection : selectionSet.getSelections()) {
             if (selection instanceof Field) {
                 overlappingFields_collectFieldsForField(fieldMap, parentType, (Field) selection);
             } else if (selection instanceof InlineFragment) {
-                overlappingFields_collectFieldsForInlineFragment(fieldMap, visitedFragments, parentType, (InlineFragment) selection);
+                overlappingFields_collectFieldsForInlineFragment(fieldMap, parentType, (InlineFragment) selection);
             } else if (selection instanceof FragmentSpread) {
-                overlappingFields_collectFieldsForFragmentSpread(fieldMap, visitedFragments, (FragmentSpread) selection);
+                overlappingFields_collectFieldsForFragmentSpread(fieldMap, (FragmentSpread) selection);
             }
         }
     }
 
-    private void overlappingFields_collectFieldsForFragmentSpread(Map<String, Set<FieldAndType>> fieldMap, Set<String> visitedFragments, FragmentSpread fragmentSpread) {
+    private void overlappingFields_collectFieldsForFragmentSpread(FieldMap fieldMap, FragmentSpread fragmentSpread) {
         FragmentDefinition fragment = validationContext.getFragment(fragmentSpread.getName());
         if (fragment == null) {
             return;
         }
-        if (visitedFragments.contains(fragment.getName())) {
+        if (fieldMap.fragmentNames.contains(fragment.getName())) {
             return;
         }
-        visitedFragments.add(fragment.getName());
+        fieldMap.fragmentNames.add(fragment.getName());
         GraphQLType graphQLType = TypeFromAST.getTypeFromAST(validationContext.getSchema(), fragment.getTypeCondition());
-        overlappingFields_collectFields(fieldMap, fragment.getSelectionSet(), graphQLType, visitedFragments);
+        if (fieldMapsInProgress.contains(new SelectionSetAndType(fragment.getSelectionSet(), graphQLType))) {
+            // the fragment spreads itself, so its fields are collected in place like they are for any other selection set
+            overlappingFields_collectFields(fieldMap, fragment.getSelectionSet(), graphQLType);
+            return;
+        }
+        FieldMap fragmentFieldMap = getFieldMap(fragment.getSelectionSet(), graphQLType);
+        fieldMap.addFields(fragmentFieldMap.fields);
+        fieldMap.fragmentNames.addAll(fragmentFieldMap.fragmentNames);
     }
 
-    private void overlappingFields_collectFieldsForInlineFragment(Map<String, Set<FieldAndType>> fieldMap, Set<String> visitedFragments, @Nullable GraphQLType parentType, InlineFragment inlineFragment) {
+    private void overlappingFields_collectFieldsForInlineFragment(FieldMap fieldMap, @Nullable GraphQLType parentType, InlineFragment inlineFragment) {
         GraphQLType graphQLType;
         if (inlineFragment.getTypeCondition() == null) {
             graphQLType = parentType;
         } else {
             graphQLType = TypeFromAST.getTypeFromAST(validationContext.getSchema(), inlineFragment.getTypeCondition());
         }
-        overlappingFields_collectFields(fieldMap, inlineFragment.getSelectionSet(), graphQLType, visitedFragments);
+        overlappingFields_collectFields(fieldMap, inlineFragment.getSelectionSet(), graphQLType);
     }
 
-    private void overlappingFields_collectFieldsForField(Map<String, Set<FieldAndType>> fieldMap, @Nullable GraphQLType parentType, Field field) {
+    private void overlappingFields_collectFieldsForField(FieldMap fieldMap, @Nullable GraphQLType parentType, Field field) {
         String responseName = field.getResultKey();
         GraphQLOutputType fieldType = null;
         GraphQLUnmodifiedType unwrappedParent = parentType != null ? unwrapAll(parentType) : null;
@@ -1490,7 +1514,7 @@ public class OperationValidator implements DocumentVisitor {
             GraphQLFieldDefinition fieldDefinition = validationContext.getSchema().getCodeRegistry().getFieldVisibility().getFieldDefinition(fieldsContainer, field.getName());
             fieldType = fieldDefinition != null ? fieldDefinition.getType() : null;
         }
-        fieldMap.computeIfAbsent(responseName, k -> new LinkedHashSet<>()).add(new FieldAndType(field, fieldType, unwrappedParent));
+        fieldMap.fields.computeIfAbsent(responseName, k -> new LinkedHashSet<>()).add(new FieldAndType(field, fieldType, unwrappedParent));
     }
 
     private List<Conflict> findConflicts(Map<String, Set<FieldAndType>> fieldMap) {
@@ -1518,14 +1542,28 @@ public class OperationValidator implements DocumentVisitor {
     }
 
     private Map<String, Set<FieldAndType>> mergeSubSelections(Set<FieldAndType> sameNameFields) {
-        Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
+        FieldMap mergedFieldMap = null;
+        Map<String, Set<FieldAndType>> singleFieldMap = null;
         for (FieldAndType fieldAndType : sameNameFields) {
-            if (fieldAndType.field.getSelectionSet() != null) {
-                Set<String> visitedFragments = new LinkedHashSet<>();
-                overlappingFields_collectFields(fieldMap, fieldAndType.field.getSelectionSet(), fieldAndType.graphQLType, visitedFragments);
+            if (fieldAndType.field.getSelectionSet() == null) {
+                continue;
+            }
+            Map<String, Set<FieldAndType>> subFields = getFieldMap(fieldAndType.field.getSelectionSet(), fieldAndType.graphQLType).fields;
+            if (mergedFieldMap != null) {
+                mergedFieldMap.addFields(subFields);
+            } else if (singleFieldMap == null) {
+                singleFieldMap = subFields;
+            } else {
+                mergedFieldMap = new FieldMap();
+                mergedFieldMap.addFields(singleFieldMap);
+                mergedFieldMap.addFields(subFields);
             }
         }
-        return fieldMap;
+        if (mergedFieldMap != null) {
+            return mergedFieldMap.fields;
+        }
+        // a single field map is shared with the cache and so is only ever read
+        return singleFieldMap != null ? singleFieldMap : Collections.emptyMap();
     }
 
     private void sameForCommonParentsByName(Map<String, Set<FieldAndType>> fieldMap, ImmutableList<String> currentPath, List<Conflict> conflictsResult) {
@@ -1747,6 +1785,45 @@ public class OperationValidator implements DocumentVisitor {
         }
     }
 
+    private static class FieldMap {
+        final Map<String, Set<FieldAndType>> fields = new LinkedHashMap<>();
+        final Set<String> fragmentNames = new LinkedHashSet<>();
+
+        void addFields(Map<String, Set<FieldAndType>> otherFields) {
+            for (Map.Entry<String, Set<FieldAndType>> entry : otherFields.entrySet()) {
+                fields.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).addAll(entry.getValue());
+            }
+        }
+    }
+
+    private static class SelectionSetAndType {
+        final SelectionSet selectionSet;
+        final @Nullable GraphQLType graphQLType;
+
+        SelectionSetAndType(SelectionSet selectionSet, @Nullable GraphQLType graphQLType) {
+            this.selectionSet = selectionSet;
+            this.graphQLType = graphQLType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SelectionSetAndType that = (SelectionSetAndType) o;
+            // selection sets are compared by identity, they are the nodes of this one document
+            return selectionSet == that.selectionSet && Objects.equals(graphQLType, that.graphQLType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(selectionSet) + Objects.hashCode(graphQLType);
+        }
+    }
+
     private static class Conflict {
         final String reason;
         final Set<Field> fields = new LinkedHashSet<>();
@@ -0,0 +1,257 @@
+package graphql.validation;
+
+import graphql.ExperimentalApi;
+import graphql.language.AstPrinter;
+import graphql.language.AstTransformer;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.Node;
+import graphql.language.NodeVisitorStub;
+import graphql.language.StringValue;
+import graphql.schema.GraphQLSchema;
+import graphql.util.LockKit;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static graphql.Assert.assertTrue;
+import static graphql.util.TreeTransformerUtil.changeNode;
+
+/**
+ * A bounded, least recently used cache of the shapes of documents that passed validation, so that documents of the same
+ * shape skip most of the validation rules.
+ * <p>
+ * The shape of a document is the document with its int, float, string and enum literals replaced by placeholders.
+ * Two literals of the same kind and value get the same placeholder, so the shape keeps which literals are equal to each
+ * other, which some rules such as {@link OperationValidationRule#OVERLAPPING_FIELDS_CAN_BE_MERGED} depend on.
+ * Boolean and null literals, names, variables and everything else are kept as they are.  Documents that differ only in
+ * their literal values, say because a client inlines values instead of using variables, have the same shape.
+ * <p>
+ * Entries are keyed on the shape, the identity of the {@link GraphQLSchema}, the enabled {@link OperationValidationRule}s
+ * and the {@link QueryComplexityLimits}.  When a document of a known shape is validated, only the rules that check
+ * literal values, {@link OperationValidationRule#ARGUMENTS_OF_CORRECT_TYPE} and
+ * {@link OperationValidationRule#VARIABLE_DEFAULT_VALUES_OF_CORRECT_TYPE}, are run again.
+ * <p>
+ * Only shapes that passed validation are cached, so documents with errors are always fully validated and their errors
+ * are exactly those of the {@link Validator}.  When the cache sees a new schema instance, all entries are discarded.
+ */
+@ExperimentalApi
+@NullMarked
+public class ValidationCache {
+
+    private static final Set<OperationValidationRule> LITERAL_RULES = EnumSet.of(
+            OperationValidationRule.ARGUMENTS_OF_CORRECT_TYPE,
+            OperationValidationRule.VARIABLE_DEFAULT_VALUES_OF_CORRECT_TYPE);
+
+    private final long maximumSize;
+
+    private final LockKit.ReentrantLock lock = new LockKit.ReentrantLock();
+    private final LinkedHashMap<CacheKey, Boolean> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile @Nullable GraphQLSchema currentSchema;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private ValidationCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+    }
+
+    /**
+     * Validates a document, skipping the rules that do not check literal values when a document of the same shape
+     * passed validation before.
+     *
+     * @param schema        the schema to validate against
+     * @param document      the document to validate
+     * @param rulePredicate this predicate is used to decide what validation rules will be applied
+     * @param locale        the current locale
+     * @param limits        optional query complexity limits to enforce
+     *
+     * @return the validation errors
+     */
+    public List<ValidationError> validate(GraphQLSchema schema, Document document, Predicate<OperationValidationRule> rulePredicate, Locale locale, @Nullable QueryComplexityLimits limits) {
+        invalidateIfSchemaChanged(schema);
+        Set<OperationValidationRule> enabledRules = EnumSet.noneOf(OperationValidationRule.class);
+        for (OperationValidationRule rule : OperationValidationRule.values()) {
+            if (rulePredicate.test(rule)) {
+                enabledRules.add(rule);
+            }
+        }
+        CacheKey key = new CacheKey(documentShape(document), schema, enabledRules, limits != null ? limits : QueryComplexityLimits.getDefaultLimits());
+
+        Validator validator = new Validator();
+        if (lock.callLocked(() -> cache.get(key) != null)) {
+            hitCount.increment();
+            // the complexity limits have been checked for this shape already
+            return validator.validateDocument(schema, document, rule -> enabledRules.contains(rule) && LITERAL_RULES.contains(rule), locale, QueryComplexityLimits.NONE);
+        }
+        missCount.increment();
+        List<ValidationError> errors = validator.validateDocument(schema, document, enabledRules::contains, locale, key.limits);
+        if (errors.isEmpty()) {
+            lock.runLocked(() -> {
+                if (schema != currentSchema) {
+                    // the schema changed while we were validating - this entry is already stale
+                    return;
+                }
+                cache.put(key, Boolean.TRUE);
+                while (cache.size() > maximumSize) {
+                    cache.remove(cache.keySet().iterator().next());
+                }
+            });
+        }
+        return errors;
+    }
+
+    /*
+     * The printed document with its int, float, string and enum literals replaced by placeholders made of the kind of the
+     * literal and a number per distinct value
+     */
+    private static String documentShape(Document document) {
+        Map<String, Integer> literals = new HashMap<>();
+        NodeVisitorStub visitor = new NodeVisitorStub() {
+            @Override
+            public TraversalControl visitIntValue(IntValue node, TraverserContext<Node> context) {
+                return placeholder(context, "Int", node.getValue().toString());
+            }
+
+            @Override
+            public TraversalControl visitFloatValue(FloatValue node, TraverserContext<Node> context) {
+                return placeholder(context, "Float", node.getValue().toString());
+            }
+
+            @Override
+            public TraversalControl visitStringValue(StringValue node, TraverserContext<Node> context) {
+                return placeholder(context, "String", node.getValue());
+            }
+
+            @Override
+            public TraversalControl visitEnumValue(EnumValue node, TraverserContext<Node> context) {
+                return placeholder(context, "Enum", node.getName());
+            }
+
+            private TraversalControl placeholder(TraverserContext<Node> context, String kind, String value) {
+                Integer number = literals.computeIfAbsent(kind + ":" + value, k -> literals.size() + 1);
+                return changeNode(context, EnumValue.newEnumValue(kind + "#" + number).build());
+            }
+        };
+        Node shape = new AstTransformer().transform(document, visitor);
+        return AstPrinter.printAstCompact(shape);
+    }
+
+    private void invalidateIfSchemaChanged(GraphQLSchema graphQLSchema) {
+        if (currentSchema == graphQLSchema) {
+            return;
+        }
+        lock.runLocked(() -> {
+            if (currentSchema != graphQLSchema) {
+                currentSchema = graphQLSchema;
+                cache.clear();
+            }
+        });
+    }
+
+    /**
+     * Discards all the entries in the cache
+     */
+    public void invalidateAll() {
+        lock.runLocked(cache::clear);
+    }
+
+    /**
+     * @return the number of document shapes in the cache
+     */
+    public int size() {
+        return lock.callLocked(cache::size);
+    }
+
+    /**
+     * @return the number of validations that found the shape of their document in the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of validations that did not find the shape of their document in the cache
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public static Builder newValidationCache() {
+        return new Builder();
+    }
+
+    private static class CacheKey {
+        private final String shape;
+        private final GraphQLSchema schema;
+        private final Set<OperationValidationRule> rules;
+        private final QueryComplexityLimits limits;
+        private final int hashCode;
+
+        private CacheKey(String shape, GraphQLSchema schema, Set<OperationValidationRule> rules, QueryComplexityLimits limits) {
+            this.shape = shape;
+            this.schema = schema;
+            this.rules = rules;
+            this.limits = limits;
+            this.hashCode = Objects.hash(shape, System.identityHashCode(schema), rules, limits.getMaxDepth(), limits.getMaxFieldsCount());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return schema == that.schema
+                    && limits.getMaxDepth() == that.limits.getMaxDepth()
+                    && limits.getMaxFieldsCount() == that.limits.getMaxFieldsCount()
+                    && shape.equals(that.shape)
+                    && rules.equals(that.rules);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    @NullUnmarked
+    public static class Builder {
+        private long maximumSize = 1_000;
+
+        /**
+         * The maximum number of document shapes that will be kept in the cache.  This defaults to 1000.
+         *
+         * @param maximumSize the maximum number of entries
+         *
+         * @return this builder
+         */
+        public Builder maximumSize(long maximumSize) {
+            assertTrue(maximumSize >= 0, "maximumSize must not be negative");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public ValidationCache build() {
+            return new ValidationCache(this);
+        }
+    }
+}
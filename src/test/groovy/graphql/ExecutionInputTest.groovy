@@ -1,5 +1,6 @@
 package graphql
 
+import graphql.execution.DeadlineExceededError
 import graphql.execution.ExecutionId
 import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext
 import graphql.execution.instrumentation.Instrumentation
@@ -11,10 +12,13 @@ import graphql.execution.instrumentation.parameters.InstrumentationFieldParamete
 import graphql.execution.preparsed.persisted.PersistedQuerySupport
 import graphql.schema.DataFetcher
 import graphql.schema.DataFetchingEnvironment
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
 import org.dataloader.DataLoaderRegistry
 import spock.lang.Specification
 
 import java.time.Duration
+import java.time.Instant
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CountDownLatch
 
@@ -330,6 +334,226 @@ class ExecutionInputTest extends Specification {
         "1000 ms" | plusOrMinus(1000)
     }
 
+    def "cancelling stops waiting on outstanding data fetcher futures but leaves them alone"() {
+        def sdl = '''
+            type Query {
+                fast : String
+                slow : String
+            }
+        '''
+        def slowFuture = new CompletableFuture<String>()
+        def fetcherMap = ["Query": ["fast": { env -> "fast" } as DataFetcher, "slow": { env -> slowFuture } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ fast slow }").cancellable(true).build()
+
+        when:
+        def cf = graphQL.executeAsync(executionInput)
+
+        then:
+        !cf.isDone()
+
+        when:
+        executionInput.cancel()
+        await().atMost(Duration.ofSeconds(10)).until({ -> cf.isDone() })
+
+        then:
+        // the future may be shared with other executions, say by a DataLoader cache
+        !slowFuture.isDone()
+        def er = cf.join()
+        er.errors[0]["message"] == "Execution has been asked to be cancelled"
+    }
+
+    def "outstanding data fetcher futures are not tracked unless the execution is cancellable"() {
+        def sdl = '''
+            type Query {
+                slow : String
+            }
+        '''
+        def slowFuture = new CompletableFuture<String>()
+        def fetcherMap = ["Query": ["slow": { env -> slowFuture } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ slow }").build()
+
+        when:
+        def cf = graphQL.executeAsync(executionInput)
+        executionInput.cancel()
+
+        then:
+        !executionInput.getCancellationSignal().isArmed()
+        executionInput.getCancellationSignal().inFlightFutures.isEmpty()
+        !cf.isDone()
+
+        when:
+        slowFuture.complete("slow")
+        def er = cf.join()
+
+        then:
+        er.errors[0]["message"] == "Execution has been asked to be cancelled"
+    }
+
+    def "data fetchers are told when the execution is cancelled"() {
+        def sdl = '''
+            type Query {
+                slow : String
+            }
+        '''
+        def slowFuture = new CompletableFuture<String>()
+        def fetcherMap = ["Query": ["slow": { DataFetchingEnvironment env ->
+            env.onCancel({ -> slowFuture.cancel(true) })
+            return slowFuture
+        } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ slow }").build()
+
+        when:
+        def cf = graphQL.executeAsync(executionInput)
+        executionInput.cancel()
+        await().atMost(Duration.ofSeconds(10)).until({ -> cf.isDone() })
+
+        then:
+        // the data fetcher owns its future, so it may cancel it
+        slowFuture.isCancelled()
+        cf.join().errors[0]["message"] == "Execution has been asked to be cancelled"
+    }
+
+    def "dispatched data loader batches are cancelled with the execution"() {
+        def sdl = '''
+            type Query {
+                slow : String
+            }
+        '''
+        def batchLoad = new CompletableFuture<List<String>>()
+        def dataLoaderRegistry = new DataLoaderRegistry()
+        dataLoaderRegistry.register("slow", DataLoaderFactory.newDataLoader({ keys -> batchLoad } as BatchLoader))
+        def fetcherMap = ["Query": ["slow": { DataFetchingEnvironment env -> env.getDataLoader("slow").load("key") } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ slow }")
+                .dataLoaderRegistry(dataLoaderRegistry)
+                .cancellable(true)
+                .build()
+        def cancellationSignal = executionInput.getCancellationSignal()
+
+        when:
+        def cf = graphQL.executeAsync(executionInput)
+
+        then:
+        cancellationSignal.dispatchedBatches.size() == 1
+
+        when:
+        def dispatchedBatch = cancellationSignal.dispatchedBatches.iterator().next()
+        executionInput.cancel()
+        await().atMost(Duration.ofSeconds(10)).until({ -> cf.isDone() })
+
+        then:
+        dispatchedBatch.isCancelled()
+        cf.join().errors[0]["message"] == "Execution has been asked to be cancelled"
+    }
+
+    def "outstanding fields are null with an error when the deadline passes"() {
+        def sdl = '''
+            type Query {
+                fast : String
+                slow : String
+            }
+        '''
+        def slowFuture = new CompletableFuture<String>()
+        def fetcherMap = ["Query": ["fast": { env -> "fast" } as DataFetcher, "slow": { env -> slowFuture } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ fast slow }")
+                .deadline(Instant.now().plusMillis(100))
+                .build()
+
+        when:
+        def cf = graphQL.executeAsync(executionInput)
+        await().atMost(Duration.ofSeconds(10)).until({ -> cf.isDone() })
+        def er = cf.join()
+
+        then:
+        !executionInput.isCancelled()
+        !slowFuture.isDone()
+        er.data == [fast: "fast", slow: null]
+        er.errors.size() == 1
+        er.errors[0] instanceof DeadlineExceededError
+        er.errors[0].path == ["slow"]
+    }
+
+    def "the deadline timer is cancelled when the execution finishes"() {
+        def sdl = '''
+            type Query {
+                f : String
+            }
+        '''
+        def fetcherMap = ["Query": ["f": { env -> CompletableFuture.supplyAsync({ -> "f" }) } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ f }")
+                .deadline(Instant.now().plusSeconds(3600))
+                .build()
+
+        when:
+        def er = graphQL.execute(executionInput)
+
+        then:
+        er.data == [f: "f"]
+        executionInput.getCancellationSignal().deadlineTimer == null
+        !executionInput.getCancellationSignal().isDeadlineExceeded()
+    }
+
+    def "fields that would start after the deadline are not fetched"() {
+        def sdl = '''
+            type Query {
+                a : A
+                b : String
+            }
+            type A {
+                nonNull : String!
+            }
+        '''
+        def fetchedNonNull = false
+        def fetcherMap = ["Query": ["a": { env -> Thread.sleep(500); [:] } as DataFetcher, "b": { env -> "b" } as DataFetcher],
+                          "A"    : ["nonNull": { env -> fetchedNonNull = true; "nonNull" } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ b a { nonNull } }")
+                .deadline(Instant.now().plusMillis(50))
+                .build()
+
+        when:
+        def er = graphQL.execute(executionInput)
+
+        then:
+        !fetchedNonNull
+        er.data == [b: "b", a: null]
+        er.errors.size() == 1
+        er.errors[0] instanceof DeadlineExceededError
+        er.errors[0].path == ["a", "nonNull"]
+        er.errors[0].locations[0].line == 1
+        // transformed inputs share the deadline
+        executionInput.transform({}).getDeadline() == executionInput.getDeadline()
+    }
+
+    def "data fetchers can see the remaining time"() {
+        def sdl = '''
+            type Query {
+                f : String
+            }
+        '''
+        def remainingTime = null
+        def fetcherMap = ["Query": ["f": { env -> remainingTime = env.getRemainingTime(); "f" } as DataFetcher]]
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, fetcherMap)).build()
+
+        when:
+        graphQL.execute(ExecutionInput.newExecutionInput("{ f }").deadline(Instant.now().plusSeconds(60)))
+
+        then:
+        remainingTime > Duration.ZERO
+        remainingTime <= Duration.ofSeconds(60)
+
+        when:
+        graphQL.execute(ExecutionInput.newExecutionInput("{ f }"))
+
+        then:
+        remainingTime == null
+    }
+
     def "uses persisted query marker when query is null"() {
         when:
         ExecutionInput.newExecutionInput().query(null).build()
@@ -7,6 +7,7 @@ import graphql.execution.instrumentation.InstrumentationState
 import graphql.execution.instrumentation.SimplePerformantInstrumentation
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters
 import graphql.language.OperationDefinition
+import graphql.schema.BatchedDataFetcher
 import graphql.schema.DataFetcher
 import graphql.schema.DataFetchingEnvironment
 import org.awaitility.Awaitility
@@ -19,6 +20,7 @@ import spock.lang.Specification
 
 import java.time.Duration
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
 import java.util.concurrent.atomic.AtomicInteger
 
 import static graphql.ExecutionInput.newExecutionInput
@@ -379,6 +381,141 @@ class ProfilerTest extends Specification {
         profilerResult.getTotalTrivialDataFetcherInvocations() == 3
     }
 
+    def "N+1 fetching fields are reported"() {
+        given:
+        def sdl = '''
+            type Query {
+                foo: [Foo]
+            }
+            type Foo {
+                id: String
+                bar: String
+                baz: String
+                viaDataLoader: String
+            }
+        '''
+        BatchLoader<String, String> batchLoader = { keys -> CompletableFuture.completedFuture(keys) }
+        DataLoaderRegistry dataLoaderRegistry = new DataLoaderRegistry()
+        dataLoaderRegistry.register("loader", DataLoaderFactory.newDataLoader(batchLoader))
+
+        def schema = TestUtil.schema(sdl, [
+                Query: [
+                        foo: { DataFetchingEnvironment dfe -> return [[id: "1"], [id: "2"], [id: "3"]] } as DataFetcher],
+                Foo  : [
+                        bar          : { DataFetchingEnvironment dfe ->
+                            Thread.sleep(5)
+                            dfe.source.id
+                        } as DataFetcher,
+                        baz          : { DataFetchingEnvironment dfe -> supplyAsync { dfe.source.id } } as DataFetcher,
+                        viaDataLoader: { DataFetchingEnvironment dfe -> dfe.getDataLoader("loader").load(dfe.source.id) } as DataFetcher,
+                ]])
+        def graphql = GraphQL.newGraphQL(schema).build()
+
+        ExecutionInput ei = newExecutionInput()
+                .query("{ foo { id bar baz viaDataLoader } }")
+                .dataLoaderRegistry(dataLoaderRegistry)
+                .profileExecution(true)
+                .build()
+
+        when:
+        def result = graphql.execute(ei)
+        def profilerResult = ei.getGraphQLContext().get(ProfilerResult.PROFILER_CONTEXT_KEY) as ProfilerResult
+
+        then:
+        result.getData() == [foo: [[id: "1", bar: "1", baz: "1", viaDataLoader: "1"],
+                                   [id: "2", bar: "2", baz: "2", viaDataLoader: "2"],
+                                   [id: "3", bar: "3", baz: "3", viaDataLoader: "3"]]]
+
+        then:
+        def nPlusOneFields = profilerResult.getNPlusOneFields()
+        nPlusOneFields.collect { it.fieldCoordinates } as Set == ["Foo.bar", "Foo.baz"] as Set
+        nPlusOneFields.every { it.level == 2 && it.invocationCount == 3 && it.sourceCount == 3 }
+        nPlusOneFields.find { it.fieldCoordinates == "Foo.bar" }.totalTimeNs >= 15_000_000
+        profilerResult.shortSummaryMap().get("nPlusOneFields").collect { it.field } as Set == ["Foo.bar", "Foo.baz"] as Set
+
+        then: "the source objects are not kept once the execution has finished"
+        def barFetches = profilerResult.getFieldFetches("Foo.bar", 2)
+        barFetches.@sources == null
+        barFetches.getSourceCount() == 3
+    }
+
+    def "fields fetched once per source are not N+1 fetching"() {
+        given:
+        def sdl = '''
+            type Query {
+                foo: Foo
+            }
+            type Foo {
+                bar: String
+            }
+        '''
+        def schema = TestUtil.schema(sdl, [
+                Query: [
+                        foo: { DataFetchingEnvironment dfe -> return [id: "1"] } as DataFetcher],
+                Foo  : [
+                        bar: { DataFetchingEnvironment dfe -> dfe.source.id } as DataFetcher
+                ]])
+        def graphql = GraphQL.newGraphQL(schema).build()
+
+        ExecutionInput ei = newExecutionInput()
+                .query("{ foo { bar alias1: bar alias2: bar } }")
+                .profileExecution(true)
+                .build()
+
+        when:
+        def result = graphql.execute(ei)
+        def profilerResult = ei.getGraphQLContext().get(ProfilerResult.PROFILER_CONTEXT_KEY) as ProfilerResult
+
+        then:
+        result.getData() == [foo: [bar: "1", alias1: "1", alias2: "1"]]
+        profilerResult.getNPlusOneFields().isEmpty()
+    }
+
+    def "batched data fetchers wrapped by an instrumentation are not N+1 fetching"() {
+        given:
+        def sdl = '''
+            type Query {
+                foo: [Foo]
+            }
+            type Foo {
+                id: String
+                bar: String
+            }
+        '''
+        def barFetcher = new BatchedDataFetcher<String>() {
+            @Override
+            CompletionStage<List<String>> getBatch(List<DataFetchingEnvironment> environments) {
+                return CompletableFuture.completedFuture(environments.collect { it.source.id as String })
+            }
+        }
+        Instrumentation instrumentation = new Instrumentation() {
+            @Override
+            DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+                return { DataFetchingEnvironment dfe -> dataFetcher.get(dfe) } as DataFetcher
+            }
+        }
+        def schema = TestUtil.schema(sdl, [
+                Query: [
+                        foo: { DataFetchingEnvironment dfe -> return [[id: "1"], [id: "2"], [id: "3"]] } as DataFetcher],
+                Foo  : [
+                        bar: barFetcher
+                ]])
+        def graphql = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        ExecutionInput ei = newExecutionInput()
+                .query("{ foo { id bar } }")
+                .profileExecution(true)
+                .build()
+
+        when:
+        def result = graphql.execute(ei)
+        def profilerResult = ei.getGraphQLContext().get(ProfilerResult.PROFILER_CONTEXT_KEY) as ProfilerResult
+
+        then:
+        result.getData() == [foo: [[id: "1", bar: "1"], [id: "2", bar: "2"], [id: "3", bar: "3"]]]
+        profilerResult.getNPlusOneFields().isEmpty()
+    }
+
     def "records timing"() {
         given:
         def sdl = '''
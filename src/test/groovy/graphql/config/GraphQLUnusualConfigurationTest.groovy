@@ -1,5 +1,6 @@
 package graphql.config
 
+import graphql.AssertException
 import graphql.ExecutionInput
 import graphql.ExperimentalApi
 import graphql.GraphQL
@@ -11,6 +12,8 @@ import graphql.parser.ParserOptions
 import graphql.schema.PropertyDataFetcherHelper
 import spock.lang.Specification
 
+import java.time.Duration
+
 import static graphql.parser.ParserOptions.newParserOptions
 
 class GraphQLUnusualConfigurationTest extends Specification {
@@ -143,6 +146,45 @@ class GraphQLUnusualConfigurationTest extends Specification {
         GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig().isDataLoaderChainingEnabled()
     }
 
+    def "can set data loader windowed dispatching"() {
+        when:
+        def graphqlContext = GraphQLContext.newContext().build()
+        GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig().enableDataLoaderWindowedDispatching(Duration.ofMillis(5), 100)
+
+        then:
+        graphqlContext.get(DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_WINDOW) == Duration.ofMillis(5)
+        graphqlContext.get(DataLoaderDispatchingContextKeys.DATA_LOADER_DISPATCH_BATCH_SIZE) == 100
+        GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig().getDataLoaderDispatchWindow() == Duration.ofMillis(5)
+    }
+
+    def "exhausted and windowed data loader dispatching can not be enabled together"() {
+        when:
+        GraphQL.unusualConfiguration(GraphQLContext.newContext().build()).dataloaderConfig()
+                .enableDataLoaderExhaustedDispatching(true)
+                .enableDataLoaderWindowedDispatching(Duration.ofMillis(5), 100)
+
+        then:
+        thrown(AssertException)
+
+        when:
+        GraphQL.unusualConfiguration(GraphQLContext.newContext().build()).dataloaderConfig()
+                .enableDataLoaderWindowedDispatching(Duration.ofMillis(5), 100)
+                .enableDataLoaderExhaustedDispatching(true)
+
+        then:
+        thrown(AssertException)
+
+        when:
+        def graphqlContext = GraphQLContext.newContext().build()
+        GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig()
+                .enableDataLoaderWindowedDispatching(Duration.ofMillis(5), 100)
+                .enableDataLoaderExhaustedDispatching(false)
+
+        then:
+        !GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig().isDataLoaderExhaustedDispatchingEnabled()
+        GraphQL.unusualConfiguration(graphqlContext).dataloaderConfig().getDataLoaderDispatchWindow() == Duration.ofMillis(5)
+    }
+
     def "we can access via the ExecutionInput"() {
         when:
         def eiBuilder = ExecutionInput.newExecutionInput("query q {f}")
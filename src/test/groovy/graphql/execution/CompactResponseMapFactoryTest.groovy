@@ -0,0 +1,89 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.StarWarsSchema
+import graphql.language.Field
+import spock.lang.Specification
+
+class CompactResponseMapFactoryTest extends Specification {
+
+    def "no keys"() {
+        given:
+        var sut = new CompactResponseMapFactory()
+
+        when:
+        var result = sut.createInsertionOrdered(List.of(), List.of())
+
+        then:
+        result.isEmpty()
+        result == [:]
+    }
+
+    def "keeps insertion order and allows null values"() {
+        given:
+        var sut = new CompactResponseMapFactory()
+
+        when:
+        var result = sut.createInsertionOrdered(List.of("name", "age", "nickname"), Arrays.asList("Mario", 18, null))
+
+        then:
+        result == ["name": "Mario", "age": 18, "nickname": null]
+        result.keySet() as List == ["name", "age", "nickname"]
+        result.values() as List == ["Mario", 18, null]
+        result.get("age") == 18
+        result.containsKey("nickname")
+        !result.containsKey("other")
+        result.get("other") == null
+        result.hashCode() == ["name": "Mario", "age": 18, "nickname": null].hashCode()
+    }
+
+    def "maps for the keys of the same selection share them"() {
+        given:
+        var sut = new CompactResponseMapFactory()
+        var keys = MergedSelectionSet.newMergedSelectionSet()
+                .subFields([name: MergedField.newMergedField(new Field("name")).build(), age: MergedField.newMergedField(new Field("age")).build()])
+                .build()
+                .getKeys()
+
+        when:
+        var mario = sut.createInsertionOrdered(keys, List.of("Mario", 18))
+        var luigi = sut.createInsertionOrdered(keys, List.of("Luigi", 16))
+        var marioAgain = sut.createInsertionOrdered(new ArrayList<>(keys), List.of("Mario", 18))
+
+        then:
+        mario.keys.is(keys)
+        luigi.keys.is(keys)
+        !marioAgain.keys.is(keys)
+        mario == marioAgain
+        mario != luigi
+    }
+
+    def "maps are immutable"() {
+        given:
+        var result = new CompactResponseMapFactory().createInsertionOrdered(List.of("name"), List.of("Mario"))
+
+        when:
+        result.put("age", 18)
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "can be used for execution"() {
+        given:
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).build()
+        def executionInput = ExecutionInput.newExecutionInput("{ hero { name friends { id name } } }").build()
+        GraphQL.unusualConfiguration(executionInput.getGraphQLContext()).responseMapFactory().useCompactFactory()
+
+        when:
+        def result = graphQL.execute(executionInput)
+
+        then:
+        result.errors.isEmpty()
+        result.data == [hero: [name: "R2-D2", friends: [[id: "1000", name: "Luke Skywalker"], [id: "1002", name: "Han Solo"], [id: "1003", name: "Leia Organa"]]]]
+        !(result.data instanceof LinkedHashMap)
+        !(result.data.hero.friends[0] instanceof LinkedHashMap)
+        result.data.hero.friends[0].keys.is(result.data.hero.friends[1].keys)
+    }
+}
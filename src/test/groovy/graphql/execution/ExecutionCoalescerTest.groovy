@@ -0,0 +1,131 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+
+class ExecutionCoalescerTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            hello(name: String) : String
+        }
+        type Mutation {
+            greet(name: String) : String
+        }
+    '''
+
+    // the fetches stay in flight until the test completes them
+    List<CompletableFuture<String>> fetches = new CopyOnWriteArrayList<>()
+
+    def pendingFetcher = { env ->
+        def fetch = new CompletableFuture<String>()
+        fetches.add(fetch)
+        return fetch.thenApply { it + " " + env.getArgument("name") }
+    } as DataFetcher
+
+    GraphQL graphQL(ExecutionCoalescer executionCoalescer) {
+        def schema = TestUtil.schema(sdl, [Query: [hello: pendingFetcher], Mutation: [greet: pendingFetcher]])
+        return GraphQL.newGraphQL(schema).executionCoalescer(executionCoalescer).build()
+    }
+
+    def completeFetches() {
+        fetches.each { it.complete("hello") }
+    }
+
+    def "identical queries that run at the same time are executed once"() {
+        given:
+        def executionCoalescer = ExecutionCoalescer.newExecutionCoalescer({ ExecutionInput ei -> "all" }).build()
+        def graphQL = graphQL(executionCoalescer)
+        def query = 'query q($name: String) { hello(name: $name) }'
+        def executionInput = { ExecutionInput.newExecutionInput(query).variables([name: "world"]).build() }
+
+        when:
+        def er1 = graphQL.executeAsync(executionInput())
+        def er2 = graphQL.executeAsync(executionInput())
+        def er3 = graphQL.executeAsync(executionInput())
+
+        then:
+        fetches.size() == 1
+        executionCoalescer.getInFlightCount() == 1
+        executionCoalescer.getCoalescedCount() == 2
+
+        when:
+        completeFetches()
+
+        then:
+        er1.join().data == [hello: "hello world"]
+        er2.join() == er1.join()
+        er3.join() == er1.join()
+        executionCoalescer.getInFlightCount() == 0
+
+        when: "the execution has completed"
+        def er4 = graphQL.executeAsync(executionInput())
+
+        then:
+        fetches.size() == 2
+        !er4.isDone()
+    }
+
+    def "queries with different variables or coalescing keys are executed separately"() {
+        given:
+        def executionCoalescer = ExecutionCoalescer.newExecutionCoalescer({ ExecutionInput ei -> ei.locale }).build()
+        def graphQL = graphQL(executionCoalescer)
+        def query = 'query q($name: String) { hello(name: $name) }'
+        def executionInput = { String name, Locale locale -> ExecutionInput.newExecutionInput(query).variables([name: name]).locale(locale).build() }
+
+        when:
+        def er1 = graphQL.executeAsync(executionInput("a", Locale.ENGLISH))
+        def er2 = graphQL.executeAsync(executionInput("b", Locale.ENGLISH))
+        def er3 = graphQL.executeAsync(executionInput("a", Locale.GERMAN))
+        completeFetches()
+
+        then:
+        fetches.size() == 3
+        er1.join().data == [hello: "hello a"]
+        er2.join().data == [hello: "hello b"]
+        er3.join().data == [hello: "hello a"]
+        executionCoalescer.getCoalescedCount() == 0
+    }
+
+    def "mutations and opted out requests are never coalesced"() {
+        given:
+        def executionCoalescer = ExecutionCoalescer.newExecutionCoalescer({ ExecutionInput ei -> ei.graphQLContext.get("key") }).build()
+        def graphQL = graphQL(executionCoalescer)
+        def executionInput = { String query -> ExecutionInput.newExecutionInput(query).graphQLContext([key: "k"]).build() }
+
+        when:
+        def er1 = graphQL.executeAsync(executionInput('mutation { greet(name: "a") }'))
+        def er2 = graphQL.executeAsync(executionInput('mutation { greet(name: "a") }'))
+        def er3 = graphQL.executeAsync(ExecutionInput.newExecutionInput('{ hello(name: "a") }'))
+        def er4 = graphQL.executeAsync(ExecutionInput.newExecutionInput('{ hello(name: "a") }'))
+        completeFetches()
+
+        then:
+        fetches.size() == 4
+        [er1, er2]*.join()*.data == [[greet: "hello a"], [greet: "hello a"]]
+        [er3, er4]*.join()*.data == [[hello: "hello a"], [hello: "hello a"]]
+        executionCoalescer.getCoalescedCount() == 0
+    }
+
+    def "a failed execution fails all the coalesced requests"() {
+        given:
+        def executionCoalescer = ExecutionCoalescer.newExecutionCoalescer({ ExecutionInput ei -> "all" }).build()
+        def graphQL = graphQL(executionCoalescer)
+
+        when:
+        def er1 = graphQL.executeAsync(ExecutionInput.newExecutionInput('{ hello(name: "a") }'))
+        def er2 = graphQL.executeAsync(ExecutionInput.newExecutionInput('{ hello(name: "a") }'))
+        fetches.each { it.completeExceptionally(new RuntimeException("bang")) }
+
+        then:
+        er1.join().errors.size() == 1
+        er2.join() == er1.join()
+        executionCoalescer.getInFlightCount() == 0
+    }
+}
@@ -0,0 +1,286 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.GraphQLContext
+import graphql.TestUtil
+import graphql.execution.conditional.ConditionalNodeDecision
+import graphql.execution.conditional.ConditionalNodeDecisionEnvironment
+import graphql.execution.preparsed.CachingPreparsedDocumentProvider
+import graphql.language.Document
+import graphql.language.Field
+import graphql.language.NodeUtil
+import graphql.language.OperationDefinition
+import graphql.language.StringValue
+import graphql.language.Value
+import graphql.parser.Parser
+import graphql.schema.Coercing
+import graphql.schema.DataFetcher
+import graphql.schema.DataFetcherFactory
+import graphql.schema.DataFetcherFactoryEnvironment
+import graphql.schema.FieldCoordinates
+import graphql.schema.GraphQLCodeRegistry
+import graphql.schema.GraphQLFieldDefinition
+import graphql.schema.GraphQLObjectType
+import graphql.schema.GraphQLScalarType
+import graphql.schema.idl.RuntimeWiring
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import static graphql.TestUtil.mergedField
+import static graphql.execution.FieldCollectorParameters.newParameters
+
+class ExecutionPlanCacheTest extends Specification {
+
+    def schema = TestUtil.schema("""
+            type Query {
+                foo: Foo
+            }
+            interface Foo {
+                id: String
+            }
+            type Bar implements Foo {
+                id: String
+                bar: String
+            }
+            type Baz implements Foo {
+                id: String
+                baz: String
+            }
+    """)
+
+    def fieldCollector = new FieldCollector()
+
+    def parameters(String typeName, Map<String, Object> variables, Document document) {
+        newParameters()
+                .schema(schema)
+                .objectType(schema.getType(typeName) as GraphQLObjectType)
+                .fragments(NodeUtil.getFragmentsByName(document))
+                .variables(variables)
+                .build()
+    }
+
+    static Field fooField(Document document) {
+        ((OperationDefinition) document.children[0]).selectionSet.selections[0] as Field
+    }
+
+    def "the same selection on the same type is only collected once"() {
+        def document = new Parser().parseDocument('{ foo { id ... on Bar { bar } ...BazFragment } } fragment BazFragment on Baz { baz }')
+        def cache = new ExecutionPlanCache()
+        def field = fooField(document)
+
+        when:
+        def bar1 = cache.collectFields(fieldCollector, parameters("Bar", [:], document), mergedField(field), false)
+        def bar2 = cache.collectFields(fieldCollector, parameters("Bar", [:], document), mergedField(field), false)
+        def baz = cache.collectFields(fieldCollector, parameters("Baz", [:], document), mergedField(field), false)
+
+        then:
+        bar1.is(bar2)
+        bar1.keys == ["id", "bar"]
+        baz.keys == ["id", "baz"]
+    }
+
+    def "skip and include variable values are part of the key"() {
+        def document = new Parser().parseDocument('query q($skip: Boolean!) { foo { id ... on Bar @skip(if: $skip) { bar } } }')
+        def cache = new ExecutionPlanCache()
+        def field = fooField(document)
+
+        when:
+        def notSkipped = cache.collectFields(fieldCollector, parameters("Bar", [skip: false], document), mergedField(field), false)
+        def skipped = cache.collectFields(fieldCollector, parameters("Bar", [skip: true], document), mergedField(field), false)
+        def notSkippedAgain = cache.collectFields(fieldCollector, parameters("Bar", [skip: false], document), mergedField(field), false)
+
+        then:
+        notSkipped.keys == ["id", "bar"]
+        skipped.keys == ["id"]
+        notSkipped.is(notSkippedAgain)
+    }
+
+    def "custom conditional node decisions are not cached"() {
+        def document = new Parser().parseDocument('{ foo { id } }')
+        def cache = new ExecutionPlanCache()
+        def field = fooField(document)
+        def decision = new ConditionalNodeDecision() {
+            @Override
+            boolean shouldInclude(ConditionalNodeDecisionEnvironment env) {
+                return true
+            }
+        }
+        def params = newParameters()
+                .schema(schema)
+                .objectType(schema.getType("Bar") as GraphQLObjectType)
+                .variables([:])
+                .fragments([:])
+                .graphQLContext(GraphQLContext.of([(ConditionalNodeDecision.class): decision]))
+                .build()
+
+        when:
+        def first = cache.collectFields(fieldCollector, params, mergedField(field), false)
+        def second = cache.collectFields(fieldCollector, params, mergedField(field), false)
+
+        then:
+        !first.is(second)
+        first.keys == second.keys
+    }
+
+    def "cached documents reuse field collection across executions"() {
+        def sdl = '''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                id: String
+                name: String
+            }
+        '''
+        def items = (1..3).collect { [id: "id" + it, name: "name" + it] }
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, [Query: [items: { env -> items } as DataFetcher]]))
+                .preparsedDocumentProvider(CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build())
+                .build()
+        def query = 'query q($skip: Boolean!) { items { id name @skip(if: $skip) } }'
+
+        when:
+        def result1 = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([skip: false]))
+        def result2 = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([skip: true]))
+        def result3 = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([skip: false]))
+
+        then:
+        result1.errors.isEmpty()
+        result1.data == [items: items]
+        result2.data == [items: items.collect { [id: it.id] }]
+        result3.data == result1.data
+    }
+
+    def "compiled field plans resolve data fetchers once per selection and type"() {
+        def sdl = '''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                id: String
+                greeting(name: String, punctuation: String = "!"): String
+            }
+        '''
+        def factoryCalls = new AtomicInteger()
+        def greetingFetcher = { env -> "hello " + env.getArgument("name") + env.getArgument("punctuation") } as DataFetcher
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Query", "items"), { env -> (1..3).collect { [id: "id" + it] } } as DataFetcher)
+                .dataFetcher(FieldCoordinates.coordinates("Item", "greeting"), new DataFetcherFactory() {
+                    @Override
+                    DataFetcher get(DataFetcherFactoryEnvironment environment) {
+                        factoryCalls.incrementAndGet()
+                        return greetingFetcher
+                    }
+
+                    @Override
+                    DataFetcher get(GraphQLFieldDefinition fieldDefinition) {
+                        factoryCalls.incrementAndGet()
+                        return greetingFetcher
+                    }
+                })
+        def graphQLSchema = TestUtil.schema(sdl).transform({ it.codeRegistry(codeRegistry.build()) })
+        def graphQL = GraphQL.newGraphQL(graphQLSchema)
+                .preparsedDocumentProvider(CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build())
+                .build()
+        def query = 'query q($name: String) { items { id literal: greeting(name: "world") variable: greeting(name: $name) } }'
+
+        def executionInput = { String name ->
+            def input = ExecutionInput.newExecutionInput(query).variables([name: name]).build()
+            input.getGraphQLContext().put(ExecutionPlanContextKeys.ENABLE_COMPILED_FIELD_PLANS, true)
+            input
+        }
+
+        when:
+        def result1 = graphQL.execute(executionInput("bob"))
+        def result2 = graphQL.execute(executionInput("alice"))
+
+        then:
+        result1.errors.isEmpty()
+        result1.data == [items: (1..3).collect { [id: "id" + it, literal: "hello world!", variable: "hello bob!"] }]
+        result2.data == [items: (1..3).collect { [id: "id" + it, literal: "hello world!", variable: "hello alice!"] }]
+        // one plan per aliased field, reused for every item and for the second execution
+        factoryCalls.get() == 2
+    }
+
+    def "literal arguments of custom scalars are coerced for every request"() {
+        def sdl = '''
+            scalar Greeting
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                greeting(text: Greeting): String
+            }
+        '''
+        def greetingScalar = GraphQLScalarType.newScalar().name("Greeting").coercing(new Coercing<Object, Object>() {
+            @Override
+            Object serialize(Object dataFetcherResult, GraphQLContext graphQLContext, Locale locale) {
+                return dataFetcherResult
+            }
+
+            @Override
+            Object parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext graphQLContext, Locale locale) {
+                return ((StringValue) input).getValue() + " (" + locale.getLanguage() + ")"
+            }
+        }).build()
+        def runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .scalar(greetingScalar)
+                .type("Query", { it.dataFetcher("items", { env -> [[:], [:]] } as DataFetcher) })
+                .type("Item", { it.dataFetcher("greeting", { env -> env.getArgument("text") } as DataFetcher) })
+                .build()
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl, runtimeWiring))
+                .preparsedDocumentProvider(CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build())
+                .build()
+
+        def executionInput = { Locale locale ->
+            def input = ExecutionInput.newExecutionInput('{ items { greeting(text: "hello") } }').locale(locale).build()
+            input.getGraphQLContext().put(ExecutionPlanContextKeys.ENABLE_COMPILED_FIELD_PLANS, true)
+            input
+        }
+
+        when:
+        def english = graphQL.execute(executionInput(Locale.ENGLISH))
+        def german = graphQL.execute(executionInput(Locale.GERMAN))
+
+        then:
+        english.errors.isEmpty()
+        english.data == [items: [[greeting: "hello (en)"], [greeting: "hello (en)"]]]
+        german.data == [items: [[greeting: "hello (de)"], [greeting: "hello (de)"]]]
+    }
+
+    def "compiled field plans are only used when enabled"() {
+        def sdl = '''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                id: String
+            }
+        '''
+        def factoryCalls = new AtomicInteger()
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Query", "items"), { env -> (1..3).collect { [id: "id" + it] } } as DataFetcher)
+                .dataFetcher(FieldCoordinates.coordinates("Item", "id"), new DataFetcherFactory() {
+                    @Override
+                    DataFetcher get(DataFetcherFactoryEnvironment environment) {
+                        factoryCalls.incrementAndGet()
+                        return { env -> env.getSource().id } as DataFetcher
+                    }
+
+                    @Override
+                    DataFetcher get(GraphQLFieldDefinition fieldDefinition) {
+                        factoryCalls.incrementAndGet()
+                        return { env -> env.getSource().id } as DataFetcher
+                    }
+                })
+        def graphQL = GraphQL.newGraphQL(TestUtil.schema(sdl).transform({ it.codeRegistry(codeRegistry.build()) })).build()
+
+        when:
+        def result = graphQL.execute("{ items { id } }")
+
+        then:
+        result.data == [items: [[id: "id1"], [id: "id2"], [id: "id3"]]]
+        factoryCalls.get() == 3
+    }
+}
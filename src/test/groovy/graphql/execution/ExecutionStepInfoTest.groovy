@@ -217,6 +217,43 @@ class ExecutionStepInfoTest extends Specification {
     }
 
 
+    def "paths of fields and list elements are derived from the parent path when asked for"() {
+        given:
+        def rootTypeInfo = newExecutionStepInfo().type(rootType).path(ResultPath.rootPath()).build()
+        def listField = mergedField(new Field("listField"))
+        def listTypeInfo = newExecutionStepInfo().type(list(fieldType)).field(listField).parentInfo(rootTypeInfo).pathOfField().build()
+        def elementTypeInfo = new ExecutionStepInfoFactory().newExecutionStepInfoForListElement(listTypeInfo, 2)
+        def subFieldTypeInfo = newExecutionStepInfo().type(GraphQLString).field(mergedField).parentInfo(elementTypeInfo).pathOfField().build()
+
+        expect:
+        subFieldTypeInfo.path.toString() == "/listField[2]/someAstField"
+        subFieldTypeInfo.path.is(subFieldTypeInfo.path)
+        elementTypeInfo.path.toString() == "/listField[2]"
+        elementTypeInfo.transform(fieldType).path.is(elementTypeInfo.path)
+        listTypeInfo.path.toString() == "/listField"
+        newExecutionStepInfo(subFieldTypeInfo).build().path == subFieldTypeInfo.path
+    }
+
+    def "path levels are known without creating the derived paths"() {
+        given:
+        def rootTypeInfo = newExecutionStepInfo().type(rootType).path(ResultPath.rootPath()).build()
+        def listField = mergedField(new Field("listField"))
+        def listTypeInfo = newExecutionStepInfo().type(list(fieldType)).field(listField).parentInfo(rootTypeInfo).pathOfField().build()
+        def elementTypeInfo = new ExecutionStepInfoFactory().newExecutionStepInfoForListElement(listTypeInfo, 2)
+        def subFieldTypeInfo = newExecutionStepInfo().type(GraphQLString).field(mergedField).parentInfo(elementTypeInfo).pathOfField().build()
+
+        expect:
+        rootTypeInfo.pathLevel == 0
+        listTypeInfo.pathLevel == 1
+        elementTypeInfo.pathLevel == 1
+        subFieldTypeInfo.pathLevel == 2
+        subFieldTypeInfo.@path == null
+        listTypeInfo.@path == null
+
+        subFieldTypeInfo.pathLevel == subFieldTypeInfo.path.level
+        elementTypeInfo.pathLevel == elementTypeInfo.path.level
+    }
+
     def "transform copies fieldContainer"() {
         given:
         ExecutionStepInfo executionStepInfo = newExecutionStepInfo()
@@ -5,12 +5,14 @@ import graphql.EngineRunningState
 import graphql.ExceptionWhileDataFetching
 import graphql.ExecutionInput
 import graphql.ExecutionResult
+import graphql.GraphQL
 import graphql.GraphQLContext
 import graphql.GraphqlErrorBuilder
 import graphql.Profiler
 import graphql.Scalars
 import graphql.SerializationError
 import graphql.StarWarsSchema
+import graphql.TestUtil
 import graphql.TypeMismatchError
 import graphql.execution.instrumentation.InstrumentationContext
 import graphql.execution.instrumentation.InstrumentationState
@@ -978,4 +980,84 @@ class ExecutionStrategyTest extends Specification {
         executionContext.errors.size() == 1
         executionContext.errors[0] instanceof TypeMismatchError
     }
+
+    def "leaf fields of light data fetchers are completed the same with and without field instrumentation"() {
+        def sdl = '''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                id: String!
+                name: String
+                count: Int
+                colour: Colour
+                mandatory: String!
+            }
+            enum Colour {
+                RED
+                GREEN
+            }
+        '''
+        def items = [
+                [id: "1", name: "one", count: 1, colour: "RED", mandatory: "m1"],
+                [id: "2", name: null, count: "not a number", colour: "GREEN", mandatory: null],
+        ]
+        def schema = TestUtil.schema(sdl, [Query: [items: { env -> items } as DataFetcher]])
+        def completedFields = []
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<Object> beginFieldCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+                completedFields.add(parameters.getExecutionStepInfo().getPath().toString())
+                return null
+            }
+        }
+        def query = "{ items { id name count colour mandatory } }"
+
+        when:
+        def plainResult = GraphQL.newGraphQL(schema).build().execute(query)
+        def instrumentedResult = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build().execute(query)
+
+        then:
+        plainResult.data == [items: [[id: "1", name: "one", count: 1, colour: "RED", mandatory: "m1"], null]]
+        plainResult.errors.collect { it.path } == [["items", 1, "count"], ["items", 1, "mandatory"]]
+        instrumentedResult.data == plainResult.data
+        instrumentedResult.errors.collect { it.path } == plainResult.errors.collect { it.path }
+        completedFields.contains("/items[0]/name")
+    }
+
+    def "only the built-in strategies and the strategies that opt in complete leaf fields directly"() {
+        expect:
+        new AsyncExecutionStrategy().completesLeafFieldsDirectly()
+        new AsyncSerialExecutionStrategy().completesLeafFieldsDirectly()
+        !new AsyncExecutionStrategy() {}.completesLeafFieldsDirectly()
+        new AsyncExecutionStrategy() {
+            @Override
+            protected boolean completesLeafFieldsDirectly() {
+                return true
+            }
+        }.completesLeafFieldsDirectly()
+    }
+
+    def "strategies that override the completion of scalars are called for the leaf fields of light data fetchers"() {
+        def schema = TestUtil.schema('''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                name: String
+            }
+        ''', [Query: [items: { env -> [[name: "one"], [name: "two"]] } as DataFetcher]])
+        def strategy = new AsyncExecutionStrategy() {
+            @Override
+            protected Object completeValueForScalar(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLScalarType scalarType, Object result) {
+                return super.completeValueForScalar(executionContext, parameters, scalarType, result.toString().toUpperCase())
+            }
+        }
+
+        when:
+        def er = GraphQL.newGraphQL(schema).queryExecutionStrategy(strategy).build().execute("{ items { name } }")
+
+        then:
+        er.data == [items: [[name: "ONE"], [name: "TWO"]]]
+    }
 }
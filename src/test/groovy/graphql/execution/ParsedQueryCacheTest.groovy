@@ -0,0 +1,126 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.instrumentation.DocumentAndVariables
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.language.Document
+import graphql.language.OperationDefinition
+import graphql.parser.ParserOptions
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ParsedQueryCacheTest extends Specification {
+
+    static ExecutionInput input(String query, String operationName) {
+        ExecutionInput.newExecutionInput(query).operationName(operationName).build()
+    }
+
+    def "query texts are parsed once per operation name"() {
+        given:
+        def cache = new ParsedQueryCache()
+        def query = 'query a { hello } mutation b { greet }'
+
+        when:
+        def a1 = cache.get(input(query, "a"))
+        def a2 = cache.get(input(query, "a"))
+        def b = cache.get(input(query, "b"))
+
+        then:
+        a1.is(a2)
+        a1.isQueryOperation()
+        !b.isQueryOperation()
+        b.operationDefinition.operation == OperationDefinition.Operation.MUTATION
+        cache.size() == 2
+    }
+
+    def "invalid query texts give no operation"() {
+        given:
+        def cache = new ParsedQueryCache()
+
+        expect:
+        cache.get(input('{ hello ', null)) == null
+        cache.get(input('query a { hello }', "b")) == null
+        cache.get(input('query a { hello } query b { hello }', null)) == null
+    }
+
+    def "normalised queries ignore white space, comments and commas"() {
+        given:
+        def cache = new ParsedQueryCache()
+
+        expect:
+        cache.get(input('{ hello(a: 1, b: 2) }', null)).normalisedQuery == cache.get(input('''
+            # a comment
+            {
+                hello(a: 1 b: 2)
+            }
+        ''', null)).normalisedQuery
+    }
+
+    def "the least recently used query text is dropped when the cache is full"() {
+        given:
+        def cache = new ParsedQueryCache(2)
+
+        when:
+        def a = cache.get(input('{ a }', null))
+        cache.get(input('{ b }', null))
+        cache.get(input('{ a }', null))
+        cache.get(input('{ c }', null))
+
+        then:
+        cache.size() == 2
+        cache.get(input('{ a }', null)).is(a)
+    }
+
+    def "query texts are parsed with the parser options of the execution"() {
+        given:
+        def cache = new ParsedQueryCache()
+        def query = '{ a b c d e }'
+        def limited = ExecutionInput.newExecutionInput(query)
+                .graphQLContext([(ParserOptions.class): ParserOptions.newParserOptions().maxTokens(3).build()])
+                .build()
+
+        expect:
+        cache.get(limited) == null
+        cache.getParsedDocument(limited) == null
+        cache.get(input(query, null)) != null
+        cache.size() == 2
+    }
+
+    def "the response cache and the execution coalescer work from the same parsed queries"() {
+        given:
+        def schema = TestUtil.schema('''
+            directive @cacheControl(maxAge: Int) on FIELD_DEFINITION
+            type Query {
+                hello : String @cacheControl(maxAge: 60)
+            }
+        ''', [Query: [hello: { env -> "world" } as DataFetcher]])
+        Document executedDocument = null
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            DocumentAndVariables instrumentDocumentAndVariables(DocumentAndVariables documentAndVariables, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                executedDocument = documentAndVariables.document
+                return documentAndVariables
+            }
+        }
+        def graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(instrumentation)
+                .responseCache(ResponseCache.newResponseCache().defaultMaxAge(Duration.ofSeconds(60)).build())
+                .executionCoalescer(ExecutionCoalescer.newExecutionCoalescer({ ei -> "all" }).build())
+                .build()
+
+        when:
+        def er = graphQL.execute('{ hello }')
+
+        then:
+        er.data == [hello: "world"]
+        graphQL.@parsedQueryCache.size() == 1
+        // the engine did not parse the query text again
+        executedDocument.is(graphQL.@parsedQueryCache.getParsedDocument(input('{ hello }', null)))
+    }
+}
@@ -0,0 +1,254 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.ExecutionResult
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.instrumentation.InstrumentationContext
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimpleInstrumentationContext
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResponseCacheTest extends Specification {
+
+    def sdl = '''
+        enum CacheControlScope { PUBLIC PRIVATE }
+        directive @cacheControl(maxAge: Int, scope: CacheControlScope) on FIELD_DEFINITION | OBJECT | INTERFACE | UNION
+
+        type Query {
+            products(first: Int) : [Product] @cacheControl(maxAge: 60)
+            me : User @cacheControl(maxAge: 60, scope: PRIVATE)
+            news : String @cacheControl(maxAge: 1)
+            random : Int
+        }
+        type Product @cacheControl(maxAge: 30) {
+            id : ID
+            name : String
+            price : Int @cacheControl(maxAge: 0)
+        }
+        type User {
+            name : String
+        }
+    '''
+
+    def fetches = new AtomicInteger()
+
+    def counting(Object value) {
+        return { env ->
+            fetches.incrementAndGet()
+            return value
+        } as DataFetcher
+    }
+
+    GraphQL graphQL(ResponseCache responseCache) {
+        def productsFetcher = { env ->
+            fetches.incrementAndGet()
+            def products = [[id: "1", name: "book", price: 10], [id: "2", name: "pen", price: 2]]
+            return env.getArgument("first") == null ? products : products.take(env.getArgument("first"))
+        } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [products: productsFetcher, me: counting([name: "me"]), news: counting("news"), random: counting(4)]])
+        return GraphQL.newGraphQL(schema).responseCache(responseCache).build()
+    }
+
+    def "identical queries are answered from the cache"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().build()
+        def graphQL = graphQL(responseCache)
+
+        when:
+        def er1 = graphQL.execute('{ products { id name } }')
+        def er2 = graphQL.execute('''
+            # the same query, only formatted differently
+            {
+                products {
+                    id, name
+                }
+            }
+        ''')
+
+        then:
+        er1.data == [products: [[id: "1", name: "book"], [id: "2", name: "pen"]]]
+        er2 == er1
+        fetches.get() == 1
+        responseCache.size() == 1
+    }
+
+    def "results are cached by variables and scope key"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().scopeKey({ ExecutionInput ei -> ei.locale }).build()
+        def graphQL = graphQL(responseCache)
+        def query = 'query q($first: Int) { products(first: $first) { name } }'
+        def executionInput = { Integer first, Locale locale ->
+            ExecutionInput.newExecutionInput(query).variables(first == null ? [:] : [first: first]).locale(locale).build()
+        }
+
+        when:
+        def er1 = graphQL.execute(executionInput(1, Locale.ENGLISH))
+        def er2 = graphQL.execute(executionInput(1, Locale.ENGLISH))
+        def er3 = graphQL.execute(executionInput(2, Locale.ENGLISH))
+        def er4 = graphQL.execute(executionInput(1, Locale.GERMAN))
+
+        then:
+        er1.data == [products: [[name: "book"]]]
+        er2.data == er1.data
+        er3.data == [products: [[name: "book"], [name: "pen"]]]
+        er4.data == er1.data
+        fetches.get() == 3
+    }
+
+    def "literal arguments and aliases are part of the cache key"() {
+        given:
+        def graphQL = graphQL(ResponseCache.newResponseCache().build())
+
+        when:
+        def er1 = graphQL.execute('{ products(first: 1) { name } }')
+        def er2 = graphQL.execute('{ products(first: 2) { name } }')
+        def er3 = graphQL.execute('{ products(first: 1) { title: name } }')
+
+        then:
+        er1.data == [products: [[name: "book"]]]
+        er2.data == [products: [[name: "book"], [name: "pen"]]]
+        er3.data == [products: [[title: "book"]]]
+        fetches.get() == 3
+    }
+
+    def "results expire after the smallest max age of the selected fields"() {
+        given:
+        def graphQL = graphQL(ResponseCache.newResponseCache().build())
+
+        when:
+        graphQL.execute('{ news products { name } }')
+        graphQL.execute('{ news products { name } }')
+
+        then:
+        fetches.get() == 2
+
+        when:
+        Thread.sleep(1100)
+        graphQL.execute('{ news products { name } }')
+
+        then:
+        fetches.get() == 4
+    }
+
+    def "results are not cached when a selected field is private, uncacheable or has no hint"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().build()
+        def graphQL = graphQL(responseCache)
+
+        when:
+        graphQL.execute(query)
+        graphQL.execute(query)
+
+        then:
+        fetches.get() == 2
+        responseCache.size() == 0
+
+        where:
+        query                                       | _
+        '{ me { name } }'                           | _
+        '{ products { price } }'                    | _
+        '{ products { ...on Product { price } } }'  | _
+        '{ random }'                                | _
+    }
+
+    def "the default max age applies to fields without hints"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().defaultMaxAge(Duration.ofSeconds(10)).build()
+        def graphQL = graphQL(responseCache)
+
+        when:
+        graphQL.execute('{ random }')
+        graphQL.execute('{ random }')
+
+        then:
+        fetches.get() == 1
+    }
+
+    def "invalid queries are not cached"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().defaultMaxAge(Duration.ofSeconds(10)).build()
+        def graphQL = graphQL(responseCache)
+
+        when:
+        def er1 = graphQL.execute('{ products { unknown } }')
+        def er2 = graphQL.execute('{ products { unknown } }')
+        def er3 = graphQL.execute('{ products { name ')
+
+        then:
+        er1.errors.size() == 1
+        er2.errors.size() == 1
+        er3.errors.size() == 1
+        responseCache.size() == 0
+    }
+
+    def "the scope key function can opt a request out of caching"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().scopeKey({ ExecutionInput ei -> null }).build()
+        def graphQL = graphQL(responseCache)
+
+        when:
+        graphQL.execute('{ products { name } }')
+        graphQL.execute('{ products { name } }')
+
+        then:
+        fetches.get() == 2
+    }
+
+    def "the cache is cleared when the schema changes"() {
+        given:
+        def responseCache = ResponseCache.newResponseCache().build()
+        def graphQL = graphQL(responseCache)
+        graphQL.execute('{ products { name } }')
+
+        when:
+        def transformed = graphQL.transform({ builder -> builder.schema(graphQL.graphQLSchema.transform({})) })
+        transformed.execute('{ products { name } }')
+
+        then:
+        transformed.getResponseCache() == responseCache
+        fetches.get() == 2
+        responseCache.size() == 1
+    }
+
+    def "cached results go through the execution instrumentation without the extensions of the execution that made them"() {
+        given:
+        def schema = TestUtil.schema(sdl, [Query: [news: { env ->
+            fetches.incrementAndGet()
+            return DataFetcherResult.newResult().data("news").extensions([fetch: fetches.get()]).build()
+        } as DataFetcher]])
+        def executions = new AtomicInteger()
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                executions.incrementAndGet()
+                return SimpleInstrumentationContext.noOp()
+            }
+
+            @Override
+            CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                return CompletableFuture.completedFuture(executionResult.transform({ builder -> builder.addExtension("execution", executions.get()) }))
+            }
+        }
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).responseCache(ResponseCache.newResponseCache().build()).build()
+
+        when:
+        def er1 = graphQL.execute('{ news }')
+        def er2 = graphQL.execute('{ news }')
+
+        then:
+        fetches.get() == 1
+        executions.get() == 2
+        er1.data == [news: "news"]
+        er1.extensions == [fetch: 1, execution: 1]
+        er2.data == [news: "news"]
+        er2.extensions == [execution: 2]
+    }
+}
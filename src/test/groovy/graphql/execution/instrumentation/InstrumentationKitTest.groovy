@@ -0,0 +1,40 @@
+package graphql.execution.instrumentation
+
+import graphql.ExecutionResult
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+class InstrumentationKitTest extends Specification {
+
+    def "instrumentations that do not implement field level methods have no field callbacks"() {
+        def executionOnly = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                return null
+            }
+        }
+
+        expect:
+        !InstrumentationKit.hasFieldCallbacks(SimplePerformantInstrumentation.INSTANCE)
+        !InstrumentationKit.hasFieldCallbacks(new SimplePerformantInstrumentation())
+        !InstrumentationKit.hasFieldCallbacks(executionOnly)
+        !InstrumentationKit.hasFieldCallbacks(new ChainedInstrumentation(executionOnly, SimplePerformantInstrumentation.INSTANCE))
+    }
+
+    def "instrumentations that implement field level methods have field callbacks"() {
+        def instrumentsDataFetchers = new SimplePerformantInstrumentation() {
+            @Override
+            DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+                return dataFetcher
+            }
+        }
+
+        expect:
+        InstrumentationKit.hasFieldCallbacks(instrumentsDataFetchers)
+        InstrumentationKit.hasFieldCallbacks(new ModernTestingInstrumentation())
+        InstrumentationKit.hasFieldCallbacks(new ChainedInstrumentation(SimplePerformantInstrumentation.INSTANCE, instrumentsDataFetchers))
+        InstrumentationKit.hasFieldCallbacks(new NoContextChainedInstrumentation([instrumentsDataFetchers]))
+    }
+}
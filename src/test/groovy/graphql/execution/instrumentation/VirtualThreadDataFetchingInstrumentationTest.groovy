@@ -0,0 +1,145 @@
+package graphql.execution.instrumentation
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters
+import graphql.schema.BatchedDataFetcher
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class VirtualThreadDataFetchingInstrumentationTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            blocking: String
+            other: String
+            item: Item
+        }
+        type Item {
+            name: String
+        }
+    '''
+
+    def "blocking data fetchers are run off the calling thread"() {
+        given:
+        def threads = new ConcurrentHashMap<String, Thread>()
+        def fetcher = { name, value ->
+            { env ->
+                threads.put(name, Thread.currentThread())
+                return value
+            } as DataFetcher
+        }
+        def schema = TestUtil.schema(sdl, [Query: [blocking: fetcher("blocking", "b"), other: fetcher("other", "o"), item: fetcher("item", [name: "n"])]])
+        def fallbackExecutor = Executors.newCachedThreadPool()
+        def instrumentation = VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation()
+                .fallbackExecutor(fallbackExecutor)
+                .shouldRunOnVirtualThread({ params -> params.getEnvironment().getField().getName() != "other" })
+                .build()
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        when:
+        def result = graphQL.execute("{ blocking other item { name } }")
+
+        then:
+        result.errors.isEmpty()
+        result.data == [blocking: "b", other: "o", item: [name: "n"]]
+        threads["blocking"] != Thread.currentThread()
+        threads["item"] != Thread.currentThread()
+        threads["other"] == Thread.currentThread()
+        instrumentation.isUsingVirtualThreads() == (Runtime.version().feature() >= 21)
+
+        cleanup:
+        fallbackExecutor.shutdownNow()
+    }
+
+    def "blocking data fetchers run concurrently"() {
+        given:
+        def latch = new CountDownLatch(2)
+        def blockingFetcher = { env ->
+            latch.countDown()
+            // both fetchers have to be running at the same time to get past here
+            return latch.await(5, TimeUnit.SECONDS) ? "done" : "timeout"
+        } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [blocking: blockingFetcher, other: blockingFetcher]])
+        def fallbackExecutor = Executors.newCachedThreadPool()
+        def instrumentation = VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation()
+                .fallbackExecutor(fallbackExecutor)
+                .shouldRunOnVirtualThread({ params -> true })
+                .build()
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        when:
+        def result = graphQL.execute("{ blocking other }")
+
+        then:
+        result.data == [blocking: "done", other: "done"]
+
+        cleanup:
+        fallbackExecutor.shutdownNow()
+    }
+
+    def "data fetchers do not start once the execution is cancelled"() {
+        given:
+        def calls = 0
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput("{ blocking }").build()
+        def blockingFetcher = { env ->
+            calls++
+            return "b"
+        } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [blocking: blockingFetcher]])
+        def instrumentation = VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation()
+                .shouldRunOnVirtualThread({ params ->
+                    // cancel after the engine has started fetching the field but before the data fetcher runs
+                    executionInput.cancel()
+                    return true
+                })
+                .build()
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        when:
+        def result = graphQL.execute(executionInput)
+
+        then:
+        calls == 0
+        result.errors.size() == 1
+        result.errors[0].message.contains("cancelled")
+    }
+
+    def "no data fetchers are run on virtual threads unless chosen"() {
+        given:
+        def threads = new ConcurrentHashMap<String, Thread>()
+        def blockingFetcher = { env ->
+            threads.put("blocking", Thread.currentThread())
+            return "b"
+        } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [blocking: blockingFetcher]])
+        def instrumentation = VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation().build()
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        when:
+        def result = graphQL.execute("{ blocking }")
+
+        then:
+        result.data == [blocking: "b"]
+        threads["blocking"] == Thread.currentThread()
+    }
+
+    def "batched data fetchers are never wrapped"() {
+        given:
+        def batchedFetcher = { environments -> CompletableFuture.completedFuture(["b"]) } as BatchedDataFetcher
+        def instrumentation = VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation()
+                .shouldRunOnVirtualThread({ params -> true })
+                .build()
+        def parameters = Mock(InstrumentationFieldFetchParameters)
+
+        expect:
+        instrumentation.instrumentDataFetcher(batchedFetcher, parameters, null).is(batchedFetcher)
+    }
+}
@@ -0,0 +1,134 @@
+package graphql.execution.instrumentation.dataloader
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BatchExecutionDataLoaderRegistryTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            user(id: ID) : User
+            users(ids: [ID]) : [User]
+            hello : String
+        }
+        type User {
+            id : ID
+            name : String
+            friends : [User]
+        }
+    '''
+
+    List<List<String>> userBatches = new CopyOnWriteArrayList<>()
+    List<List<String>> friendBatches = new CopyOnWriteArrayList<>()
+
+    BatchLoader<String, Map> userLoader = { ids ->
+        userBatches.add(ids)
+        CompletableFuture.completedFuture(ids.collect { [id: it, name: "name-" + it] })
+    }
+
+    BatchLoader<String, List> friendsLoader = { ids ->
+        friendBatches.add(ids)
+        CompletableFuture.completedFuture(ids.collect { [[id: it + "-friend", name: "friend of " + it]] })
+    }
+
+    GraphQL graphQL = {
+        def userFetcher = { env -> env.getDataLoader("users").load(env.getArgument("id")) } as DataFetcher
+        def usersFetcher = { env -> env.getDataLoader("users").loadMany(env.getArgument("ids")) } as DataFetcher
+        def friendsFetcher = { env -> env.getDataLoader("friends").load(env.source.id) } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [user: userFetcher, users: usersFetcher, hello: { env -> "world" } as DataFetcher],
+                                           User : [friends: friendsFetcher]])
+        GraphQL.newGraphQL(schema).build()
+    }()
+
+    DataLoaderRegistry registry() {
+        def registry = new DataLoaderRegistry()
+        registry.register("users", DataLoaderFactory.newDataLoader(userLoader))
+        registry.register("friends", DataLoaderFactory.newDataLoader(friendsLoader))
+        return registry
+    }
+
+    def "the loads of all the operations of a batch are dispatched together"() {
+        given:
+        def executionInputs = [
+                ExecutionInput.newExecutionInput('{ user(id: "1") { name } }').dataLoaderRegistry(registry()).build(),
+                ExecutionInput.newExecutionInput('{ users(ids: ["2", "3"]) { name } }').dataLoaderRegistry(registry()).build(),
+                ExecutionInput.newExecutionInput('{ user(id: "3") { id } }').dataLoaderRegistry(registry()).build(),
+        ]
+
+        when:
+        def results = graphQL.executeBatchAsync(executionInputs).join()
+
+        then:
+        results*.data == [
+                [user: [name: "name-1"]],
+                [users: [[name: "name-2"], [name: "name-3"]]],
+                [user: [id: "3"]],
+        ]
+        userBatches == [["1", "2", "3"]]
+    }
+
+    def "deeper loads of the operations are dispatched with each other"() {
+        given:
+        def sharedRegistry = registry()
+        def executionInputs = ["1", "2"].collect {
+            ExecutionInput.newExecutionInput('query q($id: ID) { user(id: $id) { friends { name } } }')
+                    .variables([id: it])
+                    .dataLoaderRegistry(sharedRegistry)
+                    .build()
+        }
+
+        when:
+        def results = graphQL.executeBatchAsync(executionInputs).join()
+
+        then:
+        results*.data == [
+                [user: [friends: [[name: "friend of 1"]]]],
+                [user: [friends: [[name: "friend of 2"]]]],
+        ]
+        userBatches == [["1", "2"]]
+        friendBatches == [["1", "2"]]
+    }
+
+    def "operations without data loaders and failed operations are executed too"() {
+        given:
+        def executionInputs = [
+                ExecutionInput.newExecutionInput('{ hello }').build(),
+                ExecutionInput.newExecutionInput('{ unknown }').build(),
+        ]
+
+        when:
+        def results = graphQL.executeBatchAsync(executionInputs).join()
+
+        then:
+        results[0].data == [hello: "world"]
+        results[1].errors.size() == 1
+    }
+
+    def "registries are combined by data loader name"() {
+        given:
+        def first = registry()
+        def second = new DataLoaderRegistry()
+        second.register("users", DataLoaderFactory.newDataLoader(userLoader))
+        second.register("other", DataLoaderFactory.newDataLoader(userLoader))
+
+        when:
+        def combined = BatchExecutionDataLoaderRegistry.combine([
+                ExecutionInput.newExecutionInput("{ hello }").dataLoaderRegistry(first).build(),
+                ExecutionInput.newExecutionInput("{ hello }").dataLoaderRegistry(second).build(),
+        ])
+
+        then:
+        combined.getKeys() == ["users", "friends", "other"] as Set
+        combined.getDataLoader("users") == first.getDataLoader("users")
+        BatchExecutionDataLoaderRegistry.combine([ExecutionInput.newExecutionInput("{ hello }").build()]) == EmptyDataLoaderRegistryInstance.EMPTY_DATALOADER_REGISTRY
+    }
+}
@@ -0,0 +1,145 @@
+package graphql.execution.instrumentation.dataloader
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CopyOnWriteArrayList
+
+class CoalescingBatchLoaderTest extends Specification {
+
+    List<List<String>> backendBatches = new CopyOnWriteArrayList<>()
+
+    BatchLoader<String, Object> backend = { keys ->
+        backendBatches.add(keys)
+        CompletableFuture.completedFuture(keys.collect { it == "bad" ? new RuntimeException("bad key") : "value-" + it })
+    }
+
+    // long enough for all the loads to be dispatched before it passes, even on a busy machine
+    def window = Duration.ofMillis(500)
+
+    def "the keys of several data loaders are loaded in one backend batch"() {
+        given:
+        def coalescingLoader = CoalescingBatchLoader.newCoalescingBatchLoader(backend).window(window).build()
+        DataLoader<String, Object> loader1 = DataLoaderFactory.newDataLoader(coalescingLoader)
+        DataLoader<String, Object> loader2 = DataLoaderFactory.newDataLoader(coalescingLoader)
+
+        when:
+        def a = loader1.load("a")
+        def b1 = loader1.load("b")
+        def b2 = loader2.load("b")
+        def c = loader2.load("c")
+        loader1.dispatch()
+        loader2.dispatch()
+
+        then:
+        a.join() == "value-a"
+        b1.join() == "value-b"
+        b2.join() == "value-b"
+        c.join() == "value-c"
+        backendBatches == [["a", "b", "c"]]
+    }
+
+    def "a failed key only fails the loads of that key"() {
+        given:
+        def coalescingLoader = CoalescingBatchLoader.newCoalescingBatchLoader(backend).window(window).build()
+        DataLoader<String, Object> loader1 = DataLoaderFactory.newDataLoader(coalescingLoader)
+        DataLoader<String, Object> loader2 = DataLoaderFactory.newDataLoader(coalescingLoader)
+
+        when:
+        def good = loader1.load("good")
+        def bad = loader2.load("bad")
+        loader1.dispatch()
+        loader2.dispatch()
+        good.join()
+        bad.join()
+
+        then:
+        good.join() == "value-good"
+        def e = thrown(CompletionException)
+        e.cause.message == "bad key"
+        backendBatches.size() == 1
+    }
+
+    def "a failed backend batch fails the loads of all data loaders"() {
+        given:
+        BatchLoader<String, String> failingBackend = { keys -> CompletableFuture.failedFuture(new RuntimeException("backend down")) }
+        def coalescingLoader = CoalescingBatchLoader.newCoalescingBatchLoader(failingBackend).window(window).build()
+        DataLoader<String, String> loader1 = DataLoaderFactory.newDataLoader(coalescingLoader)
+        DataLoader<String, String> loader2 = DataLoaderFactory.newDataLoader(coalescingLoader)
+
+        when:
+        def a = loader1.load("a")
+        def b = loader2.load("b")
+        loader1.dispatch()
+        loader2.dispatch()
+
+        then:
+        [a, b].every { cf ->
+            cf.handle { v, t -> t }.join().message.contains("backend down")
+        }
+    }
+
+    def "the backend is called without waiting for the window when the batch is full"() {
+        given:
+        def coalescingLoader = CoalescingBatchLoader.newCoalescingBatchLoader(backend).window(Duration.ofHours(1)).maxBatchSize(3).build()
+        DataLoader<String, Object> loader1 = DataLoaderFactory.newDataLoader(coalescingLoader)
+        DataLoader<String, Object> loader2 = DataLoaderFactory.newDataLoader(coalescingLoader)
+
+        when:
+        def a = loader1.load("a")
+        def b = loader1.load("b")
+        def c = loader2.load("c")
+        loader1.dispatch()
+        loader2.dispatch()
+
+        then:
+        [a, b, c]*.join() == ["value-a", "value-b", "value-c"]
+        backendBatches == [["a", "b", "c"]]
+    }
+
+    def "the loads of concurrent executions are coalesced"() {
+        given:
+        def sdl = '''
+            type Query {
+                items: [Item]
+            }
+            type Item {
+                id: ID
+                name: String
+            }
+        '''
+        def coalescingLoader = CoalescingBatchLoader.newCoalescingBatchLoader(backend).window(window).build()
+        def itemsFetcher = { env -> env.graphQlContext.get("ids").collect { [id: it] } } as DataFetcher
+        def nameFetcher = { env -> env.getDataLoader("names").load(env.source.id) } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [items: itemsFetcher], Item: [name: nameFetcher]])
+        def graphQL = GraphQL.newGraphQL(schema).build()
+
+        def executionInput = { List<String> ids ->
+            def registry = new DataLoaderRegistry()
+            registry.register("names", DataLoaderFactory.newDataLoader(coalescingLoader))
+            ExecutionInput.newExecutionInput("{ items { id name } }")
+                    .dataLoaderRegistry(registry)
+                    .graphQLContext([ids: ids])
+                    .build()
+        }
+
+        when:
+        def er1 = graphQL.executeAsync(executionInput(["1", "2"]))
+        def er2 = graphQL.executeAsync(executionInput(["2", "3"]))
+
+        then:
+        er1.join().data == [items: [[id: "1", name: "value-1"], [id: "2", name: "value-2"]]]
+        er2.join().data == [items: [[id: "2", name: "value-2"], [id: "3", name: "value-3"]]]
+        backendBatches == [["1", "2", "3"]]
+    }
+}
@@ -95,7 +95,6 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
     def "markLevelAsDispatchedIfReady returns false when level already dispatched"() {
         given:
         def callStack = strategy.initialCallStack
-        def dispatchedLevels = callStack.dispatchedLevels
 
         and: "set up level 0 via executionStrategy and dispatch level 1 via fieldFetched"
         def rootParams = paramsAtLevel(0)
@@ -107,18 +106,17 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
                 { -> null } as Supplier<DataFetchingEnvironment>)
 
         and: "make isLevelReady(2) return true by matching completionFinished to executeObjectCalls at level 0"
-        def state0 = callStack.get(0)
-        callStack.tryUpdateLevel(0, state0, state0.increaseHappenedCompletionFinishedCount())
+        callStack.increaseHappenedCompletionFinishedCount(0)
 
         expect:
-        dispatchedLevels.contains(1)
+        callStack.isDispatched(1)
 
         when: "first dispatch of level 2"
         def firstResult = strategy.markLevelAsDispatchedIfReady(2, callStack)
 
         then:
         firstResult
-        dispatchedLevels.contains(2)
+        callStack.isDispatched(2)
 
         when: "second dispatch of level 2 (simulates another thread arriving late)"
         def secondResult = strategy.markLevelAsDispatchedIfReady(2, callStack)
@@ -159,7 +157,7 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
         executor.awaitTermination(5, TimeUnit.SECONDS)
 
         then: "level 2 is dispatched exactly once (regardless of which thread won)"
-        strategy.initialCallStack.dispatchedLevels.contains(2)
+        strategy.initialCallStack.isDispatched(2)
     }
 
     def "executeObjectOnFieldValuesException calls onCompletionFinished"() {
@@ -180,7 +178,7 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
                 new RuntimeException("test error"), level2Params)
 
         then:
-        strategy.initialCallStack.get(2).happenedCompletionFinishedCount > 0
+        PerLevelDataLoaderDispatchStrategy.CallStack.getHappenedCompletionFinishedCount(strategy.initialCallStack.get(2)) > 0
     }
 
     def "executionStrategyOnFieldValuesException calls onCompletionFinished"() {
@@ -193,7 +191,7 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
                 new RuntimeException("test error"), rootParams)
 
         then:
-        strategy.initialCallStack.get(0).happenedCompletionFinishedCount > 0
+        PerLevelDataLoaderDispatchStrategy.CallStack.getHappenedCompletionFinishedCount(strategy.initialCallStack.get(0)) > 0
     }
 
     private Map alternativeCallContextMap() {
@@ -201,4 +199,32 @@ class PerLevelDataLoaderDispatchStrategyTest extends Specification {
         field.accessible = true
         field.get(strategy) as Map
     }
+
+    def "level states are packed and grow past the first chunk of levels"() {
+        given:
+        def callStack = new PerLevelDataLoaderDispatchStrategy.CallStack()
+
+        when:
+        callStack.increaseHappenedExecuteObjectCalls(40)
+        callStack.increaseHappenedExecuteObjectCalls(40)
+        callStack.increaseHappenedCompletionFinishedCount(40)
+        def firstMark = callStack.markDispatched(40)
+        def secondMark = callStack.markDispatched(40)
+        def state = callStack.get(40)
+
+        then:
+        PerLevelDataLoaderDispatchStrategy.CallStack.getHappenedExecuteObjectCalls(state) == 2
+        PerLevelDataLoaderDispatchStrategy.CallStack.getHappenedCompletionFinishedCount(state) == 1
+        PerLevelDataLoaderDispatchStrategy.CallStack.isDispatched(state)
+        firstMark
+        !secondMark
+        callStack.get(3) == 0L
+        !callStack.isDispatched(39)
+
+        when:
+        callStack.clear()
+
+        then:
+        callStack.get(40) == 0L
+    }
 }
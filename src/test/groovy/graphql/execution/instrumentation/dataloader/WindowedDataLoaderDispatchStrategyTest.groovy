@@ -0,0 +1,120 @@
+package graphql.execution.instrumentation.dataloader
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.GraphQLException
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+
+class WindowedDataLoaderDispatchStrategyTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            items: [Item]
+        }
+        type Item {
+            id: ID
+            name: String
+        }
+    '''
+
+    List<List<String>> batches = new CopyOnWriteArrayList<>()
+
+    // long enough for all the items to be fetched before it passes, even on a busy machine
+    def window = Duration.ofMillis(500)
+
+    GraphQL graphQL(DataFetcher nameFetcher) {
+        def itemsFetcher = { env -> (1..5).collect { [id: "id" + it] } } as DataFetcher
+        def schema = TestUtil.schema(sdl, [Query: [items: itemsFetcher], Item: [name: nameFetcher]])
+        return GraphQL.newGraphQL(schema).build()
+    }
+
+    DataLoaderRegistry dataLoaderRegistry() {
+        BatchLoader<String, String> batchLoader = { keys ->
+            batches.add(keys)
+            CompletableFuture.completedFuture(keys.collect { "name-" + it })
+        }
+        def registry = new DataLoaderRegistry()
+        registry.register("names", DataLoaderFactory.newDataLoader(batchLoader))
+        return registry
+    }
+
+    ExecutionInput executionInput(Duration window, int batchSize) {
+        def executionInput = ExecutionInput.newExecutionInput("{ items { id name } }")
+                .dataLoaderRegistry(dataLoaderRegistry())
+                .build()
+        GraphQL.unusualConfiguration(executionInput).dataloaderConfig().enableDataLoaderWindowedDispatching(window, batchSize)
+        return executionInput
+    }
+
+    def expectedData = [items: (1..5).collect { [id: "id" + it, name: "name-id" + it] }]
+
+    def "loads are dispatched together when the window passes"() {
+        def nameFetcher = { env -> env.getDataLoader("names").load(env.getSource().id) } as DataFetcher
+
+        when:
+        def result = graphQL(nameFetcher).execute(executionInput(window, 100))
+
+        then:
+        result.errors.isEmpty()
+        result.data == expectedData
+        batches == [["id1", "id2", "id3", "id4", "id5"]]
+    }
+
+    def "data loaders are dispatched as soon as the batch is full"() {
+        def nameFetcher = { env -> env.getDataLoader("names").load(env.getSource().id) } as DataFetcher
+
+        when:
+        def result = graphQL(nameFetcher).execute(executionInput(window, 2))
+
+        then:
+        result.errors.isEmpty()
+        result.data == expectedData
+        batches == [["id1", "id2"], ["id3", "id4"], ["id5"]]
+    }
+
+    def "loads made via the data loader registry are noticed by the returned future"() {
+        def nameFetcher = { env -> env.getDataLoaderRegistry().getDataLoader("names").load(env.getSource().id) } as DataFetcher
+
+        when:
+        def result = graphQL(nameFetcher).execute(executionInput(window, 100))
+
+        then:
+        result.errors.isEmpty()
+        result.data == expectedData
+        batches == [["id1", "id2", "id3", "id4", "id5"]]
+    }
+
+    def "windowed dispatching can not be combined with chaining"() {
+        def nameFetcher = { env -> env.getDataLoader("names").load(env.getSource().id) } as DataFetcher
+        def executionInput = executionInput(window, 100)
+        GraphQL.unusualConfiguration(executionInput).dataloaderConfig().enableDataLoaderChaining(true)
+
+        when:
+        graphQL(nameFetcher).execute(executionInput)
+
+        then:
+        thrown(GraphQLException)
+    }
+
+    def "windowed dispatching can not be combined with exhausted dispatching"() {
+        def nameFetcher = { env -> env.getDataLoader("names").load(env.getSource().id) } as DataFetcher
+        def executionInput = executionInput(window, 100)
+        // set directly, past the checks of the data loader configuration
+        DataLoaderDispatchingContextKeys.setEnableDataLoaderExhaustedDispatching(executionInput.getGraphQLContext(), true)
+
+        when:
+        graphQL(nameFetcher).execute(executionInput)
+
+        then:
+        thrown(GraphQLException)
+    }
+}
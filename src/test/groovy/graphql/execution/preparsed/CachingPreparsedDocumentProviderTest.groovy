@@ -0,0 +1,217 @@
+package graphql.execution.preparsed
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.StarWarsSchema
+import graphql.TestUtil
+import graphql.language.Document
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+import static graphql.ExecutionInput.newExecutionInput
+
+class CachingPreparsedDocumentProviderTest extends Specification {
+
+    def schema = TestUtil.schema("type Query { hello : String }")
+
+    static Function<ExecutionInput, PreparsedDocumentEntry> countingFunction(AtomicInteger counter) {
+        return { ExecutionInput input ->
+            counter.incrementAndGet()
+            return new PreparsedDocumentEntry(Document.newDocument().build())
+        }
+    }
+
+    def "caches documents by query and operation name"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build()
+        def counter = new AtomicInteger()
+        def function = countingFunction(counter)
+
+        when:
+        def entry1 = provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, function).join()
+        def entry2 = provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, function).join()
+        def entry3 = provider.getDocumentAsync(newExecutionInput("{hello}").operationName("Other").build(), schema, function).join()
+
+        then:
+        entry1.is(entry2)
+        !entry1.is(entry3)
+        counter.get() == 2
+
+        def stats = provider.getStats()
+        stats.hitCount == 1
+        stats.missCount == 2
+        stats.loadCount == 2
+        stats.size == 2
+    }
+
+    def "evicts least recently used entries when the size bound is exceeded"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().maximumSize(2).build()
+        def counter = new AtomicInteger()
+        def function = countingFunction(counter)
+
+        when:
+        provider.getDocumentAsync(newExecutionInput("{a}").build(), schema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{b}").build(), schema, function).join()
+        // touch a so that b becomes the least recently used
+        provider.getDocumentAsync(newExecutionInput("{a}").build(), schema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{c}").build(), schema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{a}").build(), schema, function).join()
+
+        then:
+        counter.get() == 3
+        provider.getStats().evictionCount == 1
+        provider.getStats().size == 2
+
+        when:
+        provider.getDocumentAsync(newExecutionInput("{b}").build(), schema, function).join()
+
+        then:
+        counter.get() == 4
+    }
+
+    def "evicts entries when the weight bound is exceeded"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider()
+                .maximumWeight(10)
+                .weigher({ query, entry -> query.length() })
+                .build()
+        def function = countingFunction(new AtomicInteger())
+
+        when:
+        provider.getDocumentAsync(newExecutionInput("{aaaa}").build(), schema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{bbbb}").build(), schema, function).join()
+
+        then:
+        provider.getStats().size == 1
+        provider.getStats().weight == 6
+        provider.getStats().evictionCount == 1
+    }
+
+    def "a new schema instance invalidates the cache"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build()
+        def otherSchema = TestUtil.schema("type Query { hello : String }")
+        def counter = new AtomicInteger()
+        def function = countingFunction(counter)
+
+        when:
+        provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{hello}").build(), otherSchema, function).join()
+        provider.getDocumentAsync(newExecutionInput("{hello}").build(), otherSchema, function).join()
+
+        then:
+        counter.get() == 2
+        provider.getStats().invalidationCount == 1
+        provider.getStats().size == 1
+    }
+
+    def "concurrent requests for the same query only load once"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build()
+        def counter = new AtomicInteger()
+        def loadStarted = new CountDownLatch(1)
+        def releaseLoad = new CountDownLatch(1)
+        Function<ExecutionInput, PreparsedDocumentEntry> slowFunction = { ExecutionInput input ->
+            counter.incrementAndGet()
+            loadStarted.countDown()
+            releaseLoad.await(5, TimeUnit.SECONDS)
+            return new PreparsedDocumentEntry(Document.newDocument().build())
+        }
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def first = CompletableFuture.supplyAsync({
+            provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, slowFunction).join()
+        }, executor)
+        loadStarted.await(5, TimeUnit.SECONDS)
+        def waiters = (1..10).collect {
+            provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, slowFunction)
+        }
+        releaseLoad.countDown()
+        def firstEntry = first.join()
+
+        then:
+        waiters.every { it.join().is(firstEntry) }
+        counter.get() == 1
+        provider.getStats().missCount == 1
+        provider.getStats().hitCount == 10
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "failed loads are not cached"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build()
+        def counter = new AtomicInteger()
+        Function<ExecutionInput, PreparsedDocumentEntry> failingFunction = { ExecutionInput input ->
+            counter.incrementAndGet()
+            throw new RuntimeException("bang")
+        }
+
+        when:
+        def result1 = provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, failingFunction)
+        def result2 = provider.getDocumentAsync(newExecutionInput("{hello}").build(), schema, failingFunction)
+
+        then:
+        result1.isCompletedExceptionally()
+        result2.isCompletedExceptionally()
+        counter.get() == 2
+        provider.getStats().loadFailureCount == 2
+        provider.getStats().size == 0
+    }
+
+    def "works end to end with GraphQL"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build()
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .preparsedDocumentProvider(provider)
+                .build()
+
+        when:
+        def result1 = graphQL.execute("{ hero { name } }")
+        def result2 = graphQL.execute("{ hero { name } }")
+        def result3 = graphQL.execute("{ heroXXX { name } }")
+        def result4 = graphQL.execute("{ heroXXX { name } }")
+
+        then:
+        result1.data == [hero: [name: "R2-D2"]]
+        result2.data == result1.data
+        result3.errors.size() == 1
+        result4.errors == result3.errors
+        provider.getStats().hitCount == 2
+        provider.getStats().missCount == 2
+    }
+
+    def "cached documents can be made lean"() {
+        given:
+        def provider = CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().compactDocuments(true).build()
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .preparsedDocumentProvider(provider)
+                .build()
+        def query = """
+            # a comment
+            { hero { name } }
+        """
+
+        when:
+        def result1 = graphQL.execute(query)
+        def result2 = graphQL.execute(query)
+        def entry = provider.getDocumentAsync(newExecutionInput(query).build(), StarWarsSchema.starWarsSchema, { throw new IllegalStateException() }).join()
+
+        then:
+        result1.data == [hero: [name: "R2-D2"]]
+        result2.data == result1.data
+        def operation = entry.document.definitions[0]
+        operation.sourceLocation == null
+        operation.comments.isEmpty()
+        operation.selectionSet.selections[0].sourceLocation == null
+    }
+}
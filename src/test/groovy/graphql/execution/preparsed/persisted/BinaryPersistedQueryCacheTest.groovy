@@ -0,0 +1,191 @@
+package graphql.execution.preparsed.persisted
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.instrumentation.InstrumentationContext
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimpleInstrumentationContext
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters
+import graphql.execution.preparsed.PreparsedDocumentEntry
+import graphql.language.AstBinaryCodec
+import graphql.language.Document
+import graphql.parser.Parser
+import graphql.schema.DataFetcher
+import graphql.validation.ValidationError
+import spock.lang.Specification
+
+import static graphql.language.AstPrinter.printAstCompact
+
+class BinaryPersistedQueryCacheTest extends Specification {
+
+    def mkEI(String hash, String query) {
+        ExecutionInput.newExecutionInput().query(query).extensions([persistedQuery: [sha256Hash: hash, version: 1]]).build()
+    }
+
+    def missCount = 0
+    def documentMissCount = 0
+
+    PersistedQueryCacheMiss onMiss = new PersistedQueryCacheMiss() {
+        @Override
+        PreparsedDocumentEntry apply(String query) {
+            missCount++
+            def doc = new Parser().parseDocument(query)
+            return new PreparsedDocumentEntry(doc)
+        }
+
+        @Override
+        PreparsedDocumentEntry apply(Document document) {
+            documentMissCount++
+            return new PreparsedDocumentEntry(document)
+        }
+    }
+
+    def "documents are parsed once and then reused"() {
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().build()
+        def ei = mkEI("hash", "query { oneTwoThree(arg: 1) }")
+
+        when:
+        def first = cache.getPersistedQueryDocumentAsync("hash", ei, onMiss).join()
+        def second = cache.getPersistedQueryDocumentAsync("hash", ei, onMiss).join()
+
+        then:
+        missCount == 1
+        printAstCompact(first.document) == "{oneTwoThree(arg:1)}"
+        printAstCompact(second.document) == "{oneTwoThree(arg:1)}"
+        second.is(first)
+        cache.encodedDocuments.keySet() == ["hash"] as Set
+    }
+
+    def "uses the known queries when the execution input has the APQ marker"() {
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache()
+                .addQuery("hash", "{foo bar baz}")
+                .build()
+
+        when:
+        def entry = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), onMiss).join()
+
+        then:
+        printAstCompact(entry.document) == "{foo bar baz}"
+    }
+
+    def "unknown queries are not found"() {
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().build()
+
+        when:
+        cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), onMiss)
+
+        then:
+        thrown(PersistedQueryNotFound)
+    }
+
+    def "a cache can be started from encoded documents which are handed to the engine without their query text"() {
+        def encoded = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().build().with {
+            getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), onMiss).join()
+            encodedDocuments
+        }
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache()
+                .addEncodedDocument("hash", encoded["hash"])
+                .build()
+        def schema = TestUtil.schema("type Query { hello : String }")
+
+        when:
+        def entry = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), schema, onMiss).join()
+        def again = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), schema, onMiss).join()
+
+        then:
+        missCount == 1
+        documentMissCount == 1
+        !entry.hasErrors()
+        printAstCompact(entry.document) == "{hello}"
+        // the entry is kept, so its execution plans are shared
+        again.is(entry)
+
+        when: "a new schema is seen"
+        cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), TestUtil.schema("type Query { hello : String }"), onMiss).join()
+
+        then:
+        missCount == 1
+        documentMissCount == 2
+    }
+
+    def "encoded documents are validated by the graphql engine against the current schema"() {
+        given:
+        def encoded = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().build().with {
+            getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), onMiss).join()
+            encodedDocuments
+        }
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache()
+                .addEncodedDocument("hash", encoded["hash"])
+                .build()
+        def parses = 0
+        def validations = []
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters, InstrumentationState state) {
+                parses++
+                return SimpleInstrumentationContext.noOp()
+            }
+
+            @Override
+            InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters, InstrumentationState state) {
+                validations.add(printAstCompact(parameters.document))
+                return SimpleInstrumentationContext.noOp()
+            }
+        }
+        def graphQL = { schema ->
+            GraphQL.newGraphQL(schema).instrumentation(instrumentation).preparsedDocumentProvider(new ApolloPersistedQuerySupport(cache)).build()
+        }
+        def input = mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER)
+
+        when:
+        def er = graphQL(TestUtil.schema("type Query { hello : String }", [Query: [hello: { env -> "world" } as DataFetcher]])).execute(input)
+
+        then:
+        er.errors.isEmpty()
+        er.data == [hello: "world"]
+        validations == ["{hello}"]
+        // the parse instrumentation is called with the decoded document, which is not parsed again
+        parses == 1
+
+        when: "the schema no longer has the field"
+        er = graphQL(TestUtil.schema("type Query { goodbye : String }")).execute(input)
+
+        then:
+        er.errors.size() == 1
+        er.errors[0] instanceof ValidationError
+        validations == ["{hello}", "{hello}"]
+    }
+
+    def "entries parsed by the engine are kept"() {
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().build()
+        def schema = TestUtil.schema("type Query { hello : String }")
+
+        when:
+        def first = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), schema, onMiss).join()
+        def second = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), schema, onMiss).join()
+
+        then:
+        missCount == 1
+        second.is(first)
+    }
+
+    def "documents with errors are not cached"() {
+        def cache = BinaryPersistedQueryCache.newBinaryPersistedQueryCache().includeSourceLocations(false).build()
+        PersistedQueryCacheMiss failingMiss = { String query ->
+            missCount++
+            new PreparsedDocumentEntry(ValidationError.newValidationError().description("bad").build())
+        }
+
+        when:
+        cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), failingMiss).join()
+        def entry = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ hello }"), failingMiss).join()
+
+        then:
+        missCount == 2
+        entry.hasErrors()
+        cache.encodedDocuments.isEmpty()
+    }
+}
@@ -0,0 +1,178 @@
+package graphql.execution.result
+
+import graphql.ExecutionInput
+import graphql.ExecutionResult
+import graphql.GraphQL
+import graphql.GraphqlErrorBuilder
+import graphql.StarWarsSchema
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import graphql.schema.GraphQLSchema
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CompletableFuture
+
+class ResultWriterTest extends Specification {
+
+    static String toJson(ExecutionResult executionResult) {
+        def writer = new StringWriter()
+        ResultWriter.write(executionResult, JsonResultSink.newJsonResultSink(writer))
+        return writer.toString()
+    }
+
+    def "writes results in specification order"() {
+        def executionResult = ExecutionResult.newExecutionResult()
+                .data([hero: [name: "R2-D2", friends: [[name: "Luke"], [name: "Han"]], age: 33, tall: false, nothing: null]])
+                .addError(GraphqlErrorBuilder.newError().message("bang").build())
+                .extensions([cost: 1.5d])
+                .build()
+
+        when:
+        def json = toJson(executionResult)
+
+        then:
+        json == '{"errors":[{"message":"bang","locations":[],"extensions":{"classification":"DataFetchingException"}}],' +
+                '"data":{"hero":{"name":"R2-D2","friends":[{"name":"Luke"},{"name":"Han"}],"age":33,"tall":false,"nothing":null}},' +
+                '"extensions":{"cost":1.5}}'
+    }
+
+    def "data is omitted when not present and null when present but null"() {
+        expect:
+        toJson(ExecutionResult.newExecutionResult().addError(GraphqlErrorBuilder.newError().message("bang").build()).build()).indexOf('"data"') == -1
+        toJson(ExecutionResult.newExecutionResult().data(null).build()) == '{"data":null}'
+    }
+
+    def "escapes strings"() {
+        def value = 'quote " backslash \\ newline \n tab \t control \u0001 unicode é'
+
+        when:
+        def json = toJson(ExecutionResult.newExecutionResult().data([value: value]).build())
+
+        then:
+        json == '{"data":{"value":"quote \\" backslash \\\\ newline \\n tab \\t control \\u0001 unicode é"}}'
+        new JsonSlurper().parseText(json) == [data: [value: value]]
+    }
+
+    def "leaf values that are not json types are written as strings"() {
+        expect:
+        toJson(ExecutionResult.newExecutionResult().data([a: Double.NaN, b: new BigDecimal("1.10"), c: Locale.CANADA, d: [1, 2] as Integer[]]).build()) ==
+                '{"data":{"a":"NaN","b":1.10,"c":"en_CA","d":[1,2]}}'
+    }
+
+    def "writes the same json as a json library for an executed query"() {
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).build()
+        def executionResult = graphQL.execute("{ hero { name friends { name appearsIn } } humanX: human(id: \"1000\") { name homePlanet } }")
+        def outputStream = new ByteArrayOutputStream()
+
+        when:
+        ResultWriter.write(executionResult, JsonResultSink.newJsonResultSink(outputStream))
+
+        then:
+        new String(outputStream.toByteArray(), StandardCharsets.UTF_8) == JsonOutput.toJson(executionResult.toSpecification())
+    }
+
+    def "execute writes the elements of a root list as they complete"() {
+        given:
+        def names = [new CompletableFuture<String>(), new CompletableFuture<String>()]
+        def graphQL = GraphQL.newGraphQL(itemsSchema("[Item]", names)).build()
+        def writer = new StringWriter()
+
+        when:
+        def result = ResultWriter.execute(graphQL, ExecutionInput.newExecutionInput("{ items { name } other }").build(), JsonResultSink.newJsonResultSink(writer))
+        names[0].complete("a")
+
+        then:
+        writer.toString() == '{"data":{"items":[{"name":"a"}'
+        !result.isDone()
+
+        when:
+        names[1].complete("b")
+
+        then:
+        writer.toString() == '{"data":{"items":[{"name":"a"},{"name":"b"}],"other":"x"}}'
+        // the written values are not kept
+        result.join().data == [items: null, other: null]
+    }
+
+    def "execute writes a root field once the fields before it have been written"() {
+        given:
+        def names = [new CompletableFuture<String>()]
+        def graphQL = GraphQL.newGraphQL(itemsSchema("[Item]", names)).build()
+        def writer = new StringWriter()
+
+        when:
+        def result = ResultWriter.execute(graphQL, ExecutionInput.newExecutionInput("{ first: items { name } other }").build(), JsonResultSink.newJsonResultSink(writer))
+
+        then:
+        writer.toString() == '{"data":{"first":['
+
+        when:
+        names[0].complete("a")
+
+        then:
+        writer.toString() == '{"data":{"first":[{"name":"a"}],"other":"x"}}'
+        result.join().errors.isEmpty()
+    }
+
+    def "execute only writes values that null bubbling can no longer reach"() {
+        given:
+        def names = [new CompletableFuture<String>(), new CompletableFuture<String>()]
+        def graphQL = GraphQL.newGraphQL(itemsSchema(listType, names)).build()
+        def writer = new StringWriter()
+
+        when:
+        def result = ResultWriter.execute(graphQL, ExecutionInput.newExecutionInput("{ items { name } other }").build(), JsonResultSink.newJsonResultSink(writer))
+        names[0].complete("a")
+
+        then:
+        writer.toString() == ""
+
+        when:
+        names[1].complete("b")
+
+        then:
+        writer.toString() == '{"data":{"items":[{"name":"a"},{"name":"b"}],"other":"x"}}'
+        result.join().data == data
+
+        where:
+        listType  | data
+        // a null root field would make the data null
+        "[Item]!" | [items: [[name: "a"], [name: "b"]], other: "x"]
+        // a null element would make the list null, so the list is written once it has completed
+        "[Item!]" | [items: null, other: null]
+    }
+
+    def "execute writes the errors after the streamed data"() {
+        given:
+        def names = [new CompletableFuture<String>()]
+        def graphQL = GraphQL.newGraphQL(itemsSchema("[Item]", names)).build()
+        def writer = new StringWriter()
+
+        when:
+        def result = ResultWriter.execute(graphQL, ExecutionInput.newExecutionInput("{ items { name } }").build(), JsonResultSink.newJsonResultSink(writer))
+        names[0].completeExceptionally(new RuntimeException("bang"))
+
+        then:
+        def json = new JsonSlurper().parseText(writer.toString())
+        json.data == [items: [[name: null]]]
+        json.errors.size() == 1
+        json.errors[0].path == ["items", 0, "name"]
+        result.join().errors.size() == 1
+    }
+
+    static GraphQLSchema itemsSchema(String listType, List<CompletableFuture<String>> names) {
+        TestUtil.schema("""
+            type Query {
+                items : $listType
+                other : String
+            }
+            type Item {
+                name : String
+            }
+        """, [Query: [items: { env -> (0..<names.size()).toList() } as DataFetcher, other: { env -> "x" } as DataFetcher],
+              Item : [name: { env -> names[env.source as int] } as DataFetcher]])
+    }
+}
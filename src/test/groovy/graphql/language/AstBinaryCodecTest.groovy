@@ -0,0 +1,117 @@
+package graphql.language
+
+import graphql.AssertException
+import graphql.parser.Parser
+import graphql.parser.ParserEnvironment
+import graphql.parser.ParserOptions
+import spock.lang.Specification
+
+class AstBinaryCodecTest extends Specification {
+
+    def query = '''
+        "operation description"
+        query HeroName($episode: Episode = JEDI, $ids: [ID!]! = ["1", "2"], $f: Float = -1.5e10) @live {
+            hero(episode: $episode, big: 123456789012345678901234567890, small: -42) {
+                name
+                alias: friends @include(if: true) { name }
+                ... on Droid { primaryFunction }
+                ... @skip(if: false) { id }
+                ...heroFields
+            }
+            search(input: {text: "é😀 \\"quoted\\"", tags: [], nothing: null, nested: {deep: [1, [2, 3]]}})
+        }
+
+        fragment heroFields on Character @dir(arg: on) { name }
+        mutation { createReview(stars: 5) { stars } }
+        subscription { commentAdded { id } }
+    '''
+
+    void assertSameAst(Node expected, Node actual, boolean withSourceLocations) {
+        assert actual.getClass() == expected.getClass()
+        assert actual.isEqualTo(expected)
+        if (withSourceLocations) {
+            assert actual.sourceLocation == expected.sourceLocation
+        } else {
+            assert actual.sourceLocation == null
+        }
+        if (expected.hasProperty("description")) {
+            assert actual.description?.content == expected.description?.content
+            assert actual.description?.multiLine == expected.description?.multiLine
+        }
+        def expectedChildren = expected.children
+        def actualChildren = actual.children
+        assert actualChildren.size() == expectedChildren.size()
+        for (int i = 0; i < expectedChildren.size(); i++) {
+            assertSameAst(expectedChildren[i], actualChildren[i], withSourceLocations)
+        }
+    }
+
+    def "documents round trip"() {
+        def document = Parser.parse(query)
+
+        when:
+        def decoded = AstBinaryCodec.decode(AstBinaryCodec.encode(document, withSourceLocations))
+
+        then:
+        assertSameAst(document, decoded, withSourceLocations)
+        AstPrinter.printAst(decoded) == AstPrinter.printAst(document)
+
+        where:
+        withSourceLocations << [true, false]
+    }
+
+    def "source names and empty source locations round trip"() {
+        def document = Parser.parse(ParserEnvironment.newParserEnvironment()
+                .document("query a { field(arg: 1) }")
+                .parserOptions(ParserOptions.newParserOptions().captureSourceLocation(sourceLocations).build())
+                .build())
+
+        when:
+        def decoded = AstBinaryCodec.decode(AstBinaryCodec.encode(document, true))
+
+        then:
+        assertSameAst(document, decoded, true)
+
+        where:
+        sourceLocations << [true, false]
+    }
+
+    def "names are only written once"() {
+        def once = AstBinaryCodec.encode(Parser.parse("{ someLongFieldName }"))
+        def many = AstBinaryCodec.encode(Parser.parse("{ someLongFieldName someLongFieldName someLongFieldName }"))
+
+        expect:
+        many.length < once.length + 2 * "someLongFieldName".length()
+    }
+
+    def "the encoding is smaller than the query text"() {
+        expect:
+        AstBinaryCodec.encode(Parser.parse(query)).length < query.length()
+    }
+
+    def "type system definitions can not be encoded"() {
+        when:
+        AstBinaryCodec.encode(Parser.parse("type Query { f : String }"))
+
+        then:
+        thrown(AssertException)
+    }
+
+    def "bytes that are not an encoded document are rejected"() {
+        def encoded = AstBinaryCodec.encode(Parser.parse(query))
+
+        when:
+        AstBinaryCodec.decode(bytes.call(encoded) as byte[])
+
+        then:
+        thrown(AssertException)
+
+        where:
+        bytes << [
+                { byte[] encoded -> [] },
+                { byte[] encoded -> "{ f }".bytes },
+                { byte[] encoded -> Arrays.copyOf(encoded, encoded.length - 3) },
+                { byte[] encoded -> Arrays.copyOf(encoded, encoded.length + 1) },
+        ]
+    }
+}
@@ -0,0 +1,65 @@
+package graphql.language
+
+import graphql.parser.Parser
+import graphql.parser.ParserEnvironment
+import graphql.parser.ParserOptions
+import spock.lang.Specification
+
+class AstCompactorTest extends Specification {
+
+    def query = '''
+        # operation comment
+        "operation description"
+        query HeroName($episode: Episode = JEDI) @live {
+            # field comment
+            hero(episode: $episode, input: {ids: [1, 2.5, "three", null, true]}) {
+                name
+                ... on Droid { primaryFunction }
+                ...heroFields
+            }
+        }
+
+        fragment heroFields on Character @dir(arg: on) { name }
+    '''
+
+    static List<Node> allNodes(Node node) {
+        def nodes = [node]
+        node.children.each { nodes.addAll(allNodes(it)) }
+        return nodes
+    }
+
+    def "compacted documents are equal but lean"() {
+        def document = Parser.parse(ParserEnvironment.newParserEnvironment()
+                .document(query)
+                .parserOptions(ParserOptions.newParserOptions().captureIgnoredChars(true).build())
+                .build())
+
+        when:
+        def compacted = new AstCompactor().compact(document)
+
+        then:
+        AstPrinter.printAst(compacted) == AstPrinter.printAst(document)
+        AstComparator.isEqual(compacted, document)
+        allNodes(document).any { it.sourceLocation != null }
+        allNodes(compacted).every {
+            it.sourceLocation == null && it.comments.isEmpty() && it.ignoredChars.is(IgnoredChars.EMPTY) && it.additionalData.isEmpty()
+        }
+        compacted.definitions[0].description.content == "operation description"
+        compacted.definitions[0].description.sourceLocation == null
+    }
+
+    def "lean parsing builds the same nodes as compacting"() {
+        def parserOptions = ParserOptions.newParserOptions().leanAst(true).recursiveDescentParsing(recursiveDescentParsing).build()
+
+        when:
+        def lean = Parser.parse(ParserEnvironment.newParserEnvironment().document(query).parserOptions(parserOptions).build())
+
+        then:
+        AstPrinter.printAst(lean) == AstPrinter.printAst(Parser.parse(query))
+        allNodes(lean).every { it.sourceLocation == null && it.comments.isEmpty() && it.ignoredChars.is(IgnoredChars.EMPTY) }
+        lean.definitions[0].description.sourceLocation == null
+
+        where:
+        recursiveDescentParsing << [false, true]
+    }
+}
@@ -0,0 +1,226 @@
+package graphql.parser
+
+import graphql.i18n.I18n
+import graphql.language.AstPrinter
+import graphql.language.Document
+import graphql.language.Node
+import graphql.language.ObjectTypeDefinition
+import graphql.parser.exceptions.ParseCancelledException
+import graphql.parser.exceptions.ParseCancelledTooDeepException
+import spock.lang.Specification
+
+class ExecutableDocumentParserTest extends Specification {
+
+    def recursiveDescent = ParserOptions.newParserOptions().recursiveDescentParsing(true).build()
+
+    Document parse(String input, ParserOptions parserOptions) {
+        def environment = ParserEnvironment.newParserEnvironment().document(input).parserOptions(parserOptions).build()
+        return Parser.parse(environment)
+    }
+
+    Document parseHandWritten(String input, ParserOptions parserOptions) {
+        def multiSourceReader = MultiSourceReader.newMultiSourceReader().string(input, null).build()
+        def source = multiSourceReader.text
+        def i18n = I18n.i18n(I18n.BundleType.Parsing, Locale.ENGLISH)
+        return new ExecutableDocumentParser(source, multiSourceReader, parserOptions, i18n).parseDocument()
+    }
+
+    void assertSameAst(Node expected, Node actual) {
+        assert actual.getClass() == expected.getClass()
+        assert actual.isEqualTo(expected)
+        assert actual.sourceLocation == expected.sourceLocation
+        assert actual.comments.collect { [it.content, it.sourceLocation] } == expected.comments.collect { [it.content, it.sourceLocation] }
+        if (expected.hasProperty("description")) {
+            assert actual.description?.content == expected.description?.content
+            assert actual.description?.sourceLocation == expected.description?.sourceLocation
+            assert actual.description?.multiLine == expected.description?.multiLine
+        }
+        def expectedChildren = expected.children
+        def actualChildren = actual.children
+        assert actualChildren.size() == expectedChildren.size()
+        for (int i = 0; i < expectedChildren.size(); i++) {
+            assertSameAst(expectedChildren[i], actualChildren[i])
+        }
+    }
+
+    def "builds the same document as the ANTLR parser"() {
+        when:
+        def antlrDocument = parse(input, ParserOptions.newParserOptions().build())
+        def handWrittenDocument = parseHandWritten(input, recursiveDescent)
+
+        then:
+        handWrittenDocument != null
+        assertSameAst(antlrDocument, handWrittenDocument)
+        AstPrinter.printAst(handWrittenDocument) == AstPrinter.printAst(antlrDocument)
+
+        where:
+        input << [
+                '{ hello }',
+                '''
+                # a comment
+                query HeroName($episode: Episode = JEDI, $withFriends: Boolean! = true) @live {
+                    # another comment
+                    hero(episode: $episode) {
+                        name
+                        friends @include(if: $withFriends) { name }
+                    }
+                }
+                ''',
+                'mutation { createReview(episode: JEDI, review: {stars: 5, commentary: "Great!", tags: ["a", "b"], extra: null}) { stars commentary } }',
+                'subscription OnComment($repo: String!) { commentAdded(repo: $repo) { id content } }',
+                '''
+                query q($ids: [ID!]! = ["1", "2"], $list: [[Int]], $f: Float = -1.5e10, $i: Int = -0) {
+                    alias: field(a: 1, b: 1.0, c: 1e3, d: 0.5E-2, e: "\\u00e9\\u{1F600}\\n", f: """
+                        block
+                          string \\""" with "quotes"
+                    """, g: on, h: query, i: true, j: false)
+                    ... on Droid { primaryFunction }
+                    ... @skip(if: false) { id }
+                    ... { id }
+                    ...fragmentSpread @dir
+                    ...true
+                }
+                fragment fragmentSpread on Character @dir(arg: {nested: {deep: [1, [2, 3], {x: $ids}]}}) { name }
+                fragment true on Query { id }
+                ''',
+                '''
+                "operation description"
+                query described(
+                    """
+                    variable description
+                    """
+                    $var: String @deprecated
+                ) { field }
+                "fragment description" fragment f on Type { id }
+                ''',
+                '{ emoji(s: "\uD83D\uDE00 \\" escaped", t: "") multi: field(x: """\uD83D\uDE00\n  \uD83D\uDE00""") after }',
+                '\uFEFF{ field,,,\r\n\tother\r}',
+                '{ a } # trailing comment',
+                '{ a }\n#comment one\n#comment two\n{ b }',
+                'query on { on: on(on: on) { fragment query mutation subscription type schema null: null } }',
+        ]
+    }
+
+    def "builds the same document as the ANTLR parser with other parser options"() {
+        def input = '''
+            # comment
+            query q($v: Int = 1) {
+                # field comment
+                field(a: $v) { ... on T { id } }
+            }
+        '''
+
+        when:
+        def antlrDocument = parse(input, parserOptions)
+        def handWrittenDocument = parseHandWritten(input, parserOptions.transform({ it.recursiveDescentParsing(true) }))
+
+        then:
+        assertSameAst(antlrDocument, handWrittenDocument)
+
+        where:
+        parserOptions << [
+                ParserOptions.newParserOptions().captureSourceLocation(false).build(),
+                ParserOptions.newParserOptions().captureLineComments(false).build(),
+                ParserOptions.getDefaultOperationParserOptions(),
+        ]
+    }
+
+    def "documents from multiple sources are located in their source"() {
+        def multiSourceReader = MultiSourceReader.newMultiSourceReader()
+                .string("query a {\n  field\n}\n", "a.graphql")
+                .string("# comment\nfragment f on T {\n  id\n}\n", "f.graphql")
+                .trackData(true)
+                .build()
+
+        when:
+        def antlrDocument = Parser.parse(ParserEnvironment.newParserEnvironment().document(multiSourceReader).build())
+        multiSourceReader = MultiSourceReader.newMultiSourceReader()
+                .string("query a {\n  field\n}\n", "a.graphql")
+                .string("# comment\nfragment f on T {\n  id\n}\n", "f.graphql")
+                .trackData(true)
+                .build()
+        def handWrittenDocument = Parser.parse(ParserEnvironment.newParserEnvironment().document(multiSourceReader).parserOptions(recursiveDescent).build())
+
+        then:
+        assertSameAst(antlrDocument, handWrittenDocument)
+        handWrittenDocument.definitions[1].sourceLocation.sourceName == "f.graphql"
+    }
+
+    def "the hand-written parser gives up on what it does not handle"() {
+        expect:
+        parseHandWritten(input, recursiveDescent) == null
+
+        where:
+        input << [
+                'type Query { f : String }',
+                '{ f } extend type Query { g : String }',
+                '"description" { f }',
+                '{ f',
+                '{ f } }',
+                '',
+                '{ f(a: 1.) }',
+                '{ f(a: 00) }',
+                '{ f(a: 1x) }',
+                '{ f(a: "unterminated) }',
+                '{ f(a: "\\x") }',
+                '{ f(a: "\\u{D800}") }',
+                '{ f(a: $) }',
+                'query q($v: Int = $other) { f }',
+                'fragment on on T { f }',
+                '{ f % }',
+        ]
+    }
+
+    def "documents with type system definitions are parsed by the ANTLR parser"() {
+        when:
+        def document = parse('type Query { f : String } { f }', recursiveDescent)
+
+        then:
+        document.definitions.size() == 2
+        document.definitions[0] instanceof ObjectTypeDefinition
+    }
+
+    def "syntax errors are reported like the ANTLR parser reports them"() {
+        when:
+        parse(input, ParserOptions.newParserOptions().build())
+
+        then:
+        def antlrException = thrown(InvalidSyntaxException)
+
+        when:
+        parse(input, recursiveDescent)
+
+        then:
+        def exception = thrown(InvalidSyntaxException)
+        exception.class == antlrException.class
+        exception.message == antlrException.message
+        exception.location == antlrException.location
+
+        where:
+        input << ['{ f', '{ f } }', '', '{ f(a: 00) }', '{ f(a: "\\x") }', '"description" { f }']
+    }
+
+    def "the limits of the parser options are honoured"() {
+        when:
+        parse(input, recursiveDescent.transform(options))
+
+        then:
+        thrown(expectedException)
+
+        where:
+        input                                    | options                              | expectedException
+        '{ a b c d e f }'                        | { it.maxTokens(5) }                  | ParseCancelledException
+        '{ a            b }'                     | { it.maxWhitespaceTokens(5) }        | ParseCancelledException
+        '#1\n#2\n#3\n{ a }'                      | { it.maxTokens(2) }                  | ParseCancelledException
+        '{ a { b { c { d { e } } } } }'          | { it.maxRuleDepth(10) }              | ParseCancelledTooDeepException
+        '{ f(a: [[[[[[[[[[1]]]]]]]]]]) }'        | { it.maxRuleDepth(20) }              | ParseCancelledTooDeepException
+    }
+
+    def "documents within the limits are parsed"() {
+        def input = '{ a { b } }'
+
+        expect:
+        parseHandWritten(input, recursiveDescent.transform({ it.maxTokens(8).maxRuleDepth(14) })) != null
+        parse(input, ParserOptions.newParserOptions().maxTokens(8).maxRuleDepth(14).build()) != null
+    }
+}
@@ -0,0 +1,226 @@
+package graphql.schema
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.instrumentation.Instrumentation
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.VirtualThreadDataFetchingInstrumentation
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.CopyOnWriteArrayList
+
+class BatchedDataFetcherTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            shops : [Shop]
+        }
+        type Shop {
+            id : ID
+            owner : Person
+        }
+        type Person {
+            name : String
+            friend : Person
+        }
+    '''
+
+    def shops = [[id: "s1"], [id: "s2"], [id: "s3"]]
+
+    class RecordingBatchedDataFetcher implements BatchedDataFetcher<Object> {
+        List<List<Object>> batches = new CopyOnWriteArrayList<>()
+        Closure<List<Object>> fetch
+
+        @Override
+        CompletionStage<List<Object>> getBatch(List<DataFetchingEnvironment> environments) throws Exception {
+            def sources = environments.collect { it.getSource() }
+            batches.add(sources)
+            // complete later, like a real batch call would
+            return CompletableFuture.supplyAsync({ fetch(sources) })
+        }
+    }
+
+    def owners = new RecordingBatchedDataFetcher(fetch: { sources -> sources.collect { [name: "owner of " + it.id] } })
+    def friends = new RecordingBatchedDataFetcher(fetch: { sources -> sources.collect { [name: "friend of " + it.name] } })
+
+    GraphQL graphQL(BatchedDataFetcher ownerFetcher, Instrumentation instrumentation = SimplePerformantInstrumentation.INSTANCE) {
+        def schema = TestUtil.schema(sdl, [Query : [shops: { env -> shops } as DataFetcher],
+                                           Shop  : [owner: ownerFetcher],
+                                           Person: [friend: friends]])
+        assert schema.getCodeRegistry().hasBatchedDataFetchers()
+        return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+    }
+
+    def query = '{ shops { id owner { name friend { name } } } }'
+
+    def expectedData = [shops: [
+            [id: "s1", owner: [name: "owner of s1", friend: [name: "friend of owner of s1"]]],
+            [id: "s2", owner: [name: "owner of s2", friend: [name: "friend of owner of s2"]]],
+            [id: "s3", owner: [name: "owner of s3", friend: [name: "friend of owner of s3"]]],
+    ]]
+
+    def "fields of a batched data fetcher are fetched once per level"() {
+        given:
+        def executionInput = ExecutionInput.newExecutionInput(query).build()
+        if (dataLoaderRegistry) {
+            executionInput = executionInput.transform { it.dataLoaderRegistry(new DataLoaderRegistry()) }
+        }
+        configure(executionInput.getGraphQLContext())
+
+        when:
+        def er = graphQL(owners).execute(executionInput)
+
+        then:
+        er.errors.isEmpty()
+        er.data == expectedData
+        owners.batches.size() == 1
+        owners.batches[0]*.id == ["s1", "s2", "s3"]
+        friends.batches.size() == 1
+        friends.batches[0]*.name == ["owner of s1", "owner of s2", "owner of s3"]
+
+        where:
+        strategy     | dataLoaderRegistry | configure
+        "per level"  | false              | { ctx -> }
+        "per level"  | true               | { ctx -> }
+        "exhausted"  | true               | { ctx -> DataLoaderDispatchingContextKeys.setEnableDataLoaderExhaustedDispatching(ctx, true) }
+        "windowed"   | true               | { ctx -> DataLoaderDispatchingContextKeys.setDataLoaderWindowedDispatching(ctx, Duration.ofMillis(500), 100) }
+    }
+
+    def "an exception from a batch is an error on each of its fields"() {
+        given:
+        def failingOwners = new RecordingBatchedDataFetcher(fetch: { sources -> throw new RuntimeException("no owners") })
+
+        when:
+        def er = graphQL(failingOwners).execute(query)
+
+        then:
+        failingOwners.batches.size() == 1
+        er.data == [shops: [[id: "s1", owner: null], [id: "s2", owner: null], [id: "s3", owner: null]]]
+        er.errors.size() == 3
+        er.errors*.path == [["shops", 0, "owner"], ["shops", 1, "owner"], ["shops", 2, "owner"]]
+        er.errors.every { it.message.contains("no owners") }
+        friends.batches.isEmpty()
+    }
+
+    def "a batch with the wrong number of values is an error on each of its fields"() {
+        given:
+        def tooFewOwners = new RecordingBatchedDataFetcher(fetch: { sources -> [[name: "the only owner"]] })
+
+        when:
+        def er = graphQL(tooFewOwners).execute(query)
+
+        then:
+        er.data == [shops: [[id: "s1", owner: null], [id: "s2", owner: null], [id: "s3", owner: null]]]
+        er.errors.size() == 3
+        er.errors.every { it.message.contains("must return one value for each of its 3 environments but it returned 1 values") }
+    }
+
+    def "a batched data fetcher can be called for a single field"() {
+        given:
+        def environment = Mock(DataFetchingEnvironment)
+        environment.getSource() >> [id: "s1"]
+
+        when:
+        def value = owners.get(environment).join()
+
+        then:
+        value == [name: "owner of s1"]
+        owners.batches == [[[id: "s1"]]]
+    }
+
+    def "batched data fetchers registered via a custom factory are batched"() {
+        given:
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Query", "shops"), { env -> shops } as DataFetcher)
+                .dataFetcher(FieldCoordinates.coordinates("Shop", "owner"), { env -> owners } as DataFetcherFactory)
+                .dataFetcher(FieldCoordinates.coordinates("Person", "friend"), friends as DataFetcher)
+        def schema = TestUtil.schema(sdl).transform { it.codeRegistry(codeRegistry.build()) }
+
+        when:
+        def er = GraphQL.newGraphQL(schema).build().execute(query)
+
+        then:
+        // the code registry can not tell what the factory makes, so it assumes a batched data fetcher
+        schema.getCodeRegistry().hasBatchedDataFetchers()
+        er.errors.isEmpty()
+        er.data == expectedData
+        owners.batches.size() == 1
+        friends.batches.size() == 1
+    }
+
+    def "the code registry only has batched data fetchers when a data fetcher is or might be one"() {
+        expect:
+        !GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Shop", "owner"), { env -> [name: "owner"] } as DataFetcher)
+                .build().hasBatchedDataFetchers()
+        GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Shop", "owner"), owners as DataFetcher)
+                .build().hasBatchedDataFetchers()
+    }
+
+    def "without automatic dispatching each field is fetched on its own"() {
+        given:
+        def schema = TestUtil.schema(sdl, [Query : [shops: { env -> shops } as DataFetcher],
+                                           Shop  : [owner: owners],
+                                           Person: [friend: friends]])
+
+        when:
+        def er = GraphQL.newGraphQL(schema).doNotAutomaticallyDispatchDataLoader().build().execute(query)
+
+        then:
+        er.errors.isEmpty()
+        er.data == expectedData
+        owners.batches.size() == 3
+        friends.batches.size() == 3
+    }
+
+    static class WrappingInstrumentation extends SimplePerformantInstrumentation {
+        List<String> calls = new CopyOnWriteArrayList<>()
+
+        @Override
+        DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+            return { env ->
+                calls.add(env.getExecutionStepInfo().getPath().toString())
+                return dataFetcher.get(env)
+            } as DataFetcher
+        }
+    }
+
+    def "instrumentations that wrap data fetchers do not stop batching"() {
+        when:
+        def er = graphQL(owners, instrumentation).execute(query)
+
+        then:
+        er.errors.isEmpty()
+        er.data == expectedData
+        owners.batches.size() == 1
+        friends.batches.size() == 1
+
+        where:
+        instrumentation << [
+                new WrappingInstrumentation(),
+                VirtualThreadDataFetchingInstrumentation.newVirtualThreadDataFetchingInstrumentation().shouldRunOnVirtualThread({ params -> true }).build()
+        ]
+    }
+
+    def "the instrumented data fetchers of batched fields are called for each field"() {
+        given:
+        def instrumentation = new WrappingInstrumentation()
+
+        when:
+        def er = graphQL(owners, instrumentation).execute('{ shops { owner { name } } }')
+
+        then:
+        er.data == [shops: [[owner: [name: "owner of s1"]], [owner: [name: "owner of s2"]], [owner: [name: "owner of s3"]]]]
+        owners.batches.size() == 1
+        instrumentation.calls.findAll { it.endsWith("/owner") } == ["/shops[0]/owner", "/shops[1]/owner", "/shops[2]/owner"]
+    }
+}
@@ -0,0 +1,252 @@
+package graphql.schema
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.GraphqlErrorBuilder
+import graphql.ProfilerResult
+import graphql.TestUtil
+import graphql.execution.DataFetcherResult
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+class FieldResultCacheTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            config(name: String) : String
+            label(name: String) : String
+            items : [Item]
+        }
+        type Item {
+            id : ID
+            details : String
+        }
+    '''
+
+    def configCalls = new AtomicInteger()
+    def detailsCalls = new AtomicInteger()
+
+    def configFetcher = { env ->
+        configCalls.incrementAndGet()
+        return "config of " + env.getArgument("name")
+    } as DataFetcher
+
+    def labelFetcher = { env -> "label of " + env.getArgument("name") } as DataFetcher
+
+    def itemsFetcher = { env -> [[id: "1"], [id: "2"], [id: "1"]] } as DataFetcher
+
+    def detailsFetcher = { env ->
+        detailsCalls.incrementAndGet()
+        return "details of " + env.source.id
+    } as DataFetcher
+
+    GraphQL graphQL(Map<FieldCoordinates, FieldResultCache> caches, DataFetcher detailsFetcher = this.detailsFetcher) {
+        def schema = TestUtil.schema(sdl, [Query: [config: configFetcher, label: labelFetcher, items: itemsFetcher], Item: [details: detailsFetcher]])
+        schema = schema.transform { builder ->
+            builder.codeRegistry(schema.getCodeRegistry().transform { codeRegistry ->
+                caches.each { coordinates, cache -> codeRegistry.fieldResultCache(coordinates, cache) }
+            })
+        }
+        return GraphQL.newGraphQL(schema).build()
+    }
+
+    def configCoordinates = FieldCoordinates.coordinates("Query", "config")
+    def detailsCoordinates = FieldCoordinates.coordinates("Item", "details")
+
+    def "values are cached by arguments"() {
+        given:
+        def graphQL = graphQL([(configCoordinates): FieldResultCache.newFieldResultCache().build()])
+
+        when:
+        def er1 = graphQL.execute('{ config(name: "a") }')
+        def er2 = graphQL.execute('{ config(name: "a") }')
+        def er3 = graphQL.execute('{ config(name: "b") }')
+
+        then:
+        er1.data == [config: "config of a"]
+        er2.data == [config: "config of a"]
+        er3.data == [config: "config of b"]
+        configCalls.get() == 2
+    }
+
+    def "values are cached by source key and cache hits are profiled"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().sourceKey({ source -> source.id }).build()
+        def graphQL = graphQL([(detailsCoordinates): cache])
+
+        when:
+        def er1 = graphQL.execute('{ items { id details } }')
+        def executionInput = ExecutionInput.newExecutionInput('{ items { id details } }').profileExecution(true).build()
+        def er2 = graphQL.execute(executionInput)
+        def profilerResult = executionInput.getGraphQLContext().get(ProfilerResult.PROFILER_CONTEXT_KEY) as ProfilerResult
+
+        then:
+        er1.data == [items: [[id: "1", details: "details of 1"], [id: "2", details: "details of 2"], [id: "1", details: "details of 1"]]]
+        er2.data == er1.data
+        // the third item has the same source key as the first one
+        detailsCalls.get() == 2
+        cache.size() == 2
+        profilerResult.getFieldResultCacheHits() == ["Item.details": 3]
+    }
+
+    def "values are not cached when the source key is null"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().sourceKey({ source -> null }).build()
+        def graphQL = graphQL([(detailsCoordinates): cache])
+
+        when:
+        graphQL.execute('{ items { id details } }')
+        graphQL.execute('{ items { id details } }')
+
+        then:
+        detailsCalls.get() == 6
+        cache.size() == 0
+    }
+
+    def "values are not cached for source objects without a source key"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().build()
+        def graphQL = graphQL([(detailsCoordinates): cache])
+
+        when:
+        def er = graphQL.execute('{ items { id details } }')
+
+        then:
+        er.data == [items: [[id: "1", details: "details of 1"], [id: "2", details: "details of 2"], [id: "1", details: "details of 1"]]]
+        detailsCalls.get() == 3
+        cache.size() == 0
+    }
+
+    def "values are not cached for a root object without a source key"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().build()
+        def graphQL = graphQL([(configCoordinates): cache])
+
+        when:
+        graphQL.execute(ExecutionInput.newExecutionInput('{ config(name: "a") }').root([tenant: "a"]).build())
+        graphQL.execute(ExecutionInput.newExecutionInput('{ config(name: "a") }').root([tenant: "b"]).build())
+
+        then:
+        configCalls.get() == 2
+        cache.size() == 0
+    }
+
+    def "values expire after their time to live"() {
+        given:
+        def graphQL = graphQL([(configCoordinates): FieldResultCache.newFieldResultCache().timeToLive(Duration.ofMillis(50)).build()])
+
+        when:
+        graphQL.execute('{ config(name: "a") }')
+        Thread.sleep(100)
+        def er = graphQL.execute('{ config(name: "a") }')
+
+        then:
+        er.data == [config: "config of a"]
+        configCalls.get() == 2
+    }
+
+    def "the least recently used value is dropped when the cache is full"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().maximumSize(2).build()
+        def graphQL = graphQL([(configCoordinates): cache])
+
+        when:
+        graphQL.execute('{ config(name: "a") }')
+        graphQL.execute('{ config(name: "b") }')
+        graphQL.execute('{ config(name: "a") }')
+        graphQL.execute('{ config(name: "c") }')
+
+        then:
+        configCalls.get() == 3
+        cache.size() == 2
+
+        when:
+        graphQL.execute('{ config(name: "a") }')
+        graphQL.execute('{ config(name: "b") }')
+
+        then:
+        configCalls.get() == 4
+    }
+
+    def "values with errors and failed fetches are not cached"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().sourceKey({ source -> source.id }).build()
+        def failingFetcher = { env ->
+            detailsCalls.incrementAndGet()
+            if (env.source.id == "1") {
+                throw new RuntimeException("bang")
+            }
+            return DataFetcherResult.newResult().data("partial").error(GraphqlErrorBuilder.newError(env).message("partly failed").build()).build()
+        } as DataFetcher
+        def graphQL = graphQL([(detailsCoordinates): cache], failingFetcher)
+
+        when:
+        def er = graphQL.execute('{ items { id details } }')
+
+        then:
+        er.errors.size() == 3
+        cache.size() == 0
+    }
+
+    def "cache hits do not use data loaders"() {
+        given:
+        def batchLoads = new AtomicInteger()
+        BatchLoader<String, String> batchLoader = { keys ->
+            batchLoads.incrementAndGet()
+            CompletableFuture.completedFuture(keys.collect { "loaded " + it })
+        }
+        def dataLoaderFetcher = { env -> env.getDataLoader("details").load(env.source.id) } as DataFetcher
+        def cache = FieldResultCache.newFieldResultCache().sourceKey({ source -> source.id }).build()
+        def graphQL = graphQL([(detailsCoordinates): cache], dataLoaderFetcher)
+        def executionInput = {
+            def registry = new DataLoaderRegistry()
+            registry.register("details", DataLoaderFactory.newDataLoader(batchLoader))
+            ExecutionInput.newExecutionInput('{ items { id details } }').dataLoaderRegistry(registry).build()
+        }
+
+        when:
+        def er1 = graphQL.execute(executionInput())
+        def er2 = graphQL.execute(executionInput())
+
+        then:
+        er1.data == [items: [[id: "1", details: "loaded 1"], [id: "2", details: "loaded 2"], [id: "1", details: "loaded 1"]]]
+        er2.data == er1.data
+        batchLoads.get() == 1
+    }
+
+    def "a cache registered for several fields keeps their values apart"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().build()
+        def graphQL = graphQL([(configCoordinates): cache, (FieldCoordinates.coordinates("Query", "label")): cache])
+
+        when:
+        def er1 = graphQL.execute('{ config(name: "a") label(name: "a") }')
+        def er2 = graphQL.execute('{ config(name: "a") label(name: "a") }')
+
+        then:
+        er1.data == [config: "config of a", label: "label of a"]
+        er2.data == [config: "config of a", label: "label of a"]
+        configCalls.get() == 1
+        cache.size() == 2
+    }
+
+    def "caches are kept when the code registry is transformed"() {
+        given:
+        def cache = FieldResultCache.newFieldResultCache().build()
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry().fieldResultCache(configCoordinates, cache).build()
+
+        when:
+        def transformed = codeRegistry.transform { it.dataFetcher(configCoordinates, configFetcher) }
+
+        then:
+        transformed.getFieldResultCache(configCoordinates) == cache
+        transformed.getFieldResultCache("Query", "config") == cache
+        transformed.getFieldResultCache(detailsCoordinates) == null
+    }
+}
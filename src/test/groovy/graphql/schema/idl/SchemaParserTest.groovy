@@ -5,11 +5,14 @@ import graphql.language.EnumTypeDefinition
 import graphql.language.InterfaceTypeDefinition
 import graphql.language.ObjectTypeDefinition
 import graphql.language.ScalarTypeDefinition
+import graphql.parser.MultiSourceReader
 import graphql.parser.ParserOptions
 import graphql.schema.idl.errors.SchemaProblem
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.ForkJoinPool
+
 import static graphql.schema.idl.SchemaPrinter.Options.defaultOptions
 
 /**
@@ -490,4 +493,88 @@ type Virus {
         thrown(SchemaProblem)
     }
 
+    static MultiSourceReader sources(Map<String, String> sources) {
+        def reader = MultiSourceReader.newMultiSourceReader()
+        sources.each { name, sdl -> reader.string(sdl, name) }
+        return reader.build()
+    }
+
+    def "sources parsed in parallel build the same registry as parsed together"() {
+        def parts = [
+                "query.graphqls"  : "type Query {\n  hero : Character\n}\n",
+                "types.graphqls"  : "interface Character {\n  name : String\n}\ntype Droid implements Character {\n  name : String\n}\n",
+                "extend.graphqls" : "extend type Query {\n  droid : Droid\n}\ndirective @cached on FIELD_DEFINITION\n",
+        ]
+
+        when:
+        def serial = new SchemaParser().parse(sources(parts), null)
+        def parallel = new SchemaParser().parseInParallel(sources(parts), null, ForkJoinPool.commonPool())
+
+        then:
+        parallel.types().keySet().toList() == serial.types().keySet().toList()
+        parallel.objectTypeExtensions().keySet() == serial.objectTypeExtensions().keySet()
+        parallel.getDirectiveDefinitions().keySet() == serial.getDirectiveDefinitions().keySet()
+        parallel.types().get("Droid").sourceLocation == serial.types().get("Droid").sourceLocation
+        parallel.types().get("Droid").sourceLocation.sourceName == "types.graphqls"
+        parallel.types().get("Droid").sourceLocation.line == 4
+    }
+
+    def "sources parsed in parallel report the same errors as parsed together"() {
+        when:
+        new SchemaParser().parse(sources(parts), null)
+
+        then:
+        def serialProblem = thrown(SchemaProblem)
+
+        when:
+        new SchemaParser().parseInParallel(sources(parts), null, ForkJoinPool.commonPool())
+
+        then:
+        def parallelProblem = thrown(SchemaProblem)
+        parallelProblem.errors*.message == serialProblem.errors*.message
+        parallelProblem.errors*.locations == serialProblem.errors*.locations
+
+        where:
+        parts << [
+                ["a.graphqls": "type Query {\n  a : String\n}\n", "b.graphqls": "type Query {\n  b : String\n}\n", "c.graphqls": "type Query {\n  c : String\n}\n"],
+                ["a.graphqls": "type Query {\n  a : String\n}\n", "b.graphqls": "type Foo {\n  b : \n}\n", "c.graphqls": "type Bar {\n  }\n"],
+                ["a.graphqls": "type Query {\n  a : String\n}\n", "b.graphqls": "query { a }\n"],
+        ]
+    }
+
+    def "sources without definitions are skipped when parsed in parallel"() {
+        def parts = [
+                "query.graphqls"   : "type Query {\n  hero : Droid\n}\n",
+                "empty.graphqls"   : "",
+                "comments.graphqls": "# nothing to see here\n,\n  # or here\n",
+                "droid.graphqls"   : "type Droid {\n  name : String\n}\n",
+        ]
+
+        when:
+        def serial = new SchemaParser().parse(sources(parts), null)
+        def parallel = new SchemaParser().parseInParallel(sources(parts), null, ForkJoinPool.commonPool())
+
+        then:
+        parallel.types().keySet().toList() == serial.types().keySet().toList()
+        parallel.types().get("Droid").sourceLocation.sourceName == "droid.graphqls"
+        parallel.types().get("Droid").sourceLocation.line == 1
+    }
+
+    def "schema files can be parsed in parallel"() {
+        def dir = File.createTempDir()
+        def query = new File(dir, "query.graphqls")
+        query.text = "type Query {\n  hero : Droid\n}\n"
+        def droid = new File(dir, "droid.graphqls")
+        droid.text = "type Droid {\n  name : String\n}\n"
+
+        when:
+        def registry = new SchemaParser().parseInParallel([query, droid])
+
+        then:
+        registry.types().keySet() == ["Query", "Droid"] as Set
+        registry.types().get("Droid").sourceLocation.sourceName == droid.path
+
+        cleanup:
+        dir.deleteDir()
+    }
 }
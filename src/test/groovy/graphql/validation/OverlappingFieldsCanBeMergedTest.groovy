@@ -1059,5 +1059,77 @@ class OverlappingFieldsCanBeMergedTest extends Specification {
 
     }
 
+    def 'fragments spread into many places are checked wherever they are merged'() {
+        def query = """
+        {
+            f1 { ...A ...C }
+            f2 { ...B ...C }
+            f3 { ...A ...B }
+        }
+        fragment A on Type {
+            x: a
+        }
+        fragment B on Type {
+            x: a
+            y: b
+        }
+        fragment C on Type {
+            ...A
+            y: c
+        }
+        """
+        def schema = schema('''
+        type Type {
+            a: String
+            b: String
+            c: String
+        }
+        type Query {
+            f1: Type
+            f2: Type
+            f3: Type
+        }
+        ''')
+
+        when:
+        traverse(query, schema)
+
+        then:
+        errorCollector.getErrors().size() == 1
+        errorCollector.getErrors()[0].message == "Validation error (FieldsConflict) : 'f2/y' : 'b' and 'c' are different fields"
+        errorCollector.getErrors()[0].locations == [new SourceLocation(12, 13), new SourceLocation(16, 13)]
+    }
 
+    def 'fragment cycles do not stop conflicts from being found'() {
+        def query = """
+        {
+            ...A
+        }
+        fragment A on Type {
+            x: a
+            ...B
+        }
+        fragment B on Type {
+            x: b
+            ...A
+        }
+        """
+        def schema = schema('''
+        type Type {
+            a: String
+            b: String
+        }
+        schema {
+           query: Type
+        }
+        ''')
+
+        when:
+        traverse(query, schema)
+
+        then:
+        errorCollector.getErrors().size() == 1
+        errorCollector.getErrors()[0].message == "Validation error (FieldsConflict) : 'x' : 'a' and 'b' are different fields"
+        errorCollector.getErrors()[0].locations == [new SourceLocation(6, 13), new SourceLocation(10, 13)]
+    }
 }
@@ -0,0 +1,124 @@
+package graphql.validation
+
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.parser.Parser
+import spock.lang.Specification
+
+class ValidationCacheTest extends Specification {
+
+    def schema = TestUtil.schema("""
+        type Query {
+            field(arg : Int, name : String, color : Color) : String
+            nested : Query
+        }
+        enum Color { RED, GREEN }
+    """)
+
+    def validate(ValidationCache cache, String query, QueryComplexityLimits limits = null) {
+        cache.validate(schema, new Parser().parseDocument(query), { r -> true }, Locale.ENGLISH, limits)
+    }
+
+    def "documents that only differ in their literal values share an entry"() {
+        def cache = ValidationCache.newValidationCache().build()
+
+        when:
+        def errors1 = validate(cache, '{ field(arg : 1, name : "a", color : RED) }')
+        def errors2 = validate(cache, '{ field(arg : 2, name : "b", color : GREEN) }')
+
+        then:
+        errors1.isEmpty()
+        errors2.isEmpty()
+        cache.size() == 1
+        cache.getMissCount() == 1
+        cache.getHitCount() == 1
+    }
+
+    def "literal values are still validated on a hit"() {
+        def cache = ValidationCache.newValidationCache().build()
+
+        when:
+        validate(cache, '{ field(arg : 1, color : RED) }')
+        def errors = validate(cache, '{ field(arg : 2147483648, color : BLUE) }')
+
+        then:
+        cache.getHitCount() == 1
+        errors.size() == 2
+        errors.every { it.validationErrorType == ValidationErrorType.WrongType }
+    }
+
+    def "equal literals stay equal in the shape"() {
+        def cache = ValidationCache.newValidationCache().build()
+
+        when:
+        validate(cache, '{ a : field(arg : 1) a : field(arg : 1) }')
+        def errors = validate(cache, '{ a : field(arg : 1) a : field(arg : 2) }')
+
+        then:
+        cache.getHitCount() == 0
+        errors.size() == 1
+        errors[0].validationErrorType == ValidationErrorType.FieldsConflict
+    }
+
+    def "documents with errors are not cached"() {
+        def cache = ValidationCache.newValidationCache().build()
+
+        when:
+        def errors1 = validate(cache, '{ unknown }')
+        def errors2 = validate(cache, '{ unknown }')
+
+        then:
+        errors1.size() == 1
+        errors2.size() == 1
+        cache.size() == 0
+        cache.getMissCount() == 2
+    }
+
+    def "complexity limits are part of the key"() {
+        def cache = ValidationCache.newValidationCache().build()
+        def query = '{ nested { nested { field } } }'
+
+        when:
+        def errors1 = validate(cache, query)
+        def errors2 = validate(cache, query, QueryComplexityLimits.newLimits().maxDepth(2).build())
+
+        then:
+        errors1.isEmpty()
+        errors2.size() == 1
+        errors2[0].validationErrorType == ValidationErrorType.MaxQueryDepthExceeded
+    }
+
+    def "evicts least recently used entries and is invalidated by a new schema"() {
+        def cache = ValidationCache.newValidationCache().maximumSize(2).build()
+
+        when:
+        validate(cache, '{ field }')
+        validate(cache, '{ nested { field } }')
+        validate(cache, '{ nested { nested { field } } }')
+
+        then:
+        cache.size() == 2
+
+        when:
+        cache.validate(TestUtil.schema("type Query { field : String }"), new Parser().parseDocument('{ field }'), { r -> true }, Locale.ENGLISH, null)
+
+        then:
+        cache.size() == 1
+    }
+
+    def "works end to end with GraphQL"() {
+        def cache = ValidationCache.newValidationCache().build()
+        def graphQL = GraphQL.newGraphQL(schema).validationCache(cache).build()
+
+        when:
+        def result1 = graphQL.execute('{ field(arg : 1) }')
+        def result2 = graphQL.execute('{ field(arg : 2) }')
+        def result3 = graphQL.execute('{ field(arg : "x") }')
+
+        then:
+        result1.errors.isEmpty()
+        result2.errors.isEmpty()
+        result3.errors.size() == 1
+        cache.getHitCount() == 1
+    }
+}